@@ -0,0 +1,12 @@
+package com.fxpayment.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// Shared secret for the /api/v1/admin endpoints; blank disables them.
+@ConfigurationProperties(prefix = "app.admin")
+public record AdminProperties(String token) {
+
+    public boolean enabled() {
+        return token != null && !token.isBlank();
+    }
+}
@@ -1,5 +1,8 @@
 package com.fxpayment.config;
 
+import com.fxpayment.repository.CurrencyRepository;
+import com.fxpayment.repository.FeeScheduleBandRepository;
+import com.fxpayment.service.CurrencyLookupService;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -24,26 +27,37 @@ public class CacheConfig {
     @Bean
     @ConditionalOnProperty(name = "app.cache.enabled", matchIfMissing = true)
     public CacheManager cacheManager() {
-        CacheProperties.CurrencyProperties currency = cacheProperties.currency();
         CacheProperties.IdempotencyProperties idempotency = cacheProperties.idempotency();
+        CacheProperties.PaymentByIdProperties paymentById = cacheProperties.paymentById();
 
         SimpleCacheManager manager = new SimpleCacheManager();
         manager.setCaches(List.of(
-                buildCurrencyCache("allCurrencies", currency),
-                buildCurrencyCache("currencyByCode", currency),
                 new CaffeineCache("idempotencyKeys", Caffeine.newBuilder()
                         .maximumSize(idempotency.maxSize())
                         .expireAfterWrite(idempotency.ttl())
+                        .build()),
+                new CaffeineCache("paymentById", Caffeine.newBuilder()
+                        .maximumSize(paymentById.maxSize())
                         .build())
         ));
 
         return manager;
     }
 
-    private CaffeineCache buildCurrencyCache(String name, CacheProperties.CurrencyProperties props) {
-        return new CaffeineCache(name, Caffeine.newBuilder()
-                .maximumSize(props.maxSize())
-                .expireAfterWrite(props.ttl())
-                .build());
+    // Currencies are not in the CacheManager: they live in one CurrencyRegistry snapshot.
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.enabled", matchIfMissing = true)
+    public CurrencyLookupService currencyLookupService(CurrencyRepository currencyRepository,
+                                                       FeeScheduleBandRepository feeScheduleBandRepository) {
+        return new CurrencyLookupService(currencyRepository, feeScheduleBandRepository,
+                cacheProperties.currency().refreshAfter());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.enabled", havingValue = "false")
+    public CurrencyLookupService uncachedCurrencyLookupService(CurrencyRepository currencyRepository,
+                                                               FeeScheduleBandRepository feeScheduleBandRepository) {
+        return CurrencyLookupService.uncached(currencyRepository, feeScheduleBandRepository,
+                cacheProperties.currency().uncachedMaxAge());
     }
 }
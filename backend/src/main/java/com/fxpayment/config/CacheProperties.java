@@ -7,9 +7,16 @@ import java.time.Duration;
 @ConfigurationProperties(prefix = "cache")
 public record CacheProperties(
         CurrencyProperties currency,
-        IdempotencyProperties idempotency
+        IdempotencyProperties idempotency,
+        PaymentByIdProperties paymentById
 ) {
-    public record CurrencyProperties(Duration ttl, long maxSize) {}
+    // A currency registry read after refreshAfter is reloaded in the background while
+    // readers keep getting the old one. There is no TTL: the registry is the whole table.
+    // With app.cache.enabled=false, a registry older than uncachedMaxAge is reloaded inline.
+    public record CurrencyProperties(Duration refreshAfter, Duration uncachedMaxAge) {}
 
     public record IdempotencyProperties(Duration ttl, long maxSize) {}
+
+    // No TTL: cached payment responses are immutable.
+    public record PaymentByIdProperties(long maxSize) {}
 }
@@ -0,0 +1,18 @@
+package com.fxpayment.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "fx")
+public record FxProperties(
+        RateProperties rates,
+        QuoteProperties quotes
+) {
+    public record RateProperties(Duration refreshInterval) {}
+
+    // spread is the fraction of the mid rate kept on every conversion (0.005 = 0.5%).
+    // A quote is held for ttl; expired quotes are deleted every purgeInterval.
+    public record QuoteProperties(Duration ttl, Duration purgeInterval, BigDecimal spread) {}
+}
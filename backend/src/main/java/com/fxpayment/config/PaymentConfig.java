@@ -0,0 +1,21 @@
+package com.fxpayment.config;
+
+import com.fxpayment.dto.CreatePaymentResult;
+import com.fxpayment.util.SingleFlight;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.util.UUID;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties({PaymentProperties.class, FxProperties.class})
+public class PaymentConfig {
+
+    @Bean
+    public SingleFlight<UUID, CreatePaymentResult> paymentSingleFlight(PaymentProperties paymentProperties) {
+        return new SingleFlight<>(paymentProperties.singleFlight().followerTimeout());
+    }
+}
@@ -0,0 +1,39 @@
+package com.fxpayment.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "payments")
+public record PaymentProperties(
+        ListingProperties listing,
+        BatchProperties batch,
+        IdempotencyFilterProperties idempotencyFilter,
+        SingleFlightProperties singleFlight,
+        IdempotencyStoreProperties idempotencyStore,
+        ProcessingProperties processing,
+        StreamProperties stream,
+        RollupProperties rollups
+) {
+    public record ListingProperties(Duration countRefreshInterval) {}
+
+    public record BatchProperties(int flushSize) {}
+
+    public record IdempotencyFilterProperties(boolean enabled, long expectedInsertions, double falsePositiveRate) {}
+
+    public record SingleFlightProperties(Duration followerTimeout) {}
+
+    public record IdempotencyStoreProperties(boolean sharedEnabled, Duration retention, Duration purgeInterval) {}
+
+    // async: POST /payments persists PENDING and answers 202; workers settle it later.
+    // Workers only start when async is on; with it off nothing is left PENDING to poll for.
+    public record ProcessingProperties(boolean async, int workers, int claimBatchSize,
+                                       Duration pollInterval, Duration leaseTimeout) {}
+
+    // foldInterval: how long rollup deltas wait in the journal; foldBatchSize: entries per
+    // fold transaction.
+    public record RollupProperties(Duration foldInterval, int foldBatchSize) {}
+
+    // bufferSize: events a subscriber may fall behind before it is disconnected.
+    public record StreamProperties(int bufferSize, Duration heartbeatInterval, Duration timeout) {}
+}
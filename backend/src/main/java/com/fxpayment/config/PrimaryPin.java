@@ -0,0 +1,42 @@
+package com.fxpayment.config;
+
+// Marks reads on the current thread as needing the primary even inside read-only
+// transactions. Set for the duration of a request by ReadYourWritesFilter. The pin is a
+// ThreadLocal, so work a request hands to another thread only keeps it through propagate:
+// ReplicaRoutingConfig installs that as the task decorator of the application executor,
+// which runs MVC async work such as a streamed export body. Threads the application starts
+// itself (payment workers, the batch's validation threads) are never pinned; the workers
+// only write, and batch validation does not touch the database.
+public final class PrimaryPin {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private PrimaryPin() {}
+
+    public static boolean isPinned() {
+        return PINNED.get() != null;
+    }
+
+    static void pin() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    static void unpin() {
+        PINNED.remove();
+    }
+
+    // Captures the pin of the submitting thread and holds it while the task runs.
+    static Runnable propagate(Runnable task) {
+        if (!isPinned()) {
+            return task;
+        }
+        return () -> {
+            pin();
+            try {
+                task.run();
+            } finally {
+                unpin();
+            }
+        };
+    }
+}
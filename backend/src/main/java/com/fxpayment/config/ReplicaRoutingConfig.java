@@ -0,0 +1,88 @@
+package com.fxpayment.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+// Sends read-only transactions to the read replicas and everything else to the primary.
+// The application DataSource is a LazyConnectionDataSourceProxy: it hands out a connection
+// handle at transaction begin, records setReadOnly(true) for read-only transactions, and
+// only acquires the physical connection - from the replica side if read-only - on the first
+// statement. JPA, the JDBC repositories and Flyway all see this one DataSource.
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas[0].url")
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+public class ReplicaRoutingConfig {
+
+    @Bean(defaultCandidate = false)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(defaultCandidate = false)
+    public ReplicaDataSource replicaDataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                               ReplicaRoutingProperties properties) {
+        List<HikariDataSource> pools = properties.replicas().stream()
+                .map(replica -> replicaPool(replica, properties.connectionTimeout()))
+                .toList();
+        log.info("Read replica routing enabled: replicas={}, readYourWritesWindow={}",
+                pools.size(), properties.readYourWritesWindow());
+        return new ReplicaDataSource(primaryDataSource, pools);
+    }
+
+    // A down replica must fail fast, since requests wait on it before falling back; it must
+    // also not block startup, so the pool connects lazily.
+    private static HikariDataSource replicaPool(ReplicaRoutingProperties.ReplicaProperties replica,
+                                                Duration connectionTimeout) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl(replica.url());
+        pool.setUsername(replica.username());
+        pool.setPassword(replica.password());
+        pool.setConnectionTimeout(connectionTimeout.toMillis());
+        pool.setInitializationFailTimeout(-1);
+        pool.setReadOnly(true);
+        return pool;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primaryDataSource);
+        proxy.setReadOnlyDataSource(replicaDataSource);
+        return proxy;
+    }
+
+    // Picked up by the application task executor, so a streamed export written on an MVC
+    // async thread reads from the same side as the request that started it.
+    @Bean
+    public TaskDecorator primaryPinTaskDecorator() {
+        return PrimaryPin::propagate;
+    }
+
+    // A zero window turns read-your-writes off.
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReplicaRoutingProperties properties) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(properties.readYourWritesWindow()));
+        registration.setEnabled(!properties.readYourWritesWindow().isZero());
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
@@ -0,0 +1,18 @@
+package com.fxpayment.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+// Read replicas for read-only transactions. Routing is only installed when at least one
+// replica is configured; the primary stays spring.datasource.
+@ConfigurationProperties(prefix = "app.datasource")
+public record ReplicaRoutingProperties(
+        List<ReplicaProperties> replicas,
+        Duration healthCheckInterval,
+        Duration connectionTimeout,
+        Duration readYourWritesWindow
+) {
+    public record ReplicaProperties(String url, String username, String password) {}
+}
@@ -19,6 +19,7 @@ public class StartupConfigLogger {
     private final Environment environment;
     private final CorsProperties corsProperties;
     private final CacheProperties cacheProperties;
+    private final PaymentProperties paymentProperties;
 
     @EventListener(ApplicationReadyEvent.class)
     public void logConfiguration() {
@@ -32,18 +33,59 @@ public class StartupConfigLogger {
         log.debug("CORS allowed origins: {}", corsProperties.allowedOrigins());
         log.debug("CORS allowed methods: {}", corsProperties.allowedMethods());
         logCacheConfig();
+        logPaymentConfig();
         log.debug("=================================");
     }
 
     private void logCacheConfig() {
         if (cacheProperties.currency() != null) {
-            log.debug("Cache currency TTL: {}, max-size: {}",
-                    cacheProperties.currency().ttl(), cacheProperties.currency().maxSize());
+            log.debug("Currency registry refresh-after: {}, uncached max-age: {}",
+                    cacheProperties.currency().refreshAfter(), cacheProperties.currency().uncachedMaxAge());
         }
         if (cacheProperties.idempotency() != null) {
             log.debug("Cache idempotency TTL: {}, max-size: {}",
                     cacheProperties.idempotency().ttl(), cacheProperties.idempotency().maxSize());
         }
+        if (cacheProperties.paymentById() != null) {
+            log.debug("Cache payment-by-id max-size: {}", cacheProperties.paymentById().maxSize());
+        }
+    }
+
+    private void logPaymentConfig() {
+        if (paymentProperties.listing() != null) {
+            log.debug("Payment count estimate refresh interval: {}", paymentProperties.listing().countRefreshInterval());
+        }
+        if (paymentProperties.batch() != null) {
+            log.debug("Payment batch flush size: {}", paymentProperties.batch().flushSize());
+        }
+        if (paymentProperties.idempotencyFilter() != null) {
+            log.debug("Idempotency key filter enabled: {}, expected insertions: {}, false-positive rate: {}",
+                    paymentProperties.idempotencyFilter().enabled(),
+                    paymentProperties.idempotencyFilter().expectedInsertions(),
+                    paymentProperties.idempotencyFilter().falsePositiveRate());
+        }
+        if (paymentProperties.singleFlight() != null) {
+            log.debug("Payment single-flight follower timeout: {}", paymentProperties.singleFlight().followerTimeout());
+        }
+        if (paymentProperties.idempotencyStore() != null) {
+            log.debug("Shared idempotency store enabled: {}, retention: {}, purge interval: {}",
+                    paymentProperties.idempotencyStore().sharedEnabled(),
+                    paymentProperties.idempotencyStore().retention(),
+                    paymentProperties.idempotencyStore().purgeInterval());
+        }
+        if (paymentProperties.processing() != null) {
+            log.debug("Payment processing async: {}, workers: {}, claim batch size: {}, poll interval: {}, lease timeout: {}",
+                    paymentProperties.processing().async(),
+                    paymentProperties.processing().workers(),
+                    paymentProperties.processing().claimBatchSize(),
+                    paymentProperties.processing().pollInterval(),
+                    paymentProperties.processing().leaseTimeout());
+        }
+        if (paymentProperties.rollups() != null) {
+            log.debug("Rollup journal fold interval: {}, batch size: {}",
+                    paymentProperties.rollups().foldInterval(),
+                    paymentProperties.rollups().foldBatchSize());
+        }
     }
 
     static String maskCredentials(String url) {
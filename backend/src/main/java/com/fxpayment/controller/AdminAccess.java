@@ -0,0 +1,27 @@
+package com.fxpayment.controller;
+
+import com.fxpayment.config.AdminProperties;
+import com.fxpayment.exception.AdminAccessDeniedException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+// Token check shared by the admin controllers.
+final class AdminAccess {
+
+    static final String ADMIN_TOKEN_HEADER = "X-Admin-Token";
+
+    private AdminAccess() {
+    }
+
+    static void require(AdminProperties adminProperties, String token) {
+        if (!adminProperties.enabled()) {
+            throw new AdminAccessDeniedException("Admin API is disabled");
+        }
+        // Constant-time comparison, so response timing does not leak the token.
+        if (token == null || !MessageDigest.isEqual(
+                token.getBytes(StandardCharsets.UTF_8), adminProperties.token().getBytes(StandardCharsets.UTF_8))) {
+            throw new AdminAccessDeniedException("Invalid admin token");
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.fxpayment.controller;
+
+import com.fxpayment.config.AdminProperties;
+import com.fxpayment.dto.CurrencyFeeResponse;
+import com.fxpayment.dto.CurrencyFeeUpdate;
+import com.fxpayment.service.CurrencyAdminService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Pattern;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+// Operator endpoints. There is no user authentication yet, so they require the shared
+// secret from app.admin.token and are refused outright while it is unset.
+@Slf4j
+@RestController
+@RequestMapping(path = "/api/v1/admin/currencies", produces = MediaType.APPLICATION_JSON_VALUE)
+@RequiredArgsConstructor
+@Validated
+public class CurrencyAdminController {
+
+    private final CurrencyAdminService currencyAdminService;
+    private final AdminProperties adminProperties;
+
+    @PutMapping("/{code}/fees")
+    public ResponseEntity<CurrencyFeeResponse> updateFees(
+            @RequestHeader(name = AdminAccess.ADMIN_TOKEN_HEADER, required = false) String token,
+            @PathVariable @Pattern(regexp = "^[A-Z]{3}$", message = "currency must be a 3-letter ISO 4217 code") String code,
+            @Valid @RequestBody CurrencyFeeUpdate update) {
+        AdminAccess.require(adminProperties, token);
+        log.info("Received currency fee update: code={}", code);
+        return ResponseEntity.ok(currencyAdminService.updateFees(code, update));
+    }
+}
@@ -1,26 +1,64 @@
 package com.fxpayment.controller;
 
-import com.fxpayment.dto.CurrencyResponse;
 import com.fxpayment.service.CurrencyService;
+import com.fxpayment.util.PrerenderedJson;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
+import java.util.Arrays;
+import java.util.regex.Pattern;
 
 @RestController
 @RequestMapping(path = "/api/v1/currencies", produces = MediaType.APPLICATION_JSON_VALUE)
 @RequiredArgsConstructor
 public class CurrencyController {
 
+    private static final String GZIP = "gzip";
+    private static final Pattern ZERO_QUALITY = Pattern.compile("^q=0(\\.0{0,3})?$");
+
     private final CurrencyService currencyService;
 
+    // Served as bytes rendered once per currency cache generation: no mapping, Jackson or
+    // compression per request. A matching If-None-Match is answered with 304 from the same
+    // in-memory snapshot. Each encoding has its own strong ETag, as the bytes differ.
     @GetMapping
-    public ResponseEntity<List<CurrencyResponse>> getAllCurrencies() {
-        List<CurrencyResponse> currencies = currencyService.getAllCurrencies();
-        return ResponseEntity.ok(currencies);
+    public ResponseEntity<byte[]> getAllCurrencies(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest request) {
+        PrerenderedJson rendered = currencyService.getRenderedCurrencies();
+        boolean gzip = acceptsGzip(acceptEncoding);
+        String etag = gzip ? rendered.version() + "-" + GZIP : rendered.version();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, GZIP).body(rendered.gzip());
+        }
+        return response.body(rendered.identity());
+    }
+
+    // Accept-Encoding is a list of codings with optional weights; q=0 means "not acceptable".
+    // Only an explicit gzip entry counts, so a wildcard never changes what a client receives.
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if (parts[0].trim().equalsIgnoreCase(GZIP)) {
+                return Arrays.stream(parts).skip(1).map(String::trim).noneMatch(ZERO_QUALITY.asPredicate());
+            }
+        }
+        return false;
     }
 }
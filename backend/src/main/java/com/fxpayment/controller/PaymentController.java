@@ -1,28 +1,54 @@
 package com.fxpayment.controller;
 
+import com.fxpayment.dto.BatchPaymentItem;
+import com.fxpayment.dto.BatchPaymentResponse;
 import com.fxpayment.dto.CreatePaymentResult;
+import com.fxpayment.dto.CursorPage;
+import com.fxpayment.dto.PaymentFilter;
 import com.fxpayment.dto.PaymentRequest;
 import com.fxpayment.dto.PaymentResponse;
+import com.fxpayment.dto.PaymentStatusResponse;
+import com.fxpayment.dto.PaymentSummaryFilter;
+import com.fxpayment.dto.PaymentSummaryResponse;
+import com.fxpayment.dto.SliceResponse;
+import com.fxpayment.service.BatchPaymentService;
+import com.fxpayment.service.PaymentExportFormat;
+import com.fxpayment.service.PaymentExportService;
+import com.fxpayment.service.PaymentRollupService;
 import com.fxpayment.service.PaymentService;
 import com.fxpayment.util.PaymentConstants;
 import com.fxpayment.validation.ValidUuid;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.util.List;
+import java.util.UUID;
 
 @Slf4j
 @RestController
@@ -32,6 +58,9 @@ import org.springframework.web.bind.annotation.RestController;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final BatchPaymentService batchPaymentService;
+    private final PaymentExportService paymentExportService;
+    private final PaymentRollupService paymentRollupService;
 
     @PostMapping
     public ResponseEntity<PaymentResponse> createPayment(
@@ -42,21 +71,154 @@ public class PaymentController {
         log.info("Received payment request: currency={}, idempotencyKey={}",
                 request.currency(), idempotencyKey);
 
-        CreatePaymentResult result = paymentService.createPayment(idempotencyKey, request);
+        CreatePaymentResult result = paymentService.createPayment(UUID.fromString(idempotencyKey), request);
 
+        if (result.pending()) {
+            URI statusUri = ServletUriComponentsBuilder.fromCurrentRequestUri()
+                    .path("/{id}/status").buildAndExpand(result.response().id()).toUri();
+            log.info("Payment accepted: id={}", result.response().id());
+            return ResponseEntity.accepted().location(statusUri).body(result.response());
+        }
         HttpStatus status = result.created() ? HttpStatus.CREATED : HttpStatus.OK;
         log.info("Payment {}: id={}",
                 result.created() ? "created" : "replayed", result.response().id());
         return ResponseEntity.status(status).body(result.response());
     }
 
+    // Items are validated individually by the service so one bad item is reported in
+    // its result instead of failing the whole batch.
+    @PostMapping("/batch")
+    public ResponseEntity<BatchPaymentResponse> createPayments(
+            @RequestBody
+            @NotEmpty(message = "Batch must contain at least one payment")
+            @Size(max = PaymentConstants.MAX_BATCH_SIZE,
+                    message = "Batch must not contain more than " + PaymentConstants.MAX_BATCH_SIZE + " payments")
+            List<BatchPaymentItem> items) {
+        log.info("Received payment batch: items={}", items.size());
+
+        BatchPaymentResponse response = batchPaymentService.createPayments(items);
+
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping
     public ResponseEntity<Page<PaymentResponse>> getAllPayments(
             @RequestParam(defaultValue = PaymentConstants.DEFAULT_PAGE) @Min(0) int page,
-            @RequestParam(defaultValue = PaymentConstants.DEFAULT_PAGE_SIZE) @Min(1) @Max(PaymentConstants.MAX_PAGE_SIZE) int size) {
-        log.debug("Fetching payments: page={}, size={}", page, size);
-        Page<PaymentResponse> payments = paymentService.getAllPayments(page, size);
+            @RequestParam(defaultValue = PaymentConstants.DEFAULT_PAGE_SIZE) @Min(1) @Max(PaymentConstants.MAX_PAGE_SIZE) int size,
+            @RequestParam(defaultValue = PaymentConstants.TOTAL_EXACT)
+            @Pattern(regexp = PaymentConstants.TOTAL_EXACT + "|" + PaymentConstants.TOTAL_ESTIMATED,
+                    message = "total must be one of: exact, estimated, none")
+            String total,
+            @Valid @ModelAttribute PaymentFilter filter,
+            WebRequest request) {
+        log.debug("Fetching payments: page={}, size={}, total={}, filter={}", page, size, total, filter);
+        boolean tagged = filter.isUnfiltered();
+        boolean exact = PaymentConstants.TOTAL_EXACT.equals(total);
+        // For total=exact a conditional request counts once, and a changed page reuses that
+        // count as its total instead of running a second COUNT(*).
+        Long counted = null;
+        if (tagged && isConditional(request)) {
+            counted = exact ? paymentService.countPayments() : null;
+            if (request.checkNotModified(paymentService.getListingVersion(total, counted))) {
+                return null;
+            }
+        }
+        Page<PaymentResponse> payments;
+        if (!tagged) {
+            payments = paymentService.getAllPayments(filter, page, size);
+        } else if (PaymentConstants.TOTAL_ESTIMATED.equals(total)) {
+            // The estimate covers the whole table, so filtered listings always count exactly.
+            payments = paymentService.getAllPaymentsWithEstimatedTotal(page, size);
+        } else if (counted != null) {
+            payments = paymentService.getAllPayments(page, size, counted);
+        } else {
+            payments = paymentService.getAllPayments(page, size);
+        }
+        if (tagged && !isConditional(request)) {
+            // The page's own count goes into the tag, so the plain 200 still counts once.
+            request.checkNotModified(paymentService.getListingVersion(total, exact ? payments.getTotalElements() : null));
+        }
         log.debug("Returning {} payments (page {} of {})", payments.getNumberOfElements(), page, payments.getTotalPages());
         return ResponseEntity.ok(payments);
     }
+
+    @GetMapping(params = "total=" + PaymentConstants.TOTAL_NONE)
+    public ResponseEntity<SliceResponse<PaymentResponse>> getPaymentSlice(
+            @RequestParam(defaultValue = PaymentConstants.DEFAULT_PAGE) @Min(0) int page,
+            @RequestParam(defaultValue = PaymentConstants.DEFAULT_PAGE_SIZE) @Min(1) @Max(PaymentConstants.MAX_PAGE_SIZE) int size,
+            @Valid @ModelAttribute PaymentFilter filter,
+            WebRequest request) {
+        log.debug("Fetching payment slice: page={}, size={}, filter={}", page, size, filter);
+        if (filter.isUnfiltered() && request.checkNotModified(paymentService.getListingVersion(PaymentConstants.TOTAL_NONE, null))) {
+            return null;
+        }
+        SliceResponse<PaymentResponse> payments = paymentService.getPaymentSlice(filter, page, size);
+        log.debug("Returning {} payments (page {}, hasNext={})", payments.content().size(), page, payments.page().hasNext());
+        return ResponseEntity.ok(payments);
+    }
+
+    // Unfiltered pages carry a strong ETag, and a matching If-None-Match is answered with 304
+    // before the page is read. Filtered pages get none: a status filter's result changes
+    // when a payment settles, which moves no listing version. Without If-None-Match the
+    // version is only needed for the response's ETag, so it is built after the page is read.
+    private static boolean isConditional(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null;
+    }
+
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<PaymentResponse>> scrollPayments(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = PaymentConstants.DEFAULT_PAGE_SIZE) @Min(1) @Max(PaymentConstants.MAX_PAGE_SIZE) int size,
+            @Valid @ModelAttribute PaymentFilter filter) {
+        log.debug("Scrolling payments: cursor={}, size={}, filter={}", cursor, size, filter);
+        CursorPage<PaymentResponse> payments = paymentService.getPaymentsByCursor(filter, cursor, size);
+        log.debug("Returning {} payments (hasNext={})", payments.content().size(), payments.nextCursor() != null);
+        return ResponseEntity.ok(payments);
+    }
+
+    // One response per export instead of one page request (and COUNT) per 100 rows. The
+    // body is written on an async thread after this method returns, straight from a
+    // database cursor, so memory use does not grow with the number of rows.
+    @GetMapping(path = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, PaymentConstants.TEXT_CSV_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportPayments(
+            @RequestParam(defaultValue = PaymentConstants.EXPORT_FORMAT_NDJSON)
+            @Pattern(regexp = PaymentConstants.EXPORT_FORMAT_NDJSON + "|" + PaymentConstants.EXPORT_FORMAT_CSV,
+                    message = "format must be one of: ndjson, csv")
+            String format,
+            @Valid @ModelAttribute PaymentFilter filter) {
+        PaymentExportFormat exportFormat = PaymentExportFormat.fromParameter(format);
+        log.info("Exporting payments: format={}, filter={}", format, filter);
+        StreamingResponseBody body = out -> {
+            long rows = paymentExportService.export(filter, exportFormat, out);
+            log.info("Payment export finished: format={}, rows={}", format, rows);
+        };
+        ContentDisposition disposition = ContentDisposition.attachment().filename("payments." + format).build();
+        return ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(body);
+    }
+
+    // Daily count, volume and fees per currency and status, read from the rollup table.
+    // Defaults to the last 30 UTC days; at most 366 days per request.
+    @GetMapping("/summary")
+    public ResponseEntity<PaymentSummaryResponse> getSummary(@Valid @ModelAttribute PaymentSummaryFilter filter) {
+        log.debug("Fetching payment summary: filter={}", filter);
+        PaymentSummaryResponse summary = paymentRollupService.getSummary(filter);
+        log.debug("Returning {} summary rows ({} to {})", summary.days().size(), summary.from(), summary.to());
+        return ResponseEntity.ok(summary);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<PaymentResponse> getPayment(@PathVariable UUID id) {
+        log.debug("Fetching payment: id={}", id);
+        return ResponseEntity.ok(paymentService.getPayment(id));
+    }
+
+    // Status URL returned with 202 in async mode; poll until COMPLETED or FAILED.
+    @GetMapping("/{id}/status")
+    public ResponseEntity<PaymentStatusResponse> getPaymentStatus(@PathVariable UUID id) {
+        log.debug("Fetching payment status: id={}", id);
+        return ResponseEntity.ok(paymentService.getPaymentStatus(id));
+    }
 }
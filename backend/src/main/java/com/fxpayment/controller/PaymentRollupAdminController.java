@@ -0,0 +1,36 @@
+package com.fxpayment.controller;
+
+import com.fxpayment.config.AdminProperties;
+import com.fxpayment.dto.RollupRecomputeResponse;
+import com.fxpayment.service.PaymentRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+@Slf4j
+@RestController
+@RequestMapping(path = "/api/v1/admin/rollups", produces = MediaType.APPLICATION_JSON_VALUE)
+@RequiredArgsConstructor
+public class PaymentRollupAdminController {
+
+    private final PaymentRollupService paymentRollupService;
+    private final AdminProperties adminProperties;
+
+    @PostMapping("/{day}/recompute")
+    public ResponseEntity<RollupRecomputeResponse> recomputeDay(
+            @RequestHeader(name = AdminAccess.ADMIN_TOKEN_HEADER, required = false) String token,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate day) {
+        AdminAccess.require(adminProperties, token);
+        log.info("Recomputing payment rollups: day={}", day);
+        return ResponseEntity.ok(new RollupRecomputeResponse(day, paymentRollupService.recomputeDay(day)));
+    }
+}
@@ -0,0 +1,84 @@
+package com.fxpayment.controller;
+
+import com.fxpayment.config.PaymentProperties;
+import com.fxpayment.dto.PaymentResponse;
+import com.fxpayment.service.PaymentEventHub;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadFactory;
+
+// Pushes payments as they are created, so clients stop polling the listing. Each connection
+// is served by its own virtual thread that blocks on the subscriber's buffer; an idle
+// watcher costs a parked virtual thread and a few hundred bytes of buffer.
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/payments")
+@RequiredArgsConstructor
+public class PaymentStreamController {
+
+    static final String PAYMENT_EVENT = "payment";
+    // Stops nginx and similar proxies from buffering the stream.
+    private static final String ACCEL_BUFFERING = "X-Accel-Buffering";
+
+    private static final ThreadFactory STREAM_THREADS = Thread.ofVirtual().name("payment-stream-", 0).factory();
+
+    private final PaymentEventHub paymentEventHub;
+    private final PaymentProperties paymentProperties;
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamPayments() {
+        PaymentProperties.StreamProperties props = paymentProperties.stream();
+        SseEmitter emitter = new SseEmitter(props.timeout().toMillis());
+        PaymentEventHub.Subscription subscription = paymentEventHub.subscribe();
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(_ -> subscription.close());
+        STREAM_THREADS.newThread(() -> pump(emitter, subscription, props.heartbeatInterval())).start();
+        log.debug("Payment stream opened: subscribers={}", paymentEventHub.subscriberCount());
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .header(ACCEL_BUFFERING, "no")
+                .body(emitter);
+    }
+
+    // Heartbeat comments keep idle connections from being closed by proxies and surface
+    // dead clients as a failed write.
+    private static void pump(SseEmitter emitter, PaymentEventHub.Subscription subscription, Duration heartbeat) {
+        try (subscription) {
+            emitter.send(SseEmitter.event().comment("connected"));
+            while (true) {
+                PaymentResponse payment = subscription.poll(heartbeat);
+                if (payment != null) {
+                    emitter.send(SseEmitter.event()
+                            .name(PAYMENT_EVENT)
+                            .id(payment.id().toString())
+                            .data(payment, MediaType.APPLICATION_JSON));
+                } else if (subscription.isOpen()) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    if (subscription.isOverflowed()) {
+                        log.info("Payment stream closed: client fell behind");
+                    }
+                    emitter.complete();
+                    return;
+                }
+            }
+        } catch (IOException | IllegalStateException ex) {
+            // The client went away or the emitter already completed; the container cleans up.
+            log.debug("Payment stream ended: {}", ex.getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            emitter.complete();
+        }
+    }
+}
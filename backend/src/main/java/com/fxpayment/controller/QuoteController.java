@@ -0,0 +1,32 @@
+package com.fxpayment.controller;
+
+import com.fxpayment.dto.QuoteRequest;
+import com.fxpayment.dto.QuoteResponse;
+import com.fxpayment.service.QuoteService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequestMapping(path = "/api/v1/quotes", produces = MediaType.APPLICATION_JSON_VALUE)
+@RequiredArgsConstructor
+public class QuoteController {
+
+    private final QuoteService quoteService;
+
+    // Quotes are not idempotent: every call locks a new one, and unused quotes just expire.
+    @PostMapping
+    public ResponseEntity<QuoteResponse> createQuote(@Valid @RequestBody QuoteRequest request) {
+        log.info("Received quote request: currency={}, settlementCurrency={}",
+                request.currency(), request.settlementCurrency());
+        return ResponseEntity.status(HttpStatus.CREATED).body(quoteService.createQuote(request));
+    }
+}
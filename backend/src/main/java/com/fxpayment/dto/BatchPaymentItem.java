@@ -0,0 +1,17 @@
+package com.fxpayment.dto;
+
+import com.fxpayment.validation.ValidUuid;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+public record BatchPaymentItem(
+        @NotBlank(message = "Idempotency key is required")
+        @ValidUuid(message = "Idempotency key must be a valid UUID")
+        String idempotencyKey,
+
+        @NotNull(message = "Payment is required")
+        @Valid
+        PaymentRequest payment
+) {
+}
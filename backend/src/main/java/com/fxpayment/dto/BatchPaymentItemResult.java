@@ -0,0 +1,30 @@
+package com.fxpayment.dto;
+
+import java.util.List;
+
+// status uses the code the single-payment endpoint would have returned for this item:
+// 201 created, 202 accepted as PENDING (async processing), 200 idempotent replay, 400 rejected.
+public record BatchPaymentItemResult(
+        int index,
+        String idempotencyKey,
+        int status,
+        PaymentResponse payment,
+        List<String> errors
+) {
+    public BatchPaymentItemResult {
+        errors = List.copyOf(errors);
+    }
+
+    public static BatchPaymentItemResult of(int index, String idempotencyKey, CreatePaymentResult result) {
+        int status = result.pending() ? 202 : result.created() ? 201 : 200;
+        return new BatchPaymentItemResult(index, idempotencyKey, status, result.response(), List.of());
+    }
+
+    public boolean created() {
+        return status == 201 || status == 202;
+    }
+
+    public static BatchPaymentItemResult rejected(int index, String idempotencyKey, List<String> errors) {
+        return new BatchPaymentItemResult(index, idempotencyKey, 400, null, errors);
+    }
+}
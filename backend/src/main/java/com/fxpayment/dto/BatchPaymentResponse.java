@@ -0,0 +1,28 @@
+package com.fxpayment.dto;
+
+import java.util.List;
+
+public record BatchPaymentResponse(
+        int created,
+        int replayed,
+        int rejected,
+        List<BatchPaymentItemResult> results
+) {
+    public BatchPaymentResponse {
+        results = List.copyOf(results);
+    }
+
+    public static BatchPaymentResponse of(List<BatchPaymentItemResult> results) {
+        int created = 0;
+        int replayed = 0;
+        int rejected = 0;
+        for (BatchPaymentItemResult result : results) {
+            switch (result.status()) {
+                case 201, 202 -> created++;
+                case 200 -> replayed++;
+                default -> rejected++;
+            }
+        }
+        return new BatchPaymentResponse(created, replayed, rejected, results);
+    }
+}
@@ -1,4 +1,9 @@
 package com.fxpayment.dto;
 
-public record CreatePaymentResult(PaymentResponse response, boolean created) {
+// pending: the payment was accepted for asynchronous processing and has not settled yet.
+public record CreatePaymentResult(PaymentResponse response, boolean created, boolean pending) {
+
+    public CreatePaymentResult(PaymentResponse response, boolean created) {
+        this(response, created, false);
+    }
 }
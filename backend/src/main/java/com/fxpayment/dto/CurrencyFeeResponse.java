@@ -0,0 +1,15 @@
+package com.fxpayment.dto;
+
+import com.fxpayment.model.CurrencyEntity;
+
+import java.math.BigDecimal;
+
+public record CurrencyFeeResponse(
+        String code,
+        BigDecimal feeRate,
+        BigDecimal minimumFee
+) {
+    public static CurrencyFeeResponse from(CurrencyEntity currency) {
+        return new CurrencyFeeResponse(currency.getCode(), currency.getFeeRate(), currency.getMinimumFee());
+    }
+}
@@ -0,0 +1,20 @@
+package com.fxpayment.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+
+public record CurrencyFeeUpdate(
+        @NotNull(message = "feeRate is required")
+        @DecimalMin(value = "0", message = "feeRate must not be negative")
+        @DecimalMax(value = "1", message = "feeRate must not exceed 1")
+        @Digits(integer = 1, fraction = 6, message = "feeRate must have at most 6 decimal places")
+        BigDecimal feeRate,
+        @NotNull(message = "minimumFee is required")
+        @DecimalMin(value = "0", message = "minimumFee must not be negative")
+        @Digits(integer = 15, fraction = 4, message = "minimumFee must have at most 4 decimal places")
+        BigDecimal minimumFee
+) {}
@@ -1,17 +1,17 @@
 package com.fxpayment.dto;
 
-import com.fxpayment.model.CurrencyEntity;
+import com.fxpayment.model.Currency;
 
 public record CurrencyResponse(
         String code,
         String name,
         short decimals
 ) {
-    public static CurrencyResponse from(CurrencyEntity currency) {
+    public static CurrencyResponse from(Currency currency) {
         return new CurrencyResponse(
-                currency.getCode(),
-                currency.getName(),
-                currency.getDecimals()
+                currency.code(),
+                currency.name(),
+                currency.decimals()
         );
     }
 }
@@ -0,0 +1,11 @@
+package com.fxpayment.dto;
+
+import java.util.List;
+
+// nextCursor is null once the last row has been returned.
+public record CursorPage<T>(List<T> content, String nextCursor) {
+
+    public CursorPage {
+        content = List.copyOf(content);
+    }
+}
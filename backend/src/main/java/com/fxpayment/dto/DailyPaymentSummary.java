@@ -0,0 +1,28 @@
+package com.fxpayment.dto;
+
+import com.fxpayment.model.PaymentDailyRollup;
+import com.fxpayment.model.PaymentStatus;
+import com.fxpayment.util.MoneyUtil;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record DailyPaymentSummary(
+        LocalDate day,
+        String currency,
+        PaymentStatus status,
+        long count,
+        BigDecimal amount,
+        BigDecimal processingFees
+) {
+    public static DailyPaymentSummary from(PaymentDailyRollup rollup, int currencyDecimals) {
+        return new DailyPaymentSummary(
+                rollup.getKey().getDay(),
+                rollup.getKey().getCurrency(),
+                rollup.getKey().getStatus(),
+                rollup.getPaymentCount(),
+                MoneyUtil.roundToScale(rollup.getAmountTotal(), currencyDecimals),
+                MoneyUtil.roundToScale(rollup.getFeeTotal(), currencyDecimals)
+        );
+    }
+}
@@ -0,0 +1,58 @@
+package com.fxpayment.dto;
+
+import com.fxpayment.exception.InvalidRequestException;
+
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+// Keyset position in the (created_at DESC, id DESC) listing order. Encoded as a
+// URL-safe token so clients treat it as opaque and never build one themselves.
+public record PaymentCursor(Instant createdAt, UUID id) {
+
+    private static final int ENCODED_BYTES = Long.BYTES + Integer.BYTES + 2 * Long.BYTES;
+    private static final int MAX_NANOS = 999_999_999;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public static PaymentCursor of(PaymentRow row) {
+        return new PaymentCursor(row.createdAt(), row.id());
+    }
+
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(ENCODED_BYTES)
+                .putLong(createdAt.getEpochSecond())
+                .putInt(createdAt.getNano())
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits());
+        return ENCODER.encodeToString(buffer.array());
+    }
+
+    public static PaymentCursor decode(String token) {
+        byte[] bytes;
+        try {
+            bytes = DECODER.decode(token);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+        if (bytes.length != ENCODED_BYTES) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long epochSecond = buffer.getLong();
+        int nanos = buffer.getInt();
+        if (nanos < 0 || nanos > MAX_NANOS) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+        Instant createdAt;
+        try {
+            createdAt = Instant.ofEpochSecond(epochSecond, nanos);
+        } catch (DateTimeException ex) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+        return new PaymentCursor(createdAt, new UUID(buffer.getLong(), buffer.getLong()));
+    }
+}
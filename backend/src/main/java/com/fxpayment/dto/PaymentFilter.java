@@ -0,0 +1,53 @@
+package com.fxpayment.dto;
+
+import com.fxpayment.model.PaymentStatus;
+import com.fxpayment.util.PaymentConstants;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Pattern;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// Listing filters bound from query parameters. Every criterion is optional; the created
+// range is half-open [createdFrom, createdTo) and the amount range is inclusive.
+public record PaymentFilter(
+        @Pattern(regexp = "^[A-Z]{3}$", message = "currency must be a 3-letter ISO 4217 code")
+        String currency,
+        PaymentStatus status,
+        Instant createdFrom,
+        Instant createdTo,
+        @DecimalMin(value = "0", message = "minAmount must not be negative")
+        BigDecimal minAmount,
+        @DecimalMin(value = "0", message = "maxAmount must not be negative")
+        BigDecimal maxAmount,
+        @Pattern(regexp = PaymentConstants.SORT_CREATED_AT + "|" + PaymentConstants.SORT_AMOUNT,
+                message = "sort must be one of: createdAt, amount")
+        String sort,
+        @Pattern(regexp = "asc|desc", message = "direction must be one of: asc, desc")
+        String direction
+) {
+
+    // True when the listing is the plain newest-first order, which has dedicated queries.
+    public boolean isUnfiltered() {
+        return currency == null && status == null && createdFrom == null && createdTo == null
+                && minAmount == null && maxAmount == null
+                && isNewestFirst();
+    }
+
+    // The only order a (created_at, id) keyset cursor can continue.
+    public boolean isNewestFirst() {
+        return (sort == null || PaymentConstants.SORT_CREATED_AT.equals(sort))
+                && (direction == null || "desc".equals(direction));
+    }
+
+    @AssertTrue(message = "createdFrom must be before createdTo")
+    public boolean isCreatedRangeValid() {
+        return createdFrom == null || createdTo == null || createdFrom.isBefore(createdTo);
+    }
+
+    @AssertTrue(message = "minAmount must not exceed maxAmount")
+    public boolean isAmountRangeValid() {
+        return minAmount == null || maxAmount == null || minAmount.compareTo(maxAmount) <= 0;
+    }
+}
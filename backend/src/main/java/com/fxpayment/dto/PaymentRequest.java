@@ -11,6 +11,7 @@ import jakarta.validation.constraints.Size;
 import org.apache.commons.lang3.StringUtils;
 
 import java.math.BigDecimal;
+import java.util.UUID;
 
 public record PaymentRequest(
         @NotNull(message = "Amount is required")
@@ -34,14 +35,18 @@ public record PaymentRequest(
 
         @NotBlank(message = "Recipient account is required")
         @ValidIban(message = "Invalid IBAN: must be a valid IBAN with correct check digits")
-        String recipientAccount
+        String recipientAccount,
+
+        // Optional: a live quote from POST /api/v1/quotes for exactly this amount and currency.
+        UUID quoteId
 ) {
     public PaymentRequest normalised() {
         return new PaymentRequest(
                 amount,
                 currency,
                 StringUtils.normalizeSpace(recipient),
-                StringUtils.deleteWhitespace(recipientAccount).toUpperCase()
+                StringUtils.deleteWhitespace(recipientAccount).toUpperCase(),
+                quoteId
         );
     }
 }
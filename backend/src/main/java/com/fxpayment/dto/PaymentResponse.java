@@ -1,28 +1,66 @@
 package com.fxpayment.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fxpayment.model.Payment;
 import com.fxpayment.util.MoneyUtil;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.UUID;
+import java.util.function.ToIntFunction;
 
+// settlement is only present on payments made against a quote, and only where the
+// response is built from the whole payment (create, replay, GET by id). Listing rows and
+// exports read the covering listing index and carry the source side only.
 public record PaymentResponse(
         UUID id,
         BigDecimal amount,
         String currency,
         String recipient,
         BigDecimal processingFee,
-        Instant createdAt
+        Instant createdAt,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        Settlement settlement
 ) {
+    public PaymentResponse(UUID id, BigDecimal amount, String currency, String recipient,
+                           BigDecimal processingFee, Instant createdAt) {
+        this(id, amount, currency, recipient, processingFee, createdAt, null);
+    }
+
+    // The conversion locked by the payment's quote; amount is in the settlement currency.
+    public record Settlement(UUID quoteId, String currency, BigDecimal amount, BigDecimal rate) {}
+
+    // For payments known to be unquoted, or where every currency has the same decimals.
     public static PaymentResponse from(Payment payment, int currencyDecimals) {
+        return from(payment, _ -> currencyDecimals);
+    }
+
+    public static PaymentResponse from(Payment payment, ToIntFunction<String> decimalsOf) {
+        Settlement settlement = payment.getQuoteId() == null ? null : new Settlement(
+                payment.getQuoteId(),
+                payment.getSettlementCurrency(),
+                MoneyUtil.roundToScale(payment.getSettlementAmount(), decimalsOf.applyAsInt(payment.getSettlementCurrency())),
+                payment.getExchangeRate());
+        int currencyDecimals = decimalsOf.applyAsInt(payment.getCurrency());
         return new PaymentResponse(
                 payment.getId(),
                 MoneyUtil.roundToScale(payment.getAmount(), currencyDecimals),
                 payment.getCurrency(),
                 payment.getRecipient(),
                 MoneyUtil.roundToScale(payment.getProcessingFee(), currencyDecimals),
-                payment.getCreatedAt()
+                payment.getCreatedAt(),
+                settlement
+        );
+    }
+
+    public static PaymentResponse from(PaymentRow row, int currencyDecimals) {
+        return new PaymentResponse(
+                row.id(),
+                MoneyUtil.roundToScale(row.amount(), currencyDecimals),
+                row.currency(),
+                row.recipient(),
+                MoneyUtil.roundToScale(row.processingFee(), currencyDecimals),
+                row.createdAt()
         );
     }
 }
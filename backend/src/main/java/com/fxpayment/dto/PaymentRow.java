@@ -0,0 +1,18 @@
+package com.fxpayment.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+// Listing read model: exactly the columns a PaymentResponse needs, selected with a JPQL
+// constructor expression. Rows are never managed entities, so a page costs no
+// persistence-context registration or dirty-check snapshot per row.
+public record PaymentRow(
+        UUID id,
+        BigDecimal amount,
+        String currency,
+        String recipient,
+        BigDecimal processingFee,
+        Instant createdAt
+) {
+}
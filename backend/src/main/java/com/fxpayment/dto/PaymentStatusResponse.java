@@ -0,0 +1,17 @@
+package com.fxpayment.dto;
+
+import com.fxpayment.model.Payment;
+import com.fxpayment.model.PaymentStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record PaymentStatusResponse(
+        UUID id,
+        PaymentStatus status,
+        Instant updatedAt
+) {
+    public static PaymentStatusResponse from(Payment payment) {
+        return new PaymentStatusResponse(payment.getId(), payment.getStatus(), payment.getUpdatedAt());
+    }
+}
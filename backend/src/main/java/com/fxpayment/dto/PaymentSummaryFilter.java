@@ -0,0 +1,23 @@
+package com.fxpayment.dto;
+
+import com.fxpayment.model.PaymentStatus;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Pattern;
+
+import java.time.LocalDate;
+
+// Summary query bound from query parameters. Days are UTC and the range is inclusive;
+// a missing bound is filled in by the service.
+public record PaymentSummaryFilter(
+        LocalDate from,
+        LocalDate to,
+        @Pattern(regexp = "^[A-Z]{3}$", message = "currency must be a 3-letter ISO 4217 code")
+        String currency,
+        PaymentStatus status
+) {
+
+    @AssertTrue(message = "from must not be after to")
+    public boolean isRangeValid() {
+        return from == null || to == null || !from.isAfter(to);
+    }
+}
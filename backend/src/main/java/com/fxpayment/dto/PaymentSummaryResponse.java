@@ -0,0 +1,10 @@
+package com.fxpayment.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record PaymentSummaryResponse(
+        LocalDate from,
+        LocalDate to,
+        List<DailyPaymentSummary> days
+) {}
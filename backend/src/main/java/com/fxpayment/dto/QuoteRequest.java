@@ -0,0 +1,28 @@
+package com.fxpayment.dto;
+
+import com.fxpayment.util.PaymentConstants;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+
+public record QuoteRequest(
+        @NotNull(message = "Amount is required")
+        @DecimalMin(value = PaymentConstants.MIN_AMOUNT, message = "Amount must be at least " + PaymentConstants.MIN_AMOUNT)
+        @DecimalMax(value = PaymentConstants.MAX_AMOUNT, message = "Amount exceeds maximum transaction limit")
+        BigDecimal amount,
+
+        @NotBlank(message = "Currency is required")
+        @Size(min = PaymentConstants.CURRENCY_CODE_LENGTH, max = PaymentConstants.CURRENCY_CODE_LENGTH,
+                message = "Currency code must be exactly " + PaymentConstants.CURRENCY_CODE_LENGTH + " characters")
+        String currency,
+
+        @NotBlank(message = "Settlement currency is required")
+        @Size(min = PaymentConstants.CURRENCY_CODE_LENGTH, max = PaymentConstants.CURRENCY_CODE_LENGTH,
+                message = "Settlement currency code must be exactly " + PaymentConstants.CURRENCY_CODE_LENGTH + " characters")
+        String settlementCurrency
+) {
+}
@@ -0,0 +1,18 @@
+package com.fxpayment.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+// A locked conversion: amount in currency converts at rate (mid rate less the spread)
+// into settlementAmount, rounded to the settlement currency's decimals.
+public record QuoteResponse(
+        UUID id,
+        BigDecimal amount,
+        String currency,
+        String settlementCurrency,
+        BigDecimal rate,
+        BigDecimal settlementAmount,
+        Instant expiresAt
+) {
+}
@@ -0,0 +1,9 @@
+package com.fxpayment.dto;
+
+import java.time.LocalDate;
+
+public record RollupRecomputeResponse(
+        LocalDate day,
+        int buckets
+) {
+}
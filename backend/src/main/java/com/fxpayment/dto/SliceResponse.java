@@ -0,0 +1,23 @@
+package com.fxpayment.dto;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Function;
+
+// Mirrors the shape of Spring Data's paged DTO but reports hasNext instead of totals,
+// so producing it never requires a COUNT query.
+public record SliceResponse<T>(List<T> content, SliceMetadata page) {
+
+    public SliceResponse {
+        content = List.copyOf(content);
+    }
+
+    public static <S, T> SliceResponse<T> from(Slice<S> slice, Function<S, T> mapper) {
+        return new SliceResponse<>(
+                slice.getContent().stream().map(mapper).toList(),
+                new SliceMetadata(slice.getSize(), slice.getNumber(), slice.hasNext()));
+    }
+
+    public record SliceMetadata(int size, int number, boolean hasNext) {}
+}
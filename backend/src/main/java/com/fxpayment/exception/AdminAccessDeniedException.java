@@ -0,0 +1,8 @@
+package com.fxpayment.exception;
+
+public class AdminAccessDeniedException extends RuntimeException {
+
+    public AdminAccessDeniedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.fxpayment.exception;
+
+public class CurrencyNotFoundException extends RuntimeException {
+
+    public CurrencyNotFoundException(String code) {
+        super("Currency not found: " + code);
+    }
+}
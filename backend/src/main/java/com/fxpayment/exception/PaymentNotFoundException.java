@@ -0,0 +1,10 @@
+package com.fxpayment.exception;
+
+import java.util.UUID;
+
+public class PaymentNotFoundException extends RuntimeException {
+
+    public PaymentNotFoundException(UUID id) {
+        super("Payment not found: " + id);
+    }
+}
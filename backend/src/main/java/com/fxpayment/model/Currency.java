@@ -0,0 +1,20 @@
+package com.fxpayment.model;
+
+import java.math.BigDecimal;
+
+// Immutable copy of a currencies row, as the currency registry hands it out. The registry
+// is shared by every request thread, so it holds these rather than the entities it loaded:
+// an entity is mutable (updateFees), and changing a shared one would change the fees every
+// reader sees without a reload.
+public record Currency(
+        String code,
+        String name,
+        BigDecimal feeRate,
+        BigDecimal minimumFee,
+        short decimals
+) {
+    public static Currency of(CurrencyEntity entity) {
+        return new Currency(entity.getCode(), entity.getName(), entity.getFeeRate(), entity.getMinimumFee(),
+                entity.getDecimals());
+    }
+}
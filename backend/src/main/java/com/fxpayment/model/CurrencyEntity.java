@@ -50,4 +50,9 @@ public class CurrencyEntity {
     @CurrentTimestamp(event = {EventType.INSERT, EventType.UPDATE})
     @Column(name = "updated_at")
     private Instant updatedAt;
+
+    public void updateFees(BigDecimal feeRate, BigDecimal minimumFee) {
+        this.feeRate = feeRate;
+        this.minimumFee = minimumFee;
+    }
 }
@@ -0,0 +1,53 @@
+package com.fxpayment.model;
+
+import com.fxpayment.util.PaymentConstants;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CurrentTimestamp;
+import org.hibernate.generator.EventType;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// Mid-market rate of one currency pair (V12): one unit of base buys rate units of quote.
+@Entity
+@Table(name = "rates")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExchangeRate {
+
+    @EmbeddedId
+    private Key key;
+
+    @Column(nullable = false, precision = PaymentConstants.EXCHANGE_RATE_PRECISION, scale = PaymentConstants.EXCHANGE_RATE_SCALE)
+    private BigDecimal rate;
+
+    @CurrentTimestamp(event = {EventType.INSERT, EventType.UPDATE})
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    @Embeddable
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+
+        @Column(name = "base_currency", nullable = false, length = PaymentConstants.CURRENCY_CODE_LENGTH)
+        private String baseCurrency;
+
+        @Column(name = "quote_currency", nullable = false, length = PaymentConstants.CURRENCY_CODE_LENGTH)
+        private String quoteCurrency;
+    }
+}
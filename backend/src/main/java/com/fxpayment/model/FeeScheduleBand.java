@@ -0,0 +1,56 @@
+package com.fxpayment.model;
+
+import com.fxpayment.util.PaymentConstants;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+// One amount band of a currency's fee schedule (V11). Applies from lowerBound up to the
+// next band's lowerBound; a null maximumFee means the fee is not capped.
+@Entity
+@Table(name = "fee_schedule_bands")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FeeScheduleBand {
+
+    @EmbeddedId
+    private Key key;
+
+    @Column(nullable = false, precision = PaymentConstants.FEE_RATE_PRECISION, scale = PaymentConstants.FEE_RATE_SCALE)
+    private BigDecimal rate;
+
+    @Column(name = "fixed_fee", nullable = false, precision = PaymentConstants.MONEY_PRECISION, scale = PaymentConstants.INTERNAL_SCALE)
+    private BigDecimal fixedFee;
+
+    @Column(name = "minimum_fee", nullable = false, precision = PaymentConstants.MONEY_PRECISION, scale = PaymentConstants.INTERNAL_SCALE)
+    private BigDecimal minimumFee;
+
+    @Column(name = "maximum_fee", precision = PaymentConstants.MONEY_PRECISION, scale = PaymentConstants.INTERNAL_SCALE)
+    private BigDecimal maximumFee;
+
+    @Embeddable
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+
+        @Column(nullable = false, length = PaymentConstants.CURRENCY_CODE_LENGTH)
+        private String currency;
+
+        @Column(name = "lower_bound", nullable = false, precision = PaymentConstants.MONEY_PRECISION, scale = PaymentConstants.INTERNAL_SCALE)
+        private BigDecimal lowerBound;
+    }
+}
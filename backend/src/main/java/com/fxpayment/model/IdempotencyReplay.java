@@ -0,0 +1,105 @@
+package com.fxpayment.model;
+
+import com.fxpayment.dto.PaymentResponse;
+import com.fxpayment.util.MoneyUtil;
+import com.fxpayment.util.PaymentConstants;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+// Row of the shared replay tier. Holds only what a replay response needs; amounts are
+// stored at the internal scale, and decimals restores the currency rounding on read.
+@Entity
+@Table(name = "idempotency_replays")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyReplay {
+
+    @Id
+    @Column(name = "idempotency_key")
+    private UUID idempotencyKey;
+
+    @Column(name = "payment_id", nullable = false)
+    private UUID paymentId;
+
+    @Column(nullable = false, precision = PaymentConstants.MONEY_PRECISION, scale = PaymentConstants.INTERNAL_SCALE)
+    private BigDecimal amount;
+
+    @Column(nullable = false, length = PaymentConstants.CURRENCY_CODE_LENGTH)
+    private String currency;
+
+    @Column(nullable = false, length = PaymentConstants.MAX_RECIPIENT_LENGTH)
+    private String recipient;
+
+    @Column(name = "processing_fee", nullable = false, precision = PaymentConstants.MONEY_PRECISION, scale = PaymentConstants.INTERNAL_SCALE)
+    private BigDecimal processingFee;
+
+    @Column(nullable = false)
+    private Short decimals;
+
+    // Settlement of a quoted payment (V12); all null otherwise.
+    @Column(name = "quote_id")
+    private UUID quoteId;
+
+    @Column(name = "settlement_currency", length = PaymentConstants.CURRENCY_CODE_LENGTH)
+    private String settlementCurrency;
+
+    @Column(name = "settlement_amount", precision = PaymentConstants.MONEY_PRECISION, scale = PaymentConstants.INTERNAL_SCALE)
+    private BigDecimal settlementAmount;
+
+    @Column(name = "exchange_rate", precision = PaymentConstants.EXCHANGE_RATE_PRECISION, scale = PaymentConstants.EXCHANGE_RATE_SCALE)
+    private BigDecimal exchangeRate;
+
+    @Column(name = "settlement_decimals")
+    private Short settlementDecimals;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "stored_at", nullable = false)
+    private Instant storedAt;
+
+    public static IdempotencyReplay of(UUID idempotencyKey, PaymentResponse response, Instant storedAt) {
+        PaymentResponse.Settlement settlement = response.settlement();
+        return IdempotencyReplay.builder()
+                .idempotencyKey(idempotencyKey)
+                .paymentId(response.id())
+                .amount(response.amount())
+                .currency(response.currency())
+                .recipient(response.recipient())
+                .processingFee(response.processingFee())
+                .decimals((short) response.amount().scale())
+                .quoteId(settlement == null ? null : settlement.quoteId())
+                .settlementCurrency(settlement == null ? null : settlement.currency())
+                .settlementAmount(settlement == null ? null : settlement.amount())
+                .exchangeRate(settlement == null ? null : settlement.rate())
+                .settlementDecimals(settlement == null ? null : (short) settlement.amount().scale())
+                .createdAt(response.createdAt())
+                .storedAt(storedAt)
+                .build();
+    }
+
+    public PaymentResponse toResponse() {
+        return new PaymentResponse(
+                paymentId,
+                MoneyUtil.roundToScale(amount, decimals),
+                currency,
+                recipient,
+                MoneyUtil.roundToScale(processingFee, decimals),
+                createdAt,
+                quoteId == null ? null : new PaymentResponse.Settlement(quoteId, settlementCurrency,
+                        MoneyUtil.roundToScale(settlementAmount, settlementDecimals), exchangeRate)
+        );
+    }
+}
@@ -47,12 +47,25 @@ public class Payment {
     @Column(name = "processing_fee", nullable = false, precision = PaymentConstants.MONEY_PRECISION, scale = PaymentConstants.INTERNAL_SCALE)
     private BigDecimal processingFee;
 
+    // Set together, from the quote the payment executed at (V12); null for unquoted payments.
+    @Column(name = "quote_id")
+    private UUID quoteId;
+
+    @Column(name = "settlement_currency", length = PaymentConstants.CURRENCY_CODE_LENGTH)
+    private String settlementCurrency;
+
+    @Column(name = "settlement_amount", precision = PaymentConstants.MONEY_PRECISION, scale = PaymentConstants.INTERNAL_SCALE)
+    private BigDecimal settlementAmount;
+
+    @Column(name = "exchange_rate", precision = PaymentConstants.EXCHANGE_RATE_PRECISION, scale = PaymentConstants.EXCHANGE_RATE_SCALE)
+    private BigDecimal exchangeRate;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = PaymentConstants.STATUS_MAX_LENGTH)
     private PaymentStatus status;
 
-    @Column(name = "idempotency_key", nullable = false, length = PaymentConstants.UUID_STRING_LENGTH, unique = true)
-    private String idempotencyKey;
+    @Column(name = "idempotency_key", nullable = false, unique = true)
+    private UUID idempotencyKey;
 
     @CurrentTimestamp(event = EventType.INSERT)
     @Column(name = "created_at", updatable = false)
@@ -0,0 +1,59 @@
+package com.fxpayment.model;
+
+import com.fxpayment.util.PaymentConstants;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Totals of the payments created on one UTC day in one currency that are currently in one
+// status, as far as the journal has been folded in. Written only through
+// DailyRollupUpsertRepository; amounts keep the internal scale.
+@Entity
+@Table(name = "payment_daily_rollups")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentDailyRollup {
+
+    @EmbeddedId
+    private Key key;
+
+    @Column(name = "payment_count", nullable = false)
+    private long paymentCount;
+
+    @Column(name = "amount_total", nullable = false, precision = PaymentConstants.TOTAL_PRECISION, scale = PaymentConstants.INTERNAL_SCALE)
+    private BigDecimal amountTotal;
+
+    @Column(name = "fee_total", nullable = false, precision = PaymentConstants.TOTAL_PRECISION, scale = PaymentConstants.INTERNAL_SCALE)
+    private BigDecimal feeTotal;
+
+    @Embeddable
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+
+        @Column(name = "payment_day", nullable = false)
+        private LocalDate day;
+
+        @Column(nullable = false, length = PaymentConstants.CURRENCY_CODE_LENGTH)
+        private String currency;
+
+        @Enumerated(EnumType.STRING)
+        @Column(nullable = false, length = PaymentConstants.STATUS_MAX_LENGTH)
+        private PaymentStatus status;
+    }
+}
@@ -0,0 +1,50 @@
+package com.fxpayment.model;
+
+import com.fxpayment.util.PaymentConstants;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// One not yet folded change to a payment_daily_rollups row. Appended only through
+// RollupJournalAppendRepository and deleted once folded; amounts keep the internal scale.
+@Entity
+@Table(name = "payment_rollup_journal")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentRollupJournalEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "payment_day", nullable = false)
+    private LocalDate day;
+
+    @Column(nullable = false, length = PaymentConstants.CURRENCY_CODE_LENGTH)
+    private String currency;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = PaymentConstants.STATUS_MAX_LENGTH)
+    private PaymentStatus status;
+
+    @Column(name = "payment_count", nullable = false)
+    private long paymentCount;
+
+    @Column(name = "amount_total", nullable = false, precision = PaymentConstants.TOTAL_PRECISION, scale = PaymentConstants.INTERNAL_SCALE)
+    private BigDecimal amountTotal;
+
+    @Column(name = "fee_total", nullable = false, precision = PaymentConstants.TOTAL_PRECISION, scale = PaymentConstants.INTERNAL_SCALE)
+    private BigDecimal feeTotal;
+}
@@ -0,0 +1,54 @@
+package com.fxpayment.model;
+
+import com.fxpayment.dto.QuoteResponse;
+import com.fxpayment.util.PaymentConstants;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+// Row of the shared quotes table (V14): a live quote until a payment consumes it or it expires.
+@Entity
+@Table(name = "quotes")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Quote {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false, precision = PaymentConstants.MONEY_PRECISION, scale = PaymentConstants.INTERNAL_SCALE)
+    private BigDecimal amount;
+
+    @Column(nullable = false, length = PaymentConstants.CURRENCY_CODE_LENGTH)
+    private String currency;
+
+    @Column(name = "settlement_currency", nullable = false, length = PaymentConstants.CURRENCY_CODE_LENGTH)
+    private String settlementCurrency;
+
+    @Column(nullable = false, precision = PaymentConstants.EXCHANGE_RATE_PRECISION, scale = PaymentConstants.EXCHANGE_RATE_SCALE)
+    private BigDecimal rate;
+
+    @Column(name = "settlement_amount", nullable = false, precision = PaymentConstants.MONEY_PRECISION, scale = PaymentConstants.INTERNAL_SCALE)
+    private BigDecimal settlementAmount;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    public QuoteResponse toResponse() {
+        return new QuoteResponse(id, amount, currency, settlementCurrency, rate, settlementAmount, expiresAt);
+    }
+}
@@ -0,0 +1,29 @@
+package com.fxpayment.repository;
+
+import com.fxpayment.model.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Comparator;
+
+// Change to one payment_daily_rollups row. Counts and totals are negative when payments
+// leave the status.
+public record DailyRollupDelta(
+        LocalDate day,
+        String currency,
+        PaymentStatus status,
+        long count,
+        BigDecimal amount,
+        BigDecimal fee
+) {
+    // Every fold touches rollup rows in key order, so two nodes folding into the same
+    // buckets queue behind each other instead of deadlocking.
+    static final Comparator<DailyRollupDelta> KEY_ORDER = Comparator.comparing(DailyRollupDelta::day)
+            .thenComparing(DailyRollupDelta::currency)
+            .thenComparing(DailyRollupDelta::status);
+
+    public DailyRollupDelta plus(DailyRollupDelta other) {
+        return new DailyRollupDelta(day, currency, status,
+                count + other.count, amount.add(other.amount), fee.add(other.fee));
+    }
+}
@@ -0,0 +1,15 @@
+package com.fxpayment.repository;
+
+import com.fxpayment.model.PaymentDailyRollup;
+import com.fxpayment.model.PaymentStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DailyRollupSummaryRepository {
+
+    // Folded rollups plus the journal entries not yet folded, summed per bucket in day,
+    // currency, status order, as detached rows. currency and status are optional; buckets
+    // whose payments have all moved on to another status sum to zero and are skipped.
+    List<PaymentDailyRollup> findSummary(LocalDate from, LocalDate to, String currency, PaymentStatus status);
+}
@@ -0,0 +1,50 @@
+package com.fxpayment.repository;
+
+import com.fxpayment.model.PaymentDailyRollup;
+import com.fxpayment.model.PaymentStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RequiredArgsConstructor
+class DailyRollupSummaryRepositoryImpl implements DailyRollupSummaryRepository {
+
+    private static final String COLUMNS = "payment_day, currency, status, payment_count, amount_total, fee_total";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // One statement, so both tables are read from one snapshot: a fold committing in
+    // between cannot make a delta count twice or not at all. The rollups side is a range
+    // scan on the primary key; the journal only holds the last few seconds of writes.
+    @Override
+    public List<PaymentDailyRollup> findSummary(LocalDate from, LocalDate to, String currency, PaymentStatus status) {
+        MapSqlParameterSource params = new MapSqlParameterSource().addValue("from", from).addValue("to", to);
+        StringBuilder where = new StringBuilder(" WHERE payment_day BETWEEN :from AND :to");
+        if (currency != null) {
+            where.append(" AND currency = :currency");
+            params.addValue("currency", currency);
+        }
+        if (status != null) {
+            where.append(" AND status = :status");
+            params.addValue("status", status.name());
+        }
+        String sql = "SELECT payment_day, currency, status, SUM(payment_count) AS payment_count,"
+                + " SUM(amount_total) AS amount_total, SUM(fee_total) AS fee_total"
+                + " FROM (SELECT " + COLUMNS + " FROM payment_daily_rollups" + where
+                + " UNION ALL SELECT " + COLUMNS + " FROM payment_rollup_journal" + where + ") buckets"
+                + " GROUP BY payment_day, currency, status"
+                + " HAVING SUM(payment_count) <> 0"
+                + " ORDER BY payment_day, currency, status";
+        return jdbcTemplate.query(sql, params, (rs, _) -> new PaymentDailyRollup(
+                new PaymentDailyRollup.Key(
+                        rs.getObject("payment_day", LocalDate.class),
+                        rs.getString("currency"),
+                        PaymentStatus.valueOf(rs.getString("status"))),
+                rs.getLong("payment_count"),
+                rs.getBigDecimal("amount_total"),
+                rs.getBigDecimal("fee_total")));
+    }
+}
@@ -0,0 +1,15 @@
+package com.fxpayment.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+public interface DailyRollupUpsertRepository {
+
+    // Adds each delta to its rollup row, creating the row if needed. Only the journal fold
+    // calls this; payment transactions append to the journal instead.
+    void applyDeltas(Collection<DailyRollupDelta> deltas);
+
+    // Replaces one UTC day's rollup rows with totals aggregated from payments and deletes
+    // the day's journal entries those totals already include. Returns the buckets written.
+    int recomputeDay(LocalDate day);
+}
@@ -0,0 +1,99 @@
+package com.fxpayment.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collection;
+
+@RequiredArgsConstructor
+class DailyRollupUpsertRepositoryImpl implements DailyRollupUpsertRepository {
+
+    private static final String POSTGRESQL = "PostgreSQL";
+
+    // ON CONFLICT is safe when two transactions create the same bucket at once; MERGE is
+    // not on PostgreSQL, where the loser fails on the primary key instead of updating.
+    private static final String UPSERT = """
+            INSERT INTO payment_daily_rollups (payment_day, currency, status, payment_count, amount_total, fee_total)
+            VALUES (:day, :currency, :status, :count, :amount, :fee)
+            ON CONFLICT (payment_day, currency, status) DO UPDATE SET
+                payment_count = payment_daily_rollups.payment_count + EXCLUDED.payment_count,
+                amount_total = payment_daily_rollups.amount_total + EXCLUDED.amount_total,
+                fee_total = payment_daily_rollups.fee_total + EXCLUDED.fee_total""";
+
+    private static final String MERGE = """
+            MERGE INTO payment_daily_rollups r
+            USING (VALUES (CAST(:day AS DATE), CAST(:currency AS VARCHAR(3)), CAST(:status AS VARCHAR(20)),
+                           CAST(:count AS BIGINT), CAST(:amount AS NUMERIC(24,4)), CAST(:fee AS NUMERIC(24,4))))
+                AS d (payment_day, currency, status, payment_count, amount_total, fee_total)
+            ON r.payment_day = d.payment_day AND r.currency = d.currency AND r.status = d.status
+            WHEN MATCHED THEN UPDATE SET
+                payment_count = r.payment_count + d.payment_count,
+                amount_total = r.amount_total + d.amount_total,
+                fee_total = r.fee_total + d.fee_total
+            WHEN NOT MATCHED THEN INSERT (payment_day, currency, status, payment_count, amount_total, fee_total)
+                VALUES (d.payment_day, d.currency, d.status, d.payment_count, d.amount_total, d.fee_total)""";
+
+    private static final String DELETE_DAY_JOURNAL = "DELETE FROM payment_rollup_journal WHERE payment_day = :day";
+
+    private static final String DELETE_DAY_ROLLUPS = "DELETE FROM payment_daily_rollups WHERE payment_day = :day";
+
+    private static final String AGGREGATE_DAY = """
+            INSERT INTO payment_daily_rollups (payment_day, currency, status, payment_count, amount_total, fee_total)
+            SELECT :day, currency, status, COUNT(*), SUM(amount), SUM(processing_fee)
+            FROM payments
+            WHERE created_at >= :start AND created_at < :end
+            GROUP BY currency, status""";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgres;
+
+    @Override
+    public void applyDeltas(Collection<DailyRollupDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        SqlParameterSource[] batch = deltas.stream()
+                .sorted(DailyRollupDelta.KEY_ORDER)
+                .map(delta -> new MapSqlParameterSource()
+                        .addValue("day", delta.day())
+                        .addValue("currency", delta.currency())
+                        .addValue("status", delta.status().name())
+                        .addValue("count", delta.count())
+                        .addValue("amount", delta.amount())
+                        .addValue("fee", delta.fee()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(isPostgres() ? UPSERT : MERGE, batch);
+    }
+
+    // Meant for the caller's REPEATABLE READ transaction: the three statements then share
+    // one snapshot, so a journal entry is deleted exactly when its payment is counted, and
+    // entries committed after the snapshot are folded in on top later.
+    @Override
+    public int recomputeDay(LocalDate day) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("day", day)
+                .addValue("start", Timestamp.from(day.atStartOfDay(ZoneOffset.UTC).toInstant()))
+                .addValue("end", Timestamp.from(day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant()));
+        jdbcTemplate.update(DELETE_DAY_JOURNAL, params);
+        jdbcTemplate.update(DELETE_DAY_ROLLUPS, params);
+        return jdbcTemplate.update(AGGREGATE_DAY, params);
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            String product = jdbcTemplate.getJdbcTemplate().execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            result = POSTGRESQL.equals(product);
+            postgres = result;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,7 @@
+package com.fxpayment.repository;
+
+import com.fxpayment.model.ExchangeRate;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ExchangeRateRepository extends JpaRepository<ExchangeRate, ExchangeRate.Key> {
+}
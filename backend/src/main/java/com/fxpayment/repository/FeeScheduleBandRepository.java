@@ -0,0 +1,7 @@
+package com.fxpayment.repository;
+
+import com.fxpayment.model.FeeScheduleBand;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface FeeScheduleBandRepository extends JpaRepository<FeeScheduleBand, FeeScheduleBand.Key> {
+}
@@ -0,0 +1,11 @@
+package com.fxpayment.repository;
+
+import com.fxpayment.model.IdempotencyReplay;
+
+import java.util.Collection;
+
+public interface IdempotencyReplayInsertRepository {
+
+    // Rows whose key is already stored are skipped, not overwritten.
+    void insertAllIfAbsent(Collection<IdempotencyReplay> replays);
+}
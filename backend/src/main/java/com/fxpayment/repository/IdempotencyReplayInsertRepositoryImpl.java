@@ -0,0 +1,57 @@
+package com.fxpayment.repository;
+
+import com.fxpayment.model.IdempotencyReplay;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+
+@RequiredArgsConstructor
+class IdempotencyReplayInsertRepositoryImpl implements IdempotencyReplayInsertRepository {
+
+    // One JDBC batch for the whole collection; a key another node stored first is left as is.
+    private static final String INSERT_IF_ABSENT = """
+            INSERT INTO idempotency_replays (idempotency_key, payment_id, amount, currency, recipient,
+                                             processing_fee, decimals, quote_id, settlement_currency,
+                                             settlement_amount, exchange_rate, settlement_decimals,
+                                             created_at, stored_at)
+            VALUES (:idempotencyKey, :paymentId, :amount, :currency, :recipient,
+                    :processingFee, :decimals, :quoteId, :settlementCurrency,
+                    :settlementAmount, :exchangeRate, :settlementDecimals,
+                    :createdAt, :storedAt)
+            ON CONFLICT DO NOTHING""";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAllIfAbsent(Collection<IdempotencyReplay> replays) {
+        if (replays.isEmpty()) {
+            return;
+        }
+        SqlParameterSource[] batch = replays.stream()
+                .map(IdempotencyReplayInsertRepositoryImpl::toParameters)
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_IF_ABSENT, batch);
+    }
+
+    private static SqlParameterSource toParameters(IdempotencyReplay replay) {
+        return new MapSqlParameterSource()
+                .addValue("idempotencyKey", replay.getIdempotencyKey())
+                .addValue("paymentId", replay.getPaymentId())
+                .addValue("amount", replay.getAmount())
+                .addValue("currency", replay.getCurrency())
+                .addValue("recipient", replay.getRecipient())
+                .addValue("processingFee", replay.getProcessingFee())
+                .addValue("decimals", replay.getDecimals())
+                .addValue("quoteId", replay.getQuoteId())
+                .addValue("settlementCurrency", replay.getSettlementCurrency())
+                .addValue("settlementAmount", replay.getSettlementAmount())
+                .addValue("exchangeRate", replay.getExchangeRate())
+                .addValue("settlementDecimals", replay.getSettlementDecimals())
+                .addValue("createdAt", Timestamp.from(replay.getCreatedAt()))
+                .addValue("storedAt", Timestamp.from(replay.getStoredAt()));
+    }
+}
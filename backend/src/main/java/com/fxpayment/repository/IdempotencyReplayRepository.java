@@ -0,0 +1,20 @@
+package com.fxpayment.repository;
+
+import com.fxpayment.model.IdempotencyReplay;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public interface IdempotencyReplayRepository
+        extends JpaRepository<IdempotencyReplay, UUID>, IdempotencyReplayInsertRepository {
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyReplay r WHERE r.storedAt < :cutoff")
+    int deleteStoredBefore(@Param("cutoff") Instant cutoff);
+}
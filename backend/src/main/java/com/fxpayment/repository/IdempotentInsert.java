@@ -0,0 +1,16 @@
+package com.fxpayment.repository;
+
+import com.fxpayment.model.Payment;
+
+// payment is the row stored under the idempotency key: the new row when inserted is
+// true, otherwise the row a previous request already created.
+public record IdempotentInsert(Payment payment, boolean inserted) {
+
+    public static IdempotentInsert inserted(Payment payment) {
+        return new IdempotentInsert(payment, true);
+    }
+
+    public static IdempotentInsert existing(Payment payment) {
+        return new IdempotentInsert(payment, false);
+    }
+}
@@ -0,0 +1,8 @@
+package com.fxpayment.repository;
+
+import com.fxpayment.model.PaymentDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface PaymentDailyRollupRepository extends JpaRepository<PaymentDailyRollup, PaymentDailyRollup.Key>,
+        DailyRollupUpsertRepository, DailyRollupSummaryRepository {
+}
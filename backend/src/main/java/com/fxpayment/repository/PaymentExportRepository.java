@@ -0,0 +1,13 @@
+package com.fxpayment.repository;
+
+import com.fxpayment.dto.PaymentFilter;
+import com.fxpayment.model.Payment;
+
+import java.util.function.Consumer;
+
+public interface PaymentExportRepository {
+
+    // Streams every matching payment to the sink in listing order. Must run inside a
+    // transaction so PostgreSQL serves the rows from a cursor instead of one result set.
+    void exportPayments(PaymentFilter filter, Consumer<Payment> sink);
+}
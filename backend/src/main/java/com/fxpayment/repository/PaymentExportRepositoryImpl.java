@@ -0,0 +1,85 @@
+package com.fxpayment.repository;
+
+import com.fxpayment.dto.PaymentFilter;
+import com.fxpayment.model.Payment;
+import com.fxpayment.util.PaymentConstants;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+// Plain JDBC rather than a JPA stream: rows never enter a persistence context, and the
+// fetch size bounds how many the driver holds, so heap stays flat however long the export.
+class PaymentExportRepositoryImpl implements PaymentExportRepository {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String SELECT_COLUMNS =
+            "SELECT id, amount, currency, recipient, processing_fee, created_at FROM payments";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // A dedicated template, so the fetch size does not leak into other JDBC queries.
+    PaymentExportRepositoryImpl(DataSource dataSource) {
+        JdbcTemplate cursorTemplate = new JdbcTemplate(dataSource);
+        cursorTemplate.setFetchSize(FETCH_SIZE);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(cursorTemplate);
+    }
+
+    @Override
+    public void exportPayments(PaymentFilter filter, Consumer<Payment> sink) {
+        List<String> conditions = new ArrayList<>();
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        if (filter.currency() != null) {
+            conditions.add("currency = :currency");
+            params.addValue("currency", filter.currency());
+        }
+        if (filter.status() != null) {
+            conditions.add("status = :status");
+            params.addValue("status", filter.status().name());
+        }
+        if (filter.createdFrom() != null) {
+            conditions.add("created_at >= :createdFrom");
+            params.addValue("createdFrom", Timestamp.from(filter.createdFrom()));
+        }
+        if (filter.createdTo() != null) {
+            conditions.add("created_at < :createdTo");
+            params.addValue("createdTo", Timestamp.from(filter.createdTo()));
+        }
+        if (filter.minAmount() != null) {
+            conditions.add("amount >= :minAmount");
+            params.addValue("minAmount", filter.minAmount());
+        }
+        if (filter.maxAmount() != null) {
+            conditions.add("amount <= :maxAmount");
+            params.addValue("maxAmount", filter.maxAmount());
+        }
+
+        StringBuilder sql = new StringBuilder(SELECT_COLUMNS);
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        String column = PaymentConstants.SORT_AMOUNT.equals(filter.sort()) ? "amount" : "created_at";
+        String direction = "asc".equals(filter.direction()) ? "ASC" : "DESC";
+        sql.append(" ORDER BY ").append(column).append(' ').append(direction)
+                .append(", id ").append(direction);
+
+        // Only the columns PaymentResponse renders are read.
+        jdbcTemplate.query(sql.toString(), params, rs -> {
+            sink.accept(Payment.builder()
+                    .id(rs.getObject("id", UUID.class))
+                    .amount(rs.getBigDecimal("amount"))
+                    .currency(rs.getString("currency"))
+                    .recipient(rs.getString("recipient"))
+                    .processingFee(rs.getBigDecimal("processing_fee"))
+                    .createdAt(rs.getTimestamp("created_at").toInstant())
+                    .build());
+        });
+    }
+}
@@ -0,0 +1,8 @@
+package com.fxpayment.repository;
+
+import com.fxpayment.model.Payment;
+
+public interface PaymentInsertRepository {
+
+    IdempotentInsert insertIfAbsent(Payment payment);
+}
@@ -0,0 +1,121 @@
+package com.fxpayment.repository;
+
+import com.fxpayment.model.Payment;
+import com.fxpayment.model.PaymentStatus;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+class PaymentInsertRepositoryImpl implements PaymentInsertRepository {
+
+    private static final String POSTGRESQL = "PostgreSQL";
+
+    private static final String PAYMENT_COLUMNS = """
+            id, idempotency_key, amount, currency, recipient, recipient_account,
+            processing_fee, quote_id, settlement_currency, settlement_amount, exchange_rate,
+            status, created_at, updated_at""";
+
+    // Both outcomes come back from one statement on idx_payments_idempotency_key: the
+    // inserted row, or the stored row when the key already exists. id and timestamps
+    // use the column defaults (uuidv7(), CURRENT_TIMESTAMP).
+    private static final String INSERT_IF_ABSENT = """
+            WITH inserted AS (
+                INSERT INTO payments (idempotency_key, amount, currency, recipient, recipient_account,
+                                      processing_fee, quote_id, settlement_currency, settlement_amount,
+                                      exchange_rate, status)
+                VALUES (:idempotencyKey, :amount, :currency, :recipient, :recipientAccount,
+                        :processingFee, :quoteId, :settlementCurrency, :settlementAmount,
+                        :exchangeRate, :status)
+                ON CONFLICT (idempotency_key) DO NOTHING
+                RETURNING %1$s
+            )
+            SELECT %1$s, TRUE AS inserted FROM inserted
+            UNION ALL
+            SELECT %1$s, FALSE AS inserted FROM payments
+            WHERE idempotency_key = :idempotencyKey
+              AND NOT EXISTS (SELECT 1 FROM inserted)""".formatted(PAYMENT_COLUMNS);
+
+    private static final String SELECT_BY_KEY =
+            "SELECT " + PAYMENT_COLUMNS + ", FALSE AS inserted FROM payments WHERE idempotency_key = :idempotencyKey";
+
+    private static final RowMapper<IdempotentInsert> ROW_MAPPER = (rs, _) -> new IdempotentInsert(
+            Payment.builder()
+                    .id(rs.getObject("id", UUID.class))
+                    .idempotencyKey(rs.getObject("idempotency_key", UUID.class))
+                    .amount(rs.getBigDecimal("amount"))
+                    .currency(rs.getString("currency"))
+                    .recipient(rs.getString("recipient"))
+                    .recipientAccount(rs.getString("recipient_account"))
+                    .processingFee(rs.getBigDecimal("processing_fee"))
+                    .quoteId(rs.getObject("quote_id", UUID.class))
+                    .settlementCurrency(rs.getString("settlement_currency"))
+                    .settlementAmount(rs.getBigDecimal("settlement_amount"))
+                    .exchangeRate(rs.getBigDecimal("exchange_rate"))
+                    .status(PaymentStatus.valueOf(rs.getString("status")))
+                    .createdAt(toInstant(rs.getTimestamp("created_at")))
+                    .updatedAt(toInstant(rs.getTimestamp("updated_at")))
+                    .build(),
+            rs.getBoolean("inserted"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    private volatile Boolean postgres;
+
+    @Override
+    public IdempotentInsert insertIfAbsent(Payment payment) {
+        if (!isPostgres()) {
+            // Databases without ON CONFLICT fall back to a plain insert; a duplicate key
+            // surfaces as DataIntegrityViolationException for the caller to resolve.
+            entityManager.persist(payment);
+            entityManager.flush();
+            return IdempotentInsert.inserted(payment);
+        }
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("idempotencyKey", payment.getIdempotencyKey())
+                .addValue("amount", payment.getAmount())
+                .addValue("currency", payment.getCurrency())
+                .addValue("recipient", payment.getRecipient())
+                .addValue("recipientAccount", payment.getRecipientAccount())
+                .addValue("processingFee", payment.getProcessingFee())
+                .addValue("quoteId", payment.getQuoteId())
+                .addValue("settlementCurrency", payment.getSettlementCurrency())
+                .addValue("settlementAmount", payment.getSettlementAmount())
+                .addValue("exchangeRate", payment.getExchangeRate())
+                .addValue("status", payment.getStatus().name());
+
+        List<IdempotentInsert> rows = jdbcTemplate.query(INSERT_IF_ABSENT, params, ROW_MAPPER);
+        if (rows.isEmpty()) {
+            // ON CONFLICT waited for a concurrent insert of the same key that committed after
+            // this statement's snapshot was taken, so the fallback SELECT could not see it.
+            // A new statement gets a fresh snapshot under READ COMMITTED.
+            rows = jdbcTemplate.query(SELECT_BY_KEY, params, ROW_MAPPER);
+        }
+        return rows.getFirst();
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            String product = jdbcTemplate.getJdbcTemplate().execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            result = POSTGRESQL.equals(product);
+            postgres = result;
+        }
+        return result;
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+}
@@ -1,12 +1,94 @@
 package com.fxpayment.repository;
 
+import com.fxpayment.dto.PaymentRow;
 import com.fxpayment.model.Payment;
+import com.fxpayment.model.PaymentStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface PaymentRepository extends JpaRepository<Payment, UUID> {
+public interface PaymentRepository extends JpaRepository<Payment, UUID>, JpaSpecificationExecutor<Payment>,
+        PaymentInsertRepository, PaymentExportRepository, PaymentRowRepository {
 
-    Optional<Payment> findByIdempotencyKey(String idempotencyKey);
+    // Listing queries select only the response columns; with the created_at order they are
+    // answered by index-only scans on the covering idx_payments_by_time_covering (V9).
+    String SELECT_ROWS = """
+            SELECT new com.fxpayment.dto.PaymentRow(p.id, p.amount, p.currency, p.recipient, p.processingFee, p.createdAt)
+            FROM Payment p""";
+
+    Optional<Payment> findByIdempotencyKey(UUID idempotencyKey);
+
+    List<Payment> findByIdempotencyKeyIn(Collection<UUID> idempotencyKeys);
+
+    // Must be consumed inside a transaction; the fetch size keeps the driver from
+    // materialising every key at once.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("SELECT p.idempotencyKey FROM Payment p")
+    Stream<UUID> streamAllIdempotencyKeys();
+
+    @Query(value = SELECT_ROWS, countQuery = "SELECT count(p) FROM Payment p")
+    Page<PaymentRow> findRowPage(Pageable pageable);
+
+    // Slice return type: Spring Data fetches one extra row for hasNext and skips the COUNT query.
+    @Query(SELECT_ROWS)
+    Slice<PaymentRow> findRowSlice(Pageable pageable);
+
+    @Query(SELECT_ROWS + " ORDER BY p.createdAt DESC, p.id DESC")
+    List<PaymentRow> findNewest(Limit limit);
+
+    // Row-value comparison lets PostgreSQL seek directly into idx_payments_by_time_covering
+    // instead of walking and discarding every row before the cursor.
+    @Query(SELECT_ROWS + """
+             WHERE (p.createdAt, p.id) < (:createdAt, :id)
+            ORDER BY p.createdAt DESC, p.id DESC""")
+    List<PaymentRow> findOlderThan(@Param("createdAt") Instant createdAt, @Param("id") UUID id, Limit limit);
+
+    // The rows a settleClaimed call just moved, for the rollup deltas. The settling
+    // transaction holds their locks, so no other worker can have changed them since.
+    @Query(SELECT_ROWS + " WHERE p.id IN :ids AND p.status = :status AND p.updatedAt = :updatedAt")
+    List<PaymentRow> findRowsUpdatedAt(@Param("ids") Collection<UUID> ids, @Param("status") PaymentStatus status,
+                                       @Param("updatedAt") Instant updatedAt);
+
+    // Oldest unsettled payments no other worker holds: PENDING, or PROCESSING whose claim
+    // lease expired. SKIP LOCKED lets workers on every node take disjoint batches without
+    // waiting on each other; idx_payments_unsettled keeps the scan off settled rows.
+    @Query(value = """
+            SELECT * FROM payments
+            WHERE status = 'PENDING' OR (status = 'PROCESSING' AND updated_at < :leaseExpiredBefore)
+            ORDER BY created_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED""", nativeQuery = true)
+    List<Payment> lockClaimable(@Param("leaseExpiredBefore") Instant leaseExpiredBefore, @Param("limit") int limit);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Payment p SET p.status = :status, p.updatedAt = :updatedAt WHERE p.id IN :ids")
+    int updateStatus(@Param("ids") Collection<UUID> ids, @Param("status") PaymentStatus status,
+                     @Param("updatedAt") Instant updatedAt);
+
+    // Fenced on the claim timestamp: if the lease expired and another worker re-claimed a
+    // payment, this worker's late outcome matches no row and is dropped.
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            UPDATE Payment p SET p.status = :status, p.updatedAt = :updatedAt
+            WHERE p.id IN :ids
+              AND p.status = com.fxpayment.model.PaymentStatus.PROCESSING
+              AND p.updatedAt = :claimedAt""")
+    int settleClaimed(@Param("ids") Collection<UUID> ids, @Param("status") PaymentStatus status,
+                      @Param("claimedAt") Instant claimedAt, @Param("updatedAt") Instant updatedAt);
 }
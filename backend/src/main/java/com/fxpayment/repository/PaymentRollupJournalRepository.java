@@ -0,0 +1,21 @@
+package com.fxpayment.repository;
+
+import com.fxpayment.model.PaymentRollupJournalEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface PaymentRollupJournalRepository
+        extends JpaRepository<PaymentRollupJournalEntry, Long>, RollupJournalAppendRepository {
+
+    // Oldest entries no other folder holds. SKIP LOCKED lets every node fold a disjoint
+    // batch; payment transactions only insert, so they never wait on a fold.
+    @Query(value = """
+            SELECT * FROM payment_rollup_journal
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED""", nativeQuery = true)
+    List<PaymentRollupJournalEntry> lockOldest(@Param("limit") int limit);
+}
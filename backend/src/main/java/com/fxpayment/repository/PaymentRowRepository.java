@@ -0,0 +1,21 @@
+package com.fxpayment.repository;
+
+import com.fxpayment.dto.PaymentRow;
+import com.fxpayment.model.Payment;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+// Filtered listings as PaymentRow projections. JpaSpecificationExecutor can only return
+// entities, so the specification is applied to a constructor-expression criteria query.
+public interface PaymentRowRepository {
+
+    Page<PaymentRow> findRowPage(Specification<Payment> spec, Pageable pageable);
+
+    Slice<PaymentRow> findRowSlice(Specification<Payment> spec, Pageable pageable);
+
+    // Approximate row count for listing totals, without scanning payments where the
+    // database keeps statistics; elsewhere an exact count.
+    long estimateCount();
+}
@@ -0,0 +1,110 @@
+package com.fxpayment.repository;
+
+import com.fxpayment.dto.PaymentRow;
+import com.fxpayment.model.Payment;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+class PaymentRowRepositoryImpl implements PaymentRowRepository {
+
+    private static final String POSTGRESQL = "PostgreSQL";
+
+    // n_live_tup follows every committed insert on the server, whichever node made it;
+    // reltuples is the last ANALYZE and covers the gap after a statistics reset, when
+    // n_live_tup restarts from zero. Payments are never deleted, so the larger is closer.
+    private static final String ESTIMATE_COUNT = """
+            SELECT GREATEST(CAST(c.reltuples AS BIGINT), COALESCE(s.n_live_tup, 0))
+            FROM pg_class c
+            LEFT JOIN pg_stat_user_tables s ON s.relid = c.oid
+            WHERE c.oid = CAST('payments' AS regclass)""";
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgres;
+
+    @Override
+    public Page<PaymentRow> findRowPage(Specification<Payment> spec, Pageable pageable) {
+        List<PaymentRow> content = fetch(spec, pageable, pageable.getPageSize());
+        // Like findAll(spec, pageable): the COUNT is skipped when the page itself proves the total.
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+    }
+
+    @Override
+    public Slice<PaymentRow> findRowSlice(Specification<Payment> spec, Pageable pageable) {
+        // One extra row tells us whether another slice exists without a COUNT query.
+        List<PaymentRow> rows = fetch(spec, pageable, pageable.getPageSize() + 1);
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    // Not read-only, so replica routing keeps it on the primary: a replica keeps no
+    // statistics for the writes it replays.
+    @Override
+    @Transactional
+    public long estimateCount() {
+        if (!isPostgres()) {
+            return count((root, query, cb) -> null);
+        }
+        Long estimate = jdbcTemplate.queryForObject(ESTIMATE_COUNT, Long.class);
+        return estimate == null ? 0 : Math.max(estimate, 0);
+    }
+
+    private List<PaymentRow> fetch(Specification<Payment> spec, Pageable pageable, int maxResults) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PaymentRow> query = cb.createQuery(PaymentRow.class);
+        Root<Payment> root = query.from(Payment.class);
+        query.select(cb.construct(PaymentRow.class,
+                root.get("id"), root.get("amount"), root.get("currency"), root.get("recipient"),
+                root.get("processingFee"), root.get("createdAt")));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        return entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(maxResults)
+                .getResultList();
+    }
+
+    private long count(Specification<Payment> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Payment> root = query.from(Payment.class);
+        query.select(cb.count(root));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            String product = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            result = POSTGRESQL.equals(product);
+            postgres = result;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,53 @@
+package com.fxpayment.repository;
+
+import com.fxpayment.dto.PaymentFilter;
+import com.fxpayment.model.Payment;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Equality filters (currency, status) and range filters (created_at, amount) only, so
+// every combination stays sargable against the V8 listing indexes.
+public final class PaymentSpecifications {
+
+    private PaymentSpecifications() {}
+
+    public static Specification<Payment> matching(PaymentFilter filter) {
+        return (root, _, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.currency() != null) {
+                predicates.add(cb.equal(root.get("currency"), filter.currency()));
+            }
+            if (filter.status() != null) {
+                predicates.add(cb.equal(root.get("status"), filter.status()));
+            }
+            if (filter.createdFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), filter.createdFrom()));
+            }
+            if (filter.createdTo() != null) {
+                predicates.add(cb.lessThan(root.get("createdAt"), filter.createdTo()));
+            }
+            if (filter.minAmount() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("amount"), filter.minAmount()));
+            }
+            if (filter.maxAmount() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("amount"), filter.maxAmount()));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    // Keyset continuation for newest-first order: rows strictly after (createdAt, id). The
+    // criteria API has no row-value comparison, so it is spelled out; the redundant
+    // created_at <= bound lets PostgreSQL seek the index to the cursor instead of filtering.
+    public static Specification<Payment> olderThan(Instant createdAt, UUID id) {
+        return (root, _, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.get("createdAt"), createdAt),
+                cb.or(cb.lessThan(root.get("createdAt"), createdAt),
+                        cb.and(cb.equal(root.get("createdAt"), createdAt), cb.lessThan(root.get("id"), id))));
+    }
+}
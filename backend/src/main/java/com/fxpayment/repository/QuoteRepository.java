@@ -0,0 +1,26 @@
+package com.fxpayment.repository;
+
+import com.fxpayment.model.Quote;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public interface QuoteRepository extends JpaRepository<Quote, UUID> {
+
+    // 1 if the quote was live and is now consumed, 0 if it is unknown, expired or was
+    // consumed first by another transaction: a concurrent delete of the same row waits
+    // for that transaction and then finds nothing to delete.
+    @Modifying
+    @Query("DELETE FROM Quote q WHERE q.id = :id AND q.expiresAt > :now")
+    int deleteLive(@Param("id") UUID id, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Quote q WHERE q.expiresAt < :cutoff")
+    int deleteExpiredBefore(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,10 @@
+package com.fxpayment.repository;
+
+import java.util.Collection;
+
+public interface RollupJournalAppendRepository {
+
+    // Appends one journal row per delta. Must run in the transaction that made the change
+    // the deltas describe, so they commit or roll back with it.
+    void append(Collection<DailyRollupDelta> deltas);
+}
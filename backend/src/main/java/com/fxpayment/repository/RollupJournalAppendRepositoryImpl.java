@@ -0,0 +1,36 @@
+package com.fxpayment.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.util.Collection;
+
+@RequiredArgsConstructor
+class RollupJournalAppendRepositoryImpl implements RollupJournalAppendRepository {
+
+    // Plain inserts in one JDBC batch; JPA would insert IDENTITY rows one by one.
+    private static final String APPEND = """
+            INSERT INTO payment_rollup_journal (payment_day, currency, status, payment_count, amount_total, fee_total)
+            VALUES (:day, :currency, :status, :count, :amount, :fee)""";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public void append(Collection<DailyRollupDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        SqlParameterSource[] batch = deltas.stream()
+                .map(delta -> new MapSqlParameterSource()
+                        .addValue("day", delta.day())
+                        .addValue("currency", delta.currency())
+                        .addValue("status", delta.status().name())
+                        .addValue("count", delta.count())
+                        .addValue("amount", delta.amount())
+                        .addValue("fee", delta.fee()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(APPEND, batch);
+    }
+}
@@ -0,0 +1,328 @@
+package com.fxpayment.service;
+
+import com.fxpayment.config.PaymentProperties;
+import com.fxpayment.dto.BatchPaymentItem;
+import com.fxpayment.dto.BatchPaymentItemResult;
+import com.fxpayment.dto.BatchPaymentResponse;
+import com.fxpayment.dto.CreatePaymentResult;
+import com.fxpayment.dto.PaymentRequest;
+import com.fxpayment.dto.PaymentResponse;
+import com.fxpayment.dto.QuoteResponse;
+import com.fxpayment.exception.InvalidRequestException;
+import com.fxpayment.exception.PaymentProcessingException;
+import com.fxpayment.model.Currency;
+import com.fxpayment.model.Payment;
+import com.fxpayment.model.PaymentStatus;
+import com.fxpayment.repository.PaymentRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BatchPaymentService {
+
+    private final PaymentRepository paymentRepository;
+    private final FeeCalculationService feeCalculationService;
+    private final QuoteService quoteService;
+    private final CurrencyService currencyService;
+    private final PaymentValidationService paymentValidationService;
+    private final PaymentCountEstimator paymentCountEstimator;
+    private final PaymentRollupService paymentRollupService;
+    private final PaymentEventChannel paymentEventChannel;
+    private final IdempotencyKeyFilter idempotencyKeyFilter;
+    private final IdempotencyCacheService idempotencyCacheService;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final PaymentProperties paymentProperties;
+
+    public BatchPaymentResponse createPayments(List<BatchPaymentItem> items) {
+        // As on the single endpoint, the store tiers are asked for every key before the
+        // transaction opens: an item retried after a batch served by another node is only
+        // known to the shared tier, not to this node's filter.
+        Map<UUID, PaymentResponse> storedReplays = idempotencyCacheService.findStoredReplays(
+                items.stream().map(BatchPaymentService::parseKey).filter(Objects::nonNull).distinct().toList());
+        BatchPaymentResponse response;
+        try {
+            response = requireNonNullResult(transactionTemplate.execute(_ -> doCreatePayments(items, storedReplays)));
+        } catch (DataIntegrityViolationException ex) {
+            // Same recovery as the single endpoint: a concurrent request inserted one of
+            // our keys first. We don't know which, so every key goes through the filter
+            // and the retry's existing-key lookup turns the conflicting items into replays.
+            items.stream().map(BatchPaymentService::parseKey)
+                    .filter(Objects::nonNull).forEach(idempotencyKeyFilter::add);
+            try {
+                response = requireNonNullResult(transactionTemplate.execute(_ -> doCreatePayments(items, storedReplays)));
+            } catch (DataIntegrityViolationException retryEx) {
+                log.error("Batch idempotency retry also failed: items={}", items.size(), retryEx);
+                throw new PaymentProcessingException("Payment batch could not be processed due to a conflict", retryEx);
+            }
+        }
+        Map<UUID, PaymentResponse> stored = new LinkedHashMap<>();
+        for (BatchPaymentItemResult result : response.results()) {
+            if (result.payment() != null) {
+                UUID key = UUID.fromString(result.idempotencyKey());
+                idempotencyKeyFilter.add(key);
+                stored.putIfAbsent(key, result.payment());
+            }
+        }
+        idempotencyCacheService.cacheReplays(stored);
+        return response;
+    }
+
+    private BatchPaymentResponse requireNonNullResult(BatchPaymentResponse result) {
+        if (result == null) {
+            throw new PaymentProcessingException("Transaction produced no result", null);
+        }
+        return result;
+    }
+
+    private BatchPaymentResponse doCreatePayments(List<BatchPaymentItem> items, Map<UUID, PaymentResponse> storedReplays) {
+        BatchPaymentItemResult[] results = new BatchPaymentItemResult[items.size()];
+
+        // The first occurrence of a key owns it; later occurrences replay its outcome,
+        // exactly as a sequential retry against the single endpoint would. Keys are
+        // compared as parsed UUIDs, so differently cased spellings of one key collide.
+        UUID[] keys = new UUID[items.size()];
+        Map<UUID, Integer> firstIndexByKey = new LinkedHashMap<>();
+        Map<Integer, Integer> duplicateOf = new HashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            UUID key = parseKey(items.get(i));
+            keys[i] = key;
+            if (key == null) {
+                continue;
+            }
+            Integer first = firstIndexByKey.putIfAbsent(key, i);
+            if (first != null) {
+                duplicateOf.put(i, first);
+            }
+        }
+
+        // Keys the tiers missed fall back to payments only if the filter cannot rule them out.
+        Map<UUID, PaymentResponse> existing = new HashMap<>(storedReplays);
+        List<UUID> maybeStored = firstIndexByKey.keySet().stream()
+                .filter(key -> !existing.containsKey(key))
+                .filter(idempotencyKeyFilter::mightContain)
+                .toList();
+        if (!maybeStored.isEmpty()) {
+            for (Payment payment : paymentRepository.findByIdempotencyKeyIn(maybeStored)) {
+                existing.put(payment.getIdempotencyKey(), PaymentResponse.from(payment, currencyService::getDecimals));
+            }
+        }
+
+        // The batch's quotes are read once, in this transaction; prepare only looks them up.
+        Map<UUID, QuoteResponse> liveQuotes = quoteService.findLive(firstIndexByKey.values().stream()
+                .map(index -> quoteIdOf(items.get(index)))
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList());
+        // An item whose quote is gone may be a retry of a payment that consumed it, with the
+        // key unknown to the tiers and ruled out by the filter: its key is looked up too.
+        List<UUID> missingQuote = firstIndexByKey.entrySet().stream()
+                .filter(entry -> !existing.containsKey(entry.getKey()))
+                .filter(entry -> {
+                    UUID quoteId = quoteIdOf(items.get(entry.getValue()));
+                    return quoteId != null && !liveQuotes.containsKey(quoteId);
+                })
+                .map(Map.Entry::getKey)
+                .toList();
+        if (!missingQuote.isEmpty()) {
+            for (Payment payment : paymentRepository.findByIdempotencyKeyIn(missingQuote)) {
+                existing.put(payment.getIdempotencyKey(), PaymentResponse.from(payment, currencyService::getDecimals));
+            }
+        }
+
+        List<Integer> toPrepare = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (duplicateOf.containsKey(i)) {
+                continue;
+            }
+            BatchPaymentItem item = items.get(i);
+            PaymentResponse replay = keys[i] == null ? null : existing.get(keys[i]);
+            if (replay != null) {
+                log.info("Idempotency replay in batch: idempotencyKey={}, paymentId={}",
+                        item.idempotencyKey(), replay.id());
+                results[i] = BatchPaymentItemResult.of(i, item.idempotencyKey(), new CreatePaymentResult(replay, false));
+            } else {
+                toPrepare.add(i);
+            }
+        }
+
+        List<Prepared> prepared = new ArrayList<>();
+        for (Outcome outcome : prepareInParallel(items, keys, toPrepare, liveQuotes)) {
+            switch (outcome) {
+                case Prepared p -> prepared.add(p);
+                case Rejected r -> results[r.index()] = BatchPaymentItemResult.rejected(
+                        r.index(), items.get(r.index()) == null ? null : items.get(r.index()).idempotencyKey(), r.errors());
+            }
+        }
+
+        persistInBatches(prepared, results);
+
+        for (Map.Entry<Integer, Integer> duplicate : duplicateOf.entrySet()) {
+            int index = duplicate.getKey();
+            String key = items.get(index).idempotencyKey();
+            BatchPaymentItemResult owner = results[duplicate.getValue()];
+            results[index] = owner.payment() == null
+                    ? BatchPaymentItemResult.rejected(index, key, owner.errors())
+                    : BatchPaymentItemResult.of(index, key, new CreatePaymentResult(owner.payment(), false));
+        }
+
+        BatchPaymentResponse response = BatchPaymentResponse.of(List.of(results));
+        paymentEventChannel.publish(response.results().stream()
+                .filter(BatchPaymentItemResult::created)
+                .map(BatchPaymentItemResult::payment)
+                .toList());
+        log.info("Payment batch processed: items={}, created={}, replayed={}, rejected={}",
+                items.size(), response.created(), response.replayed(), response.rejected());
+        return response;
+    }
+
+    private List<Outcome> prepareInParallel(List<BatchPaymentItem> items, UUID[] keys, List<Integer> indexes,
+                                            Map<UUID, QuoteResponse> liveQuotes) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Outcome>> futures = indexes.stream()
+                    .map(index -> executor.submit(() -> prepare(index, items.get(index), keys[index], liveQuotes)))
+                    .toList();
+
+            List<Outcome> outcomes = new ArrayList<>(futures.size());
+            for (Future<Outcome> future : futures) {
+                outcomes.add(future.get());
+            }
+            return outcomes;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new PaymentProcessingException("Payment batch validation was interrupted", ex);
+        } catch (ExecutionException ex) {
+            throw new PaymentProcessingException("Payment batch validation failed", ex.getCause());
+        }
+    }
+
+    // Validation and fee math only: no database access, so items are prepared in parallel.
+    private Outcome prepare(int index, BatchPaymentItem item, UUID key, Map<UUID, QuoteResponse> liveQuotes) {
+        if (item == null) {
+            return new Rejected(index, List.of("Payment item is required"));
+        }
+
+        Set<ConstraintViolation<BatchPaymentItem>> violations = validator.validate(item);
+        if (!violations.isEmpty()) {
+            return new Rejected(index, violations.stream().map(ConstraintViolation::getMessage).sorted().toList());
+        }
+
+        try {
+            PaymentRequest normalised = item.payment().normalised();
+            Currency currency = paymentValidationService.resolveAndValidateCurrency(normalised);
+            BigDecimal fee = feeCalculationService.calculateFee(normalised.amount(), currency);
+            QuoteResponse quote = quoteService.lockedQuote(normalised, liveQuotes);
+            return new Prepared(index, key, item.idempotencyKey(), normalised, currency, fee, quote);
+        } catch (InvalidRequestException ex) {
+            return new Rejected(index, List.of(ex.getMessage()));
+        }
+    }
+
+    private void persistInBatches(List<Prepared> prepared, BatchPaymentItemResult[] results) {
+        int flushSize = paymentProperties.batch().flushSize();
+        PaymentStatus status = PaymentService.initialStatus(paymentProperties);
+        List<Payment> persisted = new ArrayList<>(prepared.size());
+        try {
+            List<Prepared> insertable = consumeQuotes(prepared, results);
+            for (int start = 0; start < insertable.size(); start += flushSize) {
+                List<Prepared> chunk = insertable.subList(start, Math.min(start + flushSize, insertable.size()));
+                List<Payment> payments = chunk.stream()
+                        .map(p -> PaymentService.newPayment(p.key(), p.request(), p.fee(), p.quote(), status))
+                        .toList();
+
+                // One flush per chunk lets Hibernate send the inserts as a single JDBC batch;
+                // clearing keeps the persistence context from growing with the batch.
+                paymentRepository.saveAll(payments);
+                paymentRepository.flush();
+                entityManager.clear();
+                persisted.addAll(payments);
+
+                for (int i = 0; i < chunk.size(); i++) {
+                    Prepared p = chunk.get(i);
+                    Payment saved = payments.get(i);
+                    results[p.index()] = BatchPaymentItemResult.of(p.index(), p.idempotencyKey(),
+                            new CreatePaymentResult(PaymentResponse.from(saved, PaymentService.decimalsOf(p.currency(), currencyService)),
+                                    true, status == PaymentStatus.PENDING));
+                }
+            }
+            // One set of deltas for the whole batch: a journal row per bucket, not per payment.
+            paymentRollupService.recordCreated(persisted);
+        } catch (DataIntegrityViolationException ex) {
+            throw ex;
+        } catch (DataAccessException ex) {
+            log.error("Failed to persist payment batch: items={}", prepared.size(), ex);
+            throw new PaymentProcessingException("Payment batch could not be processed", ex);
+        }
+        paymentCountEstimator.recordInserted(persisted.size());
+    }
+
+    // Consumes the quotes of the items about to be inserted, in this transaction, so a key
+    // conflict that rolls the batch back releases them for the retry. An item whose quote
+    // is gone (expired, used by another payment or by an earlier item of this batch) is
+    // rejected. Quotes are consumed in id order, so two batches sharing quotes cannot
+    // deadlock on them.
+    private List<Prepared> consumeQuotes(List<Prepared> prepared, BatchPaymentItemResult[] results) {
+        Set<Integer> unusable = new HashSet<>();
+        prepared.stream()
+                .filter(p -> p.quote() != null)
+                .sorted(Comparator.comparing(p -> p.quote().id()))
+                .forEach(p -> {
+                    if (!quoteService.consume(p.quote())) {
+                        unusable.add(p.index());
+                        results[p.index()] = BatchPaymentItemResult.rejected(p.index(), p.idempotencyKey(),
+                                List.of(QuoteService.unusable(p.quote().id()).getMessage()));
+                    }
+                });
+        return unusable.isEmpty() ? prepared : prepared.stream().filter(p -> !unusable.contains(p.index())).toList();
+    }
+
+    // null when the item names no quote or is too malformed to say; validation rejects the latter.
+    private static UUID quoteIdOf(BatchPaymentItem item) {
+        return item == null || item.payment() == null ? null : item.payment().quoteId();
+    }
+
+    // null for a missing or malformed key; validation rejects those items.
+    private static UUID parseKey(BatchPaymentItem item) {
+        if (item == null || item.idempotencyKey() == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(item.idempotencyKey());
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private sealed interface Outcome permits Prepared, Rejected {}
+
+    private record Prepared(int index, UUID key, String idempotencyKey, PaymentRequest request,
+                            Currency currency, BigDecimal fee, QuoteResponse quote) implements Outcome {}
+
+    private record Rejected(int index, List<String> errors) implements Outcome {}
+}
@@ -0,0 +1,54 @@
+package com.fxpayment.service;
+
+import com.fxpayment.dto.PaymentResponse;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+// Near-cache form of a replay response. A PaymentResponse is seven objects (UUID, two
+// BigDecimals, two Strings, Instant, record); this is one record plus the recipient, with
+// the id split into two longs, amounts as unscaled longs at the currency's decimals,
+// created_at as epoch nanos and the currency code interned, so every entry shares it.
+// settlement is kept as is: it is null for every payment not made against a quote.
+public record CompactReplay(
+        long idHigh,
+        long idLow,
+        String currency,
+        byte decimals,
+        long amountUnits,
+        long processingFeeUnits,
+        String recipient,
+        long createdAtNanos,
+        PaymentResponse.Settlement settlement
+) {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    // Amounts in a response are already rounded to the currency's decimals, so the unscaled
+    // values at that scale are exact; longValueExact fails loudly rather than truncate.
+    public static CompactReplay of(PaymentResponse response) {
+        int decimals = response.amount().scale();
+        Instant createdAt = response.createdAt();
+        return new CompactReplay(
+                response.id().getMostSignificantBits(),
+                response.id().getLeastSignificantBits(),
+                response.currency().intern(),
+                (byte) decimals,
+                response.amount().unscaledValue().longValueExact(),
+                response.processingFee().setScale(decimals).unscaledValue().longValueExact(),
+                response.recipient(),
+                Math.addExact(Math.multiplyExact(createdAt.getEpochSecond(), NANOS_PER_SECOND), createdAt.getNano()),
+                response.settlement());
+    }
+
+    public PaymentResponse toResponse() {
+        return new PaymentResponse(
+                new UUID(idHigh, idLow),
+                BigDecimal.valueOf(amountUnits, decimals),
+                currency,
+                recipient,
+                BigDecimal.valueOf(processingFeeUnits, decimals),
+                Instant.ofEpochSecond(0, createdAtNanos),
+                settlement);
+    }
+}
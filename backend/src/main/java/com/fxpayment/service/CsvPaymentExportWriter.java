@@ -0,0 +1,57 @@
+package com.fxpayment.service;
+
+import com.fxpayment.dto.PaymentResponse;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+// RFC 4180: CRLF line endings, and fields containing a delimiter, quote or line break are
+// quoted with embedded quotes doubled. Columns follow PaymentResponse.
+final class CsvPaymentExportWriter implements PaymentExportWriter {
+
+    static final String HEADER = "id,amount,currency,recipient,processingFee,createdAt";
+    private static final String LINE_END = "\r\n";
+
+    private final Writer writer;
+
+    CsvPaymentExportWriter(OutputStream out) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(HEADER);
+        writer.write(LINE_END);
+    }
+
+    @Override
+    public void write(PaymentResponse payment) throws IOException {
+        writer.write(payment.id().toString());
+        writer.write(',');
+        writer.write(payment.amount().toPlainString());
+        writer.write(',');
+        writer.write(payment.currency());
+        writer.write(',');
+        writeField(payment.recipient());
+        writer.write(',');
+        writer.write(payment.processingFee().toPlainString());
+        writer.write(',');
+        writer.write(payment.createdAt().toString());
+        writer.write(LINE_END);
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
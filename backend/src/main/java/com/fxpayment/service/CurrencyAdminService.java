@@ -0,0 +1,44 @@
+package com.fxpayment.service;
+
+import com.fxpayment.dto.CurrencyFeeResponse;
+import com.fxpayment.dto.CurrencyFeeUpdate;
+import com.fxpayment.exception.CurrencyNotFoundException;
+import com.fxpayment.exception.PaymentProcessingException;
+import com.fxpayment.model.CurrencyEntity;
+import com.fxpayment.repository.CurrencyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CurrencyAdminService {
+
+    private final CurrencyRepository currencyRepository;
+    private final CurrencyLookupService currencyLookupService;
+    private final CurrencyChangeChannel currencyChangeChannel;
+    private final TransactionTemplate transactionTemplate;
+
+    // Fee changes apply to the next payment on every node: this node reloads its currency
+    // registry after the commit, so the reload cannot read the old row, and the other nodes
+    // reload when the NOTIFY sent in the same transaction reaches them.
+    public CurrencyFeeResponse updateFees(String code, CurrencyFeeUpdate update) {
+        CurrencyEntity currency = transactionTemplate.execute(_ -> {
+            CurrencyEntity entity = currencyRepository.findById(code)
+                    .orElseThrow(() -> new CurrencyNotFoundException(code));
+            entity.updateFees(update.feeRate(), update.minimumFee());
+            currencyRepository.saveAndFlush(entity);
+            currencyChangeChannel.publish(code);
+            return entity;
+        });
+        if (currency == null) {
+            throw new PaymentProcessingException("Transaction produced no result", null);
+        }
+        currencyLookupService.reload();
+        log.info("Currency fees updated: code={}, feeRate={}, minimumFee={}",
+                code, currency.getFeeRate(), currency.getMinimumFee());
+        return CurrencyFeeResponse.from(currency);
+    }
+}
@@ -0,0 +1,45 @@
+package com.fxpayment.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Cross-node currency cache invalidation: a currency change NOTIFYs on currency_changed,
+// and each node reloads its currency registry when the change has committed. Without
+// PostgreSQL the registry relies on refresh-ahead alone.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CurrencyChangeChannel implements NotificationHandler {
+
+    static final String CHANNEL = "currency_changed";
+
+    private final PostgresNotifications notifications;
+    private final CurrencyLookupService currencyLookupService;
+
+    // Must run inside the transaction that changed the currency.
+    public void publish(String code) {
+        if (notifications.enabled()) {
+            notifications.send(CHANNEL, List.of(code));
+        }
+    }
+
+    @Override
+    public String channel() {
+        return CHANNEL;
+    }
+
+    // The registry is reloaded whole, so one reload covers a burst of changes.
+    @Override
+    public void onNotifications(List<String> codes) {
+        log.debug("Currency changes received: codes={}", codes);
+        currencyLookupService.reload();
+    }
+
+    @Override
+    public void onReconnect() {
+        currencyLookupService.reload();
+    }
+}
@@ -0,0 +1,32 @@
+package com.fxpayment.service;
+
+import com.fxpayment.exception.InvalidRequestException;
+import com.fxpayment.model.Currency;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Immutable currency code -> decimals table. Rendering a page resolves it once and then
+// does a plain map lookup per row instead of a cached-service call per row.
+public final class CurrencyDecimals {
+
+    private final Map<String, Integer> decimalsByCode;
+
+    private CurrencyDecimals(Map<String, Integer> decimalsByCode) {
+        this.decimalsByCode = decimalsByCode;
+    }
+
+    public static CurrencyDecimals of(List<Currency> currencies) {
+        return new CurrencyDecimals(Map.copyOf(currencies.stream()
+                .collect(Collectors.toMap(Currency::code, currency -> (int) currency.decimals()))));
+    }
+
+    public int decimalsOf(String code) {
+        Integer decimals = decimalsByCode.get(code);
+        if (decimals == null) {
+            throw new InvalidRequestException("Currency not found: " + code);
+        }
+        return decimals;
+    }
+}
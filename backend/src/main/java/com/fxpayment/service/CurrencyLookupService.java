@@ -1,31 +1,137 @@
 package com.fxpayment.service;
 
+import com.fxpayment.model.Currency;
 import com.fxpayment.model.CurrencyEntity;
+import com.fxpayment.model.FeeScheduleBand;
 import com.fxpayment.repository.CurrencyRepository;
-import lombok.RequiredArgsConstructor;
+import com.fxpayment.repository.FeeScheduleBandRepository;
+import com.github.benmanes.caffeine.cache.Ticker;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
+// Holds the current CurrencyRegistry. Reads are a volatile read plus an array lookup. Once
+// the registry is older than refreshAfter, the next read still gets it and starts a single
+// background reload. The uncached variant (app.cache.enabled=false) reloads inline instead:
+// a read that finds the registry older than maxAge waits for a fresh one, and concurrent
+// reads share that load, so the table is read at most once per maxAge rather than once per
+// read. Either way reload() applies a change at once. Created by CacheConfig.
 @Slf4j
-@Service
-@RequiredArgsConstructor
 public class CurrencyLookupService {
 
+    private static final ThreadFactory REFRESH_THREADS = Thread.ofVirtual().name("currency-refresh-", 0).factory();
+
     private final CurrencyRepository currencyRepository;
+    private final FeeScheduleBandRepository feeScheduleBandRepository;
+    private final long refreshAfterNanos;
+    private final boolean inline;
+    private final Ticker ticker;
+
+    private final AtomicReference<Loaded> current = new AtomicReference<>();
+    private final AtomicLong loadSequence = new AtomicLong();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    // sequence orders loads by when they started, so a slow refresh that read the table
+    // before a fee update cannot replace the registry loaded after it.
+    private record Loaded(CurrencyRegistry registry, long sequence, long loadedAtNanos) {}
+
+    public CurrencyLookupService(CurrencyRepository currencyRepository,
+                                 FeeScheduleBandRepository feeScheduleBandRepository, Duration refreshAfter) {
+        this(currencyRepository, feeScheduleBandRepository, refreshAfter, false, Ticker.systemTicker());
+    }
+
+    CurrencyLookupService(CurrencyRepository currencyRepository, FeeScheduleBandRepository feeScheduleBandRepository,
+                          Duration refreshAfter, boolean inline, Ticker ticker) {
+        this.currencyRepository = currencyRepository;
+        this.feeScheduleBandRepository = feeScheduleBandRepository;
+        this.refreshAfterNanos = refreshAfter.toNanos();
+        this.inline = inline;
+        this.ticker = ticker;
+    }
+
+    // A zero maxAge reads the table on every lookup.
+    public static CurrencyLookupService uncached(CurrencyRepository currencyRepository,
+                                                 FeeScheduleBandRepository feeScheduleBandRepository, Duration maxAge) {
+        return new CurrencyLookupService(currencyRepository, feeScheduleBandRepository, maxAge, true, Ticker.systemTicker());
+    }
+
+    public List<Currency> findAll() {
+        return registry().currencies();
+    }
+
+    public Optional<Currency> findByCode(String code) {
+        return registry().find(code);
+    }
+
+    // The compiled schedule loaded with this currency; a currency that did not come from
+    // the registry gets its flat schedule.
+    public FeeSchedule feeSchedule(Currency currency) {
+        return registry().feeSchedule(currency.code()).orElseGet(() -> FeeSchedule.flat(currency));
+    }
+
+    public CurrencyRegistry registry() {
+        Loaded loaded = current.get();
+        if (loaded == null) {
+            return loadInitial();
+        }
+        if (ticker.read() - loaded.loadedAtNanos() < refreshAfterNanos) {
+            return loaded.registry();
+        }
+        if (inline) {
+            return loadExpired(loaded);
+        }
+        if (refreshing.compareAndSet(false, true)) {
+            REFRESH_THREADS.newThread(this::refresh).start();
+        }
+        return loaded.registry();
+    }
+
+    // Replaces the registry before returning, so the caller's next read sees the table as
+    // of this call. Used after currency changes.
+    public void reload() {
+        install(load());
+        log.info("Currency registry reloaded");
+    }
+
+    // Concurrent first reads share one query.
+    private synchronized CurrencyRegistry loadInitial() {
+        Loaded loaded = current.get();
+        return loaded != null ? loaded.registry() : install(load()).registry();
+    }
+
+    // Concurrent reads of an expired registry share one query too.
+    private synchronized CurrencyRegistry loadExpired(Loaded expired) {
+        Loaded loaded = current.get();
+        return loaded != expired ? loaded.registry() : install(load()).registry();
+    }
+
+    private void refresh() {
+        try {
+            install(load());
+            log.debug("Currency registry refreshed");
+        } catch (RuntimeException ex) {
+            log.warn("Currency registry refresh failed; serving the previous snapshot", ex);
+        } finally {
+            refreshing.set(false);
+        }
+    }
 
-    @Cacheable("allCurrencies")
-    public List<CurrencyEntity> findAll() {
-        log.debug("Loading all currencies from database");
-        return currencyRepository.findAll();
+    private Loaded load() {
+        long sequence = loadSequence.incrementAndGet();
+        List<CurrencyEntity> currencies = currencyRepository.findAll();
+        List<FeeScheduleBand> bands = feeScheduleBandRepository.findAll();
+        log.debug("Loaded {} currencies and {} fee bands from database", currencies.size(), bands.size());
+        return new Loaded(CurrencyRegistry.of(currencies, bands), sequence, ticker.read());
     }
 
-    @Cacheable(value = "currencyByCode", key = "#code")
-    public Optional<CurrencyEntity> findByCode(String code) {
-        log.debug("Loading currency from database: code={}", code);
-        return currencyRepository.findById(code);
+    private Loaded install(Loaded candidate) {
+        return current.accumulateAndGet(candidate,
+                (installed, next) -> installed == null || next.sequence() > installed.sequence() ? next : installed);
     }
 }
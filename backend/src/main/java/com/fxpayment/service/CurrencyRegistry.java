@@ -0,0 +1,85 @@
+package com.fxpayment.service;
+
+import com.fxpayment.model.Currency;
+import com.fxpayment.model.CurrencyEntity;
+import com.fxpayment.model.FeeScheduleBand;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+// Immutable snapshot of the currencies table: the list in load order plus flat arrays of
+// currencies and compiled fee schedules indexed by the packed three-letter code. All views
+// are built together from one load, so they always agree, and a lookup is a bounds-checked
+// array read with no hashing or proxy. Never mutated; a reload builds a new registry and
+// swaps it in.
+public final class CurrencyRegistry {
+
+    private static final int LETTERS = 26;
+    static final int SLOTS = LETTERS * LETTERS * LETTERS;
+
+    private final List<Currency> currencies;
+    private final Currency[] byCode;
+    private final FeeSchedule[] feeSchedules;
+
+    private CurrencyRegistry(List<Currency> currencies, Currency[] byCode, FeeSchedule[] feeSchedules) {
+        this.currencies = currencies;
+        this.byCode = byCode;
+        this.feeSchedules = feeSchedules;
+    }
+
+    public static CurrencyRegistry of(List<CurrencyEntity> currencies) {
+        return of(currencies, List.of());
+    }
+
+    // Codes outside [A-Z]{3} are listed but cannot be looked up; the API accepts only
+    // ISO 4217 codes, so no request could name them.
+    // Bands of currencies that are not in the list are ignored. The entities are copied,
+    // so the registry shares no mutable state with whoever loaded them.
+    public static CurrencyRegistry of(List<CurrencyEntity> currencies, List<FeeScheduleBand> bands) {
+        Map<String, List<FeeScheduleBand>> bandsByCurrency = bands.stream()
+                .collect(Collectors.groupingBy(band -> band.getKey().getCurrency()));
+        List<Currency> snapshots = currencies.stream().map(Currency::of).toList();
+        Currency[] byCode = new Currency[SLOTS];
+        FeeSchedule[] feeSchedules = new FeeSchedule[SLOTS];
+        for (Currency currency : snapshots) {
+            int slot = slot(currency.code());
+            if (slot >= 0) {
+                byCode[slot] = currency;
+                feeSchedules[slot] = FeeSchedule.of(currency, bandsByCurrency.getOrDefault(currency.code(), List.of()));
+            }
+        }
+        return new CurrencyRegistry(snapshots, byCode, feeSchedules);
+    }
+
+    public List<Currency> currencies() {
+        return currencies;
+    }
+
+    public Optional<Currency> find(String code) {
+        int slot = slot(code);
+        return slot < 0 ? Optional.empty() : Optional.ofNullable(byCode[slot]);
+    }
+
+    public Optional<FeeSchedule> feeSchedule(String code) {
+        int slot = slot(code);
+        return slot < 0 ? Optional.empty() : Optional.ofNullable(feeSchedules[slot]);
+    }
+
+    // Base-26 value of an upper-case three-letter code, or -1 for anything else.
+    static int slot(String code) {
+        if (code == null || code.length() != 3) {
+            return -1;
+        }
+        int slot = 0;
+        for (int i = 0; i < 3; i++) {
+            int letter = code.charAt(i) - 'A';
+            if (letter < 0 || letter >= LETTERS) {
+                return -1;
+            }
+            slot = slot * LETTERS + letter;
+        }
+        return slot;
+    }
+}
@@ -1,8 +1,11 @@
 package com.fxpayment.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fxpayment.dto.CurrencyResponse;
 import com.fxpayment.exception.InvalidRequestException;
-import com.fxpayment.model.CurrencyEntity;
+import com.fxpayment.model.Currency;
+import com.fxpayment.util.ContentHash;
+import com.fxpayment.util.PrerenderedJson;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -16,14 +19,31 @@ import java.util.Optional;
 public class CurrencyService {
 
     private final CurrencyLookupService currencyLookupService;
+    private final ObjectMapper objectMapper;
+
+    private volatile CurrencySnapshot currencySnapshot;
+
+    // Everything derived from one currency registry list, rebuilt only when the lookup
+    // service hands out a different list (after a refresh or reload). The rendered body is
+    // versioned by a digest of the responses, so the version changes exactly when the body does.
+    private record CurrencySnapshot(List<Currency> source, List<CurrencyResponse> responses,
+                                    CurrencyDecimals decimals, PrerenderedJson rendered) {}
 
     public List<CurrencyResponse> getAllCurrencies() {
-        return currencyLookupService.findAll().stream()
-                .map(CurrencyResponse::from)
-                .toList();
+        return snapshot().responses();
+    }
+
+    // Also covers the decimals every payment amount is rounded to, so listing ETags include it.
+    public String getCurrencyVersion() {
+        return snapshot().rendered().version();
+    }
+
+    // The /currencies body, serialized and compressed once per currency cache generation.
+    public PrerenderedJson getRenderedCurrencies() {
+        return snapshot().rendered();
     }
 
-    public Optional<CurrencyEntity> findByCode(String code) {
+    public Optional<Currency> findByCode(String code) {
         return currencyLookupService.findByCode(code);
     }
 
@@ -33,6 +53,28 @@ public class CurrencyService {
                     log.error("Currency not found during decimals lookup: code={}", code);
                     return new InvalidRequestException("Currency not found: " + code);
                 })
-                .getDecimals();
+                .decimals();
+    }
+
+    public CurrencyDecimals getCurrencyDecimals() {
+        return snapshot().decimals();
+    }
+
+    private CurrencySnapshot snapshot() {
+        List<Currency> currencies = currencyLookupService.findAll();
+        CurrencySnapshot snapshot = currencySnapshot;
+        if (snapshot == null || snapshot.source() != currencies) {
+            snapshot = newSnapshot(currencies);
+            currencySnapshot = snapshot;
+        }
+        return snapshot;
+    }
+
+    private CurrencySnapshot newSnapshot(List<Currency> currencies) {
+        List<CurrencyResponse> responses = currencies.stream().map(CurrencyResponse::from).toList();
+        PrerenderedJson rendered = PrerenderedJson.of(objectMapper, responses, ContentHash.of(responses));
+        log.debug("Currency snapshot rebuilt: currencies={}, jsonBytes={}, gzipBytes={}",
+                responses.size(), rendered.identity().length, rendered.gzip().length);
+        return new CurrencySnapshot(currencies, responses, CurrencyDecimals.of(currencies), rendered);
     }
 }
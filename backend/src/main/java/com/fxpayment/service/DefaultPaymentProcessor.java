@@ -0,0 +1,16 @@
+package com.fxpayment.service;
+
+import com.fxpayment.model.Payment;
+import com.fxpayment.model.PaymentStatus;
+import org.springframework.stereotype.Component;
+
+// No downstream rails are integrated yet, so an accepted payment settles exactly as the
+// synchronous path does. Replace this bean to plug in real settlement steps.
+@Component
+public class DefaultPaymentProcessor implements PaymentProcessor {
+
+    @Override
+    public PaymentStatus process(Payment payment) {
+        return PaymentStatus.COMPLETED;
+    }
+}
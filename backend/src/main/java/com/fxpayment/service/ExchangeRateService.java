@@ -0,0 +1,49 @@
+package com.fxpayment.service;
+
+import com.fxpayment.repository.ExchangeRateRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+// Holds the current RateSnapshot. Quotes read it with a volatile read; a reload builds a
+// complete snapshot off to the side and swaps it in, so a quote never sees a partially
+// loaded table. Payments never read rates: they execute at the rate their quote locked.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExchangeRateService {
+
+    private final ExchangeRateRepository exchangeRateRepository;
+    private final AtomicReference<RateSnapshot> current = new AtomicReference<>();
+
+    public RateSnapshot snapshot() {
+        RateSnapshot snapshot = current.get();
+        return snapshot != null ? snapshot : loadInitial();
+    }
+
+    // Concurrent first reads share one query.
+    private synchronized RateSnapshot loadInitial() {
+        RateSnapshot snapshot = current.get();
+        return snapshot != null ? snapshot : reload();
+    }
+
+    public RateSnapshot reload() {
+        RateSnapshot snapshot = RateSnapshot.of(exchangeRateRepository.findAll());
+        current.set(snapshot);
+        log.debug("Exchange rates loaded: pairs={}", snapshot.size());
+        return snapshot;
+    }
+
+    @Scheduled(fixedDelayString = "${fx.rates.refresh-interval}", initialDelayString = "${fx.rates.refresh-interval}")
+    public void refresh() {
+        try {
+            reload();
+        } catch (DataAccessException ex) {
+            log.warn("Exchange rate refresh failed; serving the previous snapshot", ex);
+        }
+    }
+}
@@ -1,7 +1,8 @@
 package com.fxpayment.service;
 
-import com.fxpayment.model.CurrencyEntity;
+import com.fxpayment.model.Currency;
 import com.fxpayment.util.MoneyUtil;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -9,29 +10,23 @@ import java.math.BigDecimal;
 
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class FeeCalculationService {
 
-    public BigDecimal calculateFee(BigDecimal amount, CurrencyEntity currency) {
-        if (amount == null || currency == null || currency.getFeeRate() == null) {
+    private final CurrencyLookupService currencyLookupService;
+
+    public BigDecimal calculateFee(BigDecimal amount, Currency currency) {
+        if (amount == null || currency == null || currency.feeRate() == null) {
             return MoneyUtil.zeroWithInternalScale();
         }
 
         if (amount.signum() < 0) {
-            log.error("Negative amount rejected: currency={}, amount={}", currency.getCode(), amount);
+            log.error("Negative amount rejected: currency={}, amount={}", currency.code(), amount);
             throw new IllegalArgumentException("Fee calculation requires a positive amount, got: " + amount);
         }
 
-        if (currency.getFeeRate().signum() == 0) {
-            return MoneyUtil.zeroWithInternalScale();
-        }
-
-        BigDecimal percentageFee = amount.multiply(currency.getFeeRate());
-        BigDecimal minimumFee = currency.getMinimumFee() != null ?
-                currency.getMinimumFee() : BigDecimal.ZERO;
-
-        BigDecimal result = percentageFee.max(minimumFee);
-        BigDecimal rounded = MoneyUtil.roundToInternalScale(result);
-        log.debug("Fee calculated: currency={}, amount={}, fee={}", currency.getCode(), amount, rounded);
-        return rounded;
+        BigDecimal fee = currencyLookupService.feeSchedule(currency).feeFor(amount);
+        log.debug("Fee calculated: currency={}, amount={}, fee={}", currency.code(), amount, fee);
+        return fee;
     }
 }
@@ -0,0 +1,100 @@
+package com.fxpayment.service;
+
+import com.fxpayment.model.Currency;
+import com.fxpayment.model.FeeScheduleBand;
+import com.fxpayment.util.FixedPointMoney;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.fxpayment.util.PaymentConstants.FEE_RATE_SCALE;
+
+// A currency's fee bands compiled into parallel long arrays sorted by lower bound: money in
+// units of the internal scale, rates in units of the fee-rate scale. Finding the band for
+// an amount is a binary search over a primitive array, and the fee itself is long
+// arithmetic (FixedPointMoney). The first band always starts at zero, so every
+// non-negative amount has one. Immutable; rebuilt with the currency registry.
+public final class FeeSchedule {
+
+    private static final long NO_CAP = Long.MAX_VALUE;
+
+    private final long[] lowerBounds;
+    private final long[] rates;
+    private final long[] fixedFees;
+    private final long[] minimumFees;
+    private final long[] maximumFees;
+
+    private FeeSchedule(long[] lowerBounds, long[] rates, long[] fixedFees, long[] minimumFees, long[] maximumFees) {
+        this.lowerBounds = lowerBounds;
+        this.rates = rates;
+        this.fixedFees = fixedFees;
+        this.minimumFees = minimumFees;
+        this.maximumFees = maximumFees;
+    }
+
+    // The currency's own feeRate and minimumFee as one band. A zero rate means no fee at
+    // all, minimum included, as it always has.
+    public static FeeSchedule flat(Currency currency) {
+        return of(currency, List.of());
+    }
+
+    // Bands below the first configured lower bound fall back to the flat currency band.
+    public static FeeSchedule of(Currency currency, List<FeeScheduleBand> bands) {
+        List<FeeScheduleBand> sorted = new ArrayList<>(bands);
+        sorted.sort(Comparator.comparing(band -> band.getKey().getLowerBound()));
+        boolean needsFlatBand = sorted.isEmpty() || sorted.getFirst().getKey().getLowerBound().signum() > 0;
+        int size = sorted.size() + (needsFlatBand ? 1 : 0);
+
+        long[] lowerBounds = new long[size];
+        long[] rates = new long[size];
+        long[] fixedFees = new long[size];
+        long[] minimumFees = new long[size];
+        long[] maximumFees = new long[size];
+        int i = 0;
+        if (needsFlatBand) {
+            BigDecimal rate = currency.feeRate() != null ? currency.feeRate() : BigDecimal.ZERO;
+            rates[0] = FixedPointMoney.toUnits(rate, FEE_RATE_SCALE);
+            minimumFees[0] = rate.signum() == 0 || currency.minimumFee() == null
+                    ? 0 : FixedPointMoney.toUnits(currency.minimumFee());
+            maximumFees[0] = NO_CAP;
+            i = 1;
+        }
+        for (FeeScheduleBand band : sorted) {
+            lowerBounds[i] = FixedPointMoney.toUnits(band.getKey().getLowerBound());
+            rates[i] = FixedPointMoney.toUnits(band.getRate(), FEE_RATE_SCALE);
+            fixedFees[i] = FixedPointMoney.toUnits(band.getFixedFee());
+            minimumFees[i] = FixedPointMoney.toUnits(band.getMinimumFee());
+            maximumFees[i] = band.getMaximumFee() != null
+                    ? FixedPointMoney.toUnits(band.getMaximumFee()) : NO_CAP;
+            i++;
+        }
+        return new FeeSchedule(lowerBounds, rates, fixedFees, minimumFees, maximumFees);
+    }
+
+    public int bandCount() {
+        return lowerBounds.length;
+    }
+
+    // fee = min(max(amount * rate + fixed, minimum), maximum), at the internal scale.
+    public BigDecimal feeFor(BigDecimal amount) {
+        return FixedPointMoney.toBigDecimal(feeUnits(FixedPointMoney.toUnits(amount)));
+    }
+
+    // Rounding amount * rate first and then adding, clamping and capping with scale-4
+    // values gives the same result as rounding once at the end, so no wider type is needed.
+    public long feeUnits(long amountUnits) {
+        int band = bandOf(amountUnits);
+        long fee = FixedPointMoney.add(
+                FixedPointMoney.multiply(amountUnits, rates[band], FEE_RATE_SCALE), fixedFees[band]);
+        return Math.min(Math.max(fee, minimumFees[band]), maximumFees[band]);
+    }
+
+    // Index of the last band whose lower bound is not above the amount.
+    int bandOf(long amountUnits) {
+        int found = Arrays.binarySearch(lowerBounds, amountUnits);
+        return found >= 0 ? found : -found - 2;
+    }
+}
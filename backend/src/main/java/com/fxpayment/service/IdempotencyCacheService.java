@@ -1,25 +1,101 @@
 package com.fxpayment.service;
 
-import com.fxpayment.model.Payment;
+import com.fxpayment.dto.PaymentResponse;
 import com.fxpayment.repository.PaymentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 
+// Replay lookups walk the IdempotencyStore tiers in order (the local Caffeine cache,
+// then the shared table when enabled) before falling back to payments. A hit backfills
+// the tiers in front of it. Entries are replay responses, not entities: immutable,
+// already rounded to the currency's decimals, and without the IBAN or status.
+// The key filter only knows keys written on this node or present at its last rebuild,
+// so it gates the payments fallback, never the tiers: a retry of a payment created on
+// another node is found in the shared tier whatever this node's filter says.
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class IdempotencyCacheService {
 
+    static final String LOOKUP_METRIC = "payments.idempotency.lookups";
+    static final String DATABASE_TIER = "database";
+
     private final PaymentRepository paymentRepository;
+    private final CurrencyService currencyService;
+    private final List<IdempotencyStore> stores;
+    private final IdempotencyKeyFilter idempotencyKeyFilter;
+    private final MeterRegistry meterRegistry;
+
+    public Optional<PaymentResponse> findReplay(UUID idempotencyKey) {
+        for (int i = 0; i < stores.size(); i++) {
+            IdempotencyStore store = stores.get(i);
+            Optional<PaymentResponse> hit = store.find(idempotencyKey);
+            recordLookup(store.tier(), hit.isPresent());
+            if (hit.isPresent()) {
+                stores.subList(0, i).forEach(front -> front.save(idempotencyKey, hit.get()));
+                return hit;
+            }
+        }
+
+        if (!idempotencyKeyFilter.mightContain(idempotencyKey)) {
+            return Optional.empty();
+        }
+        log.debug("Idempotency store miss, querying payments: idempotencyKey={}", idempotencyKey);
+        Optional<PaymentResponse> stored = paymentRepository.findByIdempotencyKey(idempotencyKey)
+                .map(payment -> PaymentResponse.from(payment, currencyService::getDecimals));
+        recordLookup(DATABASE_TIER, stored.isPresent());
+        stored.ifPresent(response -> cacheReplay(idempotencyKey, response));
+        return stored;
+    }
+
+    // The tiers only, for a batch: each tier is asked once for the keys the tiers in front
+    // of it missed. Keys missing from the result are left to the caller's payments query.
+    public Map<UUID, PaymentResponse> findStoredReplays(Collection<UUID> idempotencyKeys) {
+        Map<UUID, PaymentResponse> found = new HashMap<>();
+        List<UUID> remaining = new ArrayList<>(idempotencyKeys);
+        for (int i = 0; i < stores.size() && !remaining.isEmpty(); i++) {
+            IdempotencyStore store = stores.get(i);
+            Map<UUID, PaymentResponse> hits = store.findAll(remaining);
+            recordLookups(store.tier(), true, hits.size());
+            recordLookups(store.tier(), false, remaining.size() - hits.size());
+            if (!hits.isEmpty()) {
+                stores.subList(0, i).forEach(front -> front.saveAll(hits));
+                found.putAll(hits);
+                remaining.removeIf(hits::containsKey);
+            }
+        }
+        return found;
+    }
 
-    @Cacheable(value = "idempotencyKeys", unless = "#result == null")
-    public Optional<Payment> findExistingPayment(String idempotencyKey) {
-        log.debug("Idempotency cache miss, querying database: idempotencyKey={}", idempotencyKey);
-        return paymentRepository.findByIdempotencyKey(idempotencyKey);
+    // Write-through once the payment has committed, so the first client retry is
+    // answered without touching payments, whichever node it lands on.
+    public void cacheReplay(UUID idempotencyKey, PaymentResponse response) {
+        stores.forEach(store -> store.save(idempotencyKey, response));
     }
 
+    public void cacheReplays(Map<UUID, PaymentResponse> responses) {
+        if (!responses.isEmpty()) {
+            stores.forEach(store -> store.saveAll(responses));
+        }
+    }
+
+    private void recordLookup(String tier, boolean hit) {
+        recordLookups(tier, hit, 1);
+    }
+
+    private void recordLookups(String tier, boolean hit, int count) {
+        if (count > 0) {
+            meterRegistry.counter(LOOKUP_METRIC, "tier", tier, "result", hit ? "hit" : "miss").increment(count);
+        }
+    }
 }
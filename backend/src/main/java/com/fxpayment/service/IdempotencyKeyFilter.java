@@ -0,0 +1,81 @@
+package com.fxpayment.service;
+
+import com.fxpayment.config.PaymentProperties;
+import com.fxpayment.repository.PaymentRepository;
+import com.fxpayment.util.ScalableBloomFilter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+import java.util.stream.Stream;
+
+// Negative lookup for idempotency keys. Once built from payments.idempotency_key, a key
+// the filter has never seen is not in payments as of this node's last rebuild, so callers
+// skip the payments SELECT for it. It never gates the replay store tiers: a key written
+// through another node is unknown here but already in the shared tier. A false positive
+// only costs that SELECT, and the unique index on insert stays the final arbiter.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotencyKeyFilter {
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentCountEstimator paymentCountEstimator;
+    private final PaymentProperties paymentProperties;
+
+    // null until the first rebuild completes; every key "might" exist until then.
+    private volatile ScalableBloomFilter filter;
+    private volatile ScalableBloomFilter building;
+
+    public boolean mightContain(UUID idempotencyKey) {
+        ScalableBloomFilter current = filter;
+        return current == null || current.mightContain(idempotencyKey);
+    }
+
+    // Call after the inserting transaction commits: a rebuild publishes `building` before
+    // its snapshot query starts, so a committed key is either in that snapshot or added here.
+    public void add(UUID idempotencyKey) {
+        ScalableBloomFilter current = filter;
+        if (current != null) {
+            current.put(idempotencyKey);
+        }
+        ScalableBloomFilter next = building;
+        if (next != null) {
+            next.put(idempotencyKey);
+        }
+    }
+
+    // Not read-only, so replica routing keeps the snapshot on the primary: a lagging replica
+    // could miss keys committed before the rebuild started.
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public synchronized void rebuild() {
+        PaymentProperties.IdempotencyFilterProperties props = paymentProperties.idempotencyFilter();
+        if (props == null || !props.enabled()) {
+            log.info("Idempotency key filter disabled; every new key is looked up in the database");
+            return;
+        }
+
+        long started = System.nanoTime();
+        try {
+            long capacity = Math.max(props.expectedInsertions(), paymentCountEstimator.estimate());
+            ScalableBloomFilter next = new ScalableBloomFilter(capacity, props.falsePositiveRate());
+            building = next;
+            try (Stream<UUID> keys = paymentRepository.streamAllIdempotencyKeys()) {
+                keys.forEach(next::put);
+            }
+            filter = next;
+            log.info("Idempotency key filter built: keys={}, bits={}, elapsedMs={}",
+                    next.approximateSize(), next.bitSize(), (System.nanoTime() - started) / 1_000_000);
+        } catch (DataAccessException ex) {
+            log.warn("Idempotency key filter rebuild failed; keeping previous state", ex);
+        } finally {
+            building = null;
+        }
+    }
+}
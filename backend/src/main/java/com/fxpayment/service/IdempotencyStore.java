@@ -0,0 +1,33 @@
+package com.fxpayment.service;
+
+import com.fxpayment.dto.PaymentResponse;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+// A tier of replay storage in front of payments. IdempotencyCacheService consults the
+// registered stores in @Order order. Stores are caches: a miss or a failure only means
+// the lookup continues to the next tier, and payments stays the source of truth.
+public interface IdempotencyStore {
+
+    // Tag value for the per-tier lookup metrics.
+    String tier();
+
+    Optional<PaymentResponse> find(UUID idempotencyKey);
+
+    // Hits only; a key without an entry is absent from the map.
+    default Map<UUID, PaymentResponse> findAll(Collection<UUID> idempotencyKeys) {
+        Map<UUID, PaymentResponse> found = new HashMap<>();
+        idempotencyKeys.forEach(key -> find(key).ifPresent(response -> found.put(key, response)));
+        return found;
+    }
+
+    void save(UUID idempotencyKey, PaymentResponse response);
+
+    default void saveAll(Map<UUID, PaymentResponse> responses) {
+        responses.forEach(this::save);
+    }
+}
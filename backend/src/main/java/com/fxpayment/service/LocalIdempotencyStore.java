@@ -0,0 +1,44 @@
+package com.fxpayment.service;
+
+import com.fxpayment.dto.PaymentResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.UUID;
+
+// Near cache: the per-node Caffeine idempotencyKeys cache from CacheConfig. Entries are
+// held as CompactReplay and expanded back into the response on a hit.
+@Component
+@Order(1)
+@RequiredArgsConstructor
+public class LocalIdempotencyStore implements IdempotencyStore {
+
+    static final String CACHE_NAME = "idempotencyKeys";
+
+    private final CacheManager cacheManager;
+
+    @Override
+    public String tier() {
+        return "local";
+    }
+
+    @Override
+    public Optional<PaymentResponse> find(UUID idempotencyKey) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        return cache == null
+                ? Optional.empty()
+                : Optional.ofNullable(cache.get(idempotencyKey, CompactReplay.class)).map(CompactReplay::toResponse);
+    }
+
+    @Override
+    public void save(UUID idempotencyKey, PaymentResponse response) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache != null) {
+            cache.put(idempotencyKey, CompactReplay.of(response));
+        }
+    }
+}
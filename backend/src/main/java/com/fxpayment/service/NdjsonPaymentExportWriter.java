@@ -0,0 +1,38 @@
+package com.fxpayment.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fxpayment.dto.PaymentResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+// One PaymentResponse JSON object per line, serialised exactly as the listing endpoints do.
+final class NdjsonPaymentExportWriter implements PaymentExportWriter {
+
+    private final JsonGenerator generator;
+    private final ObjectWriter writer;
+
+    NdjsonPaymentExportWriter(OutputStream out, ObjectMapper objectMapper) throws IOException {
+        // The generator buffers; flushing after every value would turn each row into a socket write.
+        this.writer = objectMapper.writerFor(PaymentResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.generator = objectMapper.createGenerator(out, JsonEncoding.UTF8)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void write(PaymentResponse payment) throws IOException {
+        writer.writeValue(generator, payment);
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        generator.flush();
+    }
+}
@@ -0,0 +1,15 @@
+package com.fxpayment.service;
+
+import java.util.List;
+
+// Receives the notifications of one PostgresNotifications channel on the listener thread.
+interface NotificationHandler {
+
+    String channel();
+
+    // Payloads in the order they were sent; one call per poll that returned any.
+    void onNotifications(List<String> payloads);
+
+    // The listener reconnected: notifications sent while it was disconnected are lost.
+    void onReconnect();
+}
@@ -0,0 +1,45 @@
+package com.fxpayment.service;
+
+import com.fxpayment.repository.PaymentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Approximate payment count for listing totals. The scheduler loads it as soon as the
+// application starts and reloads it every refresh interval from PostgreSQL's table
+// statistics, which count every node's inserts and cost no scan. Inserts in between bump
+// it so this node's own writes show up at once. Request threads never query: until the
+// first load finishes the estimate is 0, and callers never report fewer rows than they saw.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PaymentCountEstimator {
+
+    private static final long UNINITIALISED = -1;
+
+    private final PaymentRepository paymentRepository;
+    private final AtomicLong estimate = new AtomicLong(UNINITIALISED);
+
+    public long estimate() {
+        return Math.max(estimate.get(), 0);
+    }
+
+    public void recordInserted(long count) {
+        estimate.getAndUpdate(current -> current == UNINITIALISED ? current : current + count);
+    }
+
+    @Scheduled(fixedDelayString = "${payments.listing.count-refresh-interval}")
+    public void refresh() {
+        try {
+            long count = paymentRepository.estimateCount();
+            estimate.set(count);
+            log.debug("Payment count estimate refreshed: {}", count);
+        } catch (DataAccessException ex) {
+            log.warn("Payment count estimate refresh failed; keeping {}", estimate.get(), ex);
+        }
+    }
+}
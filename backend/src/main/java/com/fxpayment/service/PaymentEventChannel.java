@@ -0,0 +1,79 @@
+package com.fxpayment.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fxpayment.dto.PaymentResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+// Carries created payments to the PaymentEventHub of every node. Each payment is NOTIFYed
+// on payment_created as its PaymentResponse JSON, well under PostgreSQL's 8000-byte payload
+// limit, and every node, this one included, publishes what it hears to its own
+// subscribers. Without PostgreSQL the payments go to this node's hub after the commit.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PaymentEventChannel implements NotificationHandler {
+
+    static final String CHANNEL = "payment_created";
+
+    private final PostgresNotifications notifications;
+    private final PaymentEventHub paymentEventHub;
+    private final ObjectMapper objectMapper;
+
+    // Must run inside the transaction that inserted the payments, so a stream never shows
+    // a payment that rolled back.
+    public void publish(List<PaymentResponse> payments) {
+        if (payments.isEmpty()) {
+            return;
+        }
+        if (notifications.enabled()) {
+            notifications.send(CHANNEL, payments.stream().map(this::toJson).toList());
+        } else if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    payments.forEach(paymentEventHub::publish);
+                }
+            });
+        } else {
+            payments.forEach(paymentEventHub::publish);
+        }
+    }
+
+    @Override
+    public String channel() {
+        return CHANNEL;
+    }
+
+    @Override
+    public void onNotifications(List<String> payloads) {
+        for (String payload : payloads) {
+            try {
+                paymentEventHub.publish(objectMapper.readValue(payload, PaymentResponse.class));
+            } catch (JsonProcessingException ex) {
+                log.error("Unreadable payment event dropped: {}", payload, ex);
+            }
+        }
+    }
+
+    // Events sent meanwhile are lost, so subscribers are cut off and reload, as after a
+    // buffer overflow.
+    @Override
+    public void onReconnect() {
+        paymentEventHub.closeAll();
+    }
+
+    private String toJson(PaymentResponse payment) {
+        try {
+            return objectMapper.writeValueAsString(payment);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Payment event could not be serialised: " + payment.id(), ex);
+        }
+    }
+}
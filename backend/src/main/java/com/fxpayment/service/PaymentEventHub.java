@@ -0,0 +1,137 @@
+package com.fxpayment.service;
+
+import com.fxpayment.config.PaymentProperties;
+import com.fxpayment.dto.PaymentResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Fans created payments out to this node's stream subscribers; PaymentEventChannel brings
+// them here from whichever node created them. Publishing never blocks: each subscriber
+// has a bounded buffer, and one that falls a full buffer behind is cut off instead of
+// slowing payment creation down or growing without limit. A client that was cut off
+// reconnects and reloads the first page to catch up.
+@Slf4j
+@Component
+public class PaymentEventHub {
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final int bufferSize;
+
+    public PaymentEventHub(PaymentProperties paymentProperties) {
+        this.bufferSize = paymentProperties.stream().bufferSize();
+    }
+
+    public Subscription subscribe() {
+        Subscription subscription = new Subscription();
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    // Called once the payment's transaction committed.
+    public void publish(PaymentResponse payment) {
+        for (Subscription subscription : subscriptions) {
+            if (!subscription.offer(payment)) {
+                subscriptions.remove(subscription);
+                log.info("Payment stream subscriber dropped: buffer of {} events full", bufferSize);
+            }
+        }
+    }
+
+    public int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        subscriptions.forEach(Subscription::close);
+    }
+
+    // One subscriber's buffer. Written by publishers and drained by a single reader.
+    // ReentrantLock rather than synchronized, so a waiting virtual thread never pins its carrier.
+    public final class Subscription implements AutoCloseable {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+        private final ArrayDeque<PaymentResponse> buffer = new ArrayDeque<>();
+        private boolean open = true;
+        private boolean overflowed;
+
+        private Subscription() {}
+
+        boolean offer(PaymentResponse payment) {
+            lock.lock();
+            try {
+                if (!open) {
+                    return false;
+                }
+                if (buffer.size() >= bufferSize) {
+                    overflowed = true;
+                    end();
+                    return false;
+                }
+                buffer.add(payment);
+                changed.signal();
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // The next buffered payment, or null once the timeout elapses or the subscription ends.
+        public PaymentResponse poll(Duration timeout) throws InterruptedException {
+            lock.lock();
+            try {
+                long nanos = timeout.toNanos();
+                while (open && buffer.isEmpty() && nanos > 0) {
+                    nanos = changed.awaitNanos(nanos);
+                }
+                return buffer.poll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public boolean isOpen() {
+            lock.lock();
+            try {
+                return open;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public boolean isOverflowed() {
+            lock.lock();
+            try {
+                return overflowed;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void close() {
+            lock.lock();
+            try {
+                end();
+            } finally {
+                lock.unlock();
+            }
+            subscriptions.remove(this);
+        }
+
+        private void end() {
+            open = false;
+            buffer.clear();
+            changed.signalAll();
+        }
+    }
+}
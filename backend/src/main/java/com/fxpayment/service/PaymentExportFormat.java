@@ -0,0 +1,35 @@
+package com.fxpayment.service;
+
+import com.fxpayment.util.PaymentConstants;
+import org.springframework.http.MediaType;
+
+public enum PaymentExportFormat {
+
+    NDJSON(PaymentConstants.EXPORT_FORMAT_NDJSON, MediaType.APPLICATION_NDJSON),
+    CSV(PaymentConstants.EXPORT_FORMAT_CSV, MediaType.parseMediaType(PaymentConstants.TEXT_CSV_VALUE));
+
+    private final String parameter;
+    private final MediaType mediaType;
+
+    PaymentExportFormat(String parameter, MediaType mediaType) {
+        this.parameter = parameter;
+        this.mediaType = mediaType;
+    }
+
+    public String parameter() {
+        return parameter;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public static PaymentExportFormat fromParameter(String parameter) {
+        for (PaymentExportFormat format : values()) {
+            if (format.parameter.equals(parameter)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported export format: " + parameter);
+    }
+}
@@ -0,0 +1,48 @@
+package com.fxpayment.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fxpayment.dto.PaymentFilter;
+import com.fxpayment.dto.PaymentResponse;
+import com.fxpayment.repository.PaymentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@RequiredArgsConstructor
+public class PaymentExportService {
+
+    private final PaymentRepository paymentRepository;
+    private final CurrencyService currencyService;
+    private final ObjectMapper objectMapper;
+
+    // Called from the response-streaming thread. The transaction spans the whole export so
+    // the database cursor stays open; each row is rendered and written before the next is
+    // fetched. Returns the number of payments written.
+    @Transactional(readOnly = true)
+    public long export(PaymentFilter filter, PaymentExportFormat format, OutputStream out) throws IOException {
+        CurrencyDecimals decimals = currencyService.getCurrencyDecimals();
+        PaymentExportWriter writer = PaymentExportWriter.of(format, out, objectMapper);
+        AtomicLong rows = new AtomicLong();
+        try {
+            paymentRepository.exportPayments(filter, payment -> {
+                try {
+                    writer.write(PaymentResponse.from(payment, decimals.decimalsOf(payment.getCurrency())));
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                rows.incrementAndGet();
+            });
+        } catch (UncheckedIOException ex) {
+            // Usually the client went away; ending the transaction closes the cursor.
+            throw ex.getCause();
+        }
+        writer.finish();
+        return rows.get();
+    }
+}
@@ -0,0 +1,24 @@
+package com.fxpayment.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fxpayment.dto.PaymentResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Renders payments one at a time onto a buffered stream; nothing is retained between rows.
+interface PaymentExportWriter {
+
+    void write(PaymentResponse payment) throws IOException;
+
+    // Flushes buffered output without closing the underlying stream.
+    void finish() throws IOException;
+
+    static PaymentExportWriter of(PaymentExportFormat format, OutputStream out, ObjectMapper objectMapper)
+            throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonPaymentExportWriter(out, objectMapper);
+            case CSV -> new CsvPaymentExportWriter(out);
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package com.fxpayment.service;
+
+import com.fxpayment.model.Payment;
+import com.fxpayment.model.PaymentStatus;
+
+// Downstream settlement for a payment accepted in async mode. Returns COMPLETED or FAILED;
+// a thrown exception counts as FAILED. Must be idempotent: if a worker's lease expires
+// mid-call, another worker may process the same payment again.
+public interface PaymentProcessor {
+
+    PaymentStatus process(Payment payment);
+}
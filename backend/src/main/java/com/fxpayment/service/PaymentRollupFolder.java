@@ -0,0 +1,33 @@
+package com.fxpayment.service;
+
+import com.fxpayment.config.PaymentProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Drains payment_rollup_journal into payment_daily_rollups on every node. Each batch is
+// its own short transaction; SKIP LOCKED keeps nodes off each other's batches, so only
+// the folds, never the payment transactions, contend for a rollup row.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PaymentRollupFolder {
+
+    private final PaymentRollupService paymentRollupService;
+    private final PaymentProperties paymentProperties;
+
+    @Scheduled(fixedDelayString = "${payments.rollups.fold-interval}")
+    public void fold() {
+        int batchSize = paymentProperties.rollups().foldBatchSize();
+        try {
+            int folded;
+            do {
+                folded = paymentRollupService.foldJournal(batchSize);
+            } while (folded == batchSize);
+        } catch (DataAccessException ex) {
+            log.warn("Rollup journal fold failed; retrying in the next interval", ex);
+        }
+    }
+}
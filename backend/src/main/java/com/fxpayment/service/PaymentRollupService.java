@@ -0,0 +1,137 @@
+package com.fxpayment.service;
+
+import com.fxpayment.dto.DailyPaymentSummary;
+import com.fxpayment.dto.PaymentRow;
+import com.fxpayment.dto.PaymentSummaryFilter;
+import com.fxpayment.dto.PaymentSummaryResponse;
+import com.fxpayment.exception.InvalidRequestException;
+import com.fxpayment.model.Payment;
+import com.fxpayment.model.PaymentRollupJournalEntry;
+import com.fxpayment.model.PaymentStatus;
+import com.fxpayment.repository.DailyRollupDelta;
+import com.fxpayment.repository.PaymentDailyRollupRepository;
+import com.fxpayment.repository.PaymentRollupJournalRepository;
+import com.fxpayment.util.PaymentConstants;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Keeps payment_daily_rollups in step with payments. Callers pass what their transaction
+// wrote, and the deltas are summed per bucket and appended to payment_rollup_journal in
+// that transaction: an insert, so concurrent payments in one bucket never wait on each
+// other's row lock. foldJournal later moves journal entries into the rollup rows.
+@Service
+@RequiredArgsConstructor
+public class PaymentRollupService {
+
+    private final PaymentDailyRollupRepository rollupRepository;
+    private final PaymentRollupJournalRepository journalRepository;
+    private final CurrencyService currencyService;
+
+    private record Bucket(LocalDate day, String currency, PaymentStatus status) {}
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(Collection<Payment> payments) {
+        Map<Bucket, DailyRollupDelta> deltas = new HashMap<>();
+        for (Payment payment : payments) {
+            add(deltas, payment.getCreatedAt(), payment.getCurrency(), payment.getStatus(), 1,
+                    payment.getAmount(), payment.getProcessingFee());
+        }
+        journalRepository.append(deltas.values());
+    }
+
+    // Payments as loaded before the update, so getStatus() is the status they left.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordMoved(Collection<Payment> payments, PaymentStatus to) {
+        Map<Bucket, DailyRollupDelta> deltas = new HashMap<>();
+        for (Payment payment : payments) {
+            if (payment.getStatus() != to) {
+                move(deltas, payment.getCreatedAt(), payment.getCurrency(), payment.getStatus(), to,
+                        payment.getAmount(), payment.getProcessingFee());
+            }
+        }
+        journalRepository.append(deltas.values());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordMoved(Collection<PaymentRow> rows, PaymentStatus from, PaymentStatus to) {
+        Map<Bucket, DailyRollupDelta> deltas = new HashMap<>();
+        for (PaymentRow row : rows) {
+            move(deltas, row.createdAt(), row.currency(), from, to, row.amount(), row.processingFee());
+        }
+        journalRepository.append(deltas.values());
+    }
+
+    // Folds up to limit of the oldest journal entries into the rollup rows and deletes
+    // them, in one transaction. Returns how many entries were folded.
+    @Transactional
+    public int foldJournal(int limit) {
+        List<PaymentRollupJournalEntry> entries = journalRepository.lockOldest(limit);
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        Map<Bucket, DailyRollupDelta> deltas = new HashMap<>();
+        for (PaymentRollupJournalEntry entry : entries) {
+            deltas.merge(new Bucket(entry.getDay(), entry.getCurrency(), entry.getStatus()),
+                    new DailyRollupDelta(entry.getDay(), entry.getCurrency(), entry.getStatus(),
+                            entry.getPaymentCount(), entry.getAmountTotal(), entry.getFeeTotal()),
+                    DailyRollupDelta::plus);
+        }
+        rollupRepository.applyDeltas(deltas.values());
+        journalRepository.deleteAllByIdInBatch(entries.stream().map(PaymentRollupJournalEntry::getId).toList());
+        return entries.size();
+    }
+
+    // Rebuilds one day's rollups from payments, for days whose rollups are known to be off,
+    // such as payments written by nodes that predate the rollups (see V10). REPEATABLE READ
+    // keeps the payments read and the journal entries deleted consistent; a fold racing it
+    // for the same entries makes it fail with a concurrency error, and it can be rerun.
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public int recomputeDay(LocalDate day) {
+        return rollupRepository.recomputeDay(day);
+    }
+
+    @Transactional(readOnly = true)
+    public PaymentSummaryResponse getSummary(PaymentSummaryFilter filter) {
+        LocalDate to = filter.to() != null ? filter.to() : LocalDate.now(ZoneOffset.UTC);
+        LocalDate from = filter.from() != null ? filter.from() : to.minusDays(PaymentConstants.SUMMARY_DEFAULT_DAYS - 1);
+        if (from.isAfter(to)) {
+            throw new InvalidRequestException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= PaymentConstants.SUMMARY_MAX_DAYS) {
+            throw new InvalidRequestException(
+                    "Summary range must not exceed " + PaymentConstants.SUMMARY_MAX_DAYS + " days");
+        }
+
+        CurrencyDecimals decimals = currencyService.getCurrencyDecimals();
+        return new PaymentSummaryResponse(from, to,
+                rollupRepository.findSummary(from, to, filter.currency(), filter.status()).stream()
+                        .map(rollup -> DailyPaymentSummary.from(rollup, decimals.decimalsOf(rollup.getKey().getCurrency())))
+                        .toList());
+    }
+
+    private static void move(Map<Bucket, DailyRollupDelta> deltas, Instant createdAt, String currency,
+                             PaymentStatus from, PaymentStatus to, BigDecimal amount, BigDecimal fee) {
+        add(deltas, createdAt, currency, from, -1, amount.negate(), fee.negate());
+        add(deltas, createdAt, currency, to, 1, amount, fee);
+    }
+
+    private static void add(Map<Bucket, DailyRollupDelta> deltas, Instant createdAt, String currency,
+                            PaymentStatus status, long count, BigDecimal amount, BigDecimal fee) {
+        LocalDate day = LocalDate.ofInstant(createdAt, ZoneOffset.UTC);
+        deltas.merge(new Bucket(day, currency, status),
+                new DailyRollupDelta(day, currency, status, count, amount, fee), DailyRollupDelta::plus);
+    }
+}
@@ -1,27 +1,53 @@
 package com.fxpayment.service;
 
+import com.fxpayment.config.PaymentProperties;
 import com.fxpayment.dto.CreatePaymentResult;
+import com.fxpayment.dto.CursorPage;
+import com.fxpayment.dto.PaymentCursor;
+import com.fxpayment.dto.PaymentFilter;
 import com.fxpayment.dto.PaymentRequest;
 import com.fxpayment.dto.PaymentResponse;
+import com.fxpayment.dto.PaymentRow;
+import com.fxpayment.dto.PaymentStatusResponse;
+import com.fxpayment.dto.QuoteResponse;
+import com.fxpayment.dto.SliceResponse;
+import com.fxpayment.exception.InvalidRequestException;
+import com.fxpayment.exception.PaymentNotFoundException;
 import com.fxpayment.exception.PaymentProcessingException;
-import com.fxpayment.model.CurrencyEntity;
+import com.fxpayment.model.Currency;
 import com.fxpayment.model.Payment;
 import com.fxpayment.model.PaymentStatus;
+import com.fxpayment.repository.IdempotentInsert;
 import com.fxpayment.repository.PaymentRepository;
+import com.fxpayment.repository.PaymentSpecifications;
+import com.fxpayment.util.ContentHash;
+import com.fxpayment.util.PaymentConstants;
+import com.fxpayment.util.SingleFlight;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
 
 @Slf4j
 @Service
@@ -30,23 +56,47 @@ public class PaymentService {
 
     private final PaymentRepository paymentRepository;
     private final FeeCalculationService feeCalculationService;
+    private final QuoteService quoteService;
     private final CurrencyService currencyService;
     private final PaymentValidationService paymentValidationService;
     private final IdempotencyCacheService idempotencyCacheService;
+    private final IdempotencyKeyFilter idempotencyKeyFilter;
+    private final PaymentCountEstimator paymentCountEstimator;
+    private final PaymentRollupService paymentRollupService;
+    private final PaymentEventChannel paymentEventChannel;
     private final TransactionTemplate transactionTemplate;
+    private final SingleFlight<UUID, CreatePaymentResult> paymentSingleFlight;
+    private final PaymentProperties paymentProperties;
 
-    public CreatePaymentResult createPayment(String idempotencyKey, PaymentRequest request) {
+    public CreatePaymentResult createPayment(UUID idempotencyKey, PaymentRequest request) {
+        // Aggressive client retries arrive within milliseconds of each other. Copies that
+        // overlap an in-flight request wait for its result instead of opening their own
+        // transaction and losing the race on the unique index.
+        SingleFlight.Result<CreatePaymentResult> flight;
         try {
-            return requireNonNullResult(
-                    transactionTemplate.execute(_ -> doCreatePayment(idempotencyKey, request)));
+            flight = paymentSingleFlight.execute(idempotencyKey, () -> createPaymentOnce(idempotencyKey, request));
+        } catch (CancellationException ex) {
+            throw new PaymentProcessingException("Payment request was interrupted", ex);
+        }
+        if (flight.shared()) {
+            log.info("Idempotency replay of in-flight request: idempotencyKey={}, paymentId={}",
+                    idempotencyKey, flight.value().response().id());
+            return new CreatePaymentResult(flight.value().response(), false);
+        }
+        return flight.value();
+    }
+
+    private CreatePaymentResult createPaymentOnce(UUID idempotencyKey, PaymentRequest request) {
+        try {
+            return attemptCreatePayment(idempotencyKey, request);
         } catch (DataIntegrityViolationException ex) {
-            // Concurrent insert with the same idempotency key is resolved by the
-            // DB unique constraint. Retrying starts a new transaction whose initial
-            // findByIdempotencyKey lookup will find the winner's record and return
-            // a replay response.
+            // On PostgreSQL insertIfAbsent resolves a concurrent duplicate key in the
+            // same statement, so this only triggers on databases without ON CONFLICT.
+            // The key now certainly exists, so the filter must let the retry's initial
+            // lookup through; it will find the winner's record and return a replay.
+            idempotencyKeyFilter.add(idempotencyKey);
             try {
-                return requireNonNullResult(
-                        transactionTemplate.execute(status -> doCreatePayment(idempotencyKey, request)));
+                return attemptCreatePayment(idempotencyKey, request);
             } catch (DataIntegrityViolationException retryEx) {
                 log.error("Idempotency retry also failed: idempotencyKey={}", idempotencyKey, retryEx);
                 throw new PaymentProcessingException("Payment could not be processed due to a conflict", retryEx);
@@ -54,6 +104,24 @@ public class PaymentService {
         }
     }
 
+    private CreatePaymentResult attemptCreatePayment(UUID idempotencyKey, PaymentRequest request) {
+        // Replays are answered before a transaction is opened, so a failing store tier
+        // can never leave the payment transaction rollback-only. The store tiers are always
+        // asked, since the retry may follow a request served by another node; only the
+        // payments fallback is skipped for keys the filter proves new.
+        Optional<PaymentResponse> replay = idempotencyCacheService.findReplay(idempotencyKey);
+        if (replay.isPresent()) {
+            log.info("Idempotency replay: idempotencyKey={}, paymentId={}", idempotencyKey, replay.get().id());
+            return new CreatePaymentResult(replay.get(), false);
+        }
+
+        CreatePaymentResult result = requireNonNullResult(
+                transactionTemplate.execute(_ -> doCreatePayment(idempotencyKey, request)));
+        idempotencyKeyFilter.add(idempotencyKey);
+        idempotencyCacheService.cacheReplay(idempotencyKey, result.response());
+        return result;
+    }
+
     private CreatePaymentResult requireNonNullResult(CreatePaymentResult result) {
         if (result == null) {
             throw new PaymentProcessingException("Transaction produced no result", null);
@@ -64,42 +132,238 @@ public class PaymentService {
     // No per-user scoping - scope to authenticated user when auth is added.
     @Transactional(readOnly = true)
     public Page<PaymentResponse> getAllPayments(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-        return paymentRepository.findAll(pageable)
-                .map(payment -> PaymentResponse.from(payment, currencyService.getDecimals(payment.getCurrency())));
+        return paymentRepository.findRowPage(newestFirst(page, size)).map(responseMapper());
+    }
+
+    // For a total the caller has just counted: the page is read as a slice, without a
+    // second COUNT(*).
+    @Transactional(readOnly = true)
+    public Page<PaymentResponse> getAllPayments(int page, int size, long total) {
+        Pageable pageable = newestFirst(page, size);
+        Slice<PaymentRow> slice = paymentRepository.findRowSlice(pageable);
+        return new PageImpl<>(slice.getContent(), pageable, total).map(responseMapper());
+    }
+
+    @Transactional(readOnly = true)
+    public long countPayments() {
+        return paymentRepository.count();
+    }
+
+    // Same page content as getAllPayments, but the total comes from the background
+    // estimate instead of a COUNT(*) per request.
+    @Transactional(readOnly = true)
+    public Page<PaymentResponse> getAllPaymentsWithEstimatedTotal(int page, int size) {
+        Pageable pageable = newestFirst(page, size);
+        Slice<PaymentRow> slice = paymentRepository.findRowSlice(pageable);
+        // Never report fewer rows than this page proves exist, or totalPages would
+        // contradict hasNext while the estimate lags behind recent inserts.
+        long seen = pageable.getOffset() + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0);
+        long total = Math.max(paymentCountEstimator.estimate(), seen);
+        return new PageImpl<>(slice.getContent(), pageable, total).map(responseMapper());
+    }
+
+    @Transactional(readOnly = true)
+    public SliceResponse<PaymentResponse> getPaymentSlice(int page, int size) {
+        return SliceResponse.from(paymentRepository.findRowSlice(newestFirst(page, size)), responseMapper());
+    }
+
+    // Unfiltered listings keep their dedicated queries; anything else goes through the
+    // specification, with id as tiebreaker so equal sort keys page deterministically.
+    @Transactional(readOnly = true)
+    public Page<PaymentResponse> getAllPayments(PaymentFilter filter, int page, int size) {
+        if (filter.isUnfiltered()) {
+            return getAllPayments(page, size);
+        }
+        return paymentRepository.findRowPage(PaymentSpecifications.matching(filter), sortedBy(filter, page, size))
+                .map(responseMapper());
+    }
+
+    @Transactional(readOnly = true)
+    public SliceResponse<PaymentResponse> getPaymentSlice(PaymentFilter filter, int page, int size) {
+        if (filter.isUnfiltered()) {
+            return getPaymentSlice(page, size);
+        }
+        Slice<PaymentRow> slice =
+                paymentRepository.findRowSlice(PaymentSpecifications.matching(filter), sortedBy(filter, page, size));
+        return SliceResponse.from(slice, responseMapper());
+    }
+
+    // Version of an unfiltered listing page, for its ETag. Listed fields never change after
+    // insert, so a page changes when a payment is inserted or the currency decimals change.
+    // The newest (created_at, id) is one entry of idx_payments_by_time_covering, but it misses
+    // a payment that commits after a newer one, since it is not the head. For total=exact the
+    // tag therefore carries the exact count, which every insert moves whatever its created_at.
+    // The caller passes the count it already holds, from the page it read or the count a
+    // conditional request makes once; null counts here. total=estimated carries the
+    // estimate and total=none only the head.
+    @Transactional(readOnly = true)
+    public String getListingVersion(String total, Long exactTotal) {
+        List<PaymentRow> newest = paymentRepository.findNewest(Limit.of(1));
+        Object head = newest.isEmpty() ? "empty" : newest.getFirst().createdAt() + "/" + newest.getFirst().id();
+        Object totals = switch (total) {
+            case PaymentConstants.TOTAL_EXACT -> exactTotal != null ? exactTotal : paymentRepository.count();
+            case PaymentConstants.TOTAL_ESTIMATED -> paymentCountEstimator.estimate();
+            default -> total;
+        };
+        return ContentHash.of(currencyService.getCurrencyVersion(), head, total, totals);
     }
 
-    private CreatePaymentResult doCreatePayment(String idempotencyKey, PaymentRequest request) {
-        Optional<Payment> existing = idempotencyCacheService.findExistingPayment(idempotencyKey);
-        if (existing.isPresent()) {
-            log.info("Idempotency replay: idempotencyKey={}, paymentId={}", idempotencyKey, existing.get().getId());
-            return replayResponse(existing.get());
+    private static Pageable newestFirst(int page, int size) {
+        return PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt", "id"));
+    }
+
+    private static Pageable sortedBy(PaymentFilter filter, int page, int size) {
+        Sort.Direction direction = filter.direction() == null ? Sort.Direction.DESC : Sort.Direction.fromString(filter.direction());
+        String property = filter.sort() == null ? PaymentConstants.SORT_CREATED_AT : filter.sort();
+        return PageRequest.of(page, size, Sort.by(direction, property, "id"));
+    }
+
+    // Filters narrow the keyset walk; the cursor encodes a (created_at, id) position, so
+    // only the newest-first order can be continued and other sorts are rejected.
+    @Transactional(readOnly = true)
+    public CursorPage<PaymentResponse> getPaymentsByCursor(PaymentFilter filter, String cursor, int size) {
+        if (!filter.isNewestFirst()) {
+            throw new InvalidRequestException("Cursor pagination only supports sort=createdAt, direction=desc");
         }
+        if (filter.isUnfiltered()) {
+            return getPaymentsByCursor(cursor, size);
+        }
+        Specification<Payment> spec = PaymentSpecifications.matching(filter);
+        if (cursor != null) {
+            PaymentCursor position = PaymentCursor.decode(cursor);
+            spec = spec.and(PaymentSpecifications.olderThan(position.createdAt(), position.id()));
+        }
+        Slice<PaymentRow> slice = paymentRepository.findRowSlice(spec, newestFirst(0, size));
+        String nextCursor = slice.hasNext() ? PaymentCursor.of(slice.getContent().getLast()).encode() : null;
+        return new CursorPage<>(slice.getContent().stream().map(responseMapper()).toList(), nextCursor);
+    }
 
+    @Transactional(readOnly = true)
+    public CursorPage<PaymentResponse> getPaymentsByCursor(String cursor, int size) {
+        // One extra row tells us whether another page exists without a COUNT query.
+        Limit limit = Limit.of(size + 1);
+        List<PaymentRow> rows;
+        if (cursor == null) {
+            rows = paymentRepository.findNewest(limit);
+        } else {
+            PaymentCursor position = PaymentCursor.decode(cursor);
+            rows = paymentRepository.findOlderThan(position.createdAt(), position.id(), limit);
+        }
+
+        boolean hasNext = rows.size() > size;
+        List<PaymentRow> window = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? PaymentCursor.of(window.getLast()).encode() : null;
+        return new CursorPage<>(window.stream().map(responseMapper()).toList(), nextCursor);
+    }
+
+    // PaymentResponse carries no status and nothing else in it changes after insert, so
+    // cached entries never go stale; the cache is bounded by size only. Misses are not
+    // cached (the exception propagates), so a payment is visible as soon as it commits.
+    @Cacheable(value = "paymentById", key = "#id")
+    @Transactional(readOnly = true)
+    public PaymentResponse getPayment(UUID id) {
+        return paymentRepository.findById(id)
+                .map(this::toResponse)
+                .orElseThrow(() -> new PaymentNotFoundException(id));
+    }
+
+    @Transactional(readOnly = true)
+    public PaymentStatusResponse getPaymentStatus(UUID id) {
+        return paymentRepository.findById(id)
+                .map(PaymentStatusResponse::from)
+                .orElseThrow(() -> new PaymentNotFoundException(id));
+    }
+
+    // For lists: the decimals table is resolved once, then each row is a map lookup.
+    private Function<PaymentRow, PaymentResponse> responseMapper() {
+        CurrencyDecimals decimals = currencyService.getCurrencyDecimals();
+        return row -> PaymentResponse.from(row, decimals.decimalsOf(row.currency()));
+    }
+
+    private PaymentResponse toResponse(Payment payment) {
+        return PaymentResponse.from(payment, currencyService::getDecimals);
+    }
+
+    private CreatePaymentResult doCreatePayment(UUID idempotencyKey, PaymentRequest request) {
         PaymentRequest normalised = request.normalised();
-        CurrencyEntity currency = paymentValidationService.resolveAndValidateCurrency(normalised);
+        Currency currency = paymentValidationService.resolveAndValidateCurrency(normalised);
         BigDecimal fee = feeCalculationService.calculateFee(normalised.amount(), currency);
-        Payment saved = persistPayment(idempotencyKey, normalised, fee);
+        Map<UUID, QuoteResponse> liveQuotes = normalised.quoteId() == null
+                ? Map.of() : quoteService.findLive(List.of(normalised.quoteId()));
+        if (normalised.quoteId() != null && !liveQuotes.containsKey(normalised.quoteId())) {
+            // A missing quote may have been consumed by this very key's payment, on a retry
+            // that every replay tier missed (a filter built before the insert, a purged or
+            // truncated shared tier). Replay it rather than reject the retry.
+            Optional<Payment> existing = paymentRepository.findByIdempotencyKey(idempotencyKey);
+            if (existing.isPresent()) {
+                log.info("Idempotency replay of quoted payment: idempotencyKey={}, paymentId={}",
+                        idempotencyKey, existing.get().getId());
+                return replayResponse(existing.get());
+            }
+        }
+        QuoteResponse quote = quoteService.lockedQuote(normalised, liveQuotes);
+        IdempotentInsert insert = persistPayment(idempotencyKey, normalised, fee, quote);
+        if (!insert.inserted()) {
+            log.info("Idempotency replay after concurrent insert: idempotencyKey={}, paymentId={}",
+                    idempotencyKey, insert.payment().getId());
+            return replayResponse(insert.payment());
+        }
+
+        PaymentResponse response = PaymentResponse.from(insert.payment(), decimalsOf(currency, currencyService));
+        paymentEventChannel.publish(List.of(response));
+        return new CreatePaymentResult(response, true, insert.payment().getStatus() == PaymentStatus.PENDING);
+    }
+
+    // The payment's own currency is already resolved; only a settlement currency is looked up.
+    static ToIntFunction<String> decimalsOf(Currency currency, CurrencyService currencyService) {
+        return code -> code.equals(currency.code()) ? currency.decimals() : currencyService.getDecimals(code);
+    }
 
-        return new CreatePaymentResult(PaymentResponse.from(saved, currency.getDecimals()), true);
+    // In async mode the payment is only accepted here; PaymentWorkerPool settles it.
+    static PaymentStatus initialStatus(PaymentProperties paymentProperties) {
+        PaymentProperties.ProcessingProperties props = paymentProperties.processing();
+        return props != null && props.async() ? PaymentStatus.PENDING : PaymentStatus.COMPLETED;
     }
 
-    private Payment persistPayment(String idempotencyKey, PaymentRequest request, BigDecimal fee) {
-        Payment payment = Payment.builder()
+    // quote is the locked conversion, or null for a payment without one.
+    static Payment newPayment(UUID idempotencyKey, PaymentRequest request, BigDecimal fee, QuoteResponse quote,
+                              PaymentStatus status) {
+        return Payment.builder()
                 .amount(request.amount())
                 .currency(request.currency())
                 .recipient(request.recipient())
                 .recipientAccount(request.recipientAccount())
                 .processingFee(fee)
-                .status(PaymentStatus.COMPLETED)
+                .quoteId(quote == null ? null : quote.id())
+                .settlementCurrency(quote == null ? null : quote.settlementCurrency())
+                .settlementAmount(quote == null ? null : quote.settlementAmount())
+                .exchangeRate(quote == null ? null : quote.rate())
+                .status(status)
                 .idempotencyKey(idempotencyKey)
                 .build();
+    }
+
+    private IdempotentInsert persistPayment(UUID idempotencyKey, PaymentRequest request, BigDecimal fee,
+                                            QuoteResponse quote) {
+        Payment payment = newPayment(idempotencyKey, request, fee, quote, initialStatus(paymentProperties));
 
         try {
-            Payment saved = paymentRepository.saveAndFlush(payment);
-            log.info("Payment persisted: id={}, amount={}, currency={}, idempotencyKey={}",
-                    saved.getId(), saved.getAmount(), saved.getCurrency(), idempotencyKey);
-            return saved;
+            IdempotentInsert insert = paymentRepository.insertIfAbsent(payment);
+            if (insert.inserted()) {
+                // Only the payment that inserted consumes the quote; a concurrent request
+                // with the same key gets insert.inserted() == false and replays it.
+                if (quote != null && !quoteService.consume(quote)) {
+                    throw QuoteService.unusable(quote.id());
+                }
+                paymentCountEstimator.recordInserted(1);
+                // Appends to the rollup journal; unlike updating the day's rollup row, that
+                // takes no lock a concurrent payment would wait on.
+                paymentRollupService.recordCreated(List.of(insert.payment()));
+                log.info("Payment persisted: id={}, amount={}, currency={}, idempotencyKey={}",
+                        insert.payment().getId(), insert.payment().getAmount(), insert.payment().getCurrency(),
+                        idempotencyKey);
+            }
+            return insert;
         } catch (DataIntegrityViolationException ex) {
             throw ex;
         } catch (DataAccessException ex) {
@@ -109,7 +373,6 @@ public class PaymentService {
     }
 
     private CreatePaymentResult replayResponse(Payment payment) {
-        int decimals = currencyService.getDecimals(payment.getCurrency());
-        return new CreatePaymentResult(PaymentResponse.from(payment, decimals), false);
+        return new CreatePaymentResult(PaymentResponse.from(payment, currencyService::getDecimals), false);
     }
 }
@@ -2,11 +2,13 @@ package com.fxpayment.service;
 
 import com.fxpayment.dto.PaymentRequest;
 import com.fxpayment.exception.InvalidRequestException;
-import com.fxpayment.model.CurrencyEntity;
+import com.fxpayment.model.Currency;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -14,19 +16,23 @@ public class PaymentValidationService {
 
     private final CurrencyService currencyService;
 
-    public CurrencyEntity resolveAndValidateCurrency(PaymentRequest request) {
-        CurrencyEntity currency = currencyService.findByCode(request.currency())
+    public Currency resolveAndValidateCurrency(PaymentRequest request) {
+        return resolveAndValidateCurrency(request.currency(), request.amount());
+    }
+
+    public Currency resolveAndValidateCurrency(String code, BigDecimal amount) {
+        Currency currency = currencyService.findByCode(code)
                 .orElseThrow(() -> {
-                    log.warn("Unsupported currency code: {}", request.currency());
-                    return new InvalidRequestException("Unsupported currency code: " + request.currency());
+                    log.warn("Unsupported currency code: {}", code);
+                    return new InvalidRequestException("Unsupported currency code: " + code);
                 });
 
-        if (request.amount().scale() > currency.getDecimals()) {
+        if (amount.scale() > currency.decimals()) {
             log.warn("Amount decimal places exceeded: currency={}, allowed={}, actual={}",
-                    currency.getCode(), currency.getDecimals(), request.amount().scale());
+                    currency.code(), currency.decimals(), amount.scale());
             throw new InvalidRequestException(
-                    "Amount has too many decimal places for currency " + currency.getCode()
-                            + ": maximum " + currency.getDecimals() + " allowed");
+                    "Amount has too many decimal places for currency " + currency.code()
+                            + ": maximum " + currency.decimals() + " allowed");
         }
         return currency;
     }
@@ -0,0 +1,62 @@
+package com.fxpayment.service;
+
+import com.fxpayment.config.PaymentProperties;
+import com.fxpayment.model.Payment;
+import com.fxpayment.model.PaymentStatus;
+import com.fxpayment.repository.PaymentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// The payments table is the queue: PENDING rows are the backlog, and a PROCESSING row's
+// updated_at is both its lease start and the fencing token its settlement must present.
+@Service
+@RequiredArgsConstructor
+public class PaymentWorkQueue {
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentProperties paymentProperties;
+    private final PaymentRollupService paymentRollupService;
+
+    public record Claim(List<Payment> payments, Instant claimedAt) {}
+
+    // Commits as soon as the batch is marked PROCESSING, so row locks are held only for
+    // the claim and status polls see the payment in flight while it is processed.
+    @Transactional
+    public Claim claim(int limit) {
+        // Truncated to the column precision so settleClaimed can match it exactly.
+        Instant claimedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        Instant leaseExpiredBefore = claimedAt.minus(paymentProperties.processing().leaseTimeout());
+        List<Payment> payments = paymentRepository.lockClaimable(leaseExpiredBefore, limit);
+        if (!payments.isEmpty()) {
+            paymentRepository.updateStatus(payments.stream().map(Payment::getId).toList(),
+                    PaymentStatus.PROCESSING, claimedAt);
+            paymentRollupService.recordMoved(payments, PaymentStatus.PROCESSING);
+        }
+        return new Claim(payments, claimedAt);
+    }
+
+    // One UPDATE per outcome status instead of one per payment.
+    @Transactional
+    public int settle(Map<PaymentStatus, List<UUID>> outcomes, Instant claimedAt) {
+        Instant settledAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        int settled = 0;
+        for (Map.Entry<PaymentStatus, List<UUID>> outcome : outcomes.entrySet()) {
+            int updated = paymentRepository.settleClaimed(outcome.getValue(), outcome.getKey(), claimedAt, settledAt);
+            if (updated > 0) {
+                // Only the rows that passed the fence moved; late outcomes are not counted.
+                paymentRollupService.recordMoved(
+                        paymentRepository.findRowsUpdatedAt(outcome.getValue(), outcome.getKey(), settledAt),
+                        PaymentStatus.PROCESSING, outcome.getKey());
+            }
+            settled += updated;
+        }
+        return settled;
+    }
+}
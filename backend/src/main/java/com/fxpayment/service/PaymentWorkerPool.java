@@ -0,0 +1,132 @@
+package com.fxpayment.service;
+
+import com.fxpayment.config.PaymentProperties;
+import com.fxpayment.model.Payment;
+import com.fxpayment.model.PaymentStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Settles payments accepted in async mode. Each worker loops claim -> process -> settle and
+// only sleeps when the queue is empty. Claims use SKIP LOCKED, so throughput scales with
+// workers per node and with nodes; a worker that dies mid-batch leaves PROCESSING rows that
+// any worker re-claims once their lease times out.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PaymentWorkerPool implements SmartLifecycle {
+
+    static final String OUTCOME_METRIC = "payments.processing.outcomes";
+    private static final Duration SHUTDOWN_GRACE = Duration.ofSeconds(10);
+
+    private final PaymentWorkQueue paymentWorkQueue;
+    private final PaymentProcessor paymentProcessor;
+    private final PaymentProperties paymentProperties;
+    private final MeterRegistry meterRegistry;
+
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    @Override
+    public synchronized void start() {
+        PaymentProperties.ProcessingProperties props = paymentProperties.processing();
+        running = true;
+        if (props == null || !props.async() || props.workers() < 1) {
+            log.info("Payment workers disabled; PENDING payments are not processed on this node");
+            return;
+        }
+        for (int i = 0; i < props.workers(); i++) {
+            workers.add(Thread.ofVirtual().name("payment-worker-" + i).start(this::runWorker));
+        }
+        log.info("Payment workers started: workers={}, claimBatchSize={}", props.workers(), props.claimBatchSize());
+    }
+
+    // Workers are not interrupted while they may be inside a JDBC call; they finish their
+    // batch and see the flag. Stragglers are interrupted after the grace period, and their
+    // claims are recovered by lease expiry.
+    @Override
+    public synchronized void stop() {
+        running = false;
+        for (Thread worker : workers) {
+            try {
+                if (!worker.join(SHUTDOWN_GRACE)) {
+                    worker.interrupt();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        workers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void runWorker() {
+        Duration pollInterval = paymentProperties.processing().pollInterval();
+        while (running) {
+            try {
+                if (processBatch() == 0) {
+                    Thread.sleep(pollInterval);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (DataAccessException ex) {
+                log.warn("Payment worker batch failed; retrying after {}", pollInterval, ex);
+                try {
+                    Thread.sleep(pollInterval);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // One claim-process-settle cycle. Returns the number of payments claimed.
+    public int processBatch() {
+        PaymentWorkQueue.Claim claim = paymentWorkQueue.claim(paymentProperties.processing().claimBatchSize());
+        if (claim.payments().isEmpty()) {
+            return 0;
+        }
+
+        Map<PaymentStatus, List<UUID>> outcomes = new EnumMap<>(PaymentStatus.class);
+        for (Payment payment : claim.payments()) {
+            outcomes.computeIfAbsent(process(payment), _ -> new ArrayList<>()).add(payment.getId());
+        }
+        int settled = paymentWorkQueue.settle(outcomes, claim.claimedAt());
+        if (settled < claim.payments().size()) {
+            log.warn("Payment claims lost to lease expiry: claimed={}, settled={}", claim.payments().size(), settled);
+        }
+        outcomes.forEach((status, ids) ->
+                meterRegistry.counter(OUTCOME_METRIC, "status", status.name()).increment(ids.size()));
+        return claim.payments().size();
+    }
+
+    private PaymentStatus process(Payment payment) {
+        try {
+            PaymentStatus outcome = paymentProcessor.process(payment);
+            if (outcome == PaymentStatus.COMPLETED || outcome == PaymentStatus.FAILED) {
+                return outcome;
+            }
+            log.error("Payment processor returned non-terminal status: id={}, status={}", payment.getId(), outcome);
+        } catch (RuntimeException ex) {
+            log.error("Payment processing failed: id={}", payment.getId(), ex);
+        }
+        return PaymentStatus.FAILED;
+    }
+}
@@ -0,0 +1,149 @@
+package com.fxpayment.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Cross-node signalling over PostgreSQL LISTEN/NOTIFY. Senders NOTIFY inside their own
+// transaction, so other nodes, and this one, hear about a change only once it committed.
+// One pooled connection per node LISTENs on the channels of every NotificationHandler and
+// hands each poll's notifications to their handlers. Other databases have no NOTIFY;
+// enabled() is false there and senders fall back to node-local behaviour.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostgresNotifications implements SmartLifecycle {
+
+    private static final String POSTGRESQL = "PostgreSQL";
+    private static final int POLL_TIMEOUT_MILLIS = 1000;
+    private static final Duration RECONNECT_DELAY = Duration.ofSeconds(5);
+
+    private final DataSource dataSource;
+    // Resolved on start: handlers send through this bean, so they cannot be constructor
+    // dependencies of it.
+    private final ObjectProvider<NotificationHandler> handlerProvider;
+
+    private volatile boolean running;
+    private volatile Boolean postgres;
+    private Thread listener;
+
+    public boolean enabled() {
+        Boolean result = postgres;
+        if (result == null) {
+            String product = new JdbcTemplate(dataSource).execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            result = POSTGRESQL.equals(product);
+            postgres = result;
+        }
+        return result;
+    }
+
+    // Must run inside the transaction that made the change; PostgreSQL delivers the
+    // notifications on commit and discards them on rollback. One statement however many.
+    void send(String channel, List<String> payloads) {
+        if (payloads.isEmpty()) {
+            return;
+        }
+        new JdbcTemplate(dataSource).query("SELECT pg_notify(?, payload) FROM unnest(?) AS payload",
+                ps -> {
+                    ps.setString(1, channel);
+                    ps.setArray(2, ps.getConnection().createArrayOf("text", payloads.toArray()));
+                },
+                rs -> null);
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        if (!enabled()) {
+            log.info("Database notifications disabled: database is not PostgreSQL");
+            return;
+        }
+        Map<String, NotificationHandler> handlers = handlerProvider.orderedStream()
+                .collect(Collectors.toMap(NotificationHandler::channel, Function.identity()));
+        listener = Thread.ofVirtual().name("notification-listener").start(() -> listen(handlers));
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (listener != null) {
+            try {
+                listener.join(Duration.ofMillis(POLL_TIMEOUT_MILLIS * 2L));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            listener = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen(Map<String, NotificationHandler> handlers) {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute(handlers.keySet().stream()
+                        .map(channel -> "LISTEN " + channel)
+                        .collect(Collectors.joining("; ")));
+                if (reconnecting) {
+                    handlers.values().forEach(NotificationHandler::onReconnect);
+                }
+                log.info("Listening for notifications on channels {}", handlers.keySet());
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications != null && notifications.length > 0) {
+                        dispatch(handlers, notifications);
+                    }
+                }
+            } catch (SQLException ex) {
+                log.warn("Notification listener lost its connection; reconnecting in {}", RECONNECT_DELAY, ex);
+                reconnecting = true;
+                try {
+                    Thread.sleep(RECONNECT_DELAY);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private static void dispatch(Map<String, NotificationHandler> handlers, PGNotification[] notifications) {
+        Map<String, List<String>> byChannel = new LinkedHashMap<>();
+        Arrays.stream(notifications).forEach(notification -> byChannel
+                .computeIfAbsent(notification.getName(), _ -> new ArrayList<>())
+                .add(notification.getParameter()));
+        byChannel.forEach((channel, payloads) -> {
+            try {
+                handlers.get(channel).onNotifications(payloads);
+            } catch (RuntimeException ex) {
+                log.error("Notification handler failed: channel={}, notifications={}", channel, payloads.size(), ex);
+            }
+        });
+    }
+}
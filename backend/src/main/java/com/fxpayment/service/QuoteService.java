@@ -0,0 +1,152 @@
+package com.fxpayment.service;
+
+import com.fxpayment.config.FxProperties;
+import com.fxpayment.dto.PaymentRequest;
+import com.fxpayment.dto.QuoteRequest;
+import com.fxpayment.dto.QuoteResponse;
+import com.fxpayment.exception.InvalidRequestException;
+import com.fxpayment.model.Currency;
+import com.fxpayment.model.Quote;
+import com.fxpayment.repository.QuoteRepository;
+import com.fxpayment.util.MoneyUtil;
+import com.fxpayment.util.PaymentConstants;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.InstantSource;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// Prices conversions from the current rate snapshot and holds each quote for fx.quotes.ttl
+// in the shared quotes table, so any node can execute a quote another node issued. A
+// payment naming a live quote executes at the quote's rate and settlement amount without
+// reading rates, and consumes the quote in its own transaction: each quote backs at most
+// one payment. A retry with the same idempotency key replays that payment, also when its
+// quote is already gone: PaymentService and BatchPaymentService look the key up before
+// rejecting a payment for a missing quote.
+@Slf4j
+@Service
+public class QuoteService {
+
+    private final PaymentValidationService paymentValidationService;
+    private final CurrencyService currencyService;
+    private final ExchangeRateService exchangeRateService;
+    private final QuoteRepository quoteRepository;
+    private final Duration ttl;
+    private final BigDecimal retainedFraction;
+    private final InstantSource instantSource;
+
+    @Autowired
+    public QuoteService(PaymentValidationService paymentValidationService, CurrencyService currencyService,
+                        ExchangeRateService exchangeRateService, QuoteRepository quoteRepository,
+                        FxProperties fxProperties) {
+        this(paymentValidationService, currencyService, exchangeRateService, quoteRepository, fxProperties,
+                InstantSource.system());
+    }
+
+    QuoteService(PaymentValidationService paymentValidationService, CurrencyService currencyService,
+                 ExchangeRateService exchangeRateService, QuoteRepository quoteRepository,
+                 FxProperties fxProperties, InstantSource instantSource) {
+        FxProperties.QuoteProperties props = fxProperties.quotes();
+        this.paymentValidationService = paymentValidationService;
+        this.currencyService = currencyService;
+        this.exchangeRateService = exchangeRateService;
+        this.quoteRepository = quoteRepository;
+        this.ttl = props.ttl();
+        this.retainedFraction = BigDecimal.ONE.subtract(props.spread());
+        this.instantSource = instantSource;
+    }
+
+    @Transactional
+    public QuoteResponse createQuote(QuoteRequest request) {
+        Currency source = paymentValidationService.resolveAndValidateCurrency(request.currency(), request.amount());
+        Currency settlement = currencyService.findByCode(request.settlementCurrency())
+                .orElseThrow(() -> new InvalidRequestException("Unsupported currency code: " + request.settlementCurrency()));
+        if (source.code().equals(settlement.code())) {
+            throw new InvalidRequestException("Settlement currency must differ from the payment currency");
+        }
+
+        BigDecimal midRate = exchangeRateService.snapshot().rate(source.code(), settlement.code())
+                .orElseThrow(() -> new InvalidRequestException(
+                        "No exchange rate for " + source.code() + "/" + settlement.code()));
+        BigDecimal rate = midRate.multiply(retainedFraction)
+                .setScale(PaymentConstants.EXCHANGE_RATE_SCALE, PaymentConstants.ROUNDING_MODE);
+        BigDecimal settlementAmount = MoneyUtil.roundToScale(request.amount().multiply(rate), settlement.decimals());
+        if (settlementAmount.signum() <= 0) {
+            throw new InvalidRequestException("Amount is too small to convert to " + settlement.code());
+        }
+
+        QuoteResponse quote = quoteRepository.save(Quote.builder()
+                .amount(request.amount())
+                .currency(source.code())
+                .settlementCurrency(settlement.code())
+                .rate(rate)
+                .settlementAmount(settlementAmount)
+                .expiresAt(instantSource.instant().plus(ttl))
+                .build()).toResponse();
+        log.info("Quote issued: id={}, pair={}/{}, rate={}", quote.id(), source.code(), settlement.code(), rate);
+        return quote;
+    }
+
+    // The live quotes among ids, read with one primary-key IN query in the payment's own
+    // transaction, so a batch reads all its quotes at once and no extra connection is taken.
+    // Reading does not consume; consume does. That transaction is read-write, so replica
+    // routing keeps the read on the primary, where the UNLOGGED table lives.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<UUID, QuoteResponse> findLive(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        Instant now = instantSource.instant();
+        return quoteRepository.findAllById(ids).stream()
+                .filter(quote -> quote.getExpiresAt().isAfter(now))
+                .collect(Collectors.toMap(Quote::getId, Quote::toResponse));
+    }
+
+    // The quote a payment executes at, or null when the request names none. The quote must
+    // be among liveQuotes (from findLive) and be for exactly the payment's amount and
+    // currency. No database access, so batches can run it in parallel.
+    public QuoteResponse lockedQuote(PaymentRequest request, Map<UUID, QuoteResponse> liveQuotes) {
+        if (request.quoteId() == null) {
+            return null;
+        }
+        QuoteResponse quote = liveQuotes.get(request.quoteId());
+        if (quote == null) {
+            throw unusable(request.quoteId());
+        }
+        if (!quote.currency().equals(request.currency()) || quote.amount().compareTo(request.amount()) != 0) {
+            throw new InvalidRequestException("Payment amount and currency must match quote " + quote.id());
+        }
+        return quote;
+    }
+
+    // Deletes the quote in the caller's transaction, the one that inserts its payment, and
+    // says whether it was still live. Of two payments racing for one quote, the second
+    // waits on the first's delete and then finds no row; its caller fails it and the
+    // insert rolls back with the transaction.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean consume(QuoteResponse quote) {
+        return quoteRepository.deleteLive(quote.id(), instantSource.instant()) == 1;
+    }
+
+    @Scheduled(fixedDelayString = "${fx.quotes.purge-interval}", initialDelayString = "${fx.quotes.purge-interval}")
+    public void purgeExpired() {
+        Instant cutoff = instantSource.instant();
+        int purged = quoteRepository.deleteExpiredBefore(cutoff);
+        log.debug("Purged expired quotes: count={}, cutoff={}", purged, cutoff);
+    }
+
+    static InvalidRequestException unusable(UUID quoteId) {
+        log.warn("Unknown, expired or used quote: quoteId={}", quoteId);
+        return new InvalidRequestException("Quote not found, expired or already used: " + quoteId);
+    }
+}
@@ -0,0 +1,76 @@
+package com.fxpayment.service;
+
+import com.fxpayment.model.ExchangeRate;
+import com.fxpayment.util.PaymentConstants;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+// Immutable snapshot of the rates table. Each pair is packed into one int from the two
+// currency slots; the keys are sorted and the rate of a pair sits at the same index, so a
+// lookup is a binary search over an int array. A pair stored in one direction only also
+// gets its inverse here. Never mutated; a reload builds a new snapshot and swaps it in.
+public final class RateSnapshot {
+
+    private final int[] pairs;
+    private final BigDecimal[] rates;
+
+    private RateSnapshot(int[] pairs, BigDecimal[] rates) {
+        this.pairs = pairs;
+        this.rates = rates;
+    }
+
+    // Stored rows win over derived inverses. Rows whose codes are outside [A-Z]{3} are
+    // ignored, as are inverses too small to represent at the rate scale.
+    public static RateSnapshot of(List<ExchangeRate> rows) {
+        Map<Integer, BigDecimal> byPair = new TreeMap<>();
+        for (ExchangeRate row : rows) {
+            int pair = pair(row.getKey().getBaseCurrency(), row.getKey().getQuoteCurrency());
+            if (pair >= 0) {
+                byPair.put(pair, row.getRate());
+            }
+        }
+        for (ExchangeRate row : rows) {
+            int inversePair = pair(row.getKey().getQuoteCurrency(), row.getKey().getBaseCurrency());
+            if (inversePair >= 0 && !byPair.containsKey(inversePair)) {
+                BigDecimal inverse = BigDecimal.ONE.divide(row.getRate(),
+                        PaymentConstants.EXCHANGE_RATE_SCALE, PaymentConstants.ROUNDING_MODE);
+                if (inverse.signum() > 0) {
+                    byPair.put(inversePair, inverse);
+                }
+            }
+        }
+
+        int[] pairs = new int[byPair.size()];
+        BigDecimal[] rates = new BigDecimal[byPair.size()];
+        int i = 0;
+        for (Map.Entry<Integer, BigDecimal> entry : byPair.entrySet()) {
+            pairs[i] = entry.getKey();
+            rates[i] = entry.getValue();
+            i++;
+        }
+        return new RateSnapshot(pairs, rates);
+    }
+
+    // Units of quoteCurrency one unit of baseCurrency buys at the mid rate.
+    public Optional<BigDecimal> rate(String baseCurrency, String quoteCurrency) {
+        int pair = pair(baseCurrency, quoteCurrency);
+        int index = pair < 0 ? -1 : Arrays.binarySearch(pairs, pair);
+        return index < 0 ? Optional.empty() : Optional.of(rates[index]);
+    }
+
+    public int size() {
+        return pairs.length;
+    }
+
+    // SLOTS^2 is below 2^29, so a pair always fits in a non-negative int.
+    private static int pair(String baseCurrency, String quoteCurrency) {
+        int base = CurrencyRegistry.slot(baseCurrency);
+        int quote = CurrencyRegistry.slot(quoteCurrency);
+        return base < 0 || quote < 0 ? -1 : base * CurrencyRegistry.SLOTS + quote;
+    }
+}
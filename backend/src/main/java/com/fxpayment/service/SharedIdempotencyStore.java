@@ -0,0 +1,93 @@
+package com.fxpayment.service;
+
+import com.fxpayment.config.PaymentProperties;
+import com.fxpayment.dto.PaymentResponse;
+import com.fxpayment.model.IdempotencyReplay;
+import com.fxpayment.repository.IdempotencyReplayRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// Cluster-wide tier backed by the UNLOGGED idempotency_replays table, so a retry that
+// lands on a different node than the original request still skips the payments lookup.
+// Failures are logged and treated as misses: the table is a cache, not a record.
+@Slf4j
+@Component
+@Order(2)
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "payments.idempotency-store.shared-enabled", havingValue = "true")
+public class SharedIdempotencyStore implements IdempotencyStore {
+
+    private final IdempotencyReplayRepository replayRepository;
+    private final PaymentProperties paymentProperties;
+
+    @Override
+    public String tier() {
+        return "shared";
+    }
+
+    // Read-write on purpose: with replica routing a read-only transaction would go to a
+    // replica, and UNLOGGED tables are not replicated.
+    @Override
+    @Transactional
+    public Optional<PaymentResponse> find(UUID idempotencyKey) {
+        try {
+            return replayRepository.findById(idempotencyKey).map(IdempotencyReplay::toResponse);
+        } catch (DataAccessException ex) {
+            log.warn("Shared idempotency store lookup failed: idempotencyKey={}", idempotencyKey, ex);
+            return Optional.empty();
+        }
+    }
+
+    // One primary-key IN query for a whole batch.
+    @Override
+    @Transactional
+    public Map<UUID, PaymentResponse> findAll(Collection<UUID> idempotencyKeys) {
+        try {
+            return replayRepository.findAllById(idempotencyKeys).stream()
+                    .collect(Collectors.toMap(IdempotencyReplay::getIdempotencyKey, IdempotencyReplay::toResponse));
+        } catch (DataAccessException ex) {
+            log.warn("Shared idempotency store lookup failed: keys={}", idempotencyKeys.size(), ex);
+            return Map.of();
+        }
+    }
+
+    @Override
+    public void save(UUID idempotencyKey, PaymentResponse response) {
+        saveAll(Map.of(idempotencyKey, response));
+    }
+
+    @Override
+    public void saveAll(Map<UUID, PaymentResponse> responses) {
+        Instant storedAt = Instant.now();
+        List<IdempotencyReplay> replays = responses.entrySet().stream()
+                .map(entry -> IdempotencyReplay.of(entry.getKey(), entry.getValue(), storedAt))
+                .toList();
+        try {
+            replayRepository.insertAllIfAbsent(replays);
+        } catch (DataAccessException ex) {
+            log.warn("Shared idempotency store write failed: entries={}", replays.size(), ex);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${payments.idempotency-store.purge-interval}",
+            initialDelayString = "${payments.idempotency-store.purge-interval}")
+    public void purgeExpired() {
+        Instant cutoff = Instant.now().minus(paymentProperties.idempotencyStore().retention());
+        int purged = replayRepository.deleteStoredBefore(cutoff);
+        log.debug("Purged expired idempotency replays: count={}, cutoff={}", purged, cutoff);
+    }
+}
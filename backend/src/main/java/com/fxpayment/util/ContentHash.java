@@ -0,0 +1,29 @@
+package com.fxpayment.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+// Short SHA-256 digest of a set of values, used as a strong ETag. It depends only on the
+// data, so every node derives the same tag and a tag issued by one node validates on another.
+public final class ContentHash {
+
+    private static final int DIGEST_BYTES = 16;
+
+    private ContentHash() {}
+
+    public static String of(Object... parts) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+        for (Object part : parts) {
+            digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return HexFormat.of().formatHex(digest.digest(), 0, DIGEST_BYTES);
+    }
+}
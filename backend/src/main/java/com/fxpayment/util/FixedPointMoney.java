@@ -0,0 +1,54 @@
+package com.fxpayment.util;
+
+import java.math.BigDecimal;
+
+import static com.fxpayment.util.PaymentConstants.INTERNAL_SCALE;
+import static com.fxpayment.util.PaymentConstants.ROUNDING_MODE;
+
+// Money as a long count of internal-scale units (1.2345 -> 12345). Fee arithmetic runs on
+// these with overflow-checked operations and HALF_UP rounding, matching MoneyUtil; values
+// become BigDecimal again only at the API and JPA edges. With MAX_AMOUNT at 1,000,000 an
+// amount is at most 10^10 units and amount * rate at most 10^16, far inside a long.
+public final class FixedPointMoney {
+
+    private FixedPointMoney() {}
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L
+    };
+
+    // Throws ArithmeticException if the value does not fit in a long at the internal scale.
+    public static long toUnits(BigDecimal value) {
+        return toUnits(value, INTERNAL_SCALE);
+    }
+
+    // Rounds HALF_UP when the value has more than scale decimals.
+    public static long toUnits(BigDecimal value, int scale) {
+        BigDecimal scaled = value.scale() > scale ? value.setScale(scale, ROUNDING_MODE) : value;
+        return scaled.movePointRight(scale).longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long units) {
+        return BigDecimal.valueOf(units, INTERNAL_SCALE);
+    }
+
+    // units * factor, where factor is in units of factorScale decimals, rounded HALF_UP back
+    // to the internal scale. Exactly MoneyUtil.roundToInternalScale(amount.multiply(factor)).
+    public static long multiply(long units, long factor, int factorScale) {
+        return divideHalfUp(Math.multiplyExact(units, factor), POWERS_OF_TEN[factorScale]);
+    }
+
+    public static long add(long units, long other) {
+        return Math.addExact(units, other);
+    }
+
+    // HALF_UP: ties round away from zero, for either sign.
+    static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) >= divisor - Math.abs(remainder)) {
+            quotient += Long.signum(dividend);
+        }
+        return quotient;
+    }
+}
@@ -7,6 +7,7 @@ public final class PaymentConstants {
     private PaymentConstants() {}
 
     public static final int MONEY_PRECISION = 19;
+    public static final int TOTAL_PRECISION = 24;
     public static final int INTERNAL_SCALE = 4;
     public static final RoundingMode ROUNDING_MODE = RoundingMode.HALF_UP;
     public static final int MAX_CURRENCY_DECIMALS = 4;
@@ -14,6 +15,10 @@ public final class PaymentConstants {
     public static final int FEE_RATE_PRECISION = 9;
     public static final int FEE_RATE_SCALE = 6;
 
+    // Exchange rates: units of the quote currency per one unit of the base currency.
+    public static final int EXCHANGE_RATE_PRECISION = 18;
+    public static final int EXCHANGE_RATE_SCALE = 8;
+
     public static final String MIN_AMOUNT = "0.01";
     public static final String MAX_AMOUNT = "1000000";
 
@@ -28,7 +33,21 @@ public final class PaymentConstants {
     public static final String DEFAULT_PAGE_SIZE = "20";
     public static final long MAX_PAGE_SIZE = 100;
 
-    public static final int STATUS_MAX_LENGTH = 20;
+    public static final String TOTAL_EXACT = "exact";
+    public static final String TOTAL_ESTIMATED = "estimated";
+    public static final String TOTAL_NONE = "none";
+
+    public static final String SORT_CREATED_AT = "createdAt";
+    public static final String SORT_AMOUNT = "amount";
+
+    public static final String EXPORT_FORMAT_NDJSON = "ndjson";
+    public static final String EXPORT_FORMAT_CSV = "csv";
+    public static final String TEXT_CSV_VALUE = "text/csv";
 
-    public static final int UUID_STRING_LENGTH = 36;
+    public static final int MAX_BATCH_SIZE = 500;
+
+    public static final int SUMMARY_DEFAULT_DAYS = 30;
+    public static final int SUMMARY_MAX_DAYS = 366;
+
+    public static final int STATUS_MAX_LENGTH = 20;
 }
@@ -0,0 +1,36 @@
+package com.fxpayment.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+// A JSON body serialized once, with its gzip encoding and the version it is tagged with,
+// for responses that are read far more often than they change.
+public record PrerenderedJson(String version, byte[] identity, byte[] gzip) {
+
+    public static PrerenderedJson of(ObjectMapper objectMapper, Object value, String version) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(value);
+            return new PrerenderedJson(version, json, gzip(json));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    // Compressed once per rendering, so it is worth the best ratio rather than the default level.
+    private static byte[] gzip(byte[] json) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(json);
+        }
+        return compressed.toByteArray();
+    }
+}
@@ -0,0 +1,143 @@
+package com.fxpayment.util;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Thread-safe Bloom filter that adds a larger, tighter layer whenever the newest one
+// reaches capacity. Layer rates halve each time (p/2, p/4, ...), so the combined
+// false-positive rate stays below p however many keys are added. Never yields false negatives.
+public final class ScalableBloomFilter {
+
+    private static final int GROWTH_FACTOR = 2;
+    private static final double TIGHTENING_RATIO = 0.5;
+    private static final long SEED_1 = 0xcbf29ce484222325L;
+    private static final long SEED_2 = 0x9e3779b97f4a7c15L;
+
+    private final double falsePositiveRate;
+    private volatile Layer[] layers;
+
+    public ScalableBloomFilter(long initialCapacity, double falsePositiveRate) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("initialCapacity must be positive");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1");
+        }
+        this.falsePositiveRate = falsePositiveRate;
+        this.layers = new Layer[] {new Layer(initialCapacity, falsePositiveRate * (1 - TIGHTENING_RATIO))};
+    }
+
+    public boolean mightContain(UUID key) {
+        return mightContain(hash(key, SEED_1), hash(key, SEED_2));
+    }
+
+    public void put(UUID key) {
+        put(hash(key, SEED_1), hash(key, SEED_2));
+    }
+
+    private boolean mightContain(long h1, long h2) {
+        for (Layer layer : layers) {
+            if (layer.mightContain(h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void put(long h1, long h2) {
+        Layer[] current = layers;
+        for (Layer layer : current) {
+            if (layer.mightContain(h1, h2)) {
+                return;
+            }
+        }
+        Layer newest = current[current.length - 1];
+        if (newest.put(h1, h2) >= newest.capacity) {
+            grow(newest);
+        }
+    }
+
+    public long approximateSize() {
+        long size = 0;
+        for (Layer layer : layers) {
+            size += layer.inserted.get();
+        }
+        return size;
+    }
+
+    public long bitSize() {
+        long bits = 0;
+        for (Layer layer : layers) {
+            bits += layer.numBits;
+        }
+        return bits;
+    }
+
+    private synchronized void grow(Layer full) {
+        Layer[] current = layers;
+        if (current[current.length - 1] != full) {
+            return;
+        }
+        double rate = falsePositiveRate * (1 - TIGHTENING_RATIO) * Math.pow(TIGHTENING_RATIO, current.length);
+        Layer[] next = Arrays.copyOf(current, current.length + 1);
+        next[current.length] = new Layer(full.capacity * GROWTH_FACTOR, rate);
+        layers = next;
+    }
+
+    // Folds both halves of the key into the seed through the SplitMix64 finaliser, so the
+    // two seeds give independent-looking hashes for double hashing. Mixing every bit also
+    // keeps time-ordered keys, whose high bits barely change, spread across the filter.
+    private static long hash(UUID key, long seed) {
+        return mix(mix(seed ^ key.getMostSignificantBits()) ^ key.getLeastSignificantBits());
+    }
+
+    private static long mix(long h) {
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return h ^ (h >>> 31);
+    }
+
+    private static final class Layer {
+
+        private final long capacity;
+        private final long numBits;
+        private final int numHashes;
+        private final AtomicLongArray words;
+        private final AtomicLong inserted = new AtomicLong();
+
+        private Layer(long capacity, double falsePositiveRate) {
+            double ln2 = Math.log(2);
+            long bits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (ln2 * ln2));
+            int wordCount = Math.toIntExact((bits + Long.SIZE - 1) / Long.SIZE);
+            this.capacity = capacity;
+            this.numBits = (long) wordCount * Long.SIZE;
+            this.numHashes = Math.max(1, (int) Math.round((double) numBits / capacity * ln2));
+            this.words = new AtomicLongArray(wordCount);
+        }
+
+        private boolean mightContain(long h1, long h2) {
+            long combined = h1;
+            for (int i = 0; i < numHashes; i++) {
+                long bit = Math.floorMod(combined, numBits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+                combined += h2;
+            }
+            return true;
+        }
+
+        private long put(long h1, long h2) {
+            long combined = h1;
+            for (int i = 0; i < numHashes; i++) {
+                long bit = Math.floorMod(combined, numBits);
+                long mask = 1L << bit;
+                words.getAndAccumulate((int) (bit >>> 6), mask, (word, m) -> word | m);
+                combined += h2;
+            }
+            return inserted.incrementAndGet();
+        }
+    }
+}
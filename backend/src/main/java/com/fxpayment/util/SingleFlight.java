@@ -0,0 +1,66 @@
+package com.fxpayment.util;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Coalesces concurrent calls for the same key: the first caller (the leader) runs the
+// action and later callers wait for its result instead of running it again. The map is
+// a ConcurrentHashMap, which already locks per bin, so unrelated keys never contend.
+// A follower whose leader fails or outlasts the timeout runs the action itself, so
+// coalescing never changes the outcome a caller would have seen without it. A follower
+// interrupted while waiting gives up instead: it keeps its interrupt flag and throws
+// CancellationException, so a cancelled request does not start the work after all.
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Duration followerTimeout;
+
+    public SingleFlight(Duration followerTimeout) {
+        this.followerTimeout = followerTimeout;
+    }
+
+    public Result<V> execute(K key, Supplier<V> action) {
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, own);
+        if (leader == null) {
+            return new Result<>(lead(key, own, action), false);
+        }
+
+        try {
+            return new Result<>(leader.get(followerTimeout.toMillis(), TimeUnit.MILLISECONDS), true);
+        } catch (ExecutionException | TimeoutException ex) {
+            return new Result<>(action.get(), false);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            CancellationException cancelled = new CancellationException("Interrupted while waiting for in-flight call");
+            cancelled.initCause(ex);
+            throw cancelled;
+        }
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private V lead(K key, CompletableFuture<V> own, Supplier<V> action) {
+        try {
+            V value = action.get();
+            own.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            own.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    // shared is true when the value came from another caller's execution.
+    public record Result<V>(V value, boolean shared) {}
+}
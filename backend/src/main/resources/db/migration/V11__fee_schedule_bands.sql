@@ -0,0 +1,21 @@
+-- Tiered fee schedules. A currency with bands charges the band with the greatest
+-- lower_bound not above the payment amount:
+--   fee = LEAST(GREATEST(amount * rate + fixed_fee, minimum_fee), maximum_fee)
+-- A missing maximum_fee means no cap. A currency without bands keeps the flat
+-- currencies.fee_rate / minimum_fee. Those two columns also price amounts below the
+-- first band's lower_bound, so a schedule meant to replace them needs a band at 0.
+-- Bands are read with the currencies and compiled into an in-memory table per currency.
+CREATE TABLE fee_schedule_bands (
+    currency        VARCHAR(3)      NOT NULL REFERENCES currencies (code) ON DELETE CASCADE,
+    lower_bound     NUMERIC(19,4)   NOT NULL,
+    rate            NUMERIC(9,6)    NOT NULL,
+    fixed_fee       NUMERIC(19,4)   NOT NULL DEFAULT 0,
+    minimum_fee     NUMERIC(19,4)   NOT NULL DEFAULT 0,
+    maximum_fee     NUMERIC(19,4),
+
+    PRIMARY KEY (currency, lower_bound),
+    CONSTRAINT check_band_lower_bound CHECK (lower_bound >= 0),
+    CONSTRAINT check_band_rate_range CHECK (rate >= 0 AND rate <= 1.0),
+    CONSTRAINT check_band_fees CHECK (fixed_fee >= 0 AND minimum_fee >= 0),
+    CONSTRAINT check_band_cap CHECK (maximum_fee IS NULL OR maximum_fee >= minimum_fee)
+);
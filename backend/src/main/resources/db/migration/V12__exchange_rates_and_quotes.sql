@@ -0,0 +1,37 @@
+-- Exchange rates for quoted conversions. One row prices one direction: 1 base_currency
+-- buys rate units of quote_currency. A pair stored in one direction only is quoted in
+-- the other at the inverse. The table is read whole into an in-memory snapshot that is
+-- reloaded every fx.rates.refresh-interval; a rate feed only has to upsert rows here.
+-- No rates are seeded: quotes for a pair are refused until it has a rate.
+CREATE TABLE rates (
+    base_currency   VARCHAR(3)      NOT NULL REFERENCES currencies (code) ON DELETE CASCADE,
+    quote_currency  VARCHAR(3)      NOT NULL REFERENCES currencies (code) ON DELETE CASCADE,
+    rate            NUMERIC(18,8)   NOT NULL,
+    updated_at      TIMESTAMPTZ     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    PRIMARY KEY (base_currency, quote_currency),
+    CONSTRAINT check_rate_positive CHECK (rate > 0),
+    CONSTRAINT check_rate_distinct_currencies CHECK (base_currency <> quote_currency)
+);
+
+-- A payment made against a quote records what was locked: the quote id, the customer
+-- rate after spread, and the amount the recipient receives in the settlement currency.
+-- All four are set together or not at all. amount, currency and processing_fee keep
+-- their meaning, so listings, rollups and exports are unaffected.
+ALTER TABLE payments
+    ADD COLUMN quote_id             UUID,
+    ADD COLUMN settlement_currency  VARCHAR(3),
+    ADD COLUMN settlement_amount    NUMERIC(19,4),
+    ADD COLUMN exchange_rate        NUMERIC(18,8),
+    ADD CONSTRAINT check_payment_settlement CHECK (
+        (quote_id IS NULL AND settlement_currency IS NULL AND settlement_amount IS NULL AND exchange_rate IS NULL)
+        OR (quote_id IS NOT NULL AND settlement_currency IS NOT NULL AND settlement_amount IS NOT NULL
+            AND exchange_rate IS NOT NULL));
+
+-- Replays of quoted payments must show the same settlement as the original response.
+ALTER TABLE idempotency_replays
+    ADD COLUMN quote_id             UUID,
+    ADD COLUMN settlement_currency  VARCHAR(3),
+    ADD COLUMN settlement_amount    NUMERIC(19,4),
+    ADD COLUMN exchange_rate        NUMERIC(18,8),
+    ADD COLUMN settlement_decimals  SMALLINT;
@@ -0,0 +1,14 @@
+-- Rollup deltas as written by payment transactions. Inserting a journal row takes no lock
+-- another payment waits on, unlike updating the shared (payment_day, currency, status)
+-- row in payment_daily_rollups, which serialized every commit of a day's payments in one
+-- currency. PaymentRollupFolder folds the journal into payment_daily_rollups every few
+-- seconds and deletes what it folded; summaries read both, so they stay exact meanwhile.
+CREATE TABLE payment_rollup_journal (
+    id              BIGINT          GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    payment_day     DATE            NOT NULL,
+    currency        VARCHAR(3)      NOT NULL,
+    status          VARCHAR(20)     NOT NULL,
+    payment_count   BIGINT          NOT NULL,
+    amount_total    NUMERIC(24,4)   NOT NULL,
+    fee_total       NUMERIC(24,4)   NOT NULL
+);
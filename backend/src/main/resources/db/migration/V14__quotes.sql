@@ -0,0 +1,17 @@
+-- Live quotes, shared by every node: a quote issued by one node can be paid on any other.
+-- A payment deletes its quote in the transaction that inserts it, so each quote backs at
+-- most one payment. Like idempotency_replays the table is UNLOGGED: a quote lost in a
+-- crash only costs the client a new one. Rows past expires_at are refused and purged
+-- every fx.quotes.purge-interval.
+CREATE UNLOGGED TABLE quotes (
+    id                   UUID            PRIMARY KEY,
+    amount               NUMERIC(19,4)   NOT NULL,
+    currency             VARCHAR(3)      NOT NULL,
+    settlement_currency  VARCHAR(3)      NOT NULL,
+    rate                 NUMERIC(18,8)   NOT NULL,
+    settlement_amount    NUMERIC(19,4)   NOT NULL,
+    expires_at           TIMESTAMPTZ     NOT NULL
+);
+
+CREATE INDEX idx_quotes_expires_at
+    ON quotes (expires_at);
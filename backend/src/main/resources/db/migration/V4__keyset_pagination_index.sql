@@ -0,0 +1,7 @@
+-- Keyset pagination seeks on (created_at, id). The id tiebreaker makes the order total,
+-- so rows sharing a timestamp are neither skipped nor repeated across pages.
+
+DROP INDEX IF EXISTS idx_payments_by_time;
+
+CREATE INDEX idx_payments_by_time_id
+    ON payments (created_at DESC, id DESC);
@@ -0,0 +1,18 @@
+-- Shared replay tier for multi-node deployments: one narrow row per idempotency key,
+-- read by every node before falling back to payments. It is a cache, so the table is
+-- UNLOGGED: writes skip the WAL, and after a crash it comes back empty and lookups
+-- fall back to payments until it refills.
+CREATE UNLOGGED TABLE idempotency_replays (
+    idempotency_key   VARCHAR(36)     PRIMARY KEY,
+    payment_id        UUID            NOT NULL,
+    amount            NUMERIC(19,4)   NOT NULL,
+    currency          VARCHAR(3)      NOT NULL,
+    recipient         VARCHAR(140)    NOT NULL,
+    processing_fee    NUMERIC(19,4)   NOT NULL,
+    decimals          SMALLINT        NOT NULL,
+    created_at        TIMESTAMPTZ     NOT NULL,
+    stored_at         TIMESTAMPTZ     NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_idempotency_replays_stored_at
+    ON idempotency_replays (stored_at);
@@ -0,0 +1,11 @@
+-- Idempotency keys are validated as UUIDs at the API, so store them natively: 16 bytes
+-- instead of 37 for VARCHAR(36), which roughly halves the unique index and makes each
+-- comparison a fixed-width memcmp instead of a collation-aware string compare.
+-- ALTER ... TYPE rewrites both tables and rebuilds their indexes under an ACCESS
+-- EXCLUSIVE lock; run it in a maintenance window on large tables.
+
+ALTER TABLE payments
+    ALTER COLUMN idempotency_key TYPE UUID USING idempotency_key::uuid;
+
+ALTER TABLE idempotency_replays
+    ALTER COLUMN idempotency_key TYPE UUID USING idempotency_key::uuid;
@@ -0,0 +1,7 @@
+-- Async workers claim the oldest PENDING (or lease-expired PROCESSING) payments. Settled
+-- rows are the vast majority and never match, so a partial index over the unsettled
+-- ones stays small and lets the claim read rows in created_at order without a sort.
+
+CREATE INDEX idx_payments_unsettled
+    ON payments (created_at)
+    WHERE status IN ('PENDING', 'PROCESSING');
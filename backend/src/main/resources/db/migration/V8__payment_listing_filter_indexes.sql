@@ -0,0 +1,19 @@
+-- Filtered listings. Each index leads with the equality filter and continues with the
+-- sort key and id tiebreaker, so a filtered page is one ordered range scan with no sort.
+-- A created_at range alone is served by idx_payments_by_time_id.
+
+CREATE INDEX idx_payments_currency_by_time
+    ON payments (currency, created_at DESC, id DESC);
+
+CREATE INDEX idx_payments_currency_by_amount
+    ON payments (currency, amount DESC, id DESC);
+
+CREATE INDEX idx_payments_by_amount
+    ON payments (amount DESC, id DESC);
+
+-- Status is not worth a full composite index: COMPLETED is nearly every row, so filtering
+-- the time index finds a page immediately, and PENDING/PROCESSING already have
+-- idx_payments_unsettled. Only the rare terminal failures need their own (partial) index.
+CREATE INDEX idx_payments_unsuccessful_by_time
+    ON payments (created_at DESC, id DESC)
+    WHERE status IN ('FAILED', 'REFUNDED');
@@ -0,0 +1,18 @@
+-- The unfiltered listing selects only the response columns. Carrying them as INCLUDE
+-- payload lets PostgreSQL answer a page (offset, slice or keyset) with an index-only scan
+-- instead of a heap fetch per row. The key is unchanged, so keyset seeks and created_at
+-- range filters use it exactly as before.
+--
+-- Index-only scans skip the heap only for pages marked all-visible, so they depend on
+-- autovacuum keeping up with status updates; recently settled rows still cost a heap visit.
+--
+-- The covering index is built CONCURRENTLY under a new name next to the V4 one, which
+-- keeps serving listings until it is dropped, so writes are never blocked. Flyway runs
+-- a script made only of CONCURRENTLY statements outside a transaction, and a failed
+-- build leaves an INVALID idx_payments_by_time_covering to drop before retrying.
+
+CREATE INDEX CONCURRENTLY idx_payments_by_time_covering
+    ON payments (created_at DESC, id DESC)
+    INCLUDE (amount, currency, recipient, processing_fee);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_payments_by_time_id;
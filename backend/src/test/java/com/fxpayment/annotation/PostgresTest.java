@@ -0,0 +1,24 @@
+package com.fxpayment.annotation;
+
+import com.fxpayment.utils.PostgresTestDatabase;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Full application context on PostgreSQL, with the schema built by the Flyway migrations
+// instead of Hibernate. The database is shared by every such test class, so tests clean
+// up the rows they write.
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(PostgresTestDatabase.class)
+@SpringBootTest
+@ContextConfiguration(initializers = PostgresTestDatabase.Initializer.class)
+@ActiveProfiles({"test", "postgres"})
+public @interface PostgresTest {
+}
@@ -0,0 +1,85 @@
+package com.fxpayment.benchmark;
+
+import com.fxpayment.model.Currency;
+import com.fxpayment.service.FeeSchedule;
+import com.fxpayment.util.FixedPointMoney;
+import com.fxpayment.util.MoneyUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static com.fxpayment.utils.TestDataFactory.aFeeBand;
+import static com.fxpayment.utils.TestDataFactory.usdCurrency;
+
+// Cost of pricing a batch of amounts with the BigDecimal formula FeeCalculationService used
+// before fee schedules, with a tiered schedule through its BigDecimal edge, and with the
+// schedule's scaled-long kernel alone (amounts already in units, nothing allocated).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FeeCalculationBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private Currency currency;
+    private FeeSchedule schedule;
+    private BigDecimal[] amounts;
+    private long[] amountUnits;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        currency = Currency.of(usdCurrency());
+        schedule = FeeSchedule.of(currency, List.of(
+                aFeeBand("USD", "1000").rate(new BigDecimal("0.005000")).fixedFee(new BigDecimal("2")).build(),
+                aFeeBand("USD", "10000").rate(new BigDecimal("0.002500"))
+                        .minimumFee(new BigDecimal("30")).maximumFee(new BigDecimal("100")).build()));
+        Random random = new Random(42);
+        amounts = new BigDecimal[BATCH_SIZE];
+        amountUnits = new long[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            amounts[i] = BigDecimal.valueOf(random.nextLong(1, 5_000_000), 2);
+            amountUnits[i] = FixedPointMoney.toUnits(amounts[i]);
+        }
+    }
+
+    @Benchmark
+    public void bigDecimalFlatFormula(Blackhole blackhole) {
+        for (BigDecimal amount : amounts) {
+            blackhole.consume(MoneyUtil.roundToInternalScale(
+                    amount.multiply(currency.feeRate()).max(currency.minimumFee())));
+        }
+    }
+
+    @Benchmark
+    public void scheduleFeeFor(Blackhole blackhole) {
+        for (BigDecimal amount : amounts) {
+            blackhole.consume(schedule.feeFor(amount));
+        }
+    }
+
+    @Benchmark
+    public long scheduleFeeUnits() {
+        long total = 0;
+        for (long units : amountUnits) {
+            total += schedule.feeUnits(units);
+        }
+        return total;
+    }
+}
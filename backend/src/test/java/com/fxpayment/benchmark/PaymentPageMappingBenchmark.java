@@ -0,0 +1,92 @@
+package com.fxpayment.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fxpayment.dto.PaymentResponse;
+import com.fxpayment.model.Payment;
+import com.fxpayment.repository.CurrencyRepository;
+import com.fxpayment.repository.FeeScheduleBandRepository;
+import com.fxpayment.service.CurrencyDecimals;
+import com.fxpayment.service.CurrencyLookupService;
+import com.fxpayment.service.CurrencyService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.fxpayment.utils.TestDataFactory.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Cost of rendering one full listing page (MAX_PAGE_SIZE rows, mixed currencies) with
+// decimals resolved per row through the currency registry versus one table per page.
+// Both read a registry that is already loaded, so neither touches the repository.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PaymentPageMappingBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    private CurrencyService currencyService;
+    private List<Payment> page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        CurrencyRepository currencyRepository = mock(CurrencyRepository.class);
+        when(currencyRepository.findAll()).thenReturn(List.of(usdCurrency(), eurCurrency(), gbpCurrency()));
+        currencyService = new CurrencyService(
+                new CurrencyLookupService(currencyRepository, mock(FeeScheduleBandRepository.class), Duration.ofHours(1)),
+                new ObjectMapper());
+        List<String> codes = List.of("USD", "EUR", "GBP");
+        page = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            page.add(Payment.builder()
+                    .id(UUID.randomUUID())
+                    .amount(new BigDecimal(1000 + i).setScale(4))
+                    .currency(codes.get(i % codes.size()))
+                    .recipient("John Doe")
+                    .processingFee(new BigDecimal("10.0050"))
+                    .createdAt(Instant.now())
+                    .build());
+        }
+        // Load the registry and build the snapshot before measuring.
+        currencyService.getCurrencyDecimals();
+    }
+
+    @Benchmark
+    public List<PaymentResponse> perRowLookup() {
+        List<PaymentResponse> responses = new ArrayList<>(PAGE_SIZE);
+        for (Payment payment : page) {
+            responses.add(PaymentResponse.from(payment, currencyService.getDecimals(payment.getCurrency())));
+        }
+        return responses;
+    }
+
+    @Benchmark
+    public List<PaymentResponse> decimalsTablePerPage() {
+        CurrencyDecimals decimals = currencyService.getCurrencyDecimals();
+        List<PaymentResponse> responses = new ArrayList<>(PAGE_SIZE);
+        for (Payment payment : page) {
+            responses.add(PaymentResponse.from(payment, decimals.decimalsOf(payment.getCurrency())));
+        }
+        return responses;
+    }
+}
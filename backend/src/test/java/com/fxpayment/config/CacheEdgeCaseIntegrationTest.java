@@ -1,5 +1,6 @@
 package com.fxpayment.config;
 
+import com.fxpayment.model.Currency;
 import com.fxpayment.model.CurrencyEntity;
 import com.fxpayment.repository.CurrencyRepository;
 import com.fxpayment.service.CurrencyLookupService;
@@ -42,6 +43,7 @@ class CacheEdgeCaseIntegrationTest {
     void setUp() {
         evictAllCaches();
         seedCurrencies(currencyRepository);
+        currencyLookupService.reload();
         clearInvocations(currencyRepository);
     }
 
@@ -64,12 +66,12 @@ class CacheEdgeCaseIntegrationTest {
     class StaleCacheBehaviour {
 
         @Test
-        @DisplayName("currency cache returns stale value after DB update until evicted")
+        @DisplayName("currency registry returns stale value after DB update until reloaded")
         void currencyCacheShouldReturnStaleValueAfterDbUpdate() {
             // Cache the USD currency
-            Optional<CurrencyEntity> cached = currencyLookupService.findByCode("USD");
+            Optional<Currency> cached = currencyLookupService.findByCode("USD");
             assertTrue(cached.isPresent());
-            assertEquals(0, new BigDecimal("0.01").compareTo(cached.get().getFeeRate()));
+            assertEquals(0, new BigDecimal("0.01").compareTo(cached.get().feeRate()));
 
             // Update the fee rate directly in the database
             CurrencyEntity updated = CurrencyEntity.builder()
@@ -83,39 +85,41 @@ class CacheEdgeCaseIntegrationTest {
             clearInvocations(currencyRepository);
 
             // Cache should still return the old value
-            Optional<CurrencyEntity> stale = currencyLookupService.findByCode("USD");
+            Optional<Currency> stale = currencyLookupService.findByCode("USD");
             assertTrue(stale.isPresent());
-            assertEquals(0, new BigDecimal("0.01").compareTo(stale.get().getFeeRate()));
-            verify(currencyRepository, never()).findById("USD");
+            assertEquals(0, new BigDecimal("0.01").compareTo(stale.get().feeRate()));
+            verify(currencyRepository, never()).findAll();
 
-            // After eviction, fresh value from DB
-            evictAllCaches();
-            Optional<CurrencyEntity> fresh = currencyLookupService.findByCode("USD");
+            // After a reload, fresh value from DB
+            currencyLookupService.reload();
+            Optional<Currency> fresh = currencyLookupService.findByCode("USD");
             assertTrue(fresh.isPresent());
-            assertEquals(0, new BigDecimal("0.02").compareTo(fresh.get().getFeeRate()));
-            verify(currencyRepository, times(1)).findById("USD");
+            assertEquals(0, new BigDecimal("0.02").compareTo(fresh.get().feeRate()));
+            verify(currencyRepository, times(1)).findAll();
         }
 
         @Test
-        @DisplayName("findAll cache returns stale list after DB addition until evicted")
+        @DisplayName("currency registry returns stale list after DB addition until reloaded")
         void findAllCacheShouldReturnStaleListAfterDbAddition() {
             // Cache all currencies
-            List<CurrencyEntity> initial = currencyLookupService.findAll();
+            List<Currency> initial = currencyLookupService.findAll();
             assertEquals(3, initial.size());
 
             // Add a new currency directly in DB
             currencyRepository.save(jpyCurrency());
             clearInvocations(currencyRepository);
 
-            // Cache still returns 3
-            List<CurrencyEntity> stale = currencyLookupService.findAll();
+            // Registry still returns 3, and does not know the new code
+            List<Currency> stale = currencyLookupService.findAll();
             assertEquals(3, stale.size());
+            assertTrue(currencyLookupService.findByCode("JPY").isEmpty());
             verify(currencyRepository, never()).findAll();
 
-            // After eviction, we see 4
-            evictAllCaches();
-            List<CurrencyEntity> fresh = currencyLookupService.findAll();
+            // After a reload, we see 4, and the new code is found too
+            currencyLookupService.reload();
+            List<Currency> fresh = currencyLookupService.findAll();
             assertEquals(4, fresh.size());
+            assertTrue(currencyLookupService.findByCode("JPY").isPresent());
         }
     }
 }
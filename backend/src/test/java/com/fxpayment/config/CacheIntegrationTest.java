@@ -1,8 +1,11 @@
 package com.fxpayment.config;
 
-import com.fxpayment.model.CurrencyEntity;
+import com.fxpayment.model.Currency;
+import com.fxpayment.dto.PaymentResponse;
 import com.fxpayment.repository.CurrencyRepository;
+import com.fxpayment.repository.PaymentRepository;
 import com.fxpayment.service.CurrencyLookupService;
+import com.fxpayment.service.PaymentService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -16,6 +19,7 @@ import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import static com.fxpayment.utils.TestDataFactory.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -30,9 +34,15 @@ class CacheIntegrationTest {
     @MockitoSpyBean
     private CurrencyRepository currencyRepository;
 
+    @MockitoSpyBean
+    private PaymentRepository paymentRepository;
+
     @Autowired
     private CurrencyLookupService currencyLookupService;
 
+    @Autowired
+    private PaymentService paymentService;
+
     @Autowired
     private CacheManager cacheManager;
 
@@ -40,11 +50,13 @@ class CacheIntegrationTest {
     void setUp() {
         evictAllCaches();
         seedCurrencies(currencyRepository);
+        currencyLookupService.reload();
         clearInvocations(currencyRepository);
     }
 
     @AfterEach
     void tearDown() {
+        paymentRepository.deleteAll();
         currencyRepository.deleteAll();
     }
 
@@ -58,69 +70,60 @@ class CacheIntegrationTest {
     }
 
     @Test
-    @DisplayName("findByCode should hit database only on first call")
-    void findByCodeShouldHitDatabaseOnlyOnce() {
-        Optional<CurrencyEntity> first = currencyLookupService.findByCode("USD");
-        Optional<CurrencyEntity> second = currencyLookupService.findByCode("USD");
+    @DisplayName("findByCode should be served from the loaded registry")
+    void findByCodeShouldNotHitDatabase() {
+        Optional<Currency> first = currencyLookupService.findByCode("USD");
+        Optional<Currency> second = currencyLookupService.findByCode("USD");
 
         assertTrue(first.isPresent());
         assertTrue(second.isPresent());
-        assertEquals("USD", first.get().getCode());
-        assertEquals("US Dollar", first.get().getName());
-        assertEquals("USD", second.get().getCode());
-        verify(currencyRepository, times(1)).findById("USD");
+        assertEquals("USD", first.get().code());
+        assertEquals("US Dollar", first.get().name());
+        assertEquals("USD", second.get().code());
+        verifyNoInteractions(currencyRepository);
     }
 
     @Test
-    @DisplayName("findAll should hit database only on first call")
-    void findAllShouldHitDatabaseOnlyOnce() {
-        List<CurrencyEntity> first = currencyLookupService.findAll();
-        List<CurrencyEntity> second = currencyLookupService.findAll();
+    @DisplayName("findAll should be served from the loaded registry")
+    void findAllShouldNotHitDatabase() {
+        List<Currency> first = currencyLookupService.findAll();
+        List<Currency> second = currencyLookupService.findAll();
 
         assertEquals(3, first.size());
-        assertEquals(3, second.size());
-        verify(currencyRepository, times(1)).findAll();
+        assertSame(first, second);
+        verifyNoInteractions(currencyRepository);
     }
 
     @Test
-    @DisplayName("findByCode should cache different currency codes independently")
-    void findByCodeShouldCacheDifferentKeysIndependently() {
-        currencyLookupService.findByCode("USD");
-        currencyLookupService.findByCode("EUR");
-        currencyLookupService.findByCode("GBP");
-
-        // Repeated lookups for the same codes should not hit DB again
-        currencyLookupService.findByCode("USD");
-        currencyLookupService.findByCode("EUR");
-        currencyLookupService.findByCode("GBP");
-
-        verify(currencyRepository, times(1)).findById("USD");
-        verify(currencyRepository, times(1)).findById("EUR");
-        verify(currencyRepository, times(1)).findById("GBP");
+    @DisplayName("list and code lookups return the same snapshot")
+    void listAndCodesShouldAgree() {
+        for (Currency currency : currencyLookupService.findAll()) {
+            assertSame(currency, currencyLookupService.findByCode(currency.code()).orElseThrow());
+        }
     }
 
     @Test
-    @DisplayName("cache eviction should force next findByCode to hit database")
-    void cacheEvictionShouldForceDbCall() {
-        currencyLookupService.findByCode("USD");
-        verify(currencyRepository, times(1)).findById("USD");
-
-        evictAllCaches();
+    @DisplayName("reload should read the database once for both views")
+    void reloadShouldHitDatabaseOnce() {
+        currencyLookupService.reload();
 
         currencyLookupService.findByCode("USD");
-        verify(currencyRepository, times(2)).findById("USD");
+        currencyLookupService.findAll();
+        verify(currencyRepository, times(1)).findAll();
+        verify(currencyRepository, never()).findById(any());
     }
 
     @Test
-    @DisplayName("cache eviction should force next findAll to hit database")
-    void findAllEvictionShouldForceDbCall() {
-        currencyLookupService.findAll();
-        verify(currencyRepository, times(1)).findAll();
+    @DisplayName("getPayment should hit database only on first call")
+    void getPaymentShouldHitDatabaseOnlyOnce() {
+        UUID id = paymentService.createPayment(UUID.randomUUID(), aPaymentRequest().build()).response().id();
+        clearInvocations(paymentRepository);
 
-        evictAllCaches();
+        PaymentResponse first = paymentService.getPayment(id);
+        PaymentResponse second = paymentService.getPayment(id);
 
-        currencyLookupService.findAll();
-        verify(currencyRepository, times(2)).findAll();
+        assertEquals(id, first.id());
+        assertEquals(first, second);
+        verify(paymentRepository, times(1)).findById(id);
     }
-
 }
@@ -2,11 +2,13 @@ package com.fxpayment.config;
 
 import com.fxpayment.dto.ErrorResponse;
 import com.fxpayment.exception.InvalidRequestException;
+import com.fxpayment.exception.PaymentNotFoundException;
 import com.fxpayment.exception.PaymentProcessingException;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Path;
 import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -21,6 +23,7 @@ import org.springframework.web.servlet.resource.NoResourceFoundException;
 
 import java.util.List;
 import java.util.Set;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
@@ -75,6 +78,18 @@ class GlobalExceptionHandlerTest {
         assertEquals("Unsupported currency code: ZZZ", response.getBody().errors().get(0));
     }
 
+    @Test
+    void handlePaymentNotFoundShouldReturn404WithMessage() {
+        UUID id = UUID.randomUUID();
+
+        ResponseEntity<ErrorResponse> response = handler.handlePaymentNotFound(new PaymentNotFoundException(id));
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(404, response.getBody().status());
+        assertEquals("Payment not found: " + id, response.getBody().errors().get(0));
+    }
+
     @Test
     void handleIllegalArgumentShouldReturn400WithGenericMessage() {
         IllegalArgumentException ex = new IllegalArgumentException("some internal library detail");
@@ -110,6 +125,17 @@ class GlobalExceptionHandlerTest {
         assertEquals("A conflict occurred while processing your request", response.getBody().errors().get(0));
     }
 
+    @Test
+    void handleConcurrencyFailureShouldReturn409AskingForRetry() {
+        CannotAcquireLockException ex = new CannotAcquireLockException("could not serialize access");
+
+        ResponseEntity<ErrorResponse> response = handler.handleConcurrencyFailure(ex);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals("A concurrent update interfered; retry the request", response.getBody().errors().get(0));
+    }
+
     @Test
     void handleConstraintViolationShouldReturn400WithViolationDetails() {
         ConstraintViolation<?> violation = mock(ConstraintViolation.class);
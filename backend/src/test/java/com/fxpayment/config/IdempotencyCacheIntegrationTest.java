@@ -0,0 +1,170 @@
+package com.fxpayment.config;
+
+import com.fxpayment.dto.BatchPaymentItem;
+import com.fxpayment.dto.BatchPaymentItemResult;
+import com.fxpayment.dto.CreatePaymentResult;
+import com.fxpayment.dto.PaymentRequest;
+import com.fxpayment.dto.PaymentResponse;
+import com.fxpayment.model.IdempotencyReplay;
+import com.fxpayment.model.Payment;
+import com.fxpayment.repository.CurrencyRepository;
+import com.fxpayment.repository.IdempotencyReplayRepository;
+import com.fxpayment.repository.PaymentRepository;
+import com.fxpayment.service.BatchPaymentService;
+import com.fxpayment.service.CompactReplay;
+import com.fxpayment.service.CurrencyLookupService;
+import com.fxpayment.service.IdempotencyKeyFilter;
+import com.fxpayment.service.PaymentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static com.fxpayment.utils.TestDataFactory.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "app.cache.enabled=true")
+@DisplayName("Idempotency store tiers")
+class IdempotencyCacheIntegrationTest {
+
+    @MockitoSpyBean
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private CurrencyRepository currencyRepository;
+
+    @Autowired
+    private IdempotencyReplayRepository replayRepository;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private BatchPaymentService batchPaymentService;
+
+    @Autowired
+    private IdempotencyKeyFilter idempotencyKeyFilter;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CurrencyLookupService currencyLookupService;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        seedCurrencies(currencyRepository);
+        currencyLookupService.reload();
+    }
+
+    @AfterEach
+    void tearDown() {
+        replayRepository.deleteAll();
+        paymentRepository.deleteAll();
+        currencyRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("created payment should be cached as a compact form of its replay response")
+    void createdPaymentShouldBeCachedAsCompactReplay() {
+        UUID idempotencyKey = UUID.randomUUID();
+
+        CreatePaymentResult created = paymentService.createPayment(idempotencyKey, aPaymentRequest().build());
+
+        Cache.ValueWrapper cached = cacheManager.getCache("idempotencyKeys").get(idempotencyKey);
+        assertNotNull(cached);
+        CompactReplay compact = assertInstanceOf(CompactReplay.class, cached.get());
+        assertEquals(created.response(), compact.toResponse());
+    }
+
+    @Test
+    @DisplayName("first retry should be replayed from the cache without querying the database")
+    void firstRetryShouldNotQueryDatabase() {
+        UUID idempotencyKey = UUID.randomUUID();
+        CreatePaymentResult created = paymentService.createPayment(idempotencyKey, aPaymentRequest().build());
+        clearInvocations(paymentRepository);
+
+        CreatePaymentResult replay = paymentService.createPayment(idempotencyKey, aPaymentRequest().build());
+
+        assertFalse(replay.created());
+        assertEquals(created.response(), replay.response());
+        verify(paymentRepository, never()).findByIdempotencyKey(any(UUID.class));
+        verify(paymentRepository, never()).insertIfAbsent(any());
+    }
+
+    @Test
+    @DisplayName("retry on a node with a cold local cache should be replayed from the shared store")
+    void retryWithColdLocalCacheShouldUseSharedStore() {
+        UUID idempotencyKey = UUID.randomUUID();
+        CreatePaymentResult created = paymentService.createPayment(idempotencyKey, aPaymentRequest().build());
+        // Another node: nothing in its local cache.
+        cacheManager.getCache("idempotencyKeys").clear();
+        clearInvocations(paymentRepository);
+
+        CreatePaymentResult replay = paymentService.createPayment(idempotencyKey, aPaymentRequest().build());
+
+        assertFalse(replay.created());
+        assertEquals(created.response(), replay.response());
+        verify(paymentRepository, never()).findByIdempotencyKey(any(UUID.class));
+        assertTrue(replayRepository.existsById(idempotencyKey));
+        assertNotNull(cacheManager.getCache("idempotencyKeys").get(idempotencyKey));
+    }
+
+    // Another node created the payment and wrote its replay to the shared tier; this node's
+    // filter has never seen the key. The retry must be replayed even though its body no
+    // longer validates here (JPY is not a supported currency in this test).
+    @Test
+    @DisplayName("retry of a payment created on another node should replay despite this node's filter")
+    void retryOfPaymentCreatedOnAnotherNodeShouldReplayFromSharedStore() {
+        UUID idempotencyKey = UUID.randomUUID();
+        PaymentResponse original = createdOnAnotherNode(idempotencyKey);
+
+        CreatePaymentResult replay = paymentService.createPayment(idempotencyKey, unsupportedCurrencyRequest());
+
+        assertFalse(replay.created());
+        assertEquals(original, replay.response());
+        verify(paymentRepository, never()).insertIfAbsent(any());
+    }
+
+    @Test
+    @DisplayName("batch retry of an item created on another node should replay despite this node's filter")
+    void batchRetryOfItemCreatedOnAnotherNodeShouldReplayFromSharedStore() {
+        UUID idempotencyKey = UUID.randomUUID();
+        PaymentResponse original = createdOnAnotherNode(idempotencyKey);
+
+        BatchPaymentItemResult result = batchPaymentService.createPayments(
+                List.of(new BatchPaymentItem(idempotencyKey.toString(), unsupportedCurrencyRequest()))).results().getFirst();
+
+        assertEquals(200, result.status());
+        assertEquals(original, result.payment());
+        verify(paymentRepository, never()).findByIdempotencyKeyIn(anyCollection());
+    }
+
+    private PaymentResponse createdOnAnotherNode(UUID idempotencyKey) {
+        Payment payment = paymentRepository.saveAndFlush(aPayment().idempotencyKey(idempotencyKey).build());
+        PaymentResponse response = PaymentResponse.from(payment, 2);
+        replayRepository.insertAllIfAbsent(List.of(IdempotencyReplay.of(idempotencyKey, response, Instant.now())));
+        assertFalse(idempotencyKeyFilter.mightContain(idempotencyKey), "precondition: key unknown to this node");
+        clearInvocations(paymentRepository);
+        return response;
+    }
+
+    private static PaymentRequest unsupportedCurrencyRequest() {
+        return aPaymentRequest().currency("JPY").build();
+    }
+}
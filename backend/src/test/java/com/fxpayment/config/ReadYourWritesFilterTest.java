@@ -0,0 +1,70 @@
+package com.fxpayment.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("ReadYourWritesFilter unit tests")
+class ReadYourWritesFilterTest {
+
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5));
+
+    private boolean pinnedDuring(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+        AtomicBoolean pinned = new AtomicBoolean();
+        FilterChain chain = (_, _) -> pinned.set(PrimaryPin.isPinned());
+        filter.doFilterInternal(request, response, chain);
+        return pinned.get();
+    }
+
+    @Test
+    @DisplayName("write sets a cookie with its expiry")
+    void writeShouldSetPinCookie() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        pinnedDuring(new MockHttpServletRequest("POST", "/api/v1/payments"), response);
+
+        String cookie = response.getHeader(HttpHeaders.SET_COOKIE);
+        assertNotNull(cookie);
+        assertTrue(cookie.startsWith(ReadYourWritesFilter.COOKIE_NAME + "="));
+        assertTrue(cookie.contains("Max-Age=5"));
+        assertTrue(cookie.contains("HttpOnly"));
+    }
+
+    @Test
+    @DisplayName("read with a live cookie is pinned only while the request runs")
+    void liveCookieShouldPinRead() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/payments");
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME,
+                Long.toString(System.currentTimeMillis() + 5_000)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(pinnedDuring(request, response));
+        assertFalse(PrimaryPin.isPinned());
+        assertNull(response.getHeader(HttpHeaders.SET_COOKIE));
+    }
+
+    @Test
+    @DisplayName("expired or malformed cookies do not pin")
+    void staleCookieShouldNotPin() throws Exception {
+        MockHttpServletRequest expired = new MockHttpServletRequest("GET", "/api/v1/payments");
+        expired.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME,
+                Long.toString(System.currentTimeMillis() - 1)));
+        MockHttpServletRequest malformed = new MockHttpServletRequest("GET", "/api/v1/payments");
+        malformed.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, "soon"));
+
+        assertFalse(pinnedDuring(expired, new MockHttpServletResponse()));
+        assertFalse(pinnedDuring(malformed, new MockHttpServletResponse()));
+    }
+}
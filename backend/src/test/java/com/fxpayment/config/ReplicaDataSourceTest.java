@@ -0,0 +1,154 @@
+package com.fxpayment.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReplicaDataSource unit tests")
+class ReplicaDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replicaA;
+
+    @Mock
+    private DataSource replicaB;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection replicaAConnection;
+
+    @Mock
+    private Connection replicaBConnection;
+
+    private ReplicaDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ReplicaDataSource(primary, List.of(replicaA, replicaB));
+    }
+
+    @AfterEach
+    void tearDown() {
+        PrimaryPin.unpin();
+    }
+
+    @Test
+    @DisplayName("alternates between healthy replicas")
+    void shouldRoundRobinReplicas() throws SQLException {
+        when(replicaA.getConnection()).thenReturn(replicaAConnection);
+        when(replicaB.getConnection()).thenReturn(replicaBConnection);
+
+        assertSame(replicaAConnection, dataSource.getConnection());
+        assertSame(replicaBConnection, dataSource.getConnection());
+        assertSame(replicaAConnection, dataSource.getConnection());
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    @DisplayName("failing replica is skipped until a health check sees it recover")
+    void failingReplicaShouldBeMarkedDownUntilHealthy() throws SQLException {
+        when(replicaA.getConnection())
+                .thenThrow(new SQLException("connection refused"))
+                .thenReturn(replicaAConnection);
+        when(replicaB.getConnection()).thenReturn(replicaBConnection);
+
+        assertSame(replicaBConnection, dataSource.getConnection());
+        assertEquals(1, dataSource.healthyReplicas());
+        assertSame(replicaBConnection, dataSource.getConnection());
+
+        when(replicaAConnection.isValid(anyInt())).thenReturn(true);
+        when(replicaBConnection.isValid(anyInt())).thenReturn(true);
+        dataSource.checkHealth();
+
+        assertEquals(2, dataSource.healthyReplicas());
+    }
+
+    @Test
+    @DisplayName("falls back to the primary while no replica is healthy")
+    void shouldFallBackToPrimaryWhenAllReplicasDown() throws SQLException {
+        when(replicaA.getConnection()).thenThrow(new SQLException("down"));
+        when(replicaB.getConnection()).thenThrow(new SQLException("down"));
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertSame(primaryConnection, dataSource.getConnection());
+        assertSame(primaryConnection, dataSource.getConnection());
+
+        assertEquals(0, dataSource.healthyReplicas());
+        verify(replicaA, times(1)).getConnection();
+    }
+
+    @Test
+    @DisplayName("health check marks an unreachable replica down")
+    void healthCheckShouldMarkUnreachableReplicaDown() throws SQLException {
+        when(replicaA.getConnection()).thenReturn(replicaAConnection);
+        when(replicaAConnection.isValid(anyInt())).thenReturn(true);
+        when(replicaB.getConnection()).thenThrow(new SQLException("down"));
+
+        dataSource.checkHealth();
+
+        assertEquals(1, dataSource.healthyReplicas());
+        verify(replicaAConnection).close();
+    }
+
+    @Test
+    @DisplayName("explicit credentials are passed to the routed pool")
+    void credentialsShouldFollowRouting() throws SQLException {
+        when(replicaA.getConnection("reporting", "secret")).thenReturn(replicaAConnection);
+        when(primary.getConnection("reporting", "secret")).thenReturn(primaryConnection);
+
+        assertSame(replicaAConnection, dataSource.getConnection("reporting", "secret"));
+        PrimaryPin.pin();
+        assertSame(primaryConnection, dataSource.getConnection("reporting", "secret"));
+    }
+
+    @Test
+    @DisplayName("a pinned request's pin carries over to work it hands to another thread")
+    void pinShouldPropagateToHandedOffTask() throws Exception {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        AtomicReference<Connection> used = new AtomicReference<>();
+        Runnable task = () -> {
+            try {
+                used.set(dataSource.getConnection());
+            } catch (SQLException ex) {
+                throw new IllegalStateException(ex);
+            }
+        };
+
+        PrimaryPin.pin();
+        Thread worker = Thread.ofVirtual().start(PrimaryPin.propagate(task));
+        worker.join();
+
+        assertSame(primaryConnection, used.get());
+        verifyNoInteractions(replicaA, replicaB);
+    }
+
+    @Test
+    @DisplayName("pinned reads go to the primary")
+    void pinnedReadsShouldUsePrimary() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        PrimaryPin.pin();
+
+        assertSame(primaryConnection, dataSource.getConnection());
+        verifyNoInteractions(replicaA, replicaB);
+    }
+}
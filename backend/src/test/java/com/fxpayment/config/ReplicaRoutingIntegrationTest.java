@@ -0,0 +1,131 @@
+package com.fxpayment.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fxpayment.controller.AbstractIntegrationTest;
+import com.fxpayment.repository.PaymentRepository;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+import static com.fxpayment.utils.TestDataFactory.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Two embedded databases: the usual H2 primary and a second H2 standing in for a replica.
+// The replica only changes when replicate() copies the primary into it, so anything read
+// before that proves which side served the read.
+@DisplayName("Read replica routing")
+@TestPropertySource(properties = {
+        "app.datasource.replicas[0].url=" + ReplicaRoutingIntegrationTest.REPLICA_URL,
+        "app.datasource.replicas[0].username=sa",
+        "app.datasource.replicas[0].password=",
+        "app.datasource.health-check-interval=1h",
+        "app.datasource.connection-timeout=1s",
+        "app.datasource.read-your-writes-window=5s"
+})
+class ReplicaRoutingIntegrationTest extends AbstractIntegrationTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replicadb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @BeforeEach
+    void setUp() {
+        paymentRepository.deleteAll();
+        replicate();
+    }
+
+    @AfterEach
+    void tearDown() {
+        paymentRepository.deleteAll();
+    }
+
+    // Stands in for streaming replication: the replica becomes a copy of the primary.
+    private void replicate() {
+        replica.execute("DROP ALL OBJECTS");
+        new JdbcTemplate(primaryDataSource).queryForList("SCRIPT", String.class).stream()
+                .filter(statement -> !statement.startsWith("--"))
+                .forEach(replica::execute);
+    }
+
+    private MvcResult createPayment() throws Exception {
+        return mockMvc.perform(post(PAYMENTS_API_PATH)
+                        .header(IDEMPOTENCY_KEY_HEADER, UUID.randomUUID().toString())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(aPaymentRequest().build())))
+                .andExpect(status().isCreated())
+                .andReturn();
+    }
+
+    @Test
+    @DisplayName("writes go to the primary, read-only listings to the replica")
+    void readOnlyListingShouldBeServedByReplica() throws Exception {
+        createPayment();
+
+        assertEquals(1, new JdbcTemplate(primaryDataSource).queryForObject("SELECT COUNT(*) FROM payments", Long.class));
+        mockMvc.perform(get(PAYMENTS_API_PATH))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.page.totalElements").value(0));
+
+        replicate();
+
+        mockMvc.perform(get(PAYMENTS_API_PATH))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.page.totalElements").value(1));
+    }
+
+    @Test
+    @DisplayName("the creating client reads its own write from the primary")
+    void creatorShouldReadOwnWriteBeforeReplication() throws Exception {
+        Cookie pin = createPayment().getResponse().getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        assertNotNull(pin);
+
+        mockMvc.perform(get(PAYMENTS_API_PATH).cookie(pin))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.page.totalElements").value(1));
+    }
+
+    @Test
+    @DisplayName("a pinned export reads from the primary on its async thread")
+    void pinnedExportShouldReadOwnWriteBeforeReplication() throws Exception {
+        Cookie pin = createPayment().getResponse().getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        assertNotNull(pin);
+
+        MvcResult started = mockMvc.perform(get(PAYMENTS_API_PATH + "/export").cookie(pin))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(1, body.lines().count());
+    }
+}
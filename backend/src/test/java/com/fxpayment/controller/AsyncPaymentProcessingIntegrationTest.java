@@ -0,0 +1,162 @@
+package com.fxpayment.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fxpayment.dto.BatchPaymentItem;
+import com.fxpayment.repository.PaymentDailyRollupRepository;
+import com.fxpayment.repository.PaymentRollupJournalRepository;
+import com.fxpayment.repository.PaymentRepository;
+import com.fxpayment.service.PaymentWorkerPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.fxpayment.utils.TestDataFactory.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DisplayName("Async payment acceptance")
+@TestPropertySource(properties = "payments.processing.async=true")
+class AsyncPaymentProcessingIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentWorkerPool paymentWorkerPool;
+
+    @Autowired
+    private PaymentDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private PaymentRollupJournalRepository journalRepository;
+
+    @BeforeEach
+    void setUp() {
+        paymentRepository.deleteAll();
+        rollupRepository.deleteAll();
+        journalRepository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        paymentRepository.deleteAll();
+        rollupRepository.deleteAll();
+        journalRepository.deleteAll();
+    }
+
+    private MvcResult postPayment(String idempotencyKey) throws Exception {
+        return mockMvc.perform(post(PAYMENTS_API_PATH)
+                        .header(IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(aPaymentRequest().build())))
+                .andReturn();
+    }
+
+    @Test
+    @DisplayName("new payment returns 202 with a status URL and settles once a worker runs")
+    void newPaymentShouldBeAcceptedThenCompletedByWorker() throws Exception {
+        MvcResult accepted = postPayment(UUID.randomUUID().toString());
+
+        assertEquals(202, accepted.getResponse().getStatus());
+        JsonNode body = objectMapper.readTree(accepted.getResponse().getContentAsString());
+        String statusUrl = accepted.getResponse().getHeader(HttpHeaders.LOCATION);
+        assertEquals("http://localhost" + PAYMENTS_API_PATH + "/" + body.get("id").asText() + "/status", statusUrl);
+
+        mockMvc.perform(get(statusUrl))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("PENDING"));
+
+        assertEquals(1, paymentWorkerPool.processBatch());
+
+        mockMvc.perform(get(statusUrl))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(body.get("id").asText()))
+                .andExpect(jsonPath("$.status").value("COMPLETED"));
+    }
+
+    @Test
+    @DisplayName("summary follows a payment from PENDING to COMPLETED")
+    void summaryShouldMovePaymentWithItsStatus() throws Exception {
+        postPayment(UUID.randomUUID().toString());
+
+        mockMvc.perform(get(PAYMENTS_API_PATH + "/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.days.length()").value(1))
+                .andExpect(jsonPath("$.days[0].status").value("PENDING"))
+                .andExpect(jsonPath("$.days[0].count").value(1));
+
+        paymentWorkerPool.processBatch();
+
+        mockMvc.perform(get(PAYMENTS_API_PATH + "/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.days.length()").value(1))
+                .andExpect(jsonPath("$.days[0].status").value("COMPLETED"))
+                .andExpect(jsonPath("$.days[0].count").value(1))
+                .andExpect(jsonPath("$.days[0].amount").value(100.00));
+    }
+
+    @Test
+    @DisplayName("retry of an accepted payment is a 200 replay without a new status URL")
+    void retryShouldReplayWithoutAcceptingAgain() throws Exception {
+        String idempotencyKey = UUID.randomUUID().toString();
+        postPayment(idempotencyKey);
+
+        mockMvc.perform(post(PAYMENTS_API_PATH)
+                        .header(IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(aPaymentRequest().build())))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LOCATION));
+        assertEquals(1, paymentRepository.count());
+    }
+
+    @Test
+    @DisplayName("batch items are accepted as PENDING with 202 and settle once a worker runs")
+    void batchItemsShouldBeAcceptedAsPending() throws Exception {
+        MvcResult result = mockMvc.perform(post(PAYMENTS_API_PATH + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(
+                                new BatchPaymentItem(UUID.randomUUID().toString(), aPaymentRequest().build()),
+                                new BatchPaymentItem(UUID.randomUUID().toString(), aPaymentRequest().build())))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.results[0].status").value(202))
+                .andExpect(jsonPath("$.results[1].status").value(202))
+                .andReturn();
+
+        String id = objectMapper.readTree(result.getResponse().getContentAsString())
+                .at("/results/0/payment/id").asText();
+        mockMvc.perform(get(PAYMENTS_API_PATH + "/" + id + "/status"))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+
+        assertEquals(2, paymentWorkerPool.processBatch());
+
+        mockMvc.perform(get(PAYMENTS_API_PATH + "/" + id + "/status"))
+                .andExpect(jsonPath("$.status").value("COMPLETED"));
+    }
+
+    @Test
+    @DisplayName("status of an unknown payment returns 404")
+    void unknownPaymentStatusShouldReturn404() throws Exception {
+        mockMvc.perform(get(PAYMENTS_API_PATH + "/" + UUID.randomUUID() + "/status"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status").value(404));
+    }
+}
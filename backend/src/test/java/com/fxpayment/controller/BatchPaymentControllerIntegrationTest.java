@@ -0,0 +1,180 @@
+package com.fxpayment.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fxpayment.dto.BatchPaymentItem;
+import com.fxpayment.dto.PaymentRequest;
+import com.fxpayment.repository.PaymentRepository;
+import com.fxpayment.util.PaymentConstants;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static com.fxpayment.utils.TestDataFactory.*;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DisplayName("Batch payment API integration tests")
+class BatchPaymentControllerIntegrationTest extends AbstractIntegrationTest {
+
+    private static final String BATCH_PATH = PAYMENTS_API_PATH + "/batch";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @BeforeEach
+    void setUp() {
+        paymentRepository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        paymentRepository.deleteAll();
+    }
+
+    private ResultActions postBatch(List<BatchPaymentItem> items) throws Exception {
+        return mockMvc.perform(post(BATCH_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(items)));
+    }
+
+    private static BatchPaymentItem item(PaymentRequest request) {
+        return new BatchPaymentItem(UUID.randomUUID().toString(), request);
+    }
+
+    @Test
+    @DisplayName("creates every valid item and reports 201 per item")
+    void shouldCreateAllValidItems() throws Exception {
+        List<BatchPaymentItem> items = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            items.add(item(aPaymentRequest().build()));
+        }
+
+        postBatch(items)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(120))
+                .andExpect(jsonPath("$.replayed").value(0))
+                .andExpect(jsonPath("$.rejected").value(0))
+                .andExpect(jsonPath("$.results", hasSize(120)))
+                .andExpect(jsonPath("$.results[0].index").value(0))
+                .andExpect(jsonPath("$.results[0].status").value(201))
+                .andExpect(jsonPath("$.results[0].payment.processingFee").value(5.0))
+                .andExpect(jsonPath("$.results[119].index").value(119));
+
+        assertEquals(120, paymentRepository.count());
+    }
+
+    @Test
+    @DisplayName("rejects invalid items individually without failing the batch")
+    void shouldRejectInvalidItemsIndividually() throws Exception {
+        List<BatchPaymentItem> items = List.of(
+                item(aPaymentRequest().build()),
+                item(aPaymentRequest().currency(UNSUPPORTED_CURRENCY).build()),
+                new BatchPaymentItem("not-a-uuid", aPaymentRequest().build()),
+                item(aPaymentRequest().amount(new BigDecimal("1.001")).build()),
+                item(aPaymentRequest().recipientAccount("INVALID").build()));
+
+        postBatch(items)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.rejected").value(4))
+                .andExpect(jsonPath("$.results[0].status").value(201))
+                .andExpect(jsonPath("$.results[1].status").value(400))
+                .andExpect(jsonPath("$.results[1].errors[0]").value("Unsupported currency code: " + UNSUPPORTED_CURRENCY))
+                .andExpect(jsonPath("$.results[2].errors[0]").value("Idempotency key must be a valid UUID"))
+                .andExpect(jsonPath("$.results[3].status").value(400))
+                .andExpect(jsonPath("$.results[4].status").value(400))
+                .andExpect(jsonPath("$.results[4].payment").doesNotExist());
+
+        assertEquals(1, paymentRepository.count());
+    }
+
+    @Test
+    @DisplayName("replays keys already used by the single-payment endpoint")
+    void shouldReplayKeysCreatedBySingleEndpoint() throws Exception {
+        String idempotencyKey = UUID.randomUUID().toString();
+        String body = mockMvc.perform(post(PAYMENTS_API_PATH)
+                        .header(IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(aPaymentRequest().build())))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String originalId = objectMapper.readTree(body).get("id").asText();
+
+        postBatch(List.of(new BatchPaymentItem(idempotencyKey, aPaymentRequest().amount(new BigDecimal("999.00")).build())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.replayed").value(1))
+                .andExpect(jsonPath("$.results[0].status").value(200))
+                .andExpect(jsonPath("$.results[0].payment.id").value(originalId))
+                .andExpect(jsonPath("$.results[0].payment.amount").value(100.0));
+
+        assertEquals(1, paymentRepository.count());
+    }
+
+    @Test
+    @DisplayName("repeated key within one batch creates once and replays the rest")
+    void shouldCreateOnceForKeyRepeatedInBatch() throws Exception {
+        String idempotencyKey = UUID.randomUUID().toString();
+        List<BatchPaymentItem> items = List.of(
+                new BatchPaymentItem(idempotencyKey, aPaymentRequest().build()),
+                new BatchPaymentItem(idempotencyKey, aPaymentRequest().build()));
+
+        postBatch(items)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.replayed").value(1))
+                .andExpect(jsonPath("$.results[1].status").value(200));
+
+        assertEquals(1, paymentRepository.count());
+    }
+
+    @Test
+    @DisplayName("resubmitting the whole batch replays every item")
+    void shouldReplayWholeBatchOnResubmit() throws Exception {
+        List<BatchPaymentItem> items = List.of(item(aPaymentRequest().build()), item(aPaymentRequest().currency("EUR").build()));
+        postBatch(items).andExpect(jsonPath("$.created").value(2));
+
+        postBatch(items)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(0))
+                .andExpect(jsonPath("$.replayed").value(2));
+
+        assertEquals(2, paymentRepository.count());
+    }
+
+    @Test
+    @DisplayName("empty batch returns 400")
+    void shouldRejectEmptyBatch() throws Exception {
+        postBatch(Collections.emptyList())
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("batch above the maximum size returns 400")
+    void shouldRejectOversizedBatch() throws Exception {
+        List<BatchPaymentItem> items = new ArrayList<>();
+        for (int i = 0; i <= PaymentConstants.MAX_BATCH_SIZE; i++) {
+            items.add(item(aPaymentRequest().build()));
+        }
+
+        postBatch(items)
+                .andExpect(status().isBadRequest());
+
+        assertEquals(0, paymentRepository.count());
+    }
+}
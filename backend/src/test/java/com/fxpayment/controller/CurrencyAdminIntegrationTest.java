@@ -0,0 +1,124 @@
+package com.fxpayment.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fxpayment.dto.CurrencyFeeUpdate;
+import com.fxpayment.repository.PaymentDailyRollupRepository;
+import com.fxpayment.repository.PaymentRollupJournalRepository;
+import com.fxpayment.repository.PaymentRepository;
+import com.fxpayment.service.CurrencyLookupService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static com.fxpayment.utils.TestDataFactory.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DisplayName("Currency admin API")
+@TestPropertySource(properties = {"app.admin.token=" + CurrencyAdminIntegrationTest.TOKEN, "app.cache.enabled=true"})
+class CurrencyAdminIntegrationTest extends AbstractIntegrationTest {
+
+    static final String TOKEN = "test-admin-token";
+    private static final String ADMIN_PATH = "/api/v1/admin/currencies/";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private PaymentRollupJournalRepository journalRepository;
+
+    @Autowired
+    private CurrencyLookupService currencyLookupService;
+
+    @BeforeEach
+    void setUp() {
+        currencyLookupService.reload();
+    }
+
+    @AfterEach
+    void tearDown() {
+        paymentRepository.deleteAll();
+        rollupRepository.deleteAll();
+        journalRepository.deleteAll();
+    }
+
+    private ResultActions updateFees(String code, String token, Object body) throws Exception {
+        var request = put(ADMIN_PATH + code + "/fees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body));
+        if (token != null) {
+            request.header(AdminAccess.ADMIN_TOKEN_HEADER, token);
+        }
+        return mockMvc.perform(request);
+    }
+
+    private BigDecimal feeForNewPayment() throws Exception {
+        String body = mockMvc.perform(post(PAYMENTS_API_PATH)
+                        .header(IDEMPOTENCY_KEY_HEADER, UUID.randomUUID().toString())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                aPaymentRequest().amount(new BigDecimal("1000.00")).build())))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("processingFee").decimalValue();
+    }
+
+    @Test
+    @DisplayName("fee update applies to the next payment although the currency was cached")
+    void feeUpdateShouldApplyToNextPayment() throws Exception {
+        assertEquals(0, new BigDecimal("10.00").compareTo(feeForNewPayment()));
+
+        updateFees("USD", TOKEN, new CurrencyFeeUpdate(new BigDecimal("0.02"), new BigDecimal("1.00")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value("USD"))
+                .andExpect(jsonPath("$.feeRate").value(0.02))
+                .andExpect(jsonPath("$.minimumFee").value(1.00));
+
+        assertEquals(0, new BigDecimal("20.00").compareTo(feeForNewPayment()));
+    }
+
+    @Test
+    @DisplayName("missing or wrong admin token returns 403")
+    void wrongTokenShouldReturn403() throws Exception {
+        CurrencyFeeUpdate update = new CurrencyFeeUpdate(new BigDecimal("0.02"), new BigDecimal("1.00"));
+
+        updateFees("USD", null, update)
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.status").value(403));
+        updateFees("USD", "not-the-token", update)
+                .andExpect(status().isForbidden());
+        assertEquals(0, new BigDecimal("10.00").compareTo(feeForNewPayment()));
+    }
+
+    @Test
+    @DisplayName("unknown currency returns 404")
+    void unknownCurrencyShouldReturn404() throws Exception {
+        updateFees("CHF", TOKEN, new CurrencyFeeUpdate(new BigDecimal("0.02"), new BigDecimal("1.00")))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status").value(404));
+    }
+
+    @Test
+    @DisplayName("fee rate outside [0, 1] returns 400")
+    void invalidFeeRateShouldReturn400() throws Exception {
+        updateFees("USD", TOKEN, new CurrencyFeeUpdate(new BigDecimal("1.5"), new BigDecimal("1.00")))
+                .andExpect(status().isBadRequest());
+    }
+}
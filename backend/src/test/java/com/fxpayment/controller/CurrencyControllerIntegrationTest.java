@@ -2,11 +2,23 @@ package com.fxpayment.controller;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.util.zip.GZIPInputStream;
 
 import static com.fxpayment.utils.TestDataFactory.bhdCurrency;
 import static com.fxpayment.utils.TestDataFactory.jpyCurrency;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -63,4 +75,68 @@ class CurrencyControllerIntegrationTest extends AbstractIntegrationTest {
                 .andExpect(jsonPath("$[?(@.code == 'BHD')].name", hasItem("Bahraini Dinar")))
                 .andExpect(jsonPath("$[?(@.code == 'BHD')].decimals", hasItem(3)));
     }
+
+    @Test
+    @DisplayName("matching If-None-Match returns 304 with no body")
+    void unchangedCurrenciesShouldReturn304() throws Exception {
+        String etag = mockMvc.perform(get("/api/v1/currencies"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v1/currencies").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("new currency changes the ETag")
+    void changedCurrenciesShouldReturnNewEtag() throws Exception {
+        String etag = mockMvc.perform(get("/api/v1/currencies"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        currencyRepository.save(jpyCurrency());
+
+        mockMvc.perform(get("/api/v1/currencies").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    }
+
+    @Test
+    @DisplayName("gzip-accepting client receives the pre-compressed body")
+    void gzipClientShouldReceiveCompressedBody() throws Exception {
+        byte[] identity = mockMvc.perform(get("/api/v1/currencies"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        MockHttpServletResponse gzipped = mockMvc.perform(get("/api/v1/currencies")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getContentAsByteArray()))) {
+            assertArrayEquals(identity, in.readAllBytes());
+        }
+        assertNotEquals(gzipped.getHeader(HttpHeaders.ETAG),
+                mockMvc.perform(get("/api/v1/currencies")).andReturn().getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    @ParameterizedTest(name = "Accept-Encoding: {0}")
+    @ValueSource(strings = {"gzip;q=0", "deflate, br", "identity", "gzip;q=0.000, br"})
+    @DisplayName("clients that refuse gzip receive plain JSON")
+    void clientsRefusingGzipShouldReceiveIdentity(String acceptEncoding) throws Exception {
+        mockMvc.perform(get("/api/v1/currencies").header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(jsonPath("$[*].code", hasItems("USD", "EUR", "GBP")));
+    }
+
+    @Test
+    @DisplayName("weighted gzip is still accepted")
+    void weightedGzipShouldBeAccepted() throws Exception {
+        mockMvc.perform(get("/api/v1/currencies").header(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, GZIP;q=0.5"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+    }
 }
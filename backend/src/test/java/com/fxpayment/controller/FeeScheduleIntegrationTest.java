@@ -0,0 +1,80 @@
+package com.fxpayment.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fxpayment.repository.FeeScheduleBandRepository;
+import com.fxpayment.repository.PaymentDailyRollupRepository;
+import com.fxpayment.repository.PaymentRollupJournalRepository;
+import com.fxpayment.repository.PaymentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static com.fxpayment.utils.TestDataFactory.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DisplayName("Tiered fee schedules")
+class FeeScheduleIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private PaymentRollupJournalRepository journalRepository;
+
+    @Autowired
+    private FeeScheduleBandRepository feeScheduleBandRepository;
+
+    @AfterEach
+    void tearDown() {
+        paymentRepository.deleteAll();
+        rollupRepository.deleteAll();
+        journalRepository.deleteAll();
+        feeScheduleBandRepository.deleteAll();
+    }
+
+    private BigDecimal feeFor(String amount) throws Exception {
+        String body = mockMvc.perform(post(PAYMENTS_API_PATH)
+                        .header(IDEMPOTENCY_KEY_HEADER, UUID.randomUUID().toString())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                aPaymentRequest().amount(new BigDecimal(amount)).build())))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("processingFee").decimalValue();
+    }
+
+    @Test
+    @DisplayName("payments are charged by the band their amount falls in")
+    void paymentsShouldBeChargedByTheirBand() throws Exception {
+        feeScheduleBandRepository.saveAllAndFlush(List.of(
+                aFeeBand("USD", "1000").rate(new BigDecimal("0.005000")).fixedFee(new BigDecimal("2")).build(),
+                aFeeBand("USD", "10000").rate(new BigDecimal("0.002500"))
+                        .minimumFee(new BigDecimal("30")).maximumFee(new BigDecimal("100")).build()));
+
+        assertEquals(0, new BigDecimal("5.00").compareTo(feeFor("100.00")));
+        assertEquals(0, new BigDecimal("27.00").compareTo(feeFor("5000.00")));
+        assertEquals(0, new BigDecimal("30.00").compareTo(feeFor("10000.00")));
+        assertEquals(0, new BigDecimal("100.00").compareTo(feeFor("500000.00")));
+    }
+
+    @Test
+    @DisplayName("a currency without bands keeps its flat rate and minimum")
+    void currencyWithoutBandsShouldKeepFlatFee() throws Exception {
+        assertEquals(0, new BigDecimal("5.00").compareTo(feeFor("100.00")));
+        assertEquals(0, new BigDecimal("5000.00").compareTo(feeFor("500000.00")));
+    }
+}
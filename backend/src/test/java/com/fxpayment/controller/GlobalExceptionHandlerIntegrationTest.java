@@ -17,7 +17,6 @@ import java.util.UUID;
 
 import static com.fxpayment.utils.TestDataFactory.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -41,7 +40,7 @@ class GlobalExceptionHandlerIntegrationTest {
     @Test
     @DisplayName("unexpected RuntimeException returns 500 with standard error body (5e)")
     void unexpectedExceptionShouldReturn500WithErrorBody() throws Exception {
-        when(paymentService.createPayment(anyString(), any()))
+        when(paymentService.createPayment(any(UUID.class), any()))
                 .thenThrow(new RuntimeException("Unexpected infrastructure failure"));
 
         mockMvc.perform(post(PAYMENTS_API_PATH)
@@ -57,7 +56,7 @@ class GlobalExceptionHandlerIntegrationTest {
     @Test
     @DisplayName("DataIntegrityViolationException at controller level returns 409 (2c)")
     void dataIntegrityViolationShouldReturn409() throws Exception {
-        when(paymentService.createPayment(anyString(), any()))
+        when(paymentService.createPayment(any(UUID.class), any()))
                 .thenThrow(new org.springframework.dao.DataIntegrityViolationException("Duplicate key"));
 
         mockMvc.perform(post(PAYMENTS_API_PATH)
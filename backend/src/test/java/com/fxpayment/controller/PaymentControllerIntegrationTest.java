@@ -11,11 +11,15 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.servlet.ResultActions;
 import com.fxpayment.repository.PaymentRepository;
 
 import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -25,11 +29,14 @@ import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import static com.fxpayment.utils.TestDataFactory.*;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -42,6 +49,9 @@ class PaymentControllerIntegrationTest extends AbstractIntegrationTest {
     @Autowired
     private PaymentRepository paymentRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @BeforeEach
     void setUp() {
         paymentRepository.deleteAll();
@@ -390,6 +400,385 @@ class PaymentControllerIntegrationTest extends AbstractIntegrationTest {
                             .param("size", "0"))
                     .andExpect(status().isBadRequest());
         }
+
+        @Test
+        @DisplayName("total=estimated keeps the paged response shape")
+        void shouldReturnEstimatedTotal() throws Exception {
+            postPayment(aPaymentRequest().build()).andExpect(status().isCreated());
+            postPayment(aPaymentRequest().build()).andExpect(status().isCreated());
+
+            mockMvc.perform(get(PAYMENTS_API_PATH)
+                            .param("size", "1")
+                            .param("total", "estimated"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content", hasSize(1)))
+                    .andExpect(jsonPath("$.page.size").value(1))
+                    .andExpect(jsonPath("$.page.totalElements", greaterThanOrEqualTo(2)))
+                    .andExpect(jsonPath("$.page.totalPages", greaterThanOrEqualTo(2)));
+        }
+
+        @Test
+        @DisplayName("total=none returns hasNext instead of totals")
+        void shouldReturnSliceWithoutTotals() throws Exception {
+            postPayment(aPaymentRequest().build()).andExpect(status().isCreated());
+            postPayment(aPaymentRequest().build()).andExpect(status().isCreated());
+
+            mockMvc.perform(get(PAYMENTS_API_PATH)
+                            .param("size", "1")
+                            .param("total", "none"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content", hasSize(1)))
+                    .andExpect(jsonPath("$.page.hasNext").value(true))
+                    .andExpect(jsonPath("$.page.number").value(0))
+                    .andExpect(jsonPath("$.page.totalElements").doesNotExist());
+
+            mockMvc.perform(get(PAYMENTS_API_PATH)
+                            .param("page", "1")
+                            .param("size", "1")
+                            .param("total", "none"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content", hasSize(1)))
+                    .andExpect(jsonPath("$.page.hasNext").value(false));
+        }
+
+        @Test
+        @DisplayName("rejects unknown total mode")
+        void shouldRejectUnknownTotalMode() throws Exception {
+            mockMvc.perform(get(PAYMENTS_API_PATH)
+                            .param("total", "approximate"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    @DisplayName("Filtered listing")
+    class FilterTests {
+
+        @BeforeEach
+        void createPayments() throws Exception {
+            for (String amount : List.of("30.00", "10.00", "20.00")) {
+                postPayment(aPaymentRequest().amount(new BigDecimal(amount)).build()).andExpect(status().isCreated());
+            }
+            postPayment(aPaymentRequest().currency("EUR").amount(new BigDecimal("40.00")).build())
+                    .andExpect(status().isCreated());
+        }
+
+        @Test
+        @DisplayName("filters by currency and sorts by amount")
+        void shouldFilterByCurrencyAndSortByAmount() throws Exception {
+            mockMvc.perform(get(PAYMENTS_API_PATH)
+                            .param("currency", "USD")
+                            .param("sort", "amount")
+                            .param("direction", "asc"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.page.totalElements").value(3))
+                    .andExpect(jsonPath("$.content[*].amount", contains(10.0, 20.0, 30.0)));
+        }
+
+        @Test
+        @DisplayName("applies amount range to the slice listing")
+        void shouldApplyAmountRangeWithoutTotal() throws Exception {
+            mockMvc.perform(get(PAYMENTS_API_PATH)
+                            .param("total", "none")
+                            .param("minAmount", "20")
+                            .param("maxAmount", "30")
+                            .param("sort", "amount"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[*].amount", contains(30.0, 20.0)))
+                    .andExpect(jsonPath("$.page.hasNext").value(false));
+        }
+
+        @Test
+        @DisplayName("counts exactly when an estimated total is requested with filters")
+        void shouldCountExactlyWhenFiltered() throws Exception {
+            mockMvc.perform(get(PAYMENTS_API_PATH)
+                            .param("total", "estimated")
+                            .param("currency", "EUR"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.page.totalElements").value(1));
+        }
+
+        @Test
+        @DisplayName("filters by status")
+        void shouldFilterByStatus() throws Exception {
+            mockMvc.perform(get(PAYMENTS_API_PATH).param("status", "FAILED"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content", hasSize(0)));
+        }
+
+        @Test
+        @DisplayName("rejects an unknown status without leaking type names")
+        void shouldRejectUnknownStatus() throws Exception {
+            mockMvc.perform(get(PAYMENTS_API_PATH).param("status", "LOST"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.errors[0]").value("Invalid value for parameter: status"));
+        }
+
+        @Test
+        @DisplayName("rejects an inverted created range")
+        void shouldRejectInvertedCreatedRange() throws Exception {
+            mockMvc.perform(get(PAYMENTS_API_PATH)
+                            .param("createdFrom", "2026-03-02T00:00:00Z")
+                            .param("createdTo", "2026-03-01T00:00:00Z"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.errors[0]").value("createdFrom must be before createdTo"));
+        }
+
+        @Test
+        @DisplayName("rejects an unsupported sort field")
+        void shouldRejectUnsupportedSort() throws Exception {
+            mockMvc.perform(get(PAYMENTS_API_PATH).param("sort", "recipient"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.errors[0]").value("sort must be one of: createdAt, amount"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Lookup by id")
+    class LookupTests {
+
+        @Test
+        @DisplayName("returns the payment as created")
+        void shouldReturnPaymentById() throws Exception {
+            String body = postPayment(aPaymentRequest().build())
+                    .andExpect(status().isCreated())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode created = objectMapper.readTree(body);
+
+            mockMvc.perform(get(PAYMENTS_API_PATH + "/" + created.get("id").asText()))
+                    .andExpect(status().isOk())
+                    .andExpect(content().json(body));
+        }
+
+        @Test
+        @DisplayName("returns 404 for an unknown id")
+        void shouldReturn404ForUnknownId() throws Exception {
+            mockMvc.perform(get(PAYMENTS_API_PATH + "/" + UUID.randomUUID()))
+                    .andExpect(status().isNotFound())
+                    .andExpect(jsonPath("$.status").value(404));
+        }
+
+        @Test
+        @DisplayName("rejects a malformed id with 400")
+        void shouldRejectMalformedId() throws Exception {
+            mockMvc.perform(get(PAYMENTS_API_PATH + "/not-a-uuid"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    @DisplayName("Conditional GET")
+    class ConditionalGetTests {
+
+        private String etagOf(String url) throws Exception {
+            return mockMvc.perform(get(url))
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists(HttpHeaders.ETAG))
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        }
+
+        @Test
+        @DisplayName("unchanged page returns 304 with no body")
+        void unchangedPageShouldReturn304() throws Exception {
+            postPayment(aPaymentRequest().build()).andExpect(status().isCreated());
+            String etag = etagOf(PAYMENTS_API_PATH + "?page=0&size=20");
+
+            mockMvc.perform(get(PAYMENTS_API_PATH + "?page=0&size=20").header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, etag))
+                    .andExpect(content().string(""));
+        }
+
+        @Test
+        @DisplayName("new payment changes the page ETag")
+        void newPaymentShouldInvalidateEtag() throws Exception {
+            postPayment(aPaymentRequest().build()).andExpect(status().isCreated());
+            String etag = etagOf(PAYMENTS_API_PATH);
+
+            postPayment(aPaymentRequest().build()).andExpect(status().isCreated());
+
+            mockMvc.perform(get(PAYMENTS_API_PATH).header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content", hasSize(2)));
+        }
+
+        @Test
+        @DisplayName("payment committed behind the newest one changes the exact page ETag")
+        void lateCommittedOlderPaymentShouldInvalidateExactEtag() throws Exception {
+            postPayment(aPaymentRequest().build()).andExpect(status().isCreated());
+            String etag = etagOf(PAYMENTS_API_PATH);
+
+            // A row that becomes visible with a created_at older than the head, as when its
+            // transaction commits after a newer payment's.
+            String body = postPayment(aPaymentRequest().build())
+                    .andExpect(status().isCreated())
+                    .andReturn().getResponse().getContentAsString();
+            UUID late = UUID.fromString(objectMapper.readTree(body).get("id").asText());
+            jdbcTemplate.update("UPDATE payments SET created_at = ? WHERE id = ?",
+                    Timestamp.from(Instant.parse("2020-01-01T00:00:00Z")), late);
+
+            mockMvc.perform(get(PAYMENTS_API_PATH).header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content", hasSize(2)));
+        }
+
+        // Executions of COUNT statements since statistics were last switched on, from H2's own
+        // per-statement statistics.
+        private long countStatements() {
+            return jdbcTemplate.queryForObject("""
+                    SELECT COALESCE(SUM(EXECUTION_COUNT), 0) FROM INFORMATION_SCHEMA.QUERY_STATISTICS
+                    WHERE LOWER(SQL_STATEMENT) LIKE '%count(%' AND SQL_STATEMENT NOT LIKE '%QUERY_STATISTICS%'""", Long.class);
+        }
+
+        private void resetStatementStatistics() {
+            jdbcTemplate.execute("SET QUERY_STATISTICS FALSE");
+            jdbcTemplate.execute("SET QUERY_STATISTICS TRUE");
+        }
+
+        @Test
+        @DisplayName("an exact page counts once, with or without If-None-Match")
+        void exactPageShouldRunOneCountQuery() throws Exception {
+            // One row per page, so the page cannot infer its total and has to count.
+            String url = PAYMENTS_API_PATH + "?size=1";
+            postPayment(aPaymentRequest().build()).andExpect(status().isCreated());
+            String etag = etagOf(url);
+            postPayment(aPaymentRequest().build()).andExpect(status().isCreated());
+            try {
+                resetStatementStatistics();
+                String plainEtag = mockMvc.perform(get(url))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.page.totalElements").value(2))
+                        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+                assertEquals(1, countStatements());
+
+                resetStatementStatistics();
+                mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string(HttpHeaders.ETAG, plainEtag))
+                        .andExpect(jsonPath("$.page.totalElements").value(2));
+                assertEquals(1, countStatements());
+            } finally {
+                jdbcTemplate.execute("SET QUERY_STATISTICS FALSE");
+            }
+        }
+
+        @Test
+        @DisplayName("slice listing is conditional too")
+        void sliceShouldReturn304() throws Exception {
+            String etag = etagOf(PAYMENTS_API_PATH + "?total=none");
+
+            mockMvc.perform(get(PAYMENTS_API_PATH + "?total=none").header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified());
+        }
+
+        @Test
+        @DisplayName("filtered page carries no ETag")
+        void filteredPageShouldNotHaveEtag() throws Exception {
+            mockMvc.perform(get(PAYMENTS_API_PATH + "?currency=USD"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+        }
+    }
+
+    @Nested
+    @DisplayName("Cursor pagination")
+    class CursorPaginationTests {
+
+        private static final String SCROLL_PATH = PAYMENTS_API_PATH + "/scroll";
+
+        @Test
+        @DisplayName("walks every payment once by following nextCursor")
+        void shouldWalkAllPaymentsByCursor() throws Exception {
+            for (int i = 0; i < 5; i++) {
+                postPayment(aPaymentRequest().build()).andExpect(status().isCreated());
+            }
+
+            List<String> ids = new ArrayList<>();
+            String cursor = null;
+            do {
+                var request = get(SCROLL_PATH).param("size", "2");
+                if (cursor != null) {
+                    request.param("cursor", cursor);
+                }
+                String body = mockMvc.perform(request)
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString();
+                JsonNode json = objectMapper.readTree(body);
+                json.get("content").forEach(node -> ids.add(node.get("id").asText()));
+                cursor = json.get("nextCursor").isNull() ? null : json.get("nextCursor").asText();
+            } while (cursor != null);
+
+            assertEquals(5, ids.size());
+            assertEquals(5, ids.stream().distinct().count());
+        }
+
+        @Test
+        @DisplayName("returns null nextCursor when all payments fit")
+        void shouldReturnNullCursorOnLastPage() throws Exception {
+            postPayment(aPaymentRequest().build()).andExpect(status().isCreated());
+
+            mockMvc.perform(get(SCROLL_PATH))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content", hasSize(1)))
+                    .andExpect(jsonPath("$.nextCursor").doesNotExist());
+        }
+
+        @Test
+        @DisplayName("applies the listing filters to every page")
+        void shouldWalkOnlyMatchingPaymentsByCursor() throws Exception {
+            for (int i = 0; i < 3; i++) {
+                postPayment(aPaymentRequest().currency("EUR").build()).andExpect(status().isCreated());
+                postPayment(aPaymentRequest().currency("USD").build()).andExpect(status().isCreated());
+            }
+
+            List<String> currencies = new ArrayList<>();
+            String cursor = null;
+            do {
+                var request = get(SCROLL_PATH).param("size", "2").param("currency", "EUR");
+                if (cursor != null) {
+                    request.param("cursor", cursor);
+                }
+                String body = mockMvc.perform(request)
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString();
+                JsonNode json = objectMapper.readTree(body);
+                json.get("content").forEach(node -> currencies.add(node.get("currency").asText()));
+                cursor = json.get("nextCursor").isNull() ? null : json.get("nextCursor").asText();
+            } while (cursor != null);
+
+            assertEquals(List.of("EUR", "EUR", "EUR"), currencies);
+        }
+
+        @Test
+        @DisplayName("rejects sort orders a cursor cannot continue with 400")
+        void shouldRejectSortOtherThanNewestFirst() throws Exception {
+            mockMvc.perform(get(SCROLL_PATH).param("sort", "amount"))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(get(SCROLL_PATH).param("direction", "asc"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("rejects invalid filters with 400")
+        void shouldRejectInvalidFilter() throws Exception {
+            mockMvc.perform(get(SCROLL_PATH).param("currency", "eur"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("rejects malformed cursor with 400")
+        void shouldRejectMalformedCursor() throws Exception {
+            mockMvc.perform(get(SCROLL_PATH).param("cursor", "not-a-cursor"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.errors[0]").value("Invalid cursor"));
+        }
+
+        @Test
+        @DisplayName("rejects page size exceeding 100")
+        void shouldRejectSizeExceeding100() throws Exception {
+            mockMvc.perform(get(SCROLL_PATH).param("size", "101"))
+                    .andExpect(status().isBadRequest());
+        }
     }
 
     @Nested
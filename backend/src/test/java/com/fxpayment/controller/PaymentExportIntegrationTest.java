@@ -0,0 +1,126 @@
+package com.fxpayment.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fxpayment.repository.PaymentRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static com.fxpayment.utils.TestDataFactory.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DisplayName("Payment export API")
+class PaymentExportIntegrationTest extends AbstractIntegrationTest {
+
+    private static final String EXPORT_PATH = PAYMENTS_API_PATH + "/export";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        paymentRepository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        paymentRepository.deleteAll();
+    }
+
+    private UUID createPayment(String amount, Instant createdAt) throws Exception {
+        String body = mockMvc.perform(post(PAYMENTS_API_PATH)
+                        .header(IDEMPOTENCY_KEY_HEADER, UUID.randomUUID().toString())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(aPaymentRequest().amount(new BigDecimal(amount)).build())))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        UUID id = UUID.fromString(objectMapper.readTree(body).get("id").asText());
+        transactionTemplate.executeWithoutResult(_ -> entityManager
+                .createNativeQuery("UPDATE payments SET created_at = :createdAt WHERE id = :id")
+                .setParameter("createdAt", createdAt)
+                .setParameter("id", id)
+                .executeUpdate());
+        return id;
+    }
+
+    private MvcResult export(String... params) throws Exception {
+        var builder = get(EXPORT_PATH);
+        for (int i = 0; i < params.length; i += 2) {
+            builder.param(params[i], params[i + 1]);
+        }
+        MvcResult started = mockMvc.perform(builder).andExpect(request().asyncStarted()).andReturn();
+        return mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk()).andReturn();
+    }
+
+    @Test
+    @DisplayName("streams NDJSON in listing order by default")
+    void shouldStreamNdjsonNewestFirst() throws Exception {
+        UUID older = createPayment("10.00", Instant.parse("2026-03-01T10:00:00Z"));
+        UUID newer = createPayment("20.00", Instant.parse("2026-03-01T11:00:00Z"));
+
+        MvcResult result = export();
+
+        assertEquals(MediaType.APPLICATION_NDJSON_VALUE, result.getResponse().getContentType());
+        List<String> lines = result.getResponse().getContentAsString().lines().toList();
+        assertEquals(2, lines.size());
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertEquals(newer.toString(), first.get("id").asText());
+        assertTrue(lines.get(0).contains("\"amount\":20.00"), lines.get(0));
+        assertEquals(older.toString(), objectMapper.readTree(lines.get(1)).get("id").asText());
+    }
+
+    @Test
+    @DisplayName("streams CSV limited to the created range")
+    void shouldStreamCsvWithinCreatedRange() throws Exception {
+        createPayment("10.00", Instant.parse("2026-02-28T23:59:59Z"));
+        UUID inRange = createPayment("20.00", Instant.parse("2026-03-15T00:00:00Z"));
+        createPayment("30.00", Instant.parse("2026-04-01T00:00:00Z"));
+
+        MvcResult result = export("format", "csv",
+                "createdFrom", "2026-03-01T00:00:00Z",
+                "createdTo", "2026-04-01T00:00:00Z");
+
+        assertEquals("attachment; filename=\"payments.csv\"", result.getResponse().getHeader(HttpHeaders.CONTENT_DISPOSITION));
+        assertEquals("text/csv", result.getResponse().getContentType());
+        assertEquals("id,amount,currency,recipient,processingFee,createdAt\r\n"
+                        + inRange + ",20.00,USD,John Doe,5.00,2026-03-15T00:00:00Z\r\n",
+                result.getResponse().getContentAsString());
+    }
+
+    @Test
+    @DisplayName("rejects an unsupported format before streaming")
+    void shouldRejectUnsupportedFormat() throws Exception {
+        mockMvc.perform(get(EXPORT_PATH).param("format", "xlsx"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0]").value("format: format must be one of: ndjson, csv"));
+    }
+}
@@ -0,0 +1,109 @@
+package com.fxpayment.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fxpayment.repository.PaymentRepository;
+import com.fxpayment.service.PaymentEventHub;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static com.fxpayment.utils.TestDataFactory.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DisplayName("Payment stream")
+class PaymentStreamIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentEventHub paymentEventHub;
+
+    @BeforeEach
+    void setUp() {
+        paymentRepository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        paymentEventHub.closeAll();
+        paymentRepository.deleteAll();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        Instant deadline = Instant.now().plus(Duration.ofSeconds(5));
+        while (!condition.getAsBoolean()) {
+            assertTrue(Instant.now().isBefore(deadline), "condition not met within 5s");
+            Thread.sleep(10);
+        }
+    }
+
+    private static String body(MvcResult result) {
+        try {
+            return result.getResponse().getContentAsString();
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @Test
+    @DisplayName("created payments are pushed to an open stream; replays are not")
+    void createdPaymentShouldBePushedToSubscribers() throws Exception {
+        MvcResult stream = mockMvc.perform(get(PAYMENTS_API_PATH + "/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        await(() -> paymentEventHub.subscriberCount() == 1);
+
+        String idempotencyKey = UUID.randomUUID().toString();
+        String created = mockMvc.perform(post(PAYMENTS_API_PATH)
+                        .header(IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(aPaymentRequest().build())))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(post(PAYMENTS_API_PATH)
+                        .header(IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(aPaymentRequest().build())))
+                .andExpect(status().isOk());
+        String id = objectMapper.readTree(created).get("id").asText();
+
+        await(() -> body(stream).contains("id:" + id));
+        String events = body(stream);
+        assertTrue(events.contains("event:payment\n"));
+        assertTrue(events.contains("data:" + created));
+        assertEquals(1, events.split("event:payment", -1).length - 1);
+        assertEquals("no", stream.getResponse().getHeader("X-Accel-Buffering"));
+        assertTrue(stream.getResponse().getHeader(HttpHeaders.CACHE_CONTROL).contains("no-store"));
+    }
+
+    @Test
+    @DisplayName("closing the stream unsubscribes it")
+    void closedStreamShouldUnsubscribe() throws Exception {
+        mockMvc.perform(get(PAYMENTS_API_PATH + "/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+        await(() -> paymentEventHub.subscriberCount() == 1);
+
+        paymentEventHub.closeAll();
+
+        await(() -> paymentEventHub.subscriberCount() == 0);
+    }
+}
@@ -0,0 +1,186 @@
+package com.fxpayment.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fxpayment.dto.BatchPaymentItem;
+import com.fxpayment.dto.PaymentRequest;
+import com.fxpayment.repository.PaymentDailyRollupRepository;
+import com.fxpayment.repository.PaymentRollupJournalRepository;
+import com.fxpayment.repository.PaymentRepository;
+import com.fxpayment.service.PaymentRollupFolder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static com.fxpayment.utils.TestDataFactory.*;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DisplayName("Payment summary")
+@TestPropertySource(properties = "app.admin.token=" + PaymentSummaryIntegrationTest.TOKEN)
+class PaymentSummaryIntegrationTest extends AbstractIntegrationTest {
+
+    static final String TOKEN = "test-admin-token";
+    private static final String SUMMARY_PATH = PAYMENTS_API_PATH + "/summary";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private PaymentRollupJournalRepository journalRepository;
+
+    @Autowired
+    private PaymentRollupFolder paymentRollupFolder;
+
+    @BeforeEach
+    void setUp() {
+        paymentRepository.deleteAll();
+        rollupRepository.deleteAll();
+        journalRepository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        paymentRepository.deleteAll();
+        rollupRepository.deleteAll();
+        journalRepository.deleteAll();
+    }
+
+    private void createPayment(PaymentRequest request) throws Exception {
+        mockMvc.perform(post(PAYMENTS_API_PATH)
+                        .header(IDEMPOTENCY_KEY_HEADER, UUID.randomUUID().toString())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @DisplayName("single and batch payments are summed per currency for the current day")
+    void createdPaymentsShouldAppearInTodaysSummary() throws Exception {
+        createPayment(aPaymentRequest().amount(new BigDecimal("100.00")).build());
+        createPayment(aPaymentRequest().amount(new BigDecimal("250.50")).build());
+        mockMvc.perform(post(PAYMENTS_API_PATH + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(
+                                new BatchPaymentItem(UUID.randomUUID().toString(),
+                                        aPaymentRequest().currency("EUR").amount(new BigDecimal("10.00")).build()),
+                                new BatchPaymentItem(UUID.randomUUID().toString(),
+                                        aPaymentRequest().currency("EUR").amount(new BigDecimal("20.00")).build())))))
+                .andExpect(status().isOk());
+        String today = LocalDate.now(ZoneOffset.UTC).toString();
+
+        mockMvc.perform(get(SUMMARY_PATH))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.to").value(today))
+                .andExpect(jsonPath("$.days", hasSize(2)))
+                .andExpect(jsonPath("$.days[0].day").value(today))
+                .andExpect(jsonPath("$.days[0].currency").value("EUR"))
+                .andExpect(jsonPath("$.days[0].status").value("COMPLETED"))
+                .andExpect(jsonPath("$.days[0].count").value(2))
+                .andExpect(jsonPath("$.days[0].amount").value(30.00))
+                .andExpect(jsonPath("$.days[0].processingFees").value(0.00))
+                .andExpect(jsonPath("$.days[1].currency").value("USD"))
+                .andExpect(jsonPath("$.days[1].count").value(2))
+                .andExpect(jsonPath("$.days[1].amount").value(350.50))
+                .andExpect(jsonPath("$.days[1].processingFees").value(10.00));
+
+        mockMvc.perform(get(SUMMARY_PATH).param("currency", "USD"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.days", hasSize(1)))
+                .andExpect(jsonPath("$.days[0].currency").value("USD"));
+    }
+
+    @Test
+    @DisplayName("folding the journal moves deltas into the rollups without changing the summary")
+    void foldShouldKeepSummaryAndEmptyJournal() throws Exception {
+        createPayment(aPaymentRequest().amount(new BigDecimal("100.00")).build());
+        createPayment(aPaymentRequest().amount(new BigDecimal("250.50")).build());
+        assertEquals(2, journalRepository.count());
+        assertEquals(0, rollupRepository.count());
+
+        paymentRollupFolder.fold();
+
+        assertEquals(0, journalRepository.count());
+        assertEquals(1, rollupRepository.count());
+        mockMvc.perform(get(SUMMARY_PATH))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.days", hasSize(1)))
+                .andExpect(jsonPath("$.days[0].count").value(2))
+                .andExpect(jsonPath("$.days[0].amount").value(350.50));
+    }
+
+    @Test
+    @DisplayName("recomputing a day counts payments written without rollups, as older nodes did")
+    void recomputeShouldRebuildDayFromPayments() throws Exception {
+        createPayment(aPaymentRequest().amount(new BigDecimal("100.00")).build());
+        paymentRepository.saveAndFlush(aPayment().amount(new BigDecimal("50.0000")).build());
+        String today = LocalDate.now(ZoneOffset.UTC).toString();
+        mockMvc.perform(get(SUMMARY_PATH))
+                .andExpect(jsonPath("$.days[0].count").value(1));
+
+        mockMvc.perform(post("/api/v1/admin/rollups/" + today + "/recompute")
+                        .header(AdminAccess.ADMIN_TOKEN_HEADER, TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.day").value(today))
+                .andExpect(jsonPath("$.buckets").value(1));
+
+        assertEquals(0, journalRepository.count());
+        mockMvc.perform(get(SUMMARY_PATH))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.days", hasSize(1)))
+                .andExpect(jsonPath("$.days[0].count").value(2))
+                .andExpect(jsonPath("$.days[0].amount").value(150.00));
+    }
+
+    @Test
+    @DisplayName("recompute without the admin token returns 403")
+    void recomputeWithoutTokenShouldReturn403() throws Exception {
+        mockMvc.perform(post("/api/v1/admin/rollups/2026-03-01/recompute"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/v1/admin/rollups/not-a-day/recompute")
+                        .header(AdminAccess.ADMIN_TOKEN_HEADER, TOKEN))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("days outside the requested range are not returned")
+    void summaryShouldOnlyCoverRequestedDays() throws Exception {
+        createPayment(aPaymentRequest().build());
+
+        mockMvc.perform(get(SUMMARY_PATH).param("from", "2020-01-01").param("to", "2020-01-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.from").value("2020-01-01"))
+                .andExpect(jsonPath("$.days", hasSize(0)));
+    }
+
+    @Test
+    @DisplayName("invalid ranges and currencies are rejected")
+    void invalidParametersShouldReturn400() throws Exception {
+        mockMvc.perform(get(SUMMARY_PATH).param("from", "2026-02-01").param("to", "2026-01-01"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get(SUMMARY_PATH).param("from", "2024-01-01").param("to", "2026-01-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0]").value("Summary range must not exceed 366 days"));
+        mockMvc.perform(get(SUMMARY_PATH).param("currency", "usd"))
+                .andExpect(status().isBadRequest());
+    }
+}
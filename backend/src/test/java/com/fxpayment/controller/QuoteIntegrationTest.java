@@ -0,0 +1,234 @@
+package com.fxpayment.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fxpayment.dto.BatchPaymentItem;
+import com.fxpayment.dto.PaymentRequest;
+import com.fxpayment.dto.QuoteRequest;
+import com.fxpayment.repository.ExchangeRateRepository;
+import com.fxpayment.repository.PaymentDailyRollupRepository;
+import com.fxpayment.repository.PaymentRollupJournalRepository;
+import com.fxpayment.repository.PaymentRepository;
+import com.fxpayment.repository.QuoteRepository;
+import com.fxpayment.service.ExchangeRateService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static com.fxpayment.utils.TestDataFactory.*;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DisplayName("Conversion quotes")
+class QuoteIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private PaymentRollupJournalRepository journalRepository;
+
+    @Autowired
+    private QuoteRepository quoteRepository;
+
+    @Autowired
+    private ExchangeRateRepository exchangeRateRepository;
+
+    @Autowired
+    private ExchangeRateService exchangeRateService;
+
+    @BeforeEach
+    void setUp() {
+        exchangeRateRepository.saveAllAndFlush(List.of(anExchangeRate("EUR", "USD", "1.08500000")));
+        exchangeRateService.reload();
+    }
+
+    @AfterEach
+    void tearDown() {
+        paymentRepository.deleteAll();
+        rollupRepository.deleteAll();
+        journalRepository.deleteAll();
+        quoteRepository.deleteAll();
+        exchangeRateRepository.deleteAll();
+        exchangeRateService.reload();
+    }
+
+    private ResultActions postQuote(QuoteRequest request) throws Exception {
+        return mockMvc.perform(post(QUOTES_API_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)));
+    }
+
+    private JsonNode createQuote(String amount, String currency, String settlementCurrency) throws Exception {
+        String body = postQuote(new QuoteRequest(new BigDecimal(amount), currency, settlementCurrency))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+
+    private ResultActions postPayment(String idempotencyKey, PaymentRequest request) throws Exception {
+        return mockMvc.perform(post(PAYMENTS_API_PATH)
+                .header(IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)));
+    }
+
+    private static PaymentRequest paymentFor(JsonNode quote) {
+        return aPaymentRequest()
+                .amount(quote.get("amount").decimalValue())
+                .currency(quote.get("currency").asText())
+                .quoteId(UUID.fromString(quote.get("id").asText()))
+                .build();
+    }
+
+    @Test
+    @DisplayName("a quote converts at the mid rate less the spread")
+    void quoteShouldConvertAtSpreadRate() throws Exception {
+        postQuote(new QuoteRequest(new BigDecimal("100.00"), "EUR", "USD"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").isNotEmpty())
+                .andExpect(jsonPath("$.currency").value("EUR"))
+                .andExpect(jsonPath("$.settlementCurrency").value("USD"))
+                .andExpect(jsonPath("$.rate").value(1.079575))
+                .andExpect(jsonPath("$.settlementAmount").value(107.96))
+                .andExpect(jsonPath("$.expiresAt").isNotEmpty());
+    }
+
+    @Test
+    @DisplayName("a payment executes at its quote even after the rate moves")
+    void paymentShouldExecuteAtLockedRate() throws Exception {
+        JsonNode quote = createQuote("100.00", "EUR", "USD");
+        exchangeRateRepository.saveAndFlush(anExchangeRate("EUR", "USD", "1.20000000"));
+        exchangeRateService.reload();
+
+        String body = postPayment(UUID.randomUUID().toString(), paymentFor(quote))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.amount").value(100.00))
+                .andExpect(jsonPath("$.currency").value("EUR"))
+                .andExpect(jsonPath("$.settlement.quoteId").value(quote.get("id").asText()))
+                .andExpect(jsonPath("$.settlement.currency").value("USD"))
+                .andExpect(jsonPath("$.settlement.amount").value(107.96))
+                .andExpect(jsonPath("$.settlement.rate").value(1.079575))
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(get(PAYMENTS_API_PATH + "/" + objectMapper.readTree(body).get("id").asText()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.settlement.amount").value(107.96));
+    }
+
+    @Test
+    @DisplayName("a retried quoted payment replays the same settlement")
+    void retryShouldReplaySettlement() throws Exception {
+        JsonNode quote = createQuote("100.00", "EUR", "USD");
+        String idempotencyKey = UUID.randomUUID().toString();
+        postPayment(idempotencyKey, paymentFor(quote)).andExpect(status().isCreated());
+
+        postPayment(idempotencyKey, paymentFor(quote))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.settlement.amount").value(107.96));
+        assertEquals(1, paymentRepository.count());
+    }
+
+    @Test
+    @DisplayName("a quote backs one payment; another key cannot reuse it")
+    void quoteShouldBeConsumedByItsPayment() throws Exception {
+        JsonNode quote = createQuote("100.00", "EUR", "USD");
+        postPayment(UUID.randomUUID().toString(), paymentFor(quote)).andExpect(status().isCreated());
+
+        postPayment(UUID.randomUUID().toString(), paymentFor(quote))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0]").value(containsString("already used")));
+        assertEquals(1, paymentRepository.count());
+        assertEquals(0, quoteRepository.count());
+    }
+
+    @Test
+    @DisplayName("payments without a quote carry no settlement")
+    void unquotedPaymentShouldHaveNoSettlement() throws Exception {
+        postPayment(UUID.randomUUID().toString(), aPaymentRequest().build())
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.settlement").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("a payment naming an unknown quote or a different amount is rejected")
+    void paymentShouldBeRejectedForUnusableQuote() throws Exception {
+        JsonNode quote = createQuote("100.00", "EUR", "USD");
+
+        postPayment(UUID.randomUUID().toString(), aPaymentRequest().currency("EUR").quoteId(UUID.randomUUID()).build())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0]").value(containsString("Quote not found, expired or already used")));
+        postPayment(UUID.randomUUID().toString(), aPaymentRequest()
+                        .amount(new BigDecimal("99.00")).currency("EUR").quoteId(UUID.fromString(quote.get("id").asText())).build())
+                .andExpect(status().isBadRequest());
+        assertEquals(0, paymentRepository.count());
+    }
+
+    @Test
+    @DisplayName("batch items can execute at a quote")
+    void batchItemShouldExecuteAtQuote() throws Exception {
+        JsonNode quote = createQuote("100.00", "EUR", "USD");
+
+        mockMvc.perform(post(PAYMENTS_API_PATH + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(
+                                new BatchPaymentItem(UUID.randomUUID().toString(), paymentFor(quote)),
+                                new BatchPaymentItem(UUID.randomUUID().toString(),
+                                        aPaymentRequest().quoteId(UUID.randomUUID()).build())))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].status").value(201))
+                .andExpect(jsonPath("$.results[0].payment.settlement.amount").value(107.96))
+                .andExpect(jsonPath("$.results[1].status").value(400));
+    }
+
+    @Test
+    @DisplayName("only the first batch item naming a quote executes at it")
+    void batchItemsShouldNotShareQuote() throws Exception {
+        JsonNode quote = createQuote("100.00", "EUR", "USD");
+
+        mockMvc.perform(post(PAYMENTS_API_PATH + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(
+                                new BatchPaymentItem(UUID.randomUUID().toString(), paymentFor(quote)),
+                                new BatchPaymentItem(UUID.randomUUID().toString(), paymentFor(quote))))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].status").value(201))
+                .andExpect(jsonPath("$.results[1].status").value(400))
+                .andExpect(jsonPath("$.results[1].errors[0]").value(containsString("already used")));
+        assertEquals(1, paymentRepository.count());
+    }
+
+    @Test
+    @DisplayName("pairs without a rate and invalid requests are rejected")
+    void unpriceableQuotesShouldBeRejected() throws Exception {
+        postQuote(new QuoteRequest(new BigDecimal("100.00"), "EUR", "GBP"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0]").value("No exchange rate for EUR/GBP"));
+        postQuote(new QuoteRequest(new BigDecimal("100.00"), "EUR", "EUR"))
+                .andExpect(status().isBadRequest());
+        postQuote(new QuoteRequest(null, "EUR", "USD"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0]").value("Amount is required"));
+        postQuote(new QuoteRequest(new BigDecimal("100.00"), "EUR", null))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0]").value("Settlement currency is required"));
+    }
+}
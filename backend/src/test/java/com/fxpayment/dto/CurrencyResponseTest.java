@@ -1,6 +1,6 @@
 package com.fxpayment.dto;
 
-import com.fxpayment.model.CurrencyEntity;
+import com.fxpayment.model.Currency;
 import org.junit.jupiter.api.Test;
 
 import static com.fxpayment.utils.TestDataFactory.*;
@@ -10,7 +10,7 @@ class CurrencyResponseTest {
 
     @Test
     void fromShouldMapOnlyRequiredFields() {
-        CurrencyEntity currency = usdCurrency();
+        Currency currency = Currency.of(usdCurrency());
 
         CurrencyResponse response = CurrencyResponse.from(currency);
 
@@ -21,7 +21,7 @@ class CurrencyResponseTest {
 
     @Test
     void fromShouldHandleZeroDecimalCurrency() {
-        CurrencyEntity currency = jpyCurrency();
+        Currency currency = Currency.of(jpyCurrency());
 
         CurrencyResponse response = CurrencyResponse.from(currency);
 
@@ -31,7 +31,7 @@ class CurrencyResponseTest {
 
     @Test
     void fromShouldHandleThreeDecimalCurrency() {
-        CurrencyEntity currency = bhdCurrency();
+        Currency currency = Currency.of(bhdCurrency());
 
         CurrencyResponse response = CurrencyResponse.from(currency);
 
@@ -47,7 +47,7 @@ class CurrencyResponseTest {
 
     @Test
     void fromShouldNotExposeInternalFeeFields() {
-        CurrencyEntity currency = usdCurrency();
+        Currency currency = Currency.of(usdCurrency());
         CurrencyResponse response = CurrencyResponse.from(currency);
 
         assertEquals(3, CurrencyResponse.class.getRecordComponents().length,
@@ -56,8 +56,8 @@ class CurrencyResponseTest {
 
     @Test
     void responsesWithSameDataShouldBeEqual() {
-        CurrencyResponse r1 = CurrencyResponse.from(usdCurrency());
-        CurrencyResponse r2 = CurrencyResponse.from(usdCurrency());
+        CurrencyResponse r1 = CurrencyResponse.from(Currency.of(usdCurrency()));
+        CurrencyResponse r2 = CurrencyResponse.from(Currency.of(usdCurrency()));
 
         assertEquals(r1, r2);
         assertEquals(r1.hashCode(), r2.hashCode());
@@ -65,8 +65,8 @@ class CurrencyResponseTest {
 
     @Test
     void responsesWithDifferentDataShouldNotBeEqual() {
-        CurrencyResponse r1 = CurrencyResponse.from(usdCurrency());
-        CurrencyResponse r2 = CurrencyResponse.from(jpyCurrency());
+        CurrencyResponse r1 = CurrencyResponse.from(Currency.of(usdCurrency()));
+        CurrencyResponse r2 = CurrencyResponse.from(Currency.of(jpyCurrency()));
 
         assertNotEquals(r1, r2);
     }
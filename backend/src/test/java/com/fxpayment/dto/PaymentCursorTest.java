@@ -0,0 +1,64 @@
+package com.fxpayment.dto;
+
+import com.fxpayment.exception.InvalidRequestException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static com.fxpayment.utils.TestDataFactory.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentCursorTest {
+
+    private static final UUID PAYMENT_ID = UUID.fromString(PAYMENT_UUID_1);
+    private static final Instant CREATED_AT = Instant.parse("2025-01-15T10:30:00.123456Z");
+
+    @Test
+    void encodeThenDecodeShouldRoundTrip() {
+        PaymentCursor cursor = new PaymentCursor(CREATED_AT, PAYMENT_ID);
+
+        PaymentCursor decoded = PaymentCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+    }
+
+    @Test
+    void encodedTokenShouldBeUrlSafe() {
+        PaymentCursor cursor = new PaymentCursor(CREATED_AT, UUID.randomUUID());
+
+        String token = cursor.encode();
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), "token must not need URL escaping: " + token);
+    }
+
+    @Test
+    void ofShouldTakeCreatedAtAndIdFromRow() {
+        PaymentRow row = aPayment().id(PAYMENT_ID).createdAt(CREATED_AT).buildRow();
+
+        PaymentCursor cursor = PaymentCursor.of(row);
+
+        assertEquals(CREATED_AT, cursor.createdAt());
+        assertEquals(PAYMENT_ID, cursor.id());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "not base64!", "AAAA", "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA"})
+    void decodeShouldRejectMalformedTokens(String token) {
+        InvalidRequestException ex = assertThrows(InvalidRequestException.class,
+                () -> PaymentCursor.decode(token));
+
+        assertEquals("Invalid cursor", ex.getMessage());
+    }
+
+    @Test
+    void decodeShouldRejectOutOfRangeNanos() {
+        byte[] bytes = java.nio.ByteBuffer.allocate(28)
+                .putLong(0L).putInt(1_000_000_000).putLong(1L).putLong(1L).array();
+        String token = java.util.Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        assertThrows(InvalidRequestException.class, () -> PaymentCursor.decode(token));
+    }
+}
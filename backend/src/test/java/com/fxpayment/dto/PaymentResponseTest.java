@@ -80,7 +80,7 @@ class PaymentResponseTest {
 
     @Test
     void fromShouldThrowOnNullPayment() {
-        assertThrows(NullPointerException.class, () -> PaymentResponse.from(null, 2));
+        assertThrows(NullPointerException.class, () -> PaymentResponse.from((Payment) null, 2));
     }
 
     @Test
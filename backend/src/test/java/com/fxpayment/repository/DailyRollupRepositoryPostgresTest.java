@@ -0,0 +1,259 @@
+package com.fxpayment.repository;
+
+import com.fxpayment.annotation.PostgresTest;
+import com.fxpayment.model.PaymentDailyRollup;
+import com.fxpayment.model.PaymentRollupJournalEntry;
+import com.fxpayment.model.PaymentStatus;
+import com.fxpayment.service.PaymentRollupService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.fxpayment.utils.TestDataFactory.aPayment;
+import static org.junit.jupiter.api.Assertions.*;
+
+// The PostgreSQL statements behind the rollups: the ON CONFLICT upsert (H2 runs the MERGE
+// instead), the summary over rollups and journal, SKIP LOCKED and the day recompute.
+@PostgresTest
+@DisplayName("Payment rollups (PostgreSQL)")
+class DailyRollupRepositoryPostgresTest {
+
+    private static final LocalDate DAY = LocalDate.parse("2026-03-01");
+
+    @Autowired
+    private PaymentDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private PaymentRollupJournalRepository journalRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentRollupService paymentRollupService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void deleteRows() {
+        jdbcTemplate.update("DELETE FROM payment_rollup_journal");
+        jdbcTemplate.update("DELETE FROM payment_daily_rollups");
+        jdbcTemplate.update("DELETE FROM payments");
+    }
+
+    @Test
+    void applyDeltasShouldCreateThenAccumulateBuckets() {
+        apply(delta(DAY, PaymentStatus.COMPLETED, 1, "100.00"));
+        apply(delta(DAY, PaymentStatus.COMPLETED, 2, "50.25"), delta(DAY, PaymentStatus.FAILED, 1, "10.00"));
+
+        PaymentDailyRollup completed = find(DAY, PaymentStatus.COMPLETED);
+        assertEquals(3, completed.getPaymentCount());
+        assertEquals(0, new BigDecimal("150.25").compareTo(completed.getAmountTotal()));
+        assertEquals(1, find(DAY, PaymentStatus.FAILED).getPaymentCount());
+    }
+
+    // The second writer's insert waits on the first's uncommitted row, then adds to it
+    // instead of failing on the primary key as MERGE would.
+    @Test
+    void writerBlockedOnUncommittedNewBucketShouldAddToItAfterCommit() throws Exception {
+        CountDownLatch firstApplied = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<?> first = executor.submit(() -> transactionTemplate.executeWithoutResult(_ -> {
+                rollupRepository.applyDeltas(List.of(delta(DAY, PaymentStatus.COMPLETED, 1, "100.00")));
+                firstApplied.countDown();
+                await(releaseFirst);
+            }));
+            assertTrue(firstApplied.await(5, TimeUnit.SECONDS));
+
+            Future<?> second = executor.submit(() -> apply(delta(DAY, PaymentStatus.COMPLETED, 2, "20.00")));
+            awaitLockWaiters(1);
+            releaseFirst.countDown();
+
+            first.get(5, TimeUnit.SECONDS);
+            second.get(5, TimeUnit.SECONDS);
+        }
+
+        PaymentDailyRollup completed = find(DAY, PaymentStatus.COMPLETED);
+        assertEquals(3, completed.getPaymentCount());
+        assertEquals(0, new BigDecimal("120.00").compareTo(completed.getAmountTotal()));
+    }
+
+    @Test
+    void concurrentWritersToNewBucketsShouldAllBeCounted() throws Exception {
+        int writers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < writers; i++) {
+                futures.add(executor.submit(() -> {
+                    await(start);
+                    apply(delta(DAY, PaymentStatus.COMPLETED, 1, "1.00"), delta(DAY, PaymentStatus.FAILED, 1, "2.00"));
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        }
+
+        assertEquals(writers, find(DAY, PaymentStatus.COMPLETED).getPaymentCount());
+        assertEquals(writers, find(DAY, PaymentStatus.FAILED).getPaymentCount());
+    }
+
+    @Test
+    void findSummaryShouldAddJournalEntriesNotYetFolded() {
+        apply(delta(DAY, PaymentStatus.PENDING, 2, "20.00"));
+        journalRepository.append(List.of(
+                delta(DAY, PaymentStatus.PENDING, -2, "-20.00"),
+                delta(DAY, PaymentStatus.COMPLETED, 2, "20.00"),
+                delta(DAY.plusDays(1), PaymentStatus.COMPLETED, 1, "5.00")));
+
+        List<PaymentDailyRollup> summary = rollupRepository.findSummary(DAY, DAY, "USD", null);
+
+        assertEquals(1, summary.size());
+        assertEquals(PaymentStatus.COMPLETED, summary.getFirst().getKey().getStatus());
+        assertEquals(2, summary.getFirst().getPaymentCount());
+        assertEquals(2, rollupRepository.findSummary(DAY, DAY.plusDays(1), null, PaymentStatus.COMPLETED).size());
+    }
+
+    @Test
+    void lockOldestShouldSkipEntriesAnotherFoldHolds() throws Exception {
+        journalRepository.append(List.of(
+                delta(DAY, PaymentStatus.COMPLETED, 1, "1.00"),
+                delta(DAY, PaymentStatus.FAILED, 1, "2.00")));
+        CountDownLatch firstLocked = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<List<Long>> first = executor.submit(() -> transactionTemplate.execute(_ -> {
+                List<Long> ids = ids(journalRepository.lockOldest(1));
+                firstLocked.countDown();
+                await(releaseFirst);
+                return ids;
+            }));
+            assertTrue(firstLocked.await(5, TimeUnit.SECONDS));
+
+            List<Long> second = transactionTemplate.execute(_ -> ids(journalRepository.lockOldest(2)));
+            releaseFirst.countDown();
+
+            List<Long> held = first.get(5, TimeUnit.SECONDS);
+            assertEquals(1, second.size());
+            assertNotEquals(held, second);
+        }
+    }
+
+    @Test
+    void recomputeDayShouldRebuildDayFromPaymentsAndDropItsJournal() {
+        paymentRepository.saveAllAndFlush(List.of(
+                aPayment().build(),
+                aPayment().amount(new BigDecimal("50.0000")).build(),
+                aPayment().status(PaymentStatus.FAILED).build()));
+        jdbcTemplate.update("UPDATE payments SET created_at = ?",
+                Timestamp.from(DAY.atTime(23, 59, 59).toInstant(ZoneOffset.UTC)));
+        apply(delta(DAY, PaymentStatus.COMPLETED, 7, "700.00"), delta(DAY.plusDays(1), PaymentStatus.COMPLETED, 1, "1.00"));
+        journalRepository.append(List.of(
+                delta(DAY, PaymentStatus.COMPLETED, 1, "100.00"),
+                delta(DAY.plusDays(1), PaymentStatus.COMPLETED, 1, "1.00")));
+
+        assertEquals(2, paymentRollupService.recomputeDay(DAY));
+
+        PaymentDailyRollup completed = find(DAY, PaymentStatus.COMPLETED);
+        assertEquals(2, completed.getPaymentCount());
+        assertEquals(0, new BigDecimal("150.00").compareTo(completed.getAmountTotal()));
+        assertEquals(0, new BigDecimal("10.00").compareTo(completed.getFeeTotal()));
+        assertEquals(1, find(DAY, PaymentStatus.FAILED).getPaymentCount());
+        assertEquals(1, find(DAY.plusDays(1), PaymentStatus.COMPLETED).getPaymentCount());
+        assertEquals(List.of(DAY.plusDays(1)),
+                journalRepository.findAll().stream().map(PaymentRollupJournalEntry::getDay).toList());
+    }
+
+    // The recompute's snapshot predates the fold's commit, so it cannot tell whether the
+    // entries it waited on were folded; REPEATABLE READ makes it fail rather than count them twice.
+    @Test
+    void recomputeWaitingOnFoldShouldFailWithConcurrencyError() throws Exception {
+        journalRepository.append(List.of(delta(DAY, PaymentStatus.COMPLETED, 1, "100.00")));
+        CountDownLatch foldLocked = new CountDownLatch(1);
+        CountDownLatch releaseFold = new CountDownLatch(1);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<?> fold = executor.submit(() -> transactionTemplate.executeWithoutResult(_ -> {
+                List<PaymentRollupJournalEntry> entries = journalRepository.lockOldest(10);
+                foldLocked.countDown();
+                await(releaseFold);
+                journalRepository.deleteAllByIdInBatch(ids(entries));
+            }));
+            assertTrue(foldLocked.await(5, TimeUnit.SECONDS));
+
+            Future<Integer> recompute = executor.submit(() -> paymentRollupService.recomputeDay(DAY));
+            awaitLockWaiters(1);
+            releaseFold.countDown();
+
+            fold.get(5, TimeUnit.SECONDS);
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> recompute.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(ConcurrencyFailureException.class, failure.getCause());
+        }
+    }
+
+    private void apply(DailyRollupDelta... deltas) {
+        transactionTemplate.executeWithoutResult(_ -> rollupRepository.applyDeltas(List.of(deltas)));
+    }
+
+    private PaymentDailyRollup find(LocalDate day, PaymentStatus status) {
+        return rollupRepository.findById(new PaymentDailyRollup.Key(day, "USD", status)).orElseThrow();
+    }
+
+    private static DailyRollupDelta delta(LocalDate day, PaymentStatus status, long count, String amount) {
+        BigDecimal total = new BigDecimal(amount);
+        return new DailyRollupDelta(day, "USD", status, count, total, total.movePointLeft(1));
+    }
+
+    private static List<Long> ids(List<PaymentRollupJournalEntry> entries) {
+        return entries.stream().map(PaymentRollupJournalEntry::getId).toList();
+    }
+
+    private void awaitLockWaiters(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (lockWaiters() < expected) {
+            assertTrue(System.nanoTime() < deadline, "writer did not wait for the uncommitted row");
+            Thread.sleep(10);
+        }
+    }
+
+    private int lockWaiters() {
+        return jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM pg_stat_activity
+                WHERE datname = current_database() AND wait_event_type = 'Lock'""", Integer.class);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+}
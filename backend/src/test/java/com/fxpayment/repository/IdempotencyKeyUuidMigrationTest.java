@@ -0,0 +1,189 @@
+package com.fxpayment.repository;
+
+import com.fxpayment.utils.PostgresTestDatabase;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Before/after measurement of V6 on the PostgresTestDatabase server: the migrations up to V5
+// run into a throwaway schema, payments is seeded with VARCHAR(36) keys, and V6 is then
+// applied by hand so its cost can be observed. Sizes, lookup latency and the rewrite time
+// are published as report entries. The default 200k rows keep the test quick; run with
+// -Didempotency.migration.rows=50000000 on production-like hardware for the full numbers.
+@ExtendWith(PostgresTestDatabase.class)
+@DisplayName("V6 idempotency key migration (PostgreSQL)")
+class IdempotencyKeyUuidMigrationTest {
+
+    private static final String SCHEMA = "idempotency_key_migration_test";
+    private static final String KEY_INDEX = "idx_payments_idempotency_key";
+    private static final int ROWS = Integer.getInteger("idempotency.migration.rows", 200_000);
+    private static final int LOOKUPS = 5_000;
+
+    private static Connection connection;
+    private static Connection observer;
+    private static List<String> sampleKeys;
+
+    @BeforeAll
+    static void migrateToV5AndSeed() throws SQLException {
+        PostgresTestDatabase.Server server = PostgresTestDatabase.server().orElseThrow();
+        connection = DriverManager.getConnection(server.url(), server.username(), server.password());
+        observer = DriverManager.getConnection(server.url(), server.username(), server.password());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        }
+
+        Flyway.configure()
+                .dataSource(server.url(), server.username(), server.password())
+                .schemas(SCHEMA)
+                .locations("classpath:db/migration")
+                .target("5")
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .load()
+                .migrate();
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET search_path TO " + SCHEMA);
+            statement.execute("""
+                    INSERT INTO payments (idempotency_key, amount, currency, recipient, recipient_account,
+                                          processing_fee, status, created_at, updated_at)
+                    SELECT gen_random_uuid()::text, 100, 'USD', 'Migration Test', 'EE382200221020145685', 0,
+                           'COMPLETED', now(), now()
+                    FROM generate_series(1, %d)""".formatted(ROWS));
+            // Random keys leave the grown index pages part empty; the rewrite builds a packed one.
+            // Rebuild it now so both sides are compared at the same fill factor.
+            statement.execute("REINDEX INDEX " + KEY_INDEX);
+            statement.execute("VACUUM ANALYZE payments");
+        }
+        sampleKeys = new ArrayList<>(LOOKUPS);
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                     "SELECT idempotency_key::text FROM payments ORDER BY random() LIMIT " + LOOKUPS)) {
+            while (rs.next()) {
+                sampleKeys.add(rs.getString(1));
+            }
+        }
+    }
+
+    @AfterAll
+    static void dropSchema() throws SQLException {
+        if (connection == null) {
+            return;
+        }
+        try (Connection owned = connection; Connection watcher = observer; Statement statement = owned.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        }
+    }
+
+    @Test
+    @DisplayName("V6 rewrites payments under ACCESS EXCLUSIVE and shrinks the key index")
+    void migrationShouldRewriteUnderExclusiveLockAndShrinkIndex(TestReporter reporter) throws Exception {
+        long indexBefore = indexSize();
+        long filenodeBefore = filenode();
+        double lookupBefore = averageLookupMicros("?");
+
+        connection.setAutoCommit(false);
+        long started = System.nanoTime();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(migration());
+        }
+        long rewriteMillis = (System.nanoTime() - started) / 1_000_000;
+        // Held until commit: every read and write of payments waits for the whole rewrite.
+        String locks = grantedLocksOnPayments();
+        connection.commit();
+        connection.setAutoCommit(true);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("VACUUM ANALYZE payments");
+        }
+        long indexAfter = indexSize();
+        double lookupAfter = averageLookupMicros("?::uuid");
+
+        reporter.publishEntry(Map.of(
+                "rows", String.valueOf(ROWS),
+                "index bytes before", String.valueOf(indexBefore),
+                "index bytes after", String.valueOf(indexAfter),
+                "lookup µs before", "%.1f".formatted(lookupBefore),
+                "lookup µs after", "%.1f".formatted(lookupAfter),
+                "rewrite ms", String.valueOf(rewriteMillis)));
+
+        assertTrue(locks.contains("AccessExclusiveLock"), () -> "payments was not locked exclusively: " + locks);
+        assertNotEquals(filenodeBefore, filenode(), "payments was altered in place instead of rewritten");
+        // 28-byte uuid entries against 52-byte varchar ones, less shared page overhead.
+        assertTrue(indexAfter < indexBefore * 0.7, () -> "index went from " + indexBefore + " to " + indexAfter + " bytes");
+    }
+
+    private static String migration() throws IOException {
+        return new ClassPathResource("db/migration/V6__idempotency_key_uuid.sql").getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private static long indexSize() throws SQLException {
+        return queryLong("SELECT pg_relation_size('" + SCHEMA + "." + KEY_INDEX + "')");
+    }
+
+    private static long filenode() throws SQLException {
+        return queryLong("SELECT pg_relation_filenode('" + SCHEMA + ".payments')");
+    }
+
+    private static long queryLong(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static String grantedLocksOnPayments() throws SQLException {
+        try (Statement statement = observer.createStatement();
+             ResultSet rs = statement.executeQuery("""
+                     SELECT string_agg(l.mode, ',') FROM pg_locks l JOIN pg_class c ON c.oid = l.relation
+                     WHERE c.relname = 'payments' AND c.relnamespace = '%s'::regnamespace AND l.granted""".formatted(SCHEMA))) {
+            rs.next();
+            return String.valueOf(rs.getString(1));
+        }
+    }
+
+    // Warm cache, as for a hot key index: one pass to load pages, one timed pass.
+    private static double averageLookupMicros(String keyParameter) throws SQLException {
+        try (PreparedStatement lookup = connection.prepareStatement(
+                "SELECT id FROM payments WHERE idempotency_key = " + keyParameter)) {
+            for (String key : sampleKeys) {
+                run(lookup, key);
+            }
+            List<String> shuffled = new ArrayList<>(sampleKeys);
+            Collections.shuffle(shuffled, ThreadLocalRandom.current());
+            long started = System.nanoTime();
+            for (String key : shuffled) {
+                run(lookup, key);
+            }
+            return (System.nanoTime() - started) / 1_000.0 / shuffled.size();
+        }
+    }
+
+    private static void run(PreparedStatement lookup, String key) throws SQLException {
+        lookup.setString(1, key);
+        try (ResultSet rs = lookup.executeQuery()) {
+            assertTrue(rs.next());
+        }
+    }
+}
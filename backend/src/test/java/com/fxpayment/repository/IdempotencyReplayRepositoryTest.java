@@ -0,0 +1,78 @@
+package com.fxpayment.repository;
+
+import com.fxpayment.annotation.RepositoryTest;
+import com.fxpayment.dto.PaymentResponse;
+import com.fxpayment.model.IdempotencyReplay;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static com.fxpayment.utils.TestDataFactory.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@RepositoryTest
+class IdempotencyReplayRepositoryTest {
+
+    @Autowired
+    private IdempotencyReplayRepository replayRepository;
+
+    private static PaymentResponse aResponse(String amount) {
+        return new PaymentResponse(UUID.fromString(PAYMENT_UUID_1), new BigDecimal(amount), "USD", "John Doe",
+                new BigDecimal("5.00"), Instant.now().truncatedTo(ChronoUnit.MICROS));
+    }
+
+    @Test
+    void storedReplayShouldRoundTripWithCurrencyScale() {
+        UUID key = UUID.randomUUID();
+        PaymentResponse response = aResponse("100.50");
+
+        replayRepository.insertAllIfAbsent(List.of(IdempotencyReplay.of(key, response, Instant.now())));
+
+        assertEquals(response, replayRepository.findById(key).orElseThrow().toResponse());
+    }
+
+    @Test
+    void storedReplayShouldRoundTripSettlementWithItsOwnScale() {
+        UUID key = UUID.randomUUID();
+        PaymentResponse unquoted = aResponse("100.00");
+        PaymentResponse response = new PaymentResponse(unquoted.id(), unquoted.amount(), unquoted.currency(),
+                unquoted.recipient(), unquoted.processingFee(), unquoted.createdAt(),
+                new PaymentResponse.Settlement(UUID.randomUUID(), "JPY", new BigDecimal("15025"), new BigDecimal("150.25000000")));
+
+        replayRepository.insertAllIfAbsent(List.of(IdempotencyReplay.of(key, response, Instant.now())));
+
+        assertEquals(response, replayRepository.findById(key).orElseThrow().toResponse());
+    }
+
+    @Test
+    void insertAllIfAbsentShouldKeepFirstStoredRow() {
+        UUID key = UUID.randomUUID();
+        replayRepository.insertAllIfAbsent(List.of(IdempotencyReplay.of(key, aResponse("100.00"), Instant.now())));
+
+        replayRepository.insertAllIfAbsent(List.of(IdempotencyReplay.of(key, aResponse("999.00"), Instant.now())));
+
+        assertEquals(new BigDecimal("100.00"), replayRepository.findById(key).orElseThrow().toResponse().amount());
+    }
+
+    @Test
+    void deleteStoredBeforeShouldOnlyRemoveExpiredRows() {
+        Instant now = Instant.now();
+        UUID expired = UUID.randomUUID();
+        UUID fresh = UUID.randomUUID();
+        replayRepository.insertAllIfAbsent(List.of(
+                IdempotencyReplay.of(expired, aResponse("1.00"), now.minus(Duration.ofHours(25))),
+                IdempotencyReplay.of(fresh, aResponse("2.00"), now)));
+
+        int purged = replayRepository.deleteStoredBefore(now.minus(Duration.ofHours(24)));
+
+        assertEquals(1, purged);
+        assertTrue(replayRepository.findById(expired).isEmpty());
+        assertTrue(replayRepository.findById(fresh).isPresent());
+    }
+}
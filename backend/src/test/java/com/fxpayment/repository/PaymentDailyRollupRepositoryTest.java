@@ -0,0 +1,150 @@
+package com.fxpayment.repository;
+
+import com.fxpayment.annotation.RepositoryTest;
+import com.fxpayment.model.PaymentDailyRollup;
+import com.fxpayment.model.PaymentRollupJournalEntry;
+import com.fxpayment.model.PaymentStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static com.fxpayment.utils.TestDataFactory.aPayment;
+import static org.junit.jupiter.api.Assertions.*;
+
+@RepositoryTest
+class PaymentDailyRollupRepositoryTest {
+
+    private static final LocalDate DAY = LocalDate.parse("2026-03-01");
+
+    @Autowired
+    private PaymentDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private PaymentRollupJournalRepository journalRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static DailyRollupDelta delta(LocalDate day, String currency, PaymentStatus status, long count,
+                                          String amount, String fee) {
+        return new DailyRollupDelta(day, currency, status, count, new BigDecimal(amount), new BigDecimal(fee));
+    }
+
+    private PaymentDailyRollup find(LocalDate day, String currency, PaymentStatus status) {
+        return rollupRepository.findById(new PaymentDailyRollup.Key(day, currency, status)).orElseThrow();
+    }
+
+    @Test
+    void applyDeltasShouldCreateThenAccumulateBuckets() {
+        rollupRepository.applyDeltas(List.of(delta(DAY, "USD", PaymentStatus.COMPLETED, 1, "100.00", "5.00")));
+        rollupRepository.applyDeltas(List.of(
+                delta(DAY, "USD", PaymentStatus.COMPLETED, 2, "50.25", "2.50"),
+                delta(DAY, "EUR", PaymentStatus.COMPLETED, 1, "10.00", "0.50")));
+
+        PaymentDailyRollup usd = find(DAY, "USD", PaymentStatus.COMPLETED);
+        assertEquals(3, usd.getPaymentCount());
+        assertEquals(0, new BigDecimal("150.25").compareTo(usd.getAmountTotal()));
+        assertEquals(0, new BigDecimal("7.50").compareTo(usd.getFeeTotal()));
+        assertEquals(1, find(DAY, "EUR", PaymentStatus.COMPLETED).getPaymentCount());
+    }
+
+    @Test
+    void negativeDeltasShouldMovePaymentsBetweenStatuses() {
+        rollupRepository.applyDeltas(List.of(delta(DAY, "USD", PaymentStatus.PENDING, 2, "20.00", "2.00")));
+
+        rollupRepository.applyDeltas(List.of(
+                delta(DAY, "USD", PaymentStatus.PENDING, -1, "-10.00", "-1.00"),
+                delta(DAY, "USD", PaymentStatus.PROCESSING, 1, "10.00", "1.00")));
+
+        assertEquals(1, find(DAY, "USD", PaymentStatus.PENDING).getPaymentCount());
+        assertEquals(0, new BigDecimal("10.00").compareTo(find(DAY, "USD", PaymentStatus.PENDING).getAmountTotal()));
+        assertEquals(1, find(DAY, "USD", PaymentStatus.PROCESSING).getPaymentCount());
+    }
+
+    @Test
+    void findSummaryShouldFilterRangeCurrencyAndStatusAndSkipEmptyBuckets() {
+        rollupRepository.applyDeltas(List.of(
+                delta(DAY.minusDays(1), "USD", PaymentStatus.COMPLETED, 1, "1.00", "0.10"),
+                delta(DAY, "USD", PaymentStatus.COMPLETED, 1, "2.00", "0.20"),
+                delta(DAY, "USD", PaymentStatus.FAILED, 1, "3.00", "0.30"),
+                delta(DAY, "EUR", PaymentStatus.COMPLETED, 1, "4.00", "0.40"),
+                delta(DAY, "GBP", PaymentStatus.PENDING, 0, "0.00", "0.00"),
+                delta(DAY.plusDays(1), "USD", PaymentStatus.COMPLETED, 1, "5.00", "0.50")));
+
+        List<PaymentDailyRollup> day = rollupRepository.findSummary(DAY, DAY, null, null);
+        assertEquals(List.of("EUR", "USD", "USD"), day.stream().map(r -> r.getKey().getCurrency()).toList());
+
+        List<PaymentDailyRollup> usdCompleted =
+                rollupRepository.findSummary(DAY.minusDays(1), DAY.plusDays(1), "USD", PaymentStatus.COMPLETED);
+        assertEquals(List.of(DAY.minusDays(1), DAY, DAY.plusDays(1)),
+                usdCompleted.stream().map(r -> r.getKey().getDay()).toList());
+    }
+
+    @Test
+    void findSummaryShouldAddJournalEntriesNotYetFolded() {
+        rollupRepository.applyDeltas(List.of(delta(DAY, "USD", PaymentStatus.PENDING, 2, "20.00", "2.00")));
+        journalRepository.append(List.of(
+                delta(DAY, "USD", PaymentStatus.PENDING, -1, "-10.00", "-1.00"),
+                delta(DAY, "USD", PaymentStatus.PROCESSING, 1, "10.00", "1.00"),
+                delta(DAY, "EUR", PaymentStatus.COMPLETED, 1, "4.00", "0.40"),
+                delta(DAY.plusDays(1), "EUR", PaymentStatus.COMPLETED, 1, "4.00", "0.40")));
+
+        List<PaymentDailyRollup> summary = rollupRepository.findSummary(DAY, DAY, "USD", null);
+
+        assertEquals(List.of(PaymentStatus.PENDING, PaymentStatus.PROCESSING),
+                summary.stream().map(r -> r.getKey().getStatus()).toList());
+        assertEquals(1, summary.getFirst().getPaymentCount());
+        assertEquals(0, new BigDecimal("10.00").compareTo(summary.getFirst().getAmountTotal()));
+        assertEquals(4, rollupRepository.findSummary(DAY, DAY.plusDays(1), null, null).size());
+    }
+
+    @Test
+    void lockOldestShouldReturnJournalInAppendOrder() {
+        journalRepository.append(List.of(
+                delta(DAY, "USD", PaymentStatus.COMPLETED, 1, "1.00", "0.10"),
+                delta(DAY, "EUR", PaymentStatus.COMPLETED, 1, "2.00", "0.20"),
+                delta(DAY, "GBP", PaymentStatus.COMPLETED, 1, "3.00", "0.30")));
+
+        List<PaymentRollupJournalEntry> oldest = journalRepository.lockOldest(2);
+
+        assertEquals(List.of("USD", "EUR"), oldest.stream().map(PaymentRollupJournalEntry::getCurrency).toList());
+    }
+
+    @Test
+    void recomputeDayShouldReplaceDayWithTotalsFromPaymentsAndDropItsJournal() {
+        paymentRepository.saveAllAndFlush(List.of(
+                aPayment().build(),
+                aPayment().amount(new BigDecimal("50.0000")).build(),
+                aPayment().status(PaymentStatus.FAILED).build()));
+        jdbcTemplate.update("UPDATE payments SET created_at = ?",
+                Timestamp.from(DAY.atStartOfDay(ZoneOffset.UTC).toInstant()));
+        rollupRepository.applyDeltas(List.of(
+                delta(DAY, "USD", PaymentStatus.COMPLETED, 7, "700.00", "35.00"),
+                delta(DAY, "EUR", PaymentStatus.PENDING, 1, "1.00", "0.10"),
+                delta(DAY.plusDays(1), "USD", PaymentStatus.COMPLETED, 1, "1.00", "0.10")));
+        journalRepository.append(List.of(
+                delta(DAY, "USD", PaymentStatus.COMPLETED, 1, "100.00", "5.00"),
+                delta(DAY.minusDays(1), "USD", PaymentStatus.COMPLETED, 1, "1.00", "0.10")));
+
+        assertEquals(2, rollupRepository.recomputeDay(DAY));
+
+        PaymentDailyRollup completed = find(DAY, "USD", PaymentStatus.COMPLETED);
+        assertEquals(2, completed.getPaymentCount());
+        assertEquals(0, new BigDecimal("150.00").compareTo(completed.getAmountTotal()));
+        assertEquals(0, new BigDecimal("10.00").compareTo(completed.getFeeTotal()));
+        assertEquals(1, find(DAY, "USD", PaymentStatus.FAILED).getPaymentCount());
+        assertTrue(rollupRepository.findById(new PaymentDailyRollup.Key(DAY, "EUR", PaymentStatus.PENDING)).isEmpty());
+        assertEquals(1, find(DAY.plusDays(1), "USD", PaymentStatus.COMPLETED).getPaymentCount());
+        assertEquals(List.of(DAY.minusDays(1)),
+                journalRepository.findAll().stream().map(PaymentRollupJournalEntry::getDay).toList());
+    }
+}
@@ -0,0 +1,154 @@
+package com.fxpayment.repository;
+
+import com.fxpayment.annotation.PostgresTest;
+import com.fxpayment.model.Payment;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.fxpayment.utils.TestDataFactory.aPayment;
+import static org.junit.jupiter.api.Assertions.*;
+
+// The INSERT ... ON CONFLICT path of insertIfAbsent; the H2 tests only reach its fallback.
+@PostgresTest
+@DisplayName("Idempotent payment insert (PostgreSQL)")
+class PaymentInsertRepositoryPostgresTest {
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void deletePayments() {
+        jdbcTemplate.update("DELETE FROM payments");
+    }
+
+    @Test
+    void newKeyShouldInsertRowWithColumnDefaults() {
+        IdempotentInsert insert = insert(aPayment().build());
+
+        assertTrue(insert.inserted());
+        assertEquals(7, insert.payment().getId().version(), "id should come from the uuidv7() default");
+        assertNotNull(insert.payment().getCreatedAt());
+        assertEquals(new BigDecimal("100.0000"), insert.payment().getAmount());
+    }
+
+    @Test
+    void duplicateKeyShouldReturnStoredRowWithoutInserting() {
+        UUID key = UUID.randomUUID();
+        IdempotentInsert first = insert(aPayment().idempotencyKey(key).build());
+
+        IdempotentInsert second = insert(aPayment().idempotencyKey(key).amount(new BigDecimal("999.0000")).build());
+
+        assertFalse(second.inserted());
+        assertEquals(first.payment().getId(), second.payment().getId());
+        assertEquals(new BigDecimal("100.0000"), second.payment().getAmount());
+        assertEquals(1, countByKey(key));
+    }
+
+    // The loser's ON CONFLICT waits for the winner's uncommitted row; once it commits, the
+    // loser's CTE returns nothing and the follow-up SELECT must find the winner's row.
+    @Test
+    void insertBlockedOnUncommittedSameKeyShouldReturnWinnerAfterCommit() throws Exception {
+        UUID key = UUID.randomUUID();
+        CountDownLatch winnerInserted = new CountDownLatch(1);
+        CountDownLatch releaseWinner = new CountDownLatch(1);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<IdempotentInsert> winner = executor.submit(() -> transactionTemplate.execute(_ -> {
+                IdempotentInsert insert = paymentRepository.insertIfAbsent(aPayment().idempotencyKey(key).build());
+                winnerInserted.countDown();
+                await(releaseWinner);
+                return insert;
+            }));
+            assertTrue(winnerInserted.await(5, TimeUnit.SECONDS));
+
+            Future<IdempotentInsert> loser = executor.submit(() ->
+                    insert(aPayment().idempotencyKey(key).amount(new BigDecimal("999.0000")).build()));
+            awaitLockWaiters(1);
+            releaseWinner.countDown();
+
+            IdempotentInsert won = winner.get(5, TimeUnit.SECONDS);
+            IdempotentInsert lost = loser.get(5, TimeUnit.SECONDS);
+            assertTrue(won.inserted());
+            assertFalse(lost.inserted());
+            assertEquals(won.payment().getId(), lost.payment().getId());
+            assertEquals(new BigDecimal("100.0000"), lost.payment().getAmount());
+        }
+        assertEquals(1, countByKey(key));
+    }
+
+    @Test
+    void concurrentSameKeyInsertsShouldStoreOneRowAndReturnItToEveryCaller() throws Exception {
+        UUID key = UUID.randomUUID();
+        int callers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<IdempotentInsert> results = new ArrayList<>();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<IdempotentInsert>> futures = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                futures.add(executor.submit(() -> {
+                    await(start);
+                    return insert(aPayment().idempotencyKey(key).build());
+                }));
+            }
+            start.countDown();
+            for (Future<IdempotentInsert> future : futures) {
+                results.add(future.get(10, TimeUnit.SECONDS));
+            }
+        }
+
+        assertEquals(1, results.stream().filter(IdempotentInsert::inserted).count());
+        assertEquals(1, results.stream().map(result -> result.payment().getId()).distinct().count());
+        assertEquals(1, countByKey(key));
+    }
+
+    private IdempotentInsert insert(Payment payment) {
+        return transactionTemplate.execute(_ -> paymentRepository.insertIfAbsent(payment));
+    }
+
+    private int countByKey(UUID key) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM payments WHERE idempotency_key = ?", Integer.class, key);
+    }
+
+    private void awaitLockWaiters(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (lockWaiters() < expected) {
+            assertTrue(System.nanoTime() < deadline, "insert did not wait for the uncommitted row");
+            Thread.sleep(10);
+        }
+    }
+
+    private int lockWaiters() {
+        return jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM pg_stat_activity
+                WHERE datname = current_database() AND wait_event_type = 'Lock'""", Integer.class);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+}
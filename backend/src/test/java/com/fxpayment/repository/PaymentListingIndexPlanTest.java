@@ -0,0 +1,135 @@
+package com.fxpayment.repository;
+
+import com.fxpayment.utils.PostgresTestDatabase;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.StringJoiner;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Guards the V8 and V9 listing indexes against regressions. Index choice is a PostgreSQL planner
+// decision, so this runs against the PostgresTestDatabase server (H2 has no partial indexes
+// and a different planner) and, like the other PostgreSQL tests, is required under -Pci.
+// The migrations run into a throwaway schema seeded with skewed data (USD-heavy, mostly
+// COMPLETED), and each filter is queried with its rare value so that a missing index
+// shows up as a scan of the wrong index or a Seq Scan.
+@ExtendWith(PostgresTestDatabase.class)
+@DisplayName("Payment listing query plans (PostgreSQL)")
+class PaymentListingIndexPlanTest {
+
+    private static final String SCHEMA = "listing_plan_test";
+    private static final String SELECT =
+            "SELECT id, amount, currency, recipient, processing_fee, created_at FROM payments ";
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void migrateAndSeed() throws SQLException {
+        PostgresTestDatabase.Server server = PostgresTestDatabase.server().orElseThrow();
+        String url = server.url();
+        String username = server.username();
+        String password = server.password();
+        connection = DriverManager.getConnection(url, username, password);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        }
+
+        Flyway.configure()
+                .dataSource(url, username, password)
+                .schemas(SCHEMA)
+                .locations("classpath:db/migration")
+                // As in application.yml: the CONCURRENTLY migrations would wait on the
+                // transaction a transactional lock keeps open.
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .load()
+                .migrate();
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET search_path TO " + SCHEMA);
+            // 100k payments, one every 5 minutes from 2026-01-01: 1% GBP, 9% EUR, 2% FAILED,
+            // 0.5% PENDING, amounts uniform in [0, 10000).
+            statement.execute("""
+                    INSERT INTO payments (idempotency_key, amount, currency, recipient, recipient_account,
+                                          processing_fee, status, created_at, updated_at)
+                    SELECT gen_random_uuid(),
+                           round((random() * 10000)::numeric, 4),
+                           CASE WHEN i % 100 = 0 THEN 'GBP' WHEN i % 10 = 0 THEN 'EUR' ELSE 'USD' END,
+                           'Plan Test', 'EE382200221020145685', 0,
+                           CASE WHEN i % 50 = 0 THEN 'FAILED' WHEN i % 200 = 1 THEN 'PENDING' ELSE 'COMPLETED' END,
+                           t.ts, t.ts
+                    FROM generate_series(1, 100000) AS i
+                    CROSS JOIN LATERAL (SELECT TIMESTAMPTZ '2026-01-01 00:00:00+00' + i * INTERVAL '5 minutes') AS t(ts)""");
+            // VACUUM sets the visibility map that index-only scans depend on.
+            statement.execute("VACUUM ANALYZE payments");
+        }
+    }
+
+    @AfterAll
+    static void dropSchema() throws SQLException {
+        if (connection == null) {
+            return;
+        }
+        try (Connection owned = connection; Statement statement = owned.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        }
+    }
+
+    private static String explain(String sql) throws SQLException {
+        StringJoiner plan = new StringJoiner("\n");
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("EXPLAIN (COSTS OFF) " + sql)) {
+            while (rs.next()) {
+                plan.add(rs.getString(1));
+            }
+        }
+        return plan.toString();
+    }
+
+    // Mirrors the page query Hibernate generates for each filter combination.
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', quoteCharacter = '"', textBlock = """
+            created range           | WHERE created_at >= '2026-03-01' AND created_at < '2026-03-02' ORDER BY created_at DESC, id DESC | idx_payments_by_time_covering
+            currency                | WHERE currency = 'GBP' ORDER BY created_at DESC, id DESC                                         | idx_payments_currency_by_time
+            currency, created range | WHERE currency = 'GBP' AND created_at >= '2026-03-01' AND created_at < '2026-04-01' ORDER BY created_at DESC, id DESC | idx_payments_currency_by_time
+            failed status           | WHERE status = 'FAILED' ORDER BY created_at DESC, id DESC                                         | idx_payments_unsuccessful_by_time
+            pending status          | WHERE status = 'PENDING' ORDER BY created_at DESC, id DESC                                        | idx_payments_unsettled
+            amount range by amount  | WHERE amount >= 5000 AND amount <= 5010 ORDER BY amount DESC, id DESC                             | idx_payments_by_amount
+            largest amounts         | ORDER BY amount DESC, id DESC                                                                     | idx_payments_by_amount
+            currency by amount      | WHERE currency = 'GBP' AND amount >= 9000 ORDER BY amount DESC, id DESC                           | idx_payments_currency_by_amount
+            currency keyset page    | WHERE currency = 'GBP' AND created_at <= '2026-03-01' AND (created_at < '2026-03-01' OR (created_at = '2026-03-01' AND id < '00000000-0000-0000-0000-000000000000')) ORDER BY created_at DESC, id DESC | idx_payments_currency_by_time
+            """)
+    void filteredPageShouldUseIndex(String combination, String whereAndOrder, String expectedIndex) throws SQLException {
+        String plan = explain(SELECT + whereAndOrder + " LIMIT 20");
+
+        assertFalse(plan.contains("Seq Scan"), () -> combination + " fell back to a sequential scan:\n" + plan);
+        assertTrue(plan.contains(expectedIndex), () -> combination + " did not use " + expectedIndex + ":\n" + plan);
+    }
+
+    // Unfiltered pages read only the covering index; no heap fetch, no sort.
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', textBlock = """
+            first page  | ORDER BY created_at DESC, id DESC LIMIT 20
+            offset page | ORDER BY created_at DESC, id DESC LIMIT 20 OFFSET 5000
+            keyset page | WHERE (created_at, id) < ('2026-03-01', '00000000-0000-0000-0000-000000000000') ORDER BY created_at DESC, id DESC LIMIT 20
+            """)
+    void unfilteredPageShouldBeIndexOnlyScan(String listing, String whereAndOrder) throws SQLException {
+        String plan = explain(SELECT + whereAndOrder);
+
+        assertTrue(plan.contains("Index Only Scan using idx_payments_by_time_covering"),
+                () -> listing + " was not an index-only scan:\n" + plan);
+        assertFalse(plan.contains("Sort"), () -> listing + " sorted instead of reading index order:\n" + plan);
+    }
+}
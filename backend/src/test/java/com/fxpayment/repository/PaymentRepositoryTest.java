@@ -1,21 +1,36 @@
 package com.fxpayment.repository;
 
 import com.fxpayment.annotation.RepositoryTest;
+import com.fxpayment.dto.PaymentFilter;
+import com.fxpayment.dto.PaymentRow;
 import com.fxpayment.model.Payment;
 import com.fxpayment.model.PaymentStatus;
 import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.fxpayment.utils.TestDataFactory.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -75,9 +90,75 @@ class PaymentRepositoryTest {
         assertEquals(2, page.getTotalPages());
     }
 
+    @Test
+    void findNewestShouldReturnRowsNewestFirstUpToLimit() {
+        for (int i = 0; i < 4; i++) {
+            paymentRepository.saveAndFlush(aPayment().build());
+        }
+
+        List<PaymentRow> newest = paymentRepository.findNewest(Limit.of(3));
+
+        assertEquals(3, newest.size());
+        for (int i = 1; i < newest.size(); i++) {
+            assertFalse(newest.get(i).createdAt().isAfter(newest.get(i - 1).createdAt()));
+        }
+    }
+
+    @Test
+    void findOlderThanShouldVisitEveryRowExactlyOnce() {
+        Set<UUID> saved = new HashSet<>();
+        for (int i = 0; i < 7; i++) {
+            saved.add(paymentRepository.saveAndFlush(aPayment().build()).getId());
+        }
+
+        List<UUID> visited = new ArrayList<>();
+        List<PaymentRow> window = paymentRepository.findNewest(Limit.of(2));
+        while (!window.isEmpty()) {
+            window.forEach(row -> visited.add(row.id()));
+            PaymentRow last = window.getLast();
+            window = paymentRepository.findOlderThan(last.createdAt(), last.id(), Limit.of(2));
+        }
+
+        assertEquals(saved.size(), visited.size());
+        assertEquals(saved, new HashSet<>(visited));
+    }
+
+    @Test
+    void findRowPageShouldProjectResponseColumnsWithExactTotal() {
+        Payment saved = paymentRepository.saveAndFlush(aPayment().recipient("Eriksson Ljungberg").build());
+        paymentRepository.saveAndFlush(aPayment().build());
+        paymentRepository.saveAndFlush(aPayment().build());
+
+        Page<PaymentRow> page = paymentRepository.findRowPage(
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "createdAt", "id")));
+
+        assertEquals(2, page.getContent().size());
+        assertEquals(3, page.getTotalElements());
+        PaymentRow row = paymentRepository.findRowPage(PageRequest.of(0, 10)).stream()
+                .filter(r -> r.id().equals(saved.getId()))
+                .findFirst().orElseThrow();
+        assertEquals(new PaymentRow(saved.getId(), saved.getAmount(), "USD", "Eriksson Ljungberg",
+                saved.getProcessingFee(), saved.getCreatedAt()), row);
+    }
+
+    @Test
+    @DisplayName("listing rows are not loaded into the persistence context")
+    void rowQueriesShouldNotManageEntities() {
+        for (int i = 0; i < 3; i++) {
+            paymentRepository.saveAndFlush(aPayment().build());
+        }
+        entityManager.clear();
+
+        paymentRepository.findRowPage(PageRequest.of(0, 10));
+        paymentRepository.findRowSlice(PageRequest.of(0, 10));
+        paymentRepository.findNewest(Limit.of(10));
+
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
     @Test
     void findByIdempotencyKeyShouldReturnPaymentWithAllFields() {
-        String idempotencyKey = UUID.randomUUID().toString();
+        UUID idempotencyKey = UUID.randomUUID();
         Payment payment = aPayment()
                 .idempotencyKey(idempotencyKey)
                 .amount(new BigDecimal("750.0000"))
@@ -103,7 +184,7 @@ class PaymentRepositoryTest {
 
     @Test
     void findByIdempotencyKeyShouldReturnEmptyForNonexistentKey() {
-        Optional<Payment> found = paymentRepository.findByIdempotencyKey("nonexistent-key");
+        Optional<Payment> found = paymentRepository.findByIdempotencyKey(UUID.randomUUID());
 
         assertTrue(found.isEmpty());
     }
@@ -142,9 +223,81 @@ class PaymentRepositoryTest {
         assertEquals(PaymentStatus.PROCESSING, updated.getStatus());
     }
 
+    @Test
+    void insertIfAbsentShouldPersistNewPayment() {
+        Payment payment = aPayment().build();
+
+        IdempotentInsert insert = paymentRepository.insertIfAbsent(payment);
+
+        assertTrue(insert.inserted());
+        assertNotNull(insert.payment().getId());
+        assertNotNull(insert.payment().getCreatedAt());
+        assertTrue(paymentRepository.findByIdempotencyKey(payment.getIdempotencyKey()).isPresent());
+    }
+
+    @Test
+    @DisplayName("H2 has no ON CONFLICT, so a duplicate key falls back to a constraint violation")
+    void insertIfAbsentWithDuplicateKeyOnH2ShouldThrowDataIntegrityViolation() {
+        // PostgreSQL returns the stored row with inserted=false from the same statement instead.
+        UUID idempotencyKey = UUID.randomUUID();
+        paymentRepository.insertIfAbsent(aPayment().idempotencyKey(idempotencyKey).build());
+
+        Payment duplicate = aPayment().idempotencyKey(idempotencyKey).build();
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> paymentRepository.insertIfAbsent(duplicate));
+    }
+
+    @Test
+    void streamAllIdempotencyKeysShouldReturnEveryStoredKey() {
+        Set<UUID> keys = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            keys.add(paymentRepository.save(aPayment().idempotencyKey(UUID.randomUUID()).build())
+                    .getIdempotencyKey());
+        }
+        paymentRepository.flush();
+
+        try (Stream<UUID> stream = paymentRepository.streamAllIdempotencyKeys()) {
+            assertTrue(stream.collect(Collectors.toSet()).containsAll(keys));
+        }
+    }
+
+    @Test
+    void lockClaimableShouldSkipSettledPaymentsAndLiveClaims() {
+        Payment pending = paymentRepository.save(aPayment().status(PaymentStatus.PENDING).build());
+        paymentRepository.save(aPayment().status(PaymentStatus.COMPLETED).build());
+        Payment claimed = paymentRepository.save(aPayment().status(PaymentStatus.PROCESSING).build());
+        paymentRepository.flush();
+        Instant now = Instant.now();
+
+        List<UUID> withLiveLease = paymentRepository.lockClaimable(now.minus(Duration.ofMinutes(5)), 10).stream()
+                .map(Payment::getId).toList();
+        List<UUID> withExpiredLease = paymentRepository.lockClaimable(now.plus(Duration.ofMinutes(5)), 10).stream()
+                .map(Payment::getId).toList();
+
+        assertEquals(List.of(pending.getId()), withLiveLease);
+        assertEquals(Set.of(pending.getId(), claimed.getId()), Set.copyOf(withExpiredLease));
+    }
+
+    @Test
+    void settleClaimedShouldIgnoreOutcomeFromSupersededClaim() {
+        UUID id = paymentRepository.saveAndFlush(aPayment().status(PaymentStatus.PENDING).build()).getId();
+        Instant claimedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        paymentRepository.updateStatus(List.of(id), PaymentStatus.PROCESSING, claimedAt);
+
+        int stale = paymentRepository.settleClaimed(List.of(id), PaymentStatus.FAILED,
+                claimedAt.minusSeconds(1), Instant.now());
+        int current = paymentRepository.settleClaimed(List.of(id), PaymentStatus.COMPLETED,
+                claimedAt, Instant.now());
+
+        assertEquals(0, stale);
+        assertEquals(1, current);
+        assertEquals(PaymentStatus.COMPLETED, paymentRepository.findById(id).orElseThrow().getStatus());
+    }
+
     @Test
     void duplicateIdempotencyKeyShouldThrowDataIntegrityViolation() {
-        String idempotencyKey = UUID.randomUUID().toString();
+        UUID idempotencyKey = UUID.randomUUID();
         paymentRepository.saveAndFlush(aPayment().idempotencyKey(idempotencyKey).build());
 
         Payment duplicate = aPayment().idempotencyKey(idempotencyKey).build();
@@ -153,6 +306,14 @@ class PaymentRepositoryTest {
                 () -> paymentRepository.saveAndFlush(duplicate));
     }
 
+    @Test
+    @DisplayName("estimateCount counts exactly on databases without table statistics")
+    void estimateCountShouldCountExactlyOnH2() {
+        paymentRepository.saveAllAndFlush(List.of(aPayment().build(), aPayment().build(), aPayment().build()));
+
+        assertEquals(3L, paymentRepository.estimateCount());
+    }
+
     @Nested
     @DisplayName("Data variety: diverse payment profiles")
     class DataVariety {
@@ -236,4 +397,123 @@ class PaymentRepositoryTest {
             assertEquals(2, firstPage.getTotalPages());
         }
     }
+
+    @Nested
+    @DisplayName("Filtering by specification")
+    class Filtering {
+
+        private List<BigDecimal> amounts(PaymentFilter filter, Sort sort) {
+            return paymentRepository.findRowSlice(PaymentSpecifications.matching(filter), PageRequest.of(0, 100, sort))
+                    .map(PaymentRow::amount).getContent();
+        }
+
+        private PaymentFilter filter(String currency, PaymentStatus status, BigDecimal minAmount, BigDecimal maxAmount) {
+            return new PaymentFilter(currency, status, null, null, minAmount, maxAmount, null, null);
+        }
+
+        @Test
+        @DisplayName("currency and status filters combine")
+        void currencyAndStatusShouldNarrowResults() {
+            paymentRepository.save(aPayment().currency("EUR").amount(new BigDecimal("1.0000")).build());
+            paymentRepository.save(aPayment().currency("EUR").amount(new BigDecimal("2.0000"))
+                    .status(PaymentStatus.FAILED).build());
+            paymentRepository.save(aPayment().currency("USD").amount(new BigDecimal("3.0000"))
+                    .status(PaymentStatus.FAILED).build());
+            paymentRepository.flush();
+
+            assertEquals(List.of(new BigDecimal("2.0000")),
+                    amounts(filter("EUR", PaymentStatus.FAILED, null, null), Sort.by("amount")));
+            assertEquals(List.of(new BigDecimal("1.0000"), new BigDecimal("2.0000")),
+                    amounts(filter("EUR", null, null, null), Sort.by("amount")));
+        }
+
+        @Test
+        @DisplayName("amount range is inclusive on both ends")
+        void amountRangeShouldBeInclusive() {
+            for (String amount : List.of("9.9999", "10.0000", "15.0000", "20.0000", "20.0001")) {
+                paymentRepository.save(aPayment().amount(new BigDecimal(amount)).build());
+            }
+            paymentRepository.flush();
+
+            List<BigDecimal> result = amounts(filter(null, null, new BigDecimal("10"), new BigDecimal("20")),
+                    Sort.by(Sort.Direction.DESC, "amount"));
+
+            assertEquals(List.of(new BigDecimal("20.0000"), new BigDecimal("15.0000"), new BigDecimal("10.0000")), result);
+        }
+
+        @Test
+        @DisplayName("created range includes its start and excludes its end")
+        void createdRangeShouldBeHalfOpen() {
+            Instant start = Instant.parse("2026-03-01T00:00:00Z");
+            Instant end = Instant.parse("2026-03-02T00:00:00Z");
+            List<UUID> ids = Stream.of(start.minusSeconds(1), start, end.minusSeconds(1), end)
+                    .map(createdAt -> {
+                        UUID id = paymentRepository.saveAndFlush(aPayment().build()).getId();
+                        entityManager.createNativeQuery("UPDATE payments SET created_at = :createdAt WHERE id = :id")
+                                .setParameter("createdAt", createdAt)
+                                .setParameter("id", id)
+                                .executeUpdate();
+                        return id;
+                    })
+                    .toList();
+            entityManager.clear();
+
+            PaymentFilter filter = new PaymentFilter(null, null, start, end, null, null, null, null);
+            List<UUID> result = paymentRepository.findRowSlice(PaymentSpecifications.matching(filter),
+                    PageRequest.of(0, 100, Sort.by("createdAt"))).map(PaymentRow::id).getContent();
+
+            assertEquals(List.of(ids.get(1), ids.get(2)), result);
+        }
+
+        @Test
+        @DisplayName("filtered row page counts only matching rows")
+        void rowPageShouldCountMatchingRows() {
+            for (int i = 0; i < 3; i++) {
+                paymentRepository.save(aPayment().currency("EUR").build());
+            }
+            paymentRepository.save(aPayment().currency("USD").build());
+            paymentRepository.flush();
+
+            Page<PaymentRow> page = paymentRepository.findRowPage(
+                    PaymentSpecifications.matching(filter("EUR", null, null, null)), PageRequest.of(0, 2));
+
+            assertEquals(2, page.getContent().size());
+            assertEquals(3, page.getTotalElements());
+            assertTrue(page.getContent().stream().allMatch(row -> row.currency().equals("EUR")));
+        }
+
+        @Test
+        @DisplayName("filtered row slice reports hasNext from one lookahead row")
+        void rowSliceShouldReportHasNext() {
+            for (int i = 0; i < 3; i++) {
+                paymentRepository.save(aPayment().currency("EUR").build());
+            }
+            paymentRepository.flush();
+            Specification<Payment> eur = PaymentSpecifications.matching(filter("EUR", null, null, null));
+
+            Slice<PaymentRow> first = paymentRepository.findRowSlice(eur, PageRequest.of(0, 2));
+            Slice<PaymentRow> last = paymentRepository.findRowSlice(eur, PageRequest.of(1, 2));
+
+            assertEquals(2, first.getNumberOfElements());
+            assertTrue(first.hasNext());
+            assertEquals(1, last.getNumberOfElements());
+            assertFalse(last.hasNext());
+        }
+
+        @Test
+        @DisplayName("export streams matching rows in the requested order")
+        void exportShouldStreamMatchingRowsInOrder() {
+            for (String amount : List.of("5.0000", "30.0000", "10.0000", "20.0000")) {
+                paymentRepository.save(aPayment().amount(new BigDecimal(amount)).build());
+            }
+            paymentRepository.save(aPayment().currency("EUR").amount(new BigDecimal("15.0000")).build());
+            paymentRepository.flush();
+            PaymentFilter filter = new PaymentFilter("USD", null, null, null, new BigDecimal("10"), null, "amount", "asc");
+
+            List<BigDecimal> exported = new ArrayList<>();
+            paymentRepository.exportPayments(filter, payment -> exported.add(payment.getAmount()));
+
+            assertEquals(List.of(new BigDecimal("10.0000"), new BigDecimal("20.0000"), new BigDecimal("30.0000")), exported);
+        }
+    }
 }
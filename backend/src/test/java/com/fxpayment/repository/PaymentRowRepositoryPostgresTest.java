@@ -0,0 +1,37 @@
+package com.fxpayment.repository;
+
+import com.fxpayment.annotation.PostgresTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.stream.IntStream;
+
+import static com.fxpayment.utils.TestDataFactory.aPayment;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@PostgresTest
+@DisplayName("Payment count estimate (PostgreSQL)")
+class PaymentRowRepositoryPostgresTest {
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void deletePayments() {
+        jdbcTemplate.update("DELETE FROM payments");
+    }
+
+    @Test
+    void estimateCountShouldReadTableStatisticsAfterAnalyze() {
+        paymentRepository.saveAll(IntStream.range(0, 25).mapToObj(_ -> aPayment().build()).toList());
+        jdbcTemplate.execute("ANALYZE payments");
+
+        assertEquals(25L, paymentRepository.estimateCount());
+    }
+}
@@ -0,0 +1,93 @@
+package com.fxpayment.repository;
+
+import com.fxpayment.annotation.PostgresTest;
+import com.fxpayment.model.Quote;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@PostgresTest
+@DisplayName("Quote consumption (PostgreSQL)")
+class QuoteRepositoryPostgresTest {
+
+    @Autowired
+    private QuoteRepository quoteRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void deleteQuotes() {
+        jdbcTemplate.update("DELETE FROM quotes");
+    }
+
+    // The second delete waits on the first's uncommitted one and, once it commits, finds
+    // no row: two payments cannot both consume a quote.
+    @Test
+    void concurrentConsumersShouldNotBothConsumeQuote() throws Exception {
+        Instant now = Instant.now();
+        UUID id = quoteRepository.save(Quote.builder()
+                .amount(new BigDecimal("100.00"))
+                .currency("EUR")
+                .settlementCurrency("USD")
+                .rate(new BigDecimal("1.07957500"))
+                .settlementAmount(new BigDecimal("107.96"))
+                .expiresAt(now.plus(Duration.ofMinutes(2)))
+                .build()).getId();
+        CountDownLatch firstDeleted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Integer> first = executor.submit(() -> transactionTemplate.execute(_ -> {
+                int deleted = quoteRepository.deleteLive(id, now);
+                firstDeleted.countDown();
+                await(releaseFirst);
+                return deleted;
+            }));
+            assertTrue(firstDeleted.await(5, TimeUnit.SECONDS));
+
+            Future<Integer> second = executor.submit(() -> transactionTemplate.execute(_ -> quoteRepository.deleteLive(id, now)));
+            awaitLockWaiter();
+            releaseFirst.countDown();
+
+            assertEquals(1, first.get(5, TimeUnit.SECONDS));
+            assertEquals(0, second.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private void awaitLockWaiter() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM pg_stat_activity
+                WHERE datname = current_database() AND wait_event_type = 'Lock'""", Integer.class) < 1) {
+            assertTrue(System.nanoTime() < deadline, "second delete did not wait for the first");
+            Thread.sleep(10);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+}
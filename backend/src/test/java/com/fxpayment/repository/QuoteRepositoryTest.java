@@ -0,0 +1,62 @@
+package com.fxpayment.repository;
+
+import com.fxpayment.annotation.RepositoryTest;
+import com.fxpayment.model.Quote;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@RepositoryTest
+class QuoteRepositoryTest {
+
+    @Autowired
+    private QuoteRepository quoteRepository;
+
+    private final Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+
+    private Quote aQuote(Instant expiresAt) {
+        return quoteRepository.saveAndFlush(Quote.builder()
+                .amount(new BigDecimal("100.00"))
+                .currency("EUR")
+                .settlementCurrency("USD")
+                .rate(new BigDecimal("1.07957500"))
+                .settlementAmount(new BigDecimal("107.96"))
+                .expiresAt(expiresAt)
+                .build());
+    }
+
+    @Test
+    void deleteLiveShouldConsumeQuoteOnce() {
+        UUID id = aQuote(now.plus(Duration.ofMinutes(2))).getId();
+
+        assertEquals(1, quoteRepository.deleteLive(id, now));
+        assertEquals(0, quoteRepository.deleteLive(id, now));
+        assertFalse(quoteRepository.existsById(id));
+    }
+
+    @Test
+    void deleteLiveShouldNotConsumeExpiredOrUnknownQuotes() {
+        UUID id = aQuote(now).getId();
+
+        assertEquals(0, quoteRepository.deleteLive(id, now));
+        assertEquals(0, quoteRepository.deleteLive(UUID.randomUUID(), now));
+        assertTrue(quoteRepository.existsById(id));
+    }
+
+    @Test
+    void deleteExpiredBeforeShouldOnlyRemoveExpiredQuotes() {
+        UUID expired = aQuote(now.minusSeconds(1)).getId();
+        UUID live = aQuote(now.plusSeconds(1)).getId();
+
+        assertEquals(1, quoteRepository.deleteExpiredBefore(now));
+        assertFalse(quoteRepository.existsById(expired));
+        assertTrue(quoteRepository.existsById(live));
+    }
+}
@@ -0,0 +1,327 @@
+package com.fxpayment.service;
+
+import com.fxpayment.config.PaymentProperties;
+import com.fxpayment.dto.BatchPaymentItem;
+import com.fxpayment.dto.BatchPaymentResponse;
+import com.fxpayment.dto.PaymentResponse;
+import com.fxpayment.exception.PaymentProcessingException;
+import com.fxpayment.model.Currency;
+import com.fxpayment.model.Payment;
+import com.fxpayment.repository.PaymentRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.fxpayment.utils.TestDataFactory.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchPaymentServiceTest {
+
+    private static jakarta.validation.ValidatorFactory validatorFactory;
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private FeeCalculationService feeCalculationService;
+
+    @Mock
+    private QuoteService quoteService;
+
+    @Mock
+    private CurrencyService currencyService;
+
+    @Mock
+    private PaymentValidationService paymentValidationService;
+
+    @Mock
+    private PaymentCountEstimator paymentCountEstimator;
+
+    @Mock
+    private PaymentRollupService paymentRollupService;
+
+    @Mock
+    private PaymentEventChannel paymentEventChannel;
+
+    @Mock
+    private IdempotencyKeyFilter idempotencyKeyFilter;
+
+    @Mock
+    private IdempotencyCacheService idempotencyCacheService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private BatchPaymentService batchPaymentService;
+
+    @BeforeAll
+    static void createValidator() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+    }
+
+    @AfterAll
+    static void closeValidator() {
+        validatorFactory.close();
+    }
+
+    @SuppressWarnings("unchecked")
+    @BeforeEach
+    void setUp() {
+        Validator validator = validatorFactory.getValidator();
+        PaymentProperties properties = new PaymentProperties(null, new PaymentProperties.BatchProperties(2), null, null, null, null, null, null);
+        batchPaymentService = new BatchPaymentService(paymentRepository, feeCalculationService, quoteService, currencyService,
+                paymentValidationService, paymentCountEstimator, paymentRollupService, paymentEventChannel,
+                idempotencyKeyFilter, idempotencyCacheService, validator, entityManager, transactionTemplate, properties);
+        lenient().when(idempotencyKeyFilter.mightContain(any(UUID.class))).thenReturn(true);
+        lenient().when(transactionTemplate.execute(any(TransactionCallback.class)))
+                .thenAnswer(invocation -> {
+                    TransactionCallback<BatchPaymentResponse> callback = invocation.getArgument(0);
+                    return callback.doInTransaction(mock(TransactionStatus.class));
+                });
+    }
+
+    private static BatchPaymentItem newItem() {
+        return new BatchPaymentItem(UUID.randomUUID().toString(), aPaymentRequest().build());
+    }
+
+    private void stubValidUsd() {
+        when(paymentValidationService.resolveAndValidateCurrency(any())).thenReturn(CURRENCIES.get("USD"));
+        when(feeCalculationService.calculateFee(any(BigDecimal.class), any(Currency.class)))
+                .thenReturn(new BigDecimal("5.0000"));
+    }
+
+    @Test
+    void shouldFlushOncePerChunk() {
+        stubValidUsd();
+        List<BatchPaymentItem> items = List.of(newItem(), newItem(), newItem(), newItem(), newItem());
+
+        BatchPaymentResponse response = batchPaymentService.createPayments(items);
+
+        assertEquals(5, response.created());
+        verify(paymentRepository, times(3)).saveAll(anyList());
+        verify(paymentRepository, times(3)).flush();
+        verify(entityManager, times(3)).clear();
+        verify(paymentCountEstimator).recordInserted(5);
+        verify(paymentRollupService).recordCreated(argThat(payments -> payments.size() == 5));
+        verify(paymentEventChannel).publish(argThat(payments -> payments.size() == 5));
+    }
+
+    @Test
+    void shouldLookUpExistingKeysWithSingleQuery() {
+        stubValidUsd();
+
+        batchPaymentService.createPayments(List.of(newItem(), newItem(), newItem()));
+
+        verify(paymentRepository, times(1)).findByIdempotencyKeyIn(anyCollection());
+        verify(paymentRepository, never()).findByIdempotencyKey(any());
+    }
+
+    @Test
+    void upperCaseSpellingOfKeyShouldReplayFirstOccurrence() {
+        stubValidUsd();
+        BatchPaymentItem item = newItem();
+        BatchPaymentItem shouted = new BatchPaymentItem(item.idempotencyKey().toUpperCase(), item.payment());
+
+        BatchPaymentResponse response = batchPaymentService.createPayments(List.of(item, shouted));
+
+        assertEquals(1, response.created());
+        assertEquals(1, response.replayed());
+        assertEquals(response.results().get(0).payment(), response.results().get(1).payment());
+        assertEquals(shouted.idempotencyKey(), response.results().get(1).idempotencyKey());
+    }
+
+    @Test
+    void nullItemShouldBeRejectedIndividually() {
+        stubValidUsd();
+
+        BatchPaymentResponse response = batchPaymentService.createPayments(Arrays.asList(newItem(), null));
+
+        assertEquals(1, response.created());
+        assertEquals(1, response.rejected());
+        assertEquals(List.of("Payment item is required"), response.results().get(1).errors());
+    }
+
+    @Test
+    void replayedItemShouldSkipValidationAndFeeCalculation() {
+        BatchPaymentItem item = newItem();
+        Payment existing = aPayment().id(UUID.fromString(PAYMENT_UUID_1)).idempotencyKey(keyOf(item)).build();
+        when(paymentRepository.findByIdempotencyKeyIn(anyCollection())).thenReturn(List.of(existing));
+        when(currencyService.getDecimals("USD")).thenReturn(2);
+
+        BatchPaymentResponse response = batchPaymentService.createPayments(List.of(item));
+
+        assertEquals(1, response.replayed());
+        assertEquals(existing.getId(), response.results().get(0).payment().id());
+        verifyNoInteractions(paymentValidationService, feeCalculationService);
+        verify(paymentRepository, never()).saveAll(anyList());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void shouldRetryBatchOnceOnConcurrentDuplicateKey() {
+        stubValidUsd();
+        when(transactionTemplate.execute(any(TransactionCallback.class)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate key"))
+                .thenAnswer(invocation -> {
+                    TransactionCallback<BatchPaymentResponse> callback = invocation.getArgument(0);
+                    return callback.doInTransaction(mock(TransactionStatus.class));
+                });
+
+        BatchPaymentResponse response = batchPaymentService.createPayments(List.of(newItem()));
+
+        assertEquals(1, response.created());
+        verify(transactionTemplate, times(2)).execute(any(TransactionCallback.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void shouldFailWhenRetryAlsoConflicts() {
+        when(transactionTemplate.execute(any(TransactionCallback.class)))
+                .thenThrow(new DataIntegrityViolationException("First conflict"))
+                .thenThrow(new DataIntegrityViolationException("Second conflict"));
+
+        assertThrows(PaymentProcessingException.class,
+                () -> batchPaymentService.createPayments(List.of(newItem())));
+    }
+
+    @Test
+    void shouldSkipExistingKeyQueryWhenFilterProvesAllKeysAbsent() {
+        stubValidUsd();
+        when(idempotencyKeyFilter.mightContain(any(UUID.class))).thenReturn(false);
+        List<BatchPaymentItem> items = List.of(newItem(), newItem());
+
+        BatchPaymentResponse response = batchPaymentService.createPayments(items);
+
+        assertEquals(2, response.created());
+        verify(paymentRepository, never()).findByIdempotencyKeyIn(anyCollection());
+        items.forEach(item -> verify(idempotencyKeyFilter).add(keyOf(item)));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void shouldOnlyQueryKeysTheFilterCannotRuleOut() {
+        stubValidUsd();
+        BatchPaymentItem maybeStored = newItem();
+        when(idempotencyKeyFilter.mightContain(any(UUID.class))).thenReturn(false);
+        when(idempotencyKeyFilter.mightContain(keyOf(maybeStored))).thenReturn(true);
+
+        batchPaymentService.createPayments(List.of(newItem(), maybeStored, newItem()));
+
+        ArgumentCaptor<Collection<UUID>> keys = ArgumentCaptor.forClass(Collection.class);
+        verify(paymentRepository).findByIdempotencyKeyIn(keys.capture());
+        assertEquals(List.of(keyOf(maybeStored)), List.copyOf(keys.getValue()));
+    }
+
+    @Test
+    void shouldWriteCreatedAndReplayedItemsThroughToCache() {
+        stubValidUsd();
+        BatchPaymentItem stored = newItem();
+        Payment existing = aPayment().id(UUID.fromString(PAYMENT_UUID_1)).idempotencyKey(keyOf(stored)).build();
+        when(paymentRepository.findByIdempotencyKeyIn(anyCollection())).thenReturn(List.of(existing));
+        when(currencyService.getDecimals("USD")).thenReturn(2);
+        BatchPaymentItem fresh = newItem();
+
+        BatchPaymentResponse response = batchPaymentService.createPayments(List.of(stored, fresh, invalidItem()));
+
+        verify(idempotencyCacheService).findStoredReplays(anyList());
+        verify(idempotencyCacheService).cacheReplays(Map.of(
+                keyOf(stored), response.results().get(0).payment(),
+                keyOf(fresh), response.results().get(1).payment()));
+        verifyNoMoreInteractions(idempotencyCacheService);
+    }
+
+    // Stored by another node: this node's filter has never seen the key, the shared tier has it.
+    @Test
+    void itemFoundInStoreTiersShouldReplayWithoutValidationOrPaymentsQuery() {
+        BatchPaymentItem item = newItem();
+        PaymentResponse stored = PaymentResponse.from(aPayment().id(UUID.fromString(PAYMENT_UUID_1)).build(), 2);
+        when(idempotencyCacheService.findStoredReplays(List.of(keyOf(item)))).thenReturn(Map.of(keyOf(item), stored));
+
+        BatchPaymentResponse response = batchPaymentService.createPayments(List.of(item));
+
+        assertEquals(1, response.replayed());
+        assertEquals(stored, response.results().getFirst().payment());
+        verify(paymentRepository, never()).findByIdempotencyKeyIn(anyCollection());
+        verifyNoInteractions(paymentValidationService, feeCalculationService);
+    }
+
+    @Test
+    void keysFoundInStoreTiersShouldNotBeQueriedAgain() {
+        stubValidUsd();
+        BatchPaymentItem cached = newItem();
+        BatchPaymentItem fresh = newItem();
+        PaymentResponse stored = PaymentResponse.from(aPayment().id(UUID.fromString(PAYMENT_UUID_1)).build(), 2);
+        when(idempotencyCacheService.findStoredReplays(anyList())).thenReturn(Map.of(keyOf(cached), stored));
+
+        batchPaymentService.createPayments(List.of(cached, fresh));
+
+        verify(paymentRepository).findByIdempotencyKeyIn(List.of(keyOf(fresh)));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void shouldReadAllQuotesWithSingleLookup() {
+        stubValidUsd();
+        UUID quoteId = UUID.randomUUID();
+        BatchPaymentItem quoted = new BatchPaymentItem(UUID.randomUUID().toString(), aPaymentRequest().quoteId(quoteId).build());
+        BatchPaymentItem alsoQuoted = new BatchPaymentItem(UUID.randomUUID().toString(), aPaymentRequest().quoteId(quoteId).build());
+
+        batchPaymentService.createPayments(List.of(quoted, newItem(), alsoQuoted));
+
+        ArgumentCaptor<Collection<UUID>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(quoteService).findLive(ids.capture());
+        assertEquals(List.of(quoteId), List.copyOf(ids.getValue()));
+    }
+
+    // The first attempt consumed the quote; the stores and the filter have no trace of it.
+    @Test
+    void retryOfConsumedQuoteItemShouldReplayWhenTiersMiss() {
+        BatchPaymentItem retried = new BatchPaymentItem(UUID.randomUUID().toString(),
+                aPaymentRequest().quoteId(UUID.randomUUID()).build());
+        when(idempotencyKeyFilter.mightContain(any(UUID.class))).thenReturn(false);
+        Payment existing = aPayment().id(UUID.fromString(PAYMENT_UUID_1)).idempotencyKey(keyOf(retried)).build();
+        when(paymentRepository.findByIdempotencyKeyIn(List.of(keyOf(retried)))).thenReturn(List.of(existing));
+        when(currencyService.getDecimals("USD")).thenReturn(2);
+
+        BatchPaymentResponse response = batchPaymentService.createPayments(List.of(retried));
+
+        assertEquals(1, response.replayed());
+        assertEquals(existing.getId(), response.results().getFirst().payment().id());
+        verifyNoInteractions(paymentValidationService, feeCalculationService);
+        verify(paymentRepository, never()).saveAll(anyList());
+    }
+
+    private static UUID keyOf(BatchPaymentItem item) {
+        return UUID.fromString(item.idempotencyKey());
+    }
+
+    private static BatchPaymentItem invalidItem() {
+        return new BatchPaymentItem(UUID.randomUUID().toString(), aPaymentRequest().amount(null).build());
+    }
+}
@@ -0,0 +1,57 @@
+package com.fxpayment.service;
+
+import com.fxpayment.dto.PaymentResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactReplayTest {
+
+    private static final Instant CREATED_AT = Instant.parse("2026-03-01T10:15:30.123456789Z");
+
+    private static PaymentResponse aResponse(String amount, String currency, String fee) {
+        return new PaymentResponse(UUID.randomUUID(), new BigDecimal(amount), currency, "Müller Ödegård",
+                new BigDecimal(fee), CREATED_AT);
+    }
+
+    @ParameterizedTest(name = "{1} {0}")
+    @CsvSource({
+            "100.50, USD, 5.00",
+            "15025, JPY, 500",
+            "12.345, BHD, 2.000",
+            "999999.99, EUR, 0.00"
+    })
+    void shouldRoundTripAtTheCurrencyScale(String amount, String currency, String fee) {
+        PaymentResponse response = aResponse(amount, currency, fee);
+
+        PaymentResponse restored = CompactReplay.of(response).toResponse();
+
+        assertEquals(response, restored);
+        assertEquals(response.amount().scale(), restored.amount().scale());
+        assertEquals(response.processingFee().scale(), restored.processingFee().scale());
+    }
+
+    @Test
+    void shouldRoundTripSettlement() {
+        PaymentResponse unquoted = aResponse("100.00", "USD", "5.00");
+        PaymentResponse response = new PaymentResponse(unquoted.id(), unquoted.amount(), unquoted.currency(),
+                unquoted.recipient(), unquoted.processingFee(), unquoted.createdAt(),
+                new PaymentResponse.Settlement(UUID.randomUUID(), "JPY", new BigDecimal("15025"), new BigDecimal("150.25000000")));
+
+        assertEquals(response, CompactReplay.of(response).toResponse());
+    }
+
+    @Test
+    void entriesShouldShareOneCurrencyString() {
+        CompactReplay first = CompactReplay.of(aResponse("1.00", new String("USD"), "0.00"));
+        CompactReplay second = CompactReplay.of(aResponse("2.00", new String("USD"), "0.00"));
+
+        assertSame(first.currency(), second.currency());
+    }
+}
@@ -1,69 +1,221 @@
 package com.fxpayment.service;
 
+import com.fxpayment.model.Currency;
 import com.fxpayment.model.CurrencyEntity;
 import com.fxpayment.repository.CurrencyRepository;
+import com.fxpayment.repository.FeeScheduleBandRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.fxpayment.utils.TestDataFactory.*;
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class CurrencyLookupServiceTest {
 
+    private static final Duration REFRESH_AFTER = Duration.ofMinutes(5);
+    private static final Duration MAX_AGE = Duration.ofSeconds(1);
+
     @Mock
     private CurrencyRepository currencyRepository;
 
-    @InjectMocks
-    private CurrencyLookupService currencyLookupService;
+    @Mock
+    private FeeScheduleBandRepository feeScheduleBandRepository;
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private CurrencyLookupService cached() {
+        return new CurrencyLookupService(currencyRepository, feeScheduleBandRepository, REFRESH_AFTER, false, nanos::get);
+    }
 
     @Test
     void findAllShouldReturnAllFromRepository() {
-        List<CurrencyEntity> entities = List.of(eurCurrency(), usdCurrency(), gbpCurrency());
-        when(currencyRepository.findAll()).thenReturn(entities);
+        when(currencyRepository.findAll()).thenReturn(List.of(eurCurrency(), usdCurrency(), gbpCurrency()));
 
-        List<CurrencyEntity> result = currencyLookupService.findAll();
+        List<Currency> result = cached().findAll();
 
         assertEquals(3, result.size());
-        assertEquals("EUR", result.get(0).getCode());
-        assertEquals("USD", result.get(1).getCode());
-        assertEquals("GBP", result.get(2).getCode());
+        assertEquals("EUR", result.get(0).code());
+        assertEquals("USD", result.get(1).code());
+        assertEquals("GBP", result.get(2).code());
     }
 
     @Test
     void findAllShouldReturnEmptyListWhenNoCurrencies() {
         when(currencyRepository.findAll()).thenReturn(Collections.emptyList());
 
-        List<CurrencyEntity> result = currencyLookupService.findAll();
-
-        assertTrue(result.isEmpty());
+        assertTrue(cached().findAll().isEmpty());
     }
 
     @Test
     void findByCodeShouldReturnCurrencyWhenExists() {
-        CurrencyEntity usd = usdCurrency();
-        when(currencyRepository.findById("USD")).thenReturn(Optional.of(usd));
+        when(currencyRepository.findAll()).thenReturn(List.of(usdCurrency()));
 
-        Optional<CurrencyEntity> result = currencyLookupService.findByCode("USD");
+        Optional<Currency> result = cached().findByCode("USD");
 
         assertTrue(result.isPresent());
-        assertEquals("USD", result.get().getCode());
+        assertEquals("USD", result.get().code());
     }
 
     @Test
     void findByCodeShouldReturnEmptyForNonexistentCurrency() {
-        when(currencyRepository.findById(UNSUPPORTED_CURRENCY)).thenReturn(Optional.empty());
+        when(currencyRepository.findAll()).thenReturn(List.of(usdCurrency()));
+
+        assertTrue(cached().findByCode(UNSUPPORTED_CURRENCY).isEmpty());
+    }
 
-        Optional<CurrencyEntity> result = currencyLookupService.findByCode(UNSUPPORTED_CURRENCY);
+    @Test
+    void listAndLookupsShouldShareOneLoad() {
+        when(currencyRepository.findAll()).thenReturn(List.of(usdCurrency(), eurCurrency()));
+        CurrencyLookupService service = cached();
+
+        Currency fromList = service.findAll().get(0);
+
+        assertSame(fromList, service.findByCode("USD").orElseThrow());
+        assertTrue(service.findByCode("EUR").isPresent());
+        verify(currencyRepository, times(1)).findAll();
+    }
+
+    @Test
+    void reloadShouldReplaceTheRegistryBeforeReturning() {
+        CurrencyEntity original = usdCurrency();
+        CurrencyEntity updated = aCurrency().feeRate(new BigDecimal("0.0200")).build();
+        when(currencyRepository.findAll()).thenReturn(List.of(original)).thenReturn(List.of(updated));
+        CurrencyLookupService service = cached();
+        service.findAll();
+
+        service.reload();
+
+        assertEquals(Currency.of(updated), service.findByCode("USD").orElseThrow());
+        assertEquals(List.of(Currency.of(updated)), service.findAll());
+    }
 
-        assertTrue(result.isEmpty());
+    @Test
+    void staleRegistryShouldBeServedWhileOneBackgroundReloadRuns() throws Exception {
+        CurrencyEntity original = usdCurrency();
+        CurrencyEntity updated = aCurrency().feeRate(new BigDecimal("0.0200")).build();
+        // Holds the reload until the stale reads are checked.
+        CountDownLatch staleReadsDone = new CountDownLatch(1);
+        when(currencyRepository.findAll()).thenReturn(List.of(original)).thenAnswer(_ -> {
+            staleReadsDone.await();
+            return List.of(updated);
+        });
+        CurrencyLookupService service = cached();
+        service.findAll();
+
+        nanos.addAndGet(REFRESH_AFTER.toNanos() - 1);
+        assertEquals(Currency.of(original), service.findByCode("USD").orElseThrow());
+        verify(currencyRepository, times(1)).findAll();
+        nanos.addAndGet(1);
+
+        assertEquals(Currency.of(original), service.findByCode("USD").orElseThrow());
+        assertEquals(Currency.of(original), service.findByCode("USD").orElseThrow());
+        staleReadsDone.countDown();
+        Instant deadline = Instant.now().plus(Duration.ofSeconds(5));
+        while (!service.findByCode("USD").orElseThrow().equals(Currency.of(updated))) {
+            assertTrue(Instant.now().isBefore(deadline), "registry was not refreshed within 5s");
+            Thread.sleep(5);
+        }
+        verify(currencyRepository, times(2)).findAll();
+    }
+
+    @Test
+    void refreshThatStartedBeforeReloadShouldNotOverwriteIt() throws Exception {
+        CurrencyEntity original = usdCurrency();
+        CurrencyEntity beforeUpdate = usdCurrency();
+        CurrencyEntity afterUpdate = aCurrency().feeRate(new BigDecimal("0.0200")).build();
+        CountDownLatch slowRefreshStarted = new CountDownLatch(1);
+        CountDownLatch reloadDone = new CountDownLatch(1);
+        CountDownLatch nextRefreshStarted = new CountDownLatch(1);
+        CountDownLatch testDone = new CountDownLatch(1);
+        when(currencyRepository.findAll())
+                .thenReturn(List.of(original))
+                .thenAnswer(_ -> {
+                    slowRefreshStarted.countDown();
+                    reloadDone.await();
+                    return List.of(beforeUpdate);
+                })
+                .thenReturn(List.of(afterUpdate))
+                .thenAnswer(_ -> {
+                    nextRefreshStarted.countDown();
+                    testDone.await();
+                    return List.of(afterUpdate);
+                });
+        CurrencyLookupService service = cached();
+        service.findAll();
+        nanos.addAndGet(REFRESH_AFTER.toNanos());
+
+        service.findAll();
+        slowRefreshStarted.await();
+        service.reload();
+        reloadDone.countDown();
+        nanos.addAndGet(REFRESH_AFTER.toNanos());
+
+        // Only one refresh runs at a time, so once the next one starts the slow one has
+        // finished and tried to install its result.
+        Instant deadline = Instant.now().plus(Duration.ofSeconds(5));
+        while (nextRefreshStarted.getCount() > 0) {
+            assertTrue(Instant.now().isBefore(deadline), "next refresh did not start within 5s");
+            assertEquals(Currency.of(afterUpdate), service.findByCode("USD").orElseThrow());
+            Thread.sleep(5);
+        }
+        assertEquals(Currency.of(afterUpdate), service.findByCode("USD").orElseThrow());
+        testDone.countDown();
+    }
+
+    @Test
+    void feeScheduleShouldComeFromTheSameLoadAsTheCurrency() {
+        CurrencyEntity usd = usdCurrency();
+        when(currencyRepository.findAll()).thenReturn(List.of(usd));
+        when(feeScheduleBandRepository.findAll()).thenReturn(List.of(aFeeBand("USD", "0").rate(new BigDecimal("0.020000")).build()));
+        CurrencyLookupService service = cached();
+
+        assertEquals(new BigDecimal("20.0000"), service.feeSchedule(Currency.of(usd)).feeFor(new BigDecimal("1000.00")));
+        assertEquals(new BigDecimal("5.0000"), service.feeSchedule(aCurrency().code("CHF").buildCurrency()).feeFor(new BigDecimal("100.00")));
+        verify(feeScheduleBandRepository, times(1)).findAll();
+    }
+
+    @Test
+    void uncachedWithZeroMaxAgeShouldLoadOnEveryRead() {
+        when(currencyRepository.findAll()).thenReturn(List.of(usdCurrency()));
+        CurrencyLookupService service = CurrencyLookupService.uncached(currencyRepository, feeScheduleBandRepository, Duration.ZERO);
+
+        service.findAll();
+        service.findByCode("USD");
+
+        verify(currencyRepository, times(2)).findAll();
+    }
+
+    @Test
+    void uncachedShouldReloadInlineOnceRegistryIsOlderThanMaxAge() {
+        when(currencyRepository.findAll())
+                .thenReturn(List.of(usdCurrency()))
+                .thenReturn(List.of(usdCurrency(), eurCurrency()));
+        CurrencyLookupService service =
+                new CurrencyLookupService(currencyRepository, feeScheduleBandRepository, MAX_AGE, true, nanos::get);
+
+        CurrencyRegistry first = service.registry();
+        assertSame(first, service.registry());
+        assertTrue(service.findByCode("EUR").isEmpty());
+        verify(currencyRepository, times(1)).findAll();
+
+        nanos.addAndGet(MAX_AGE.toNanos());
+
+        // No stale read and no background thread: the expired read itself gets the new table.
+        assertTrue(service.findByCode("EUR").isPresent());
+        assertSame(service.registry(), service.registry());
+        verify(currencyRepository, times(2)).findAll();
     }
 }
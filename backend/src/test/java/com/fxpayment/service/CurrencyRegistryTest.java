@@ -0,0 +1,86 @@
+package com.fxpayment.service;
+
+import com.fxpayment.model.Currency;
+import com.fxpayment.model.CurrencyEntity;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.fxpayment.utils.TestDataFactory.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CurrencyRegistryTest {
+
+    @Test
+    void shouldKeepListOrderAndFindEveryCode() {
+        CurrencyEntity eur = eurCurrency();
+        CurrencyEntity usd = usdCurrency();
+        CurrencyEntity gbp = gbpCurrency();
+
+        CurrencyRegistry registry = CurrencyRegistry.of(List.of(eur, usd, gbp));
+
+        assertEquals(List.of(Currency.of(eur), Currency.of(usd), Currency.of(gbp)), registry.currencies());
+        assertSame(registry.currencies().get(0), registry.find("EUR").orElseThrow());
+        assertSame(registry.currencies().get(1), registry.find("USD").orElseThrow());
+        assertSame(registry.currencies().get(2), registry.find("GBP").orElseThrow());
+    }
+
+    @Test
+    void registryShouldNotChangeWhenALoadedEntityDoes() {
+        CurrencyEntity usd = usdCurrency();
+        CurrencyRegistry registry = CurrencyRegistry.of(List.of(usd));
+
+        usd.updateFees(new BigDecimal("0.5000"), new BigDecimal("99.0000"));
+
+        assertEquals(new BigDecimal("0.0100"), registry.find("USD").orElseThrow().feeRate());
+        assertEquals(new BigDecimal("5.0000"), registry.feeSchedule("USD").orElseThrow().feeFor(new BigDecimal("100.00")));
+    }
+
+    @Test
+    void unknownOrMalformedCodesShouldNotBeFound() {
+        CurrencyRegistry registry = CurrencyRegistry.of(List.of(usdCurrency()));
+
+        assertTrue(registry.find(UNSUPPORTED_CURRENCY).isEmpty());
+        assertTrue(registry.find("usd").isEmpty());
+        assertTrue(registry.find("US").isEmpty());
+        assertTrue(registry.find("USDX").isEmpty());
+        assertTrue(registry.find("U$D").isEmpty());
+        assertTrue(registry.find(null).isEmpty());
+    }
+
+    @Test
+    void slotsShouldCoverTheWholeCodeSpaceWithoutCollisions() {
+        assertEquals(0, CurrencyRegistry.slot("AAA"));
+        assertEquals(1, CurrencyRegistry.slot("AAB"));
+        assertEquals(26, CurrencyRegistry.slot("ABA"));
+        assertEquals(CurrencyRegistry.SLOTS - 1, CurrencyRegistry.slot("ZZZ"));
+        assertEquals(-1, CurrencyRegistry.slot("[AA"));
+        assertEquals(-1, CurrencyRegistry.slot("@AA"));
+    }
+
+    @Test
+    void feeSchedulesShouldBeCompiledPerCurrency() {
+        CurrencyRegistry registry = CurrencyRegistry.of(List.of(usdCurrency(), eurCurrency()), List.of(
+                aFeeBand("USD", "1000").rate(new BigDecimal("0.005000")).build(),
+                aFeeBand("USD", "0").rate(new BigDecimal("0.020000")).build(),
+                aFeeBand(UNSUPPORTED_CURRENCY, "0").build()));
+
+        assertEquals(2, registry.feeSchedule("USD").orElseThrow().bandCount());
+        assertEquals(new BigDecimal("5.0000"), registry.feeSchedule("USD").orElseThrow().feeFor(new BigDecimal("1000.00")));
+        assertEquals(1, registry.feeSchedule("EUR").orElseThrow().bandCount());
+        assertTrue(registry.feeSchedule(UNSUPPORTED_CURRENCY).isEmpty());
+    }
+
+    @Test
+    void registryShouldNotChangeWhenSourceListDoes() {
+        List<CurrencyEntity> source = new ArrayList<>(List.of(usdCurrency()));
+        CurrencyRegistry registry = CurrencyRegistry.of(source);
+
+        source.add(eurCurrency());
+
+        assertEquals(1, registry.currencies().size());
+        assertThrows(UnsupportedOperationException.class, () -> registry.currencies().add(Currency.of(gbpCurrency())));
+    }
+}
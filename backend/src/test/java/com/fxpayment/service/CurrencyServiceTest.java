@@ -1,20 +1,29 @@
 package com.fxpayment.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fxpayment.dto.CurrencyResponse;
 import com.fxpayment.exception.InvalidRequestException;
-import com.fxpayment.model.CurrencyEntity;
+import com.fxpayment.model.Currency;
+import com.fxpayment.util.PrerenderedJson;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.zip.GZIPInputStream;
 
 import static com.fxpayment.utils.TestDataFactory.*;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,13 +32,16 @@ class CurrencyServiceTest {
     @Mock
     private CurrencyLookupService currencyLookupService;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private CurrencyService currencyService;
 
     @Test
     void getAllCurrenciesShouldReturnAllFromLookupService() {
-        List<CurrencyEntity> entities = List.of(eurCurrency(), usdCurrency(), gbpCurrency());
-        when(currencyLookupService.findAll()).thenReturn(entities);
+        List<Currency> currencies = List.of(Currency.of(eurCurrency()), Currency.of(usdCurrency()), Currency.of(gbpCurrency()));
+        when(currencyLookupService.findAll()).thenReturn(currencies);
 
         List<CurrencyResponse> result = currencyService.getAllCurrencies();
 
@@ -50,27 +62,27 @@ class CurrencyServiceTest {
 
     @Test
     void findByCodeShouldReturnCurrencyWhenExists() {
-        CurrencyEntity usd = usdCurrency();
+        Currency usd = Currency.of(usdCurrency());
         when(currencyLookupService.findByCode("USD")).thenReturn(Optional.of(usd));
 
-        Optional<CurrencyEntity> result = currencyService.findByCode("USD");
+        Optional<Currency> result = currencyService.findByCode("USD");
 
         assertTrue(result.isPresent());
-        assertEquals("USD", result.get().getCode());
+        assertEquals("USD", result.get().code());
     }
 
     @Test
     void findByCodeShouldReturnEmptyForNonexistentCurrency() {
         when(currencyLookupService.findByCode(UNSUPPORTED_CURRENCY)).thenReturn(Optional.empty());
 
-        Optional<CurrencyEntity> result = currencyService.findByCode(UNSUPPORTED_CURRENCY);
+        Optional<Currency> result = currencyService.findByCode(UNSUPPORTED_CURRENCY);
 
         assertTrue(result.isEmpty());
     }
 
     @Test
     void getDecimalsShouldReturnDecimalsForExistingCurrency() {
-        when(currencyLookupService.findByCode("JPY")).thenReturn(Optional.of(jpyCurrency()));
+        when(currencyLookupService.findByCode("JPY")).thenReturn(Optional.of(Currency.of(jpyCurrency())));
 
         assertEquals(0, currencyService.getDecimals("JPY"));
     }
@@ -85,4 +97,76 @@ class CurrencyServiceTest {
         );
         assertTrue(exception.getMessage().contains(UNSUPPORTED_CURRENCY));
     }
+
+    @Test
+    void getCurrencyDecimalsShouldResolveEveryCode() {
+        when(currencyLookupService.findAll()).thenReturn(List.of(Currency.of(usdCurrency()), Currency.of(jpyCurrency())));
+
+        CurrencyDecimals decimals = currencyService.getCurrencyDecimals();
+
+        assertEquals(2, decimals.decimalsOf("USD"));
+        assertEquals(0, decimals.decimalsOf("JPY"));
+        assertThrows(InvalidRequestException.class, () -> decimals.decimalsOf(UNSUPPORTED_CURRENCY));
+    }
+
+    @Test
+    void getCurrencyDecimalsShouldReuseTableWhileCachedListIsUnchanged() {
+        List<Currency> cached = List.of(Currency.of(usdCurrency()));
+        when(currencyLookupService.findAll()).thenReturn(cached);
+
+        assertSame(currencyService.getCurrencyDecimals(), currencyService.getCurrencyDecimals());
+    }
+
+    @Test
+    void getCurrencyDecimalsShouldRebuildTableWhenCachedListIsReplaced() {
+        Currency usd = Currency.of(usdCurrency());
+        when(currencyLookupService.findAll())
+                .thenReturn(List.of(usd))
+                .thenReturn(List.of(aCurrency().code("USD").decimals((short) 3).buildCurrency()));
+
+        CurrencyDecimals first = currencyService.getCurrencyDecimals();
+        CurrencyDecimals second = currencyService.getCurrencyDecimals();
+
+        assertNotSame(first, second);
+        assertEquals(3, second.decimalsOf("USD"));
+    }
+
+    @Test
+    void currencyVersionShouldBeStableForEqualCurrencies() {
+        when(currencyLookupService.findAll())
+                .thenReturn(List.of(Currency.of(usdCurrency()), Currency.of(eurCurrency())))
+                .thenReturn(List.of(Currency.of(usdCurrency()), Currency.of(eurCurrency())));
+
+        assertEquals(currencyService.getCurrencyVersion(), currencyService.getCurrencyVersion());
+    }
+
+    @Test
+    void currencyVersionShouldChangeWhenDecimalsChange() {
+        when(currencyLookupService.findAll())
+                .thenReturn(List.of(Currency.of(usdCurrency())))
+                .thenReturn(List.of(aCurrency().code("USD").decimals((short) 3).buildCurrency()));
+
+        assertNotEquals(currencyService.getCurrencyVersion(), currencyService.getCurrencyVersion());
+    }
+
+    @Test
+    void renderedCurrenciesShouldHoldJsonAndItsGzipEncoding() throws IOException {
+        when(currencyLookupService.findAll()).thenReturn(List.of(Currency.of(usdCurrency()), Currency.of(jpyCurrency())));
+
+        PrerenderedJson rendered = currencyService.getRenderedCurrencies();
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(currencyService.getAllCurrencies()), rendered.identity());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(rendered.gzip()))) {
+            assertArrayEquals(rendered.identity(), in.readAllBytes());
+        }
+        assertEquals(currencyService.getCurrencyVersion(), rendered.version());
+    }
+
+    @Test
+    void renderedCurrenciesShouldBeRenderedOncePerCachedList() throws IOException {
+        when(currencyLookupService.findAll()).thenReturn(List.of(Currency.of(usdCurrency())));
+
+        assertSame(currencyService.getRenderedCurrencies(), currencyService.getRenderedCurrencies());
+        verify(objectMapper, times(1)).writeValueAsBytes(any());
+    }
 }
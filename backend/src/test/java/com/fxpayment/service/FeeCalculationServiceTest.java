@@ -1,6 +1,8 @@
 package com.fxpayment.service;
 
-import com.fxpayment.model.CurrencyEntity;
+import com.fxpayment.model.Currency;
+import com.fxpayment.repository.CurrencyRepository;
+import com.fxpayment.repository.FeeScheduleBandRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -8,14 +10,27 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
 
 import static com.fxpayment.util.PaymentConstants.INTERNAL_SCALE;
 import static com.fxpayment.utils.TestDataFactory.*;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 class FeeCalculationServiceTest {
 
-    private final FeeCalculationService feeCalculationService = new FeeCalculationService();
+    private final FeeCalculationService feeCalculationService = new FeeCalculationService(flatSchedules());
+
+    // Every test currency loaded without fee bands, so each gets its flat single-band schedule.
+    private static CurrencyLookupService flatSchedules() {
+        CurrencyRepository currencyRepository = mock(CurrencyRepository.class);
+        when(currencyRepository.findAll()).thenReturn(List.of(eurCurrency(), usdCurrency(), gbpCurrency(), jpyCurrency(), bhdCurrency()));
+        FeeScheduleBandRepository feeScheduleBandRepository = mock(FeeScheduleBandRepository.class);
+        when(feeScheduleBandRepository.findAll()).thenReturn(List.of());
+        return new CurrencyLookupService(currencyRepository, feeScheduleBandRepository, Duration.ofHours(1));
+    }
 
     @ParameterizedTest(name = "{0} {1} -> fee {2}")
     @CsvSource({
@@ -38,7 +53,7 @@ class FeeCalculationServiceTest {
             "50.000,   BHD, 2.0000",
     })
     void shouldCalculateCorrectFee(String amount, String currencyCode, String expectedFee) {
-        CurrencyEntity currency = CURRENCIES.get(currencyCode);
+        Currency currency = CURRENCIES.get(currencyCode);
 
         BigDecimal fee = feeCalculationService.calculateFee(new BigDecimal(amount), currency);
 
@@ -61,9 +76,9 @@ class FeeCalculationServiceTest {
             "BHD, 4",
     })
     void feeScaleShouldBeInternalPrecisionForAllCurrencies(String currencyCode, int expectedScale) {
-        CurrencyEntity currency = CURRENCIES.get(currencyCode);
+        Currency currency = CURRENCIES.get(currencyCode);
 
-        BigDecimal amount = currency.getDecimals() == 0
+        BigDecimal amount = currency.decimals() == 0
                 ? new BigDecimal("100000")
                 : new BigDecimal("1000.00");
 
@@ -98,7 +113,7 @@ class FeeCalculationServiceTest {
             "500.50,    USD, 5.0050",
     })
     void shouldHandleRoundingAndMinimumFeeEdgeCases(String amount, String currencyCode, String expectedFee) {
-        CurrencyEntity currency = CURRENCIES.get(currencyCode);
+        Currency currency = CURRENCIES.get(currencyCode);
 
         BigDecimal fee = feeCalculationService.calculateFee(new BigDecimal(amount), currency);
 
@@ -129,10 +144,10 @@ class FeeCalculationServiceTest {
 
         @Test
         void nullFeeRateShouldReturnZeroAtInternalScale() {
-            CurrencyEntity noRate = aCurrency()
+            Currency noRate = aCurrency()
                     .code("TST").name("Test").feeRate(null)
                     .minimumFee(new BigDecimal("1.0000")).decimals((short) 2)
-                    .build();
+                    .buildCurrency();
 
             BigDecimal fee = feeCalculationService.calculateFee(new BigDecimal("100.00"), noRate);
 
@@ -148,10 +163,10 @@ class FeeCalculationServiceTest {
 
         @Test
         void nullMinimumFeeShouldFallBackToZeroMinimum() {
-            CurrencyEntity noMinimum = aCurrency()
+            Currency noMinimum = aCurrency()
                     .code("TST").name("Test").feeRate(new BigDecimal("0.0100"))
                     .minimumFee(null).decimals((short) 2)
-                    .build();
+                    .buildCurrency();
 
             BigDecimal fee = feeCalculationService.calculateFee(new BigDecimal("1000.00"), noMinimum);
 
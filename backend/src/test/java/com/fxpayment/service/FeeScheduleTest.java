@@ -0,0 +1,115 @@
+package com.fxpayment.service;
+
+import com.fxpayment.model.Currency;
+import com.fxpayment.model.FeeScheduleBand;
+import com.fxpayment.util.MoneyUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Random;
+
+import static com.fxpayment.utils.TestDataFactory.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FeeScheduleTest {
+
+    // USD flat 1% / min 5 below 1000; then 0.5% + 2 fixed; from 10000, 0.25% min 30 capped at 100.
+    private static final List<FeeScheduleBand> TIERED_USD = List.of(
+            aFeeBand("USD", "10000").rate(new BigDecimal("0.002500"))
+                    .minimumFee(new BigDecimal("30")).maximumFee(new BigDecimal("100")).build(),
+            aFeeBand("USD", "1000").rate(new BigDecimal("0.005000")).fixedFee(new BigDecimal("2")).build());
+
+    private static BigDecimal legacyFee(BigDecimal amount, Currency currency) {
+        if (currency.feeRate().signum() == 0) {
+            return MoneyUtil.zeroWithInternalScale();
+        }
+        return MoneyUtil.roundToInternalScale(amount.multiply(currency.feeRate()).max(currency.minimumFee()));
+    }
+
+    @ParameterizedTest(name = "{0} -> fee {1}")
+    @CsvSource({
+            "0.01,      5.0000",
+            "999.99,    9.9999",
+            "1000.00,   7.0000",
+            "1000.01,   7.0001",
+            "5000.00,   27.0000",
+            "9999.99,   52.0000",
+            "10000.00,  30.0000",
+            "20000.00,  50.0000",
+            "40000.00,  100.0000",
+            "1000000,   100.0000",
+    })
+    void shouldChargeTheBandContainingTheAmount(String amount, String expectedFee) {
+        FeeSchedule schedule = FeeSchedule.of(CURRENCIES.get("USD"), TIERED_USD);
+
+        assertEquals(new BigDecimal(expectedFee), schedule.feeFor(new BigDecimal(amount)));
+    }
+
+    @Test
+    void bandsShouldBeSortedAndPrefixedWithTheFlatBand() {
+        FeeSchedule schedule = FeeSchedule.of(CURRENCIES.get("USD"), TIERED_USD);
+
+        assertEquals(3, schedule.bandCount());
+        assertEquals(0, schedule.bandOf(0));
+        assertEquals(0, schedule.bandOf(9_999_999));
+        assertEquals(1, schedule.bandOf(10_000_000));
+        assertEquals(1, schedule.bandOf(99_999_999));
+        assertEquals(2, schedule.bandOf(100_000_000));
+        assertEquals(2, schedule.bandOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    void bandStartingAtZeroShouldReplaceTheCurrencyRate() {
+        FeeSchedule schedule = FeeSchedule.of(CURRENCIES.get("USD"), List.of(
+                aFeeBand("USD", "0").rate(new BigDecimal("0.020000")).fixedFee(new BigDecimal("0.30")).build()));
+
+        assertEquals(1, schedule.bandCount());
+        assertEquals(new BigDecimal("2.3000"), schedule.feeFor(new BigDecimal("100.00")));
+    }
+
+    @Test
+    void zeroRateFlatScheduleShouldChargeNothing() {
+        Currency free = aCurrency().feeRate(BigDecimal.ZERO).minimumFee(new BigDecimal("5")).buildCurrency();
+
+        assertEquals(MoneyUtil.zeroWithInternalScale(), FeeSchedule.flat(free).feeFor(new BigDecimal("100.00")));
+    }
+
+    @Test
+    void flatScheduleShouldMatchTheSingleRateFormula() {
+        Random random = new Random(42);
+        for (Currency currency : CURRENCIES.values()) {
+            FeeSchedule schedule = FeeSchedule.flat(currency);
+            for (int i = 0; i < 2_000; i++) {
+                BigDecimal amount = BigDecimal.valueOf(random.nextLong(1, 1_000_000L * 10_000L + 1), 4)
+                        .setScale(currency.decimals(), RoundingMode.DOWN);
+                if (amount.signum() == 0) {
+                    continue;
+                }
+                assertEquals(legacyFee(amount, currency), schedule.feeFor(amount),
+                        () -> currency.code() + " " + amount);
+            }
+        }
+    }
+
+    @Test
+    void tieredFeesShouldMatchTheBigDecimalFormula() {
+        Random random = new Random(7);
+        FeeSchedule schedule = FeeSchedule.of(CURRENCIES.get("USD"), TIERED_USD);
+        for (int i = 0; i < 10_000; i++) {
+            BigDecimal amount = BigDecimal.valueOf(random.nextLong(1, 1_000_000L * 100L + 1), 2);
+            FeeScheduleBand band = amount.compareTo(new BigDecimal("10000")) >= 0 ? TIERED_USD.get(0)
+                    : amount.compareTo(new BigDecimal("1000")) >= 0 ? TIERED_USD.get(1) : null;
+            BigDecimal expected = band == null
+                    ? legacyFee(amount, CURRENCIES.get("USD"))
+                    : MoneyUtil.roundToInternalScale(amount.multiply(band.getRate()).add(band.getFixedFee())
+                            .max(band.getMinimumFee())
+                            .min(band.getMaximumFee() != null ? band.getMaximumFee() : amount));
+
+            assertEquals(expected, schedule.feeFor(amount), amount::toPlainString);
+        }
+    }
+}
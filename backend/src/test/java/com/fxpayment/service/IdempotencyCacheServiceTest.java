@@ -1,21 +1,25 @@
 package com.fxpayment.service;
 
+import com.fxpayment.dto.PaymentResponse;
 import com.fxpayment.model.Payment;
-import com.fxpayment.model.PaymentStatus;
 import com.fxpayment.repository.PaymentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import static com.fxpayment.utils.TestDataFactory.*;
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class IdempotencyCacheServiceTest {
@@ -25,62 +29,195 @@ class IdempotencyCacheServiceTest {
     @Mock
     private PaymentRepository paymentRepository;
 
-    @InjectMocks
+    @Mock
+    private CurrencyService currencyService;
+
+    @Mock
+    private IdempotencyStore localStore;
+
+    @Mock
+    private IdempotencyStore sharedStore;
+
+    @Mock
+    private IdempotencyKeyFilter idempotencyKeyFilter;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     private IdempotencyCacheService idempotencyCacheService;
 
-    private String newIdempotencyKey() {
-        return UUID.randomUUID().toString();
+    @BeforeEach
+    void setUp() {
+        lenient().when(localStore.tier()).thenReturn("local");
+        lenient().when(sharedStore.tier()).thenReturn("shared");
+        lenient().when(idempotencyKeyFilter.mightContain(any(UUID.class))).thenReturn(true);
+        idempotencyCacheService = new IdempotencyCacheService(
+                paymentRepository, currencyService, List.of(localStore, sharedStore), idempotencyKeyFilter, meterRegistry);
+    }
+
+    private UUID newIdempotencyKey() {
+        return UUID.randomUUID();
+    }
+
+    private double lookups(String tier, String result) {
+        var counter = meterRegistry.find(IdempotencyCacheService.LOOKUP_METRIC)
+                .tags("tier", tier, "result", result).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    @Test
+    void localHitShouldNotConsultLaterTiers() {
+        UUID idempotencyKey = newIdempotencyKey();
+        PaymentResponse cached = PaymentResponse.from(aPayment().id(PAYMENT_ID).build(), 2);
+        when(localStore.find(idempotencyKey)).thenReturn(Optional.of(cached));
+
+        assertEquals(Optional.of(cached), idempotencyCacheService.findReplay(idempotencyKey));
+
+        verify(sharedStore, never()).find(any(UUID.class));
+        verifyNoInteractions(paymentRepository);
+        assertEquals(1, lookups("local", "hit"));
+    }
+
+    @Test
+    void sharedHitShouldBackfillLocalTier() {
+        UUID idempotencyKey = newIdempotencyKey();
+        PaymentResponse shared = PaymentResponse.from(aPayment().id(PAYMENT_ID).build(), 2);
+        when(localStore.find(idempotencyKey)).thenReturn(Optional.empty());
+        when(sharedStore.find(idempotencyKey)).thenReturn(Optional.of(shared));
+
+        assertEquals(Optional.of(shared), idempotencyCacheService.findReplay(idempotencyKey));
+
+        verify(localStore).save(idempotencyKey, shared);
+        verify(sharedStore, never()).save(any(UUID.class), any());
+        verifyNoInteractions(paymentRepository);
+        assertEquals(1, lookups("local", "miss"));
+        assertEquals(1, lookups("shared", "hit"));
+    }
+
+    // A key written by another node is unknown to this node's filter but present in the shared tier.
+    @Test
+    void sharedTierShouldBeConsultedForKeysTheFilterRulesOut() {
+        UUID idempotencyKey = newIdempotencyKey();
+        PaymentResponse shared = PaymentResponse.from(aPayment().id(PAYMENT_ID).build(), 2);
+        lenient().when(idempotencyKeyFilter.mightContain(idempotencyKey)).thenReturn(false);
+        when(localStore.find(idempotencyKey)).thenReturn(Optional.empty());
+        when(sharedStore.find(idempotencyKey)).thenReturn(Optional.of(shared));
+
+        assertEquals(Optional.of(shared), idempotencyCacheService.findReplay(idempotencyKey));
+        verifyNoInteractions(paymentRepository);
+    }
+
+    @Test
+    void filterShouldOnlySkipThePaymentsFallback() {
+        UUID idempotencyKey = newIdempotencyKey();
+        when(idempotencyKeyFilter.mightContain(idempotencyKey)).thenReturn(false);
+
+        assertTrue(idempotencyCacheService.findReplay(idempotencyKey).isEmpty());
+
+        verify(localStore).find(idempotencyKey);
+        verify(sharedStore).find(idempotencyKey);
+        verifyNoInteractions(paymentRepository);
+        assertEquals(0, lookups(IdempotencyCacheService.DATABASE_TIER, "miss"));
+    }
+
+    @Test
+    void findStoredReplaysShouldAskEachTierOnlyForKeysItsFrontTiersMissed() {
+        UUID localKey = newIdempotencyKey();
+        UUID sharedKey = newIdempotencyKey();
+        UUID newKey = newIdempotencyKey();
+        PaymentResponse local = PaymentResponse.from(aPayment().id(PAYMENT_ID).build(), 2);
+        PaymentResponse shared = PaymentResponse.from(aPayment().id(UUID.fromString(PAYMENT_UUID_2)).build(), 2);
+        when(localStore.findAll(List.of(localKey, sharedKey, newKey))).thenReturn(Map.of(localKey, local));
+        when(sharedStore.findAll(List.of(sharedKey, newKey))).thenReturn(Map.of(sharedKey, shared));
+
+        Map<UUID, PaymentResponse> found = idempotencyCacheService.findStoredReplays(List.of(localKey, sharedKey, newKey));
+
+        assertEquals(Map.of(localKey, local, sharedKey, shared), found);
+        verify(localStore).saveAll(Map.of(sharedKey, shared));
+        verifyNoInteractions(paymentRepository);
+        assertEquals(1, lookups("local", "hit"));
+        assertEquals(2, lookups("local", "miss"));
+        assertEquals(1, lookups("shared", "hit"));
+        assertEquals(1, lookups("shared", "miss"));
     }
 
     @Test
-    void findExistingPaymentShouldReturnPaymentWithAllFields() {
-        String idempotencyKey = newIdempotencyKey();
+    void databaseHitShouldReturnRoundedResponseAndBackfillEveryTier() {
+        UUID idempotencyKey = newIdempotencyKey();
         Payment payment = aPayment().id(PAYMENT_ID).build();
         when(paymentRepository.findByIdempotencyKey(idempotencyKey)).thenReturn(Optional.of(payment));
+        when(currencyService.getDecimals("USD")).thenReturn(2);
 
-        Optional<Payment> result = idempotencyCacheService.findExistingPayment(idempotencyKey);
+        Optional<PaymentResponse> result = idempotencyCacheService.findReplay(idempotencyKey);
 
         assertTrue(result.isPresent());
-        Payment found = result.get();
-        assertEquals(PAYMENT_ID, found.getId());
-        assertEquals(new BigDecimal("100.0000"), found.getAmount());
-        assertEquals("USD", found.getCurrency());
-        assertEquals("John Doe", found.getRecipient());
-        assertEquals(ESTONIAN_IBAN, found.getRecipientAccount());
-        assertEquals(new BigDecimal("5.0000"), found.getProcessingFee());
-        assertEquals(PaymentStatus.COMPLETED, found.getStatus());
+        PaymentResponse found = result.get();
+        assertEquals(PAYMENT_ID, found.id());
+        assertEquals(new BigDecimal("100.00"), found.amount());
+        assertEquals("USD", found.currency());
+        assertEquals("John Doe", found.recipient());
+        assertEquals(new BigDecimal("5.00"), found.processingFee());
+        assertEquals(payment.getCreatedAt(), found.createdAt());
+        verify(localStore).save(idempotencyKey, found);
+        verify(sharedStore).save(idempotencyKey, found);
+        assertEquals(1, lookups(IdempotencyCacheService.DATABASE_TIER, "hit"));
     }
 
     @Test
-    void findExistingPaymentShouldReturnEmptyWhenNotFound() {
-        String idempotencyKey = newIdempotencyKey();
+    void missEverywhereShouldReturnEmptyWithoutBackfill() {
+        UUID idempotencyKey = newIdempotencyKey();
         when(paymentRepository.findByIdempotencyKey(idempotencyKey)).thenReturn(Optional.empty());
 
-        Optional<Payment> result = idempotencyCacheService.findExistingPayment(idempotencyKey);
+        Optional<PaymentResponse> result = idempotencyCacheService.findReplay(idempotencyKey);
 
         assertTrue(result.isEmpty());
+        verify(localStore, never()).save(any(UUID.class), any());
+        verify(sharedStore, never()).save(any(UUID.class), any());
+        verifyNoInteractions(currencyService);
+        assertEquals(1, lookups("local", "miss"));
+        assertEquals(1, lookups("shared", "miss"));
+        assertEquals(1, lookups(IdempotencyCacheService.DATABASE_TIER, "miss"));
     }
 
     @Test
-    void findExistingPaymentShouldReturnDiversePaymentData() {
-        String idempotencyKey = newIdempotencyKey();
+    void databaseHitShouldRoundToZeroDecimalCurrency() {
+        UUID idempotencyKey = newIdempotencyKey();
         Payment payment = aPayment()
                 .id(PAYMENT_ID)
                 .amount(new BigDecimal("999999.0000"))
-                .currency("EUR")
+                .currency("JPY")
                 .recipient(RECIPIENT_WITH_DIACRITICS)
-                .recipientAccount(GERMAN_IBAN)
                 .processingFee(new BigDecimal("0.0000"))
                 .build();
         when(paymentRepository.findByIdempotencyKey(idempotencyKey)).thenReturn(Optional.of(payment));
+        when(currencyService.getDecimals("JPY")).thenReturn(0);
 
-        Optional<Payment> result = idempotencyCacheService.findExistingPayment(idempotencyKey);
+        Optional<PaymentResponse> result = idempotencyCacheService.findReplay(idempotencyKey);
 
         assertTrue(result.isPresent());
-        assertEquals(new BigDecimal("999999.0000"), result.get().getAmount());
-        assertEquals("EUR", result.get().getCurrency());
-        assertEquals(RECIPIENT_WITH_DIACRITICS, result.get().getRecipient());
-        assertEquals(GERMAN_IBAN, result.get().getRecipientAccount());
-        assertEquals(new BigDecimal("0.0000"), result.get().getProcessingFee());
+        assertEquals(new BigDecimal("999999"), result.get().amount());
+        assertEquals(RECIPIENT_WITH_DIACRITICS, result.get().recipient());
+        assertEquals(new BigDecimal("0"), result.get().processingFee());
+    }
+
+    @Test
+    void cacheReplayShouldWriteThroughEveryTier() {
+        UUID idempotencyKey = newIdempotencyKey();
+        PaymentResponse response = PaymentResponse.from(aPayment().id(PAYMENT_ID).build(), 2);
+
+        idempotencyCacheService.cacheReplay(idempotencyKey, response);
+
+        verify(localStore).save(idempotencyKey, response);
+        verify(sharedStore).save(idempotencyKey, response);
+    }
+
+    @Test
+    void cacheReplaysShouldHandWholeBatchToEachTier() {
+        Map<UUID, PaymentResponse> responses = Map.of(
+                newIdempotencyKey(), PaymentResponse.from(aPayment().id(PAYMENT_ID).build(), 2));
+
+        idempotencyCacheService.cacheReplays(responses);
+
+        verify(localStore).saveAll(responses);
+        verify(sharedStore).saveAll(responses);
     }
 }
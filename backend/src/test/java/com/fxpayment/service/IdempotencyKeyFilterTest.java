@@ -0,0 +1,106 @@
+package com.fxpayment.service;
+
+import com.fxpayment.config.PaymentProperties;
+import com.fxpayment.repository.PaymentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyKeyFilterTest {
+
+    private static final UUID STORED_KEY = UUID.fromString("a1b2c3d4-e5f6-7890-abcd-ef1234567890");
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private PaymentCountEstimator paymentCountEstimator;
+
+    private IdempotencyKeyFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = newFilter(true);
+    }
+
+    private IdempotencyKeyFilter newFilter(boolean enabled) {
+        PaymentProperties properties = new PaymentProperties(null, null,
+                new PaymentProperties.IdempotencyFilterProperties(enabled, 1000, 0.01), null, null, null, null, null);
+        return new IdempotencyKeyFilter(paymentRepository, paymentCountEstimator, properties);
+    }
+
+    private static UUID newKey() {
+        return UUID.randomUUID();
+    }
+
+    @Test
+    void everyKeyShouldMightExistBeforeFirstRebuild() {
+        assertTrue(filter.mightContain(newKey()));
+    }
+
+    @Test
+    void rebuildShouldLoadStoredKeysAndRuleOutUnknownOnes() {
+        when(paymentRepository.streamAllIdempotencyKeys()).thenReturn(Stream.of(STORED_KEY));
+
+        filter.rebuild();
+
+        assertTrue(filter.mightContain(STORED_KEY));
+        assertFalse(filter.mightContain(new UUID(0, 0)));
+    }
+
+    @Test
+    void addedKeyShouldBeVisibleAfterRebuild() {
+        when(paymentRepository.streamAllIdempotencyKeys()).thenReturn(Stream.empty());
+        filter.rebuild();
+        UUID key = newKey();
+
+        filter.add(key);
+
+        assertTrue(filter.mightContain(key));
+    }
+
+    @Test
+    void keyAddedDuringRebuildShouldNotBeLost() {
+        UUID concurrentKey = newKey();
+        when(paymentRepository.streamAllIdempotencyKeys()).thenAnswer(_ -> {
+            filter.add(concurrentKey);
+            return Stream.of(STORED_KEY);
+        });
+
+        filter.rebuild();
+
+        assertTrue(filter.mightContain(concurrentKey));
+        assertTrue(filter.mightContain(STORED_KEY));
+    }
+
+    @Test
+    void failedRebuildShouldKeepLookingUpEveryKey() {
+        when(paymentRepository.streamAllIdempotencyKeys())
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"));
+
+        filter.rebuild();
+
+        assertTrue(filter.mightContain(newKey()));
+    }
+
+    @Test
+    void disabledFilterShouldNeverRuleOutKeys() {
+        IdempotencyKeyFilter disabled = newFilter(false);
+
+        disabled.rebuild();
+
+        assertTrue(disabled.mightContain(newKey()));
+        verifyNoInteractions(paymentRepository, paymentCountEstimator);
+    }
+}
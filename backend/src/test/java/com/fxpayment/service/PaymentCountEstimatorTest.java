@@ -0,0 +1,82 @@
+package com.fxpayment.service;
+
+import com.fxpayment.repository.PaymentRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentCountEstimatorTest {
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @InjectMocks
+    private PaymentCountEstimator paymentCountEstimator;
+
+    @Test
+    void estimateShouldNeverQueryOnTheCallingThread() {
+        assertEquals(0L, paymentCountEstimator.estimate());
+        assertEquals(0L, paymentCountEstimator.estimate());
+        verifyNoInteractions(paymentRepository);
+    }
+
+    @Test
+    void refreshShouldLoadDatabaseEstimate() {
+        when(paymentRepository.estimateCount()).thenReturn(42L);
+
+        paymentCountEstimator.refresh();
+
+        assertEquals(42L, paymentCountEstimator.estimate());
+        verify(paymentRepository, never()).count();
+    }
+
+    @Test
+    void recordedInsertsShouldIncrementEstimateWithoutQuerying() {
+        when(paymentRepository.estimateCount()).thenReturn(10L);
+        paymentCountEstimator.refresh();
+
+        paymentCountEstimator.recordInserted(1);
+        paymentCountEstimator.recordInserted(5);
+
+        assertEquals(16L, paymentCountEstimator.estimate());
+        verify(paymentRepository, times(1)).estimateCount();
+    }
+
+    @Test
+    void insertsBeforeFirstLoadShouldNotSkewEstimate() {
+        paymentCountEstimator.recordInserted(3);
+        when(paymentRepository.estimateCount()).thenReturn(3L);
+
+        paymentCountEstimator.refresh();
+
+        assertEquals(3L, paymentCountEstimator.estimate());
+    }
+
+    @Test
+    void refreshShouldPickUpOtherNodesWritesAndReplaceDrift() {
+        when(paymentRepository.estimateCount()).thenReturn(10L, 25L);
+        paymentCountEstimator.refresh();
+        paymentCountEstimator.recordInserted(2);
+
+        paymentCountEstimator.refresh();
+
+        assertEquals(25L, paymentCountEstimator.estimate());
+    }
+
+    @Test
+    void failedRefreshShouldKeepPreviousEstimate() {
+        when(paymentRepository.estimateCount()).thenReturn(10L).thenThrow(new QueryTimeoutException("timeout"));
+        paymentCountEstimator.refresh();
+
+        paymentCountEstimator.refresh();
+
+        assertEquals(10L, paymentCountEstimator.estimate());
+    }
+}
@@ -0,0 +1,102 @@
+package com.fxpayment.service;
+
+import com.fxpayment.annotation.PostgresTest;
+import com.fxpayment.dto.PaymentResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Payment events travel through PostgreSQL NOTIFY even to the node that sent them, which is
+// the path every other node takes.
+@PostgresTest
+@DisplayName("Payment events (PostgreSQL)")
+class PaymentEventChannelPostgresTest {
+
+    @Autowired
+    private PaymentEventChannel paymentEventChannel;
+
+    @Autowired
+    private PaymentEventHub paymentEventHub;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private PaymentEventHub.Subscription subscription;
+
+    @BeforeEach
+    void subscribe() throws InterruptedException {
+        awaitListener();
+        subscription = paymentEventHub.subscribe();
+    }
+
+    @AfterEach
+    void unsubscribe() {
+        subscription.close();
+    }
+
+    private static PaymentResponse aResponse() {
+        return new PaymentResponse(UUID.randomUUID(), new BigDecimal("100.50"), "EUR", "Müller Ödegård",
+                new BigDecimal("5.00"), Instant.parse("2026-03-01T10:15:30.123456Z"),
+                new PaymentResponse.Settlement(UUID.randomUUID(), "JPY", new BigDecimal("15025"), new BigDecimal("149.50000000")));
+    }
+
+    @Test
+    void publishedPaymentsShouldReachSubscribersOnlyAfterCommit() throws InterruptedException {
+        PaymentResponse first = aResponse();
+        PaymentResponse second = aResponse();
+
+        transactionTemplate.executeWithoutResult(_ -> {
+            paymentEventChannel.publish(List.of(first, second));
+            assertNull(poll(Duration.ofMillis(200)));
+        });
+
+        assertEquals(first, poll(Duration.ofSeconds(5)));
+        assertEquals(second, poll(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void rolledBackPaymentsShouldNotBePublished() throws InterruptedException {
+        transactionTemplate.executeWithoutResult(status -> {
+            paymentEventChannel.publish(List.of(aResponse()));
+            status.setRollbackOnly();
+        });
+
+        assertNull(poll(Duration.ofMillis(500)));
+    }
+
+    private PaymentResponse poll(Duration timeout) {
+        try {
+            return subscription.poll(timeout);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    // The listener issues its LISTENs on its own thread after the context has started.
+    private void awaitListener() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM pg_stat_activity
+                WHERE datname = current_database() AND state = 'idle' AND query LIKE '%LISTEN %'""", Integer.class) < 1) {
+            assertTrue(System.nanoTime() < deadline, "notification listener did not start");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.fxpayment.service;
+
+import com.fxpayment.config.PaymentProperties;
+import com.fxpayment.dto.PaymentResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentEventHubTest {
+
+    private static final Duration NO_WAIT = Duration.ZERO;
+
+    private PaymentEventHub hub;
+
+    @BeforeEach
+    void setUp() {
+        hub = new PaymentEventHub(new PaymentProperties(null, null, null, null, null, null,
+                new PaymentProperties.StreamProperties(2, Duration.ofSeconds(15), Duration.ofMinutes(30)), null));
+    }
+
+    private static PaymentResponse aResponse() {
+        return new PaymentResponse(UUID.randomUUID(), new BigDecimal("100.00"), "USD", "John Doe",
+                new BigDecimal("5.00"), Instant.now());
+    }
+
+    @Test
+    void everySubscriberShouldReceiveEachPaymentInOrder() throws InterruptedException {
+        PaymentEventHub.Subscription first = hub.subscribe();
+        PaymentEventHub.Subscription second = hub.subscribe();
+        PaymentResponse a = aResponse();
+        PaymentResponse b = aResponse();
+
+        hub.publish(a);
+        hub.publish(b);
+
+        assertEquals(a, first.poll(NO_WAIT));
+        assertEquals(b, first.poll(NO_WAIT));
+        assertEquals(a, second.poll(NO_WAIT));
+        assertNull(first.poll(NO_WAIT));
+        assertTrue(first.isOpen());
+    }
+
+    @Test
+    void subscriberThatFallsAFullBufferBehindShouldBeDropped() throws InterruptedException {
+        PaymentEventHub.Subscription slow = hub.subscribe();
+        PaymentEventHub.Subscription fast = hub.subscribe();
+
+        hub.publish(aResponse());
+        assertNotNull(fast.poll(NO_WAIT));
+        hub.publish(aResponse());
+        assertNotNull(fast.poll(NO_WAIT));
+        hub.publish(aResponse());
+
+        assertFalse(slow.isOpen());
+        assertTrue(slow.isOverflowed());
+        assertNull(slow.poll(NO_WAIT));
+        assertTrue(fast.isOpen());
+        assertNotNull(fast.poll(NO_WAIT));
+        assertEquals(1, hub.subscriberCount());
+    }
+
+    @Test
+    void waitingPollShouldWakeOnPublish() throws Exception {
+        PaymentEventHub.Subscription subscription = hub.subscribe();
+        PaymentResponse payment = aResponse();
+        CompletableFuture<PaymentResponse> next = new CompletableFuture<>();
+        Thread.ofVirtual().start(() -> {
+            try {
+                next.complete(subscription.poll(Duration.ofSeconds(10)));
+            } catch (InterruptedException ex) {
+                next.completeExceptionally(ex);
+            }
+        });
+
+        hub.publish(payment);
+
+        assertEquals(payment, next.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void closeShouldUnsubscribeAndWakeWaitingPoll() throws Exception {
+        PaymentEventHub.Subscription subscription = hub.subscribe();
+        CompletableFuture<PaymentResponse> next = new CompletableFuture<>();
+        Thread.ofVirtual().start(() -> {
+            try {
+                next.complete(subscription.poll(Duration.ofSeconds(10)));
+            } catch (InterruptedException ex) {
+                next.completeExceptionally(ex);
+            }
+        });
+
+        hub.closeAll();
+
+        assertNull(next.get(5, TimeUnit.SECONDS));
+        assertFalse(subscription.isOpen());
+        assertFalse(subscription.isOverflowed());
+        assertEquals(0, hub.subscriberCount());
+    }
+}
@@ -0,0 +1,73 @@
+package com.fxpayment.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fxpayment.dto.PaymentResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PaymentExportWriterTest {
+
+    private static final UUID ID = UUID.fromString("0190a1b2-c3d4-7e5f-8a9b-0c1d2e3f4a5b");
+    private static final Instant CREATED_AT = Instant.parse("2026-03-01T12:00:00Z");
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private static PaymentResponse payment(String recipient) {
+        return new PaymentResponse(ID, new BigDecimal("1250.50"), "EUR", recipient, new BigDecimal("12.51"), CREATED_AT);
+    }
+
+    private String export(PaymentExportFormat format, List<PaymentResponse> payments) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PaymentExportWriter writer = PaymentExportWriter.of(format, out, objectMapper);
+        for (PaymentResponse payment : payments) {
+            writer.write(payment);
+        }
+        writer.finish();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void ndjsonShouldWriteOneObjectPerLine() throws IOException {
+        String json = "{\"id\":\"" + ID + "\",\"amount\":1250.50,\"currency\":\"EUR\",\"recipient\":\"%s\","
+                + "\"processingFee\":12.51,\"createdAt\":\"2026-03-01T12:00:00Z\"}\n";
+
+        String output = export(PaymentExportFormat.NDJSON, List.of(payment("Jane Doe"), payment("Jürgen Groß")));
+
+        assertEquals(json.formatted("Jane Doe") + json.formatted("Jürgen Groß"), output);
+    }
+
+    @Test
+    void csvShouldWriteHeaderAndRowsWithCrlf() throws IOException {
+        String output = export(PaymentExportFormat.CSV, List.of(payment("Jane Doe")));
+
+        assertEquals(CsvPaymentExportWriter.HEADER + "\r\n"
+                + ID + ",1250.50,EUR,Jane Doe,12.51,2026-03-01T12:00:00Z\r\n", output);
+    }
+
+    @Test
+    void csvShouldQuoteFieldsContainingDelimitersOrQuotes() throws IOException {
+        String output = export(PaymentExportFormat.CSV, List.of(payment("Doe, \"JD\" Jane")));
+
+        assertEquals(CsvPaymentExportWriter.HEADER + "\r\n"
+                + ID + ",1250.50,EUR,\"Doe, \"\"JD\"\" Jane\",12.51,2026-03-01T12:00:00Z\r\n", output);
+    }
+
+    @Test
+    void emptyExportShouldWriteOnlyCsvHeader() throws IOException {
+        assertEquals(CsvPaymentExportWriter.HEADER + "\r\n", export(PaymentExportFormat.CSV, List.of()));
+        assertEquals("", export(PaymentExportFormat.NDJSON, List.of()));
+    }
+}
@@ -0,0 +1,47 @@
+package com.fxpayment.service;
+
+import com.fxpayment.config.PaymentProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentRollupFolderTest {
+
+    @Mock
+    private PaymentRollupService paymentRollupService;
+
+    private PaymentRollupFolder folder;
+
+    @BeforeEach
+    void setUp() {
+        PaymentProperties properties = new PaymentProperties(null, null, null, null, null, null, null,
+                new PaymentProperties.RollupProperties(Duration.ofSeconds(5), 100));
+        folder = new PaymentRollupFolder(paymentRollupService, properties);
+    }
+
+    @Test
+    void foldShouldKeepGoingWhileBatchesComeBackFull() {
+        when(paymentRollupService.foldJournal(100)).thenReturn(100, 100, 37);
+
+        folder.fold();
+
+        verify(paymentRollupService, times(3)).foldJournal(100);
+    }
+
+    @Test
+    void failedFoldShouldBeLeftForTheNextInterval() {
+        when(paymentRollupService.foldJournal(100)).thenThrow(new QueryTimeoutException("timeout"));
+
+        folder.fold();
+
+        verify(paymentRollupService).foldJournal(100);
+    }
+}
@@ -0,0 +1,181 @@
+package com.fxpayment.service;
+
+import com.fxpayment.dto.PaymentSummaryFilter;
+import com.fxpayment.dto.PaymentSummaryResponse;
+import com.fxpayment.exception.InvalidRequestException;
+import com.fxpayment.model.Payment;
+import com.fxpayment.model.PaymentDailyRollup;
+import com.fxpayment.model.PaymentRollupJournalEntry;
+import com.fxpayment.model.PaymentStatus;
+import com.fxpayment.repository.DailyRollupDelta;
+import com.fxpayment.repository.PaymentDailyRollupRepository;
+import com.fxpayment.repository.PaymentRollupJournalRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+import static com.fxpayment.utils.TestDataFactory.aCurrency;
+import static com.fxpayment.utils.TestDataFactory.aPayment;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentRollupServiceTest {
+
+    private static final Instant MORNING = Instant.parse("2026-03-01T08:00:00Z");
+    private static final Instant LATE = Instant.parse("2026-03-01T23:59:59.999Z");
+    private static final Instant NEXT_DAY = Instant.parse("2026-03-02T00:00:00Z");
+
+    @Mock
+    private PaymentDailyRollupRepository rollupRepository;
+
+    @Mock
+    private PaymentRollupJournalRepository journalRepository;
+
+    @Mock
+    private CurrencyService currencyService;
+
+    @InjectMocks
+    private PaymentRollupService rollupService;
+
+    @Captor
+    private ArgumentCaptor<Collection<DailyRollupDelta>> deltas;
+
+    private static Payment payment(Instant createdAt, String currency, PaymentStatus status, String amount) {
+        return aPayment().createdAt(createdAt).currency(currency).status(status)
+                .amount(new BigDecimal(amount)).processingFee(new BigDecimal("1.0000")).build();
+    }
+
+    private List<DailyRollupDelta> appendedDeltas() {
+        verify(journalRepository).append(deltas.capture());
+        verifyNoInteractions(rollupRepository);
+        return deltas.getValue().stream()
+                .sorted(Comparator.comparing(DailyRollupDelta::day).thenComparing(DailyRollupDelta::status))
+                .toList();
+    }
+
+    @Test
+    void recordCreatedShouldSumPaymentsPerUtcDayCurrencyAndStatus() {
+        rollupService.recordCreated(List.of(
+                payment(MORNING, "USD", PaymentStatus.COMPLETED, "10.0000"),
+                payment(LATE, "USD", PaymentStatus.COMPLETED, "20.0000"),
+                payment(NEXT_DAY, "USD", PaymentStatus.COMPLETED, "40.0000")));
+
+        assertEquals(List.of(
+                new DailyRollupDelta(LocalDate.parse("2026-03-01"), "USD", PaymentStatus.COMPLETED, 2,
+                        new BigDecimal("30.0000"), new BigDecimal("2.0000")),
+                new DailyRollupDelta(LocalDate.parse("2026-03-02"), "USD", PaymentStatus.COMPLETED, 1,
+                        new BigDecimal("40.0000"), new BigDecimal("1.0000"))), appendedDeltas());
+    }
+
+    @Test
+    void recordMovedShouldTakeFromOldStatusAndSkipUnchanged() {
+        rollupService.recordMoved(List.of(
+                payment(MORNING, "USD", PaymentStatus.PENDING, "10.0000"),
+                payment(MORNING, "USD", PaymentStatus.PROCESSING, "99.0000")), PaymentStatus.PROCESSING);
+
+        LocalDate day = LocalDate.parse("2026-03-01");
+        assertEquals(List.of(
+                new DailyRollupDelta(day, "USD", PaymentStatus.PENDING, -1,
+                        new BigDecimal("-10.0000"), new BigDecimal("-1.0000")),
+                new DailyRollupDelta(day, "USD", PaymentStatus.PROCESSING, 1,
+                        new BigDecimal("10.0000"), new BigDecimal("1.0000"))), appendedDeltas());
+    }
+
+    @Test
+    void recordMovedRowsShouldMoveBetweenGivenStatuses() {
+        rollupService.recordMoved(List.of(aPayment().createdAt(MORNING).currency("EUR").buildRow()),
+                PaymentStatus.PROCESSING, PaymentStatus.FAILED);
+
+        assertEquals(List.of(PaymentStatus.PROCESSING, PaymentStatus.FAILED),
+                appendedDeltas().stream().map(DailyRollupDelta::status).toList());
+    }
+
+    @Test
+    void foldJournalShouldSumEntriesPerBucketThenDeleteThem() {
+        LocalDate day = LocalDate.parse("2026-03-01");
+        when(journalRepository.lockOldest(100)).thenReturn(List.of(
+                new PaymentRollupJournalEntry(1L, day, "USD", PaymentStatus.PENDING, 1, new BigDecimal("10.0000"), new BigDecimal("1.0000")),
+                new PaymentRollupJournalEntry(2L, day, "USD", PaymentStatus.PENDING, 2, new BigDecimal("30.0000"), new BigDecimal("2.0000")),
+                new PaymentRollupJournalEntry(3L, day, "EUR", PaymentStatus.COMPLETED, 1, new BigDecimal("5.0000"), new BigDecimal("0.5000"))));
+
+        assertEquals(3, rollupService.foldJournal(100));
+
+        verify(rollupRepository).applyDeltas(deltas.capture());
+        assertEquals(Set.of(
+                new DailyRollupDelta(day, "USD", PaymentStatus.PENDING, 3, new BigDecimal("40.0000"), new BigDecimal("3.0000")),
+                new DailyRollupDelta(day, "EUR", PaymentStatus.COMPLETED, 1, new BigDecimal("5.0000"), new BigDecimal("0.5000"))),
+                Set.copyOf(deltas.getValue()));
+        verify(journalRepository).deleteAllByIdInBatch(List.of(1L, 2L, 3L));
+    }
+
+    @Test
+    void foldJournalShouldDoNothingWhenJournalIsEmpty() {
+        when(journalRepository.lockOldest(100)).thenReturn(List.of());
+
+        assertEquals(0, rollupService.foldJournal(100));
+
+        verifyNoInteractions(rollupRepository);
+        verify(journalRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void summaryShouldDefaultToLastThirtyDays() {
+        when(currencyService.getCurrencyDecimals()).thenReturn(CurrencyDecimals.of(List.of()));
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+
+        PaymentSummaryResponse summary = rollupService.getSummary(new PaymentSummaryFilter(null, null, null, null));
+
+        assertEquals(today, summary.to());
+        assertEquals(today.minusDays(29), summary.from());
+        verify(rollupRepository).findSummary(today.minusDays(29), today, null, null);
+    }
+
+    @Test
+    void summaryShouldRoundTotalsToCurrencyDecimals() {
+        LocalDate day = LocalDate.parse("2026-03-01");
+        when(currencyService.getCurrencyDecimals()).thenReturn(CurrencyDecimals.of(List.of(aCurrency().code("JPY").decimals((short) 0).buildCurrency())));
+        when(rollupRepository.findSummary(any(), any(), isNull(), any())).thenReturn(List.of(new PaymentDailyRollup(
+                new PaymentDailyRollup.Key(day, "JPY", PaymentStatus.COMPLETED), 3,
+                new BigDecimal("1500.0000"), new BigDecimal("45.0000"))));
+
+        PaymentSummaryResponse summary = rollupService.getSummary(
+                new PaymentSummaryFilter(day, day, null, PaymentStatus.COMPLETED));
+
+        assertEquals(1, summary.days().size());
+        assertEquals(3, summary.days().getFirst().count());
+        assertEquals(new BigDecimal("1500"), summary.days().getFirst().amount());
+        assertEquals(new BigDecimal("45"), summary.days().getFirst().processingFees());
+    }
+
+    @Test
+    void summaryShouldRejectRangesLongerThanAYear() {
+        PaymentSummaryFilter filter = new PaymentSummaryFilter(
+                LocalDate.parse("2025-01-01"), LocalDate.parse("2026-01-02"), null, null);
+
+        assertThrows(InvalidRequestException.class, () -> rollupService.getSummary(filter));
+        verifyNoInteractions(rollupRepository);
+    }
+
+    @Test
+    void summaryShouldRejectFromAfterDefaultedTo() {
+        PaymentSummaryFilter filter = new PaymentSummaryFilter(LocalDate.now(ZoneOffset.UTC).plusDays(1), null, null, null);
+
+        assertThrows(InvalidRequestException.class, () -> rollupService.getSummary(filter));
+    }
+}
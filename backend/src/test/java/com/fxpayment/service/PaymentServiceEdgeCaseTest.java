@@ -1,7 +1,9 @@
 package com.fxpayment.service;
 
+import com.fxpayment.config.PaymentProperties;
 import com.fxpayment.dto.CreatePaymentResult;
 import com.fxpayment.dto.PaymentRequest;
+import com.fxpayment.dto.PaymentRow;
 import com.fxpayment.exception.InvalidRequestException;
 import com.fxpayment.exception.PaymentProcessingException;
 import com.fxpayment.model.Payment;
@@ -12,6 +14,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -22,7 +25,9 @@ import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.support.TransactionCallback;
 import org.springframework.transaction.support.TransactionTemplate;
 import com.fxpayment.repository.PaymentRepository;
+import com.fxpayment.util.SingleFlight;
 
+import java.time.Duration;
 import java.util.UUID;
 
 import static com.fxpayment.utils.TestDataFactory.*;
@@ -42,6 +47,9 @@ class PaymentServiceEdgeCaseTest {
     @Mock
     private FeeCalculationService feeCalculationService;
 
+    @Mock
+    private QuoteService quoteService;
+
     @Mock
     private CurrencyService currencyService;
 
@@ -51,9 +59,27 @@ class PaymentServiceEdgeCaseTest {
     @Mock
     private IdempotencyCacheService idempotencyCacheService;
 
+    @Mock
+    private IdempotencyKeyFilter idempotencyKeyFilter;
+
+    @Mock
+    private PaymentCountEstimator paymentCountEstimator;
+
+    @Mock
+    private PaymentRollupService paymentRollupService;
+
+    @Mock
+    private PaymentEventChannel paymentEventChannel;
+
     @Mock
     private TransactionTemplate transactionTemplate;
 
+    @Spy
+    private SingleFlight<UUID, CreatePaymentResult> paymentSingleFlight = new SingleFlight<>(Duration.ofSeconds(5));
+
+    @Mock
+    private PaymentProperties paymentProperties;
+
     @InjectMocks
     private PaymentService paymentService;
 
@@ -62,6 +88,7 @@ class PaymentServiceEdgeCaseTest {
     @SuppressWarnings("unchecked")
     @BeforeEach
     void setUp() {
+        lenient().when(idempotencyKeyFilter.mightContain(any(UUID.class))).thenReturn(true);
         lenient().when(transactionTemplate.execute(any(TransactionCallback.class)))
                 .thenAnswer(invocation -> {
                     TransactionCallback<CreatePaymentResult> callback = invocation.getArgument(0);
@@ -69,8 +96,8 @@ class PaymentServiceEdgeCaseTest {
                 });
     }
 
-    private String newIdempotencyKey() {
-        return UUID.randomUUID().toString();
+    private UUID newIdempotencyKey() {
+        return UUID.randomUUID();
     }
 
     @Nested
@@ -128,7 +155,7 @@ class PaymentServiceEdgeCaseTest {
         @Test
         @DisplayName("DataAccessException during getAllPayments propagates")
         void databaseFailureDuringGetAllPaymentsShouldPropagate() {
-            when(paymentRepository.findAll(any(Pageable.class)))
+            when(paymentRepository.findRowPage(any(Pageable.class)))
                     .thenThrow(new DataAccessResourceFailureException("Connection refused"));
 
             assertThrows(DataAccessResourceFailureException.class,
@@ -138,7 +165,7 @@ class PaymentServiceEdgeCaseTest {
         @Test
         @DisplayName("QueryTimeoutException during getAllPayments propagates")
         void queryTimeoutDuringGetAllPaymentsShouldPropagate() {
-            when(paymentRepository.findAll(any(Pageable.class)))
+            when(paymentRepository.findRowPage(any(Pageable.class)))
                     .thenThrow(new QueryTimeoutException("Query timed out"));
 
             assertThrows(QueryTimeoutException.class,
@@ -153,12 +180,12 @@ class PaymentServiceEdgeCaseTest {
         @Test
         @DisplayName("deleted currency during response mapping throws InvalidRequestException")
         void deletedCurrencyDuringMappingShouldThrow() {
-            Payment payment = aPayment().id(ID_1).currency("ZZZ").build();
-            Page<Payment> page = new org.springframework.data.domain.PageImpl<>(
-                    java.util.List.of(payment));
-            when(paymentRepository.findAll(any(Pageable.class))).thenReturn(page);
-            when(currencyService.getDecimals("ZZZ"))
-                    .thenThrow(new InvalidRequestException("Currency not found: ZZZ"));
+            PaymentRow row = aPayment().id(ID_1).currency("ZZZ").buildRow();
+            Page<PaymentRow> page = new org.springframework.data.domain.PageImpl<>(
+                    java.util.List.of(row));
+            when(paymentRepository.findRowPage(any(Pageable.class))).thenReturn(page);
+            when(currencyService.getCurrencyDecimals())
+                    .thenReturn(CurrencyDecimals.of(java.util.List.of(CURRENCIES.get("USD"))));
 
             assertThrows(InvalidRequestException.class,
                     () -> paymentService.getAllPayments(0, 20));
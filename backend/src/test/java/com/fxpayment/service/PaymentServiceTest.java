@@ -1,11 +1,19 @@
 package com.fxpayment.service;
 
+import com.fxpayment.config.PaymentProperties;
 import com.fxpayment.exception.InvalidRequestException;
+import com.fxpayment.exception.PaymentNotFoundException;
 import com.fxpayment.exception.PaymentProcessingException;
 import com.fxpayment.dto.CreatePaymentResult;
+import com.fxpayment.dto.CursorPage;
+import com.fxpayment.dto.PaymentCursor;
+import com.fxpayment.dto.PaymentFilter;
 import com.fxpayment.dto.PaymentRequest;
 import com.fxpayment.dto.PaymentResponse;
-import com.fxpayment.model.CurrencyEntity;
+import com.fxpayment.dto.PaymentRow;
+import com.fxpayment.dto.PaymentStatusResponse;
+import com.fxpayment.dto.SliceResponse;
+import com.fxpayment.model.Currency;
 import com.fxpayment.model.Payment;
 import com.fxpayment.model.PaymentStatus;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,26 +22,38 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.support.TransactionCallback;
 import org.springframework.transaction.support.TransactionTemplate;
+import com.fxpayment.repository.IdempotentInsert;
 import com.fxpayment.repository.PaymentRepository;
+import com.fxpayment.util.PaymentConstants;
+import com.fxpayment.util.SingleFlight;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import static com.fxpayment.utils.TestDataFactory.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -49,6 +69,9 @@ class PaymentServiceTest {
     @Mock
     private FeeCalculationService feeCalculationService;
 
+    @Mock
+    private QuoteService quoteService;
+
     @Mock
     private CurrencyService currencyService;
 
@@ -58,9 +81,27 @@ class PaymentServiceTest {
     @Mock
     private IdempotencyCacheService idempotencyCacheService;
 
+    @Mock
+    private IdempotencyKeyFilter idempotencyKeyFilter;
+
+    @Mock
+    private PaymentCountEstimator paymentCountEstimator;
+
+    @Mock
+    private PaymentRollupService paymentRollupService;
+
+    @Mock
+    private PaymentEventChannel paymentEventChannel;
+
     @Mock
     private TransactionTemplate transactionTemplate;
 
+    @Spy
+    private SingleFlight<UUID, CreatePaymentResult> paymentSingleFlight = new SingleFlight<>(Duration.ofSeconds(5));
+
+    @Mock
+    private PaymentProperties paymentProperties;
+
     @InjectMocks
     private PaymentService paymentService;
 
@@ -69,6 +110,7 @@ class PaymentServiceTest {
     @SuppressWarnings("unchecked")
     @BeforeEach
     void setUp() {
+        lenient().when(idempotencyKeyFilter.mightContain(any(UUID.class))).thenReturn(true);
         lenient().when(transactionTemplate.execute(any(TransactionCallback.class)))
                 .thenAnswer(invocation -> {
                     TransactionCallback<CreatePaymentResult> callback = invocation.getArgument(0);
@@ -76,12 +118,12 @@ class PaymentServiceTest {
                 });
     }
 
-    private String newIdempotencyKey() {
-        return UUID.randomUUID().toString();
+    private UUID newIdempotencyKey() {
+        return UUID.randomUUID();
     }
 
     private void stubNoExistingPayment() {
-        when(idempotencyCacheService.findExistingPayment(anyString())).thenReturn(Optional.empty());
+        when(idempotencyCacheService.findReplay(any(UUID.class))).thenReturn(Optional.empty());
     }
 
     private void stubValidation(String code) {
@@ -91,16 +133,21 @@ class PaymentServiceTest {
 
     private void stubDecimals(String code) {
         when(currencyService.getDecimals(code))
-                .thenReturn((int) CURRENCIES.get(code).getDecimals());
+                .thenReturn((int) CURRENCIES.get(code).decimals());
+    }
+
+    private void stubDecimalsTable() {
+        when(currencyService.getCurrencyDecimals())
+                .thenReturn(CurrencyDecimals.of(List.copyOf(CURRENCIES.values())));
     }
 
     @Test
     void createPaymentShouldCalculateFeeAndSave() {
         stubNoExistingPayment();
         stubValidation("USD");
-        when(feeCalculationService.calculateFee(any(BigDecimal.class), any(CurrencyEntity.class))).thenReturn(USD_FEE);
+        when(feeCalculationService.calculateFee(any(BigDecimal.class), any(Currency.class))).thenReturn(USD_FEE);
         Payment savedPayment = aPayment().id(ID_1).build();
-        when(paymentRepository.saveAndFlush(any(Payment.class))).thenReturn(savedPayment);
+        when(paymentRepository.insertIfAbsent(any(Payment.class))).thenReturn(IdempotentInsert.inserted(savedPayment));
 
         CreatePaymentResult result = paymentService.createPayment(newIdempotencyKey(), request);
 
@@ -112,22 +159,22 @@ class PaymentServiceTest {
         assertEquals("USD", response.currency());
         assertEquals("John Doe", response.recipient());
         assertEquals(new BigDecimal("5.00"), response.processingFee());
-        verify(feeCalculationService).calculateFee(any(BigDecimal.class), any(CurrencyEntity.class));
+        verify(feeCalculationService).calculateFee(any(BigDecimal.class), any(Currency.class));
     }
 
     @Test
     void createPaymentShouldPassCorrectDataToRepository() {
         stubNoExistingPayment();
         stubValidation("USD");
-        when(feeCalculationService.calculateFee(any(BigDecimal.class), any(CurrencyEntity.class))).thenReturn(USD_FEE);
+        when(feeCalculationService.calculateFee(any(BigDecimal.class), any(Currency.class))).thenReturn(USD_FEE);
         Payment savedPayment = aPayment().id(ID_1).build();
-        when(paymentRepository.saveAndFlush(any(Payment.class))).thenReturn(savedPayment);
+        when(paymentRepository.insertIfAbsent(any(Payment.class))).thenReturn(IdempotentInsert.inserted(savedPayment));
 
-        String idempotencyKey = newIdempotencyKey();
+        UUID idempotencyKey = newIdempotencyKey();
         paymentService.createPayment(idempotencyKey, request);
 
         ArgumentCaptor<Payment> captor = ArgumentCaptor.forClass(Payment.class);
-        verify(paymentRepository).saveAndFlush(captor.capture());
+        verify(paymentRepository).insertIfAbsent(captor.capture());
         Payment captured = captor.getValue();
         assertEquals(new BigDecimal("100.00"), captured.getAmount());
         assertEquals("USD", captured.getCurrency());
@@ -139,12 +186,67 @@ class PaymentServiceTest {
     }
 
     @Test
-    void getAllPaymentsShouldReturnPagedResponses() {
+    void createPaymentInAsyncModeShouldPersistPendingAndReportPending() {
+        when(paymentProperties.processing()).thenReturn(new PaymentProperties.ProcessingProperties(
+                true, 1, 100, Duration.ofMillis(500), Duration.ofMinutes(5)));
+        stubNoExistingPayment();
+        stubValidation("USD");
+        when(feeCalculationService.calculateFee(any(BigDecimal.class), any(Currency.class))).thenReturn(USD_FEE);
+        when(paymentRepository.insertIfAbsent(any(Payment.class)))
+                .thenAnswer(invocation -> IdempotentInsert.inserted(invocation.getArgument(0)));
+
+        CreatePaymentResult result = paymentService.createPayment(newIdempotencyKey(), request);
+
+        assertTrue(result.created());
+        assertTrue(result.pending());
+        ArgumentCaptor<Payment> captor = ArgumentCaptor.forClass(Payment.class);
+        verify(paymentRepository).insertIfAbsent(captor.capture());
+        assertEquals(PaymentStatus.PENDING, captor.getValue().getStatus());
+    }
+
+    @Test
+    void getPaymentShouldReturnRenderedPayment() {
         stubDecimals("USD");
-        Payment payment1 = aPayment().id(ID_1).build();
-        Payment payment2 = aPayment().id(ID_2).processingFee(new BigDecimal("10.0000")).build();
-        Page<Payment> page = new PageImpl<>(List.of(payment1, payment2));
-        when(paymentRepository.findAll(any(Pageable.class))).thenReturn(page);
+        when(paymentRepository.findById(ID_1)).thenReturn(Optional.of(aPayment().id(ID_1).build()));
+
+        PaymentResponse response = paymentService.getPayment(ID_1);
+
+        assertEquals(ID_1, response.id());
+        assertEquals(new BigDecimal("100.00"), response.amount());
+    }
+
+    @Test
+    void getPaymentShouldThrowWhenPaymentMissing() {
+        when(paymentRepository.findById(ID_1)).thenReturn(Optional.empty());
+
+        assertThrows(PaymentNotFoundException.class, () -> paymentService.getPayment(ID_1));
+    }
+
+    @Test
+    void getPaymentStatusShouldReturnCurrentStatus() {
+        Payment payment = aPayment().id(ID_1).status(PaymentStatus.PROCESSING).build();
+        when(paymentRepository.findById(ID_1)).thenReturn(Optional.of(payment));
+
+        PaymentStatusResponse status = paymentService.getPaymentStatus(ID_1);
+
+        assertEquals(ID_1, status.id());
+        assertEquals(PaymentStatus.PROCESSING, status.status());
+    }
+
+    @Test
+    void getPaymentStatusShouldThrowWhenPaymentMissing() {
+        when(paymentRepository.findById(ID_1)).thenReturn(Optional.empty());
+
+        assertThrows(PaymentNotFoundException.class, () -> paymentService.getPaymentStatus(ID_1));
+    }
+
+    @Test
+    void getAllPaymentsShouldReturnPagedResponses() {
+        stubDecimalsTable();
+        PaymentRow payment1 = aPayment().id(ID_1).buildRow();
+        PaymentRow payment2 = aPayment().id(ID_2).processingFee(new BigDecimal("10.0000")).buildRow();
+        Page<PaymentRow> page = new PageImpl<>(List.of(payment1, payment2));
+        when(paymentRepository.findRowPage(any(Pageable.class))).thenReturn(page);
 
         Page<PaymentResponse> responses = paymentService.getAllPayments(0, 20);
 
@@ -155,14 +257,96 @@ class PaymentServiceTest {
 
     @Test
     void getAllPaymentsShouldReturnEmptyPageWhenNoPayments() {
-        Page<Payment> emptyPage = Page.empty();
-        when(paymentRepository.findAll(any(Pageable.class))).thenReturn(emptyPage);
+        Page<PaymentRow> emptyPage = Page.empty();
+        when(paymentRepository.findRowPage(any(Pageable.class))).thenReturn(emptyPage);
 
         Page<PaymentResponse> responses = paymentService.getAllPayments(0, 20);
 
         assertTrue(responses.getContent().isEmpty());
     }
 
+    @Test
+    void listingVersionShouldChangeWhenNewerPaymentArrives() {
+        when(currencyService.getCurrencyVersion()).thenReturn("v1");
+        when(paymentRepository.findNewest(Limit.of(1)))
+                .thenReturn(List.of(aPayment().id(ID_1).buildRow()))
+                .thenReturn(List.of(aPayment().id(ID_1).buildRow()))
+                .thenReturn(List.of(aPayment().id(ID_2).createdAt(Instant.parse("2025-01-15T10:31:00Z")).buildRow()));
+
+        String first = paymentService.getListingVersion(PaymentConstants.TOTAL_EXACT, null);
+        String unchanged = paymentService.getListingVersion(PaymentConstants.TOTAL_EXACT, null);
+        String afterInsert = paymentService.getListingVersion(PaymentConstants.TOTAL_EXACT, null);
+
+        assertEquals(first, unchanged);
+        assertNotEquals(first, afterInsert);
+        verifyNoInteractions(paymentCountEstimator);
+    }
+
+    @Test
+    void exactListingVersionShouldChangeWhenOlderPaymentCommitsLate() {
+        when(currencyService.getCurrencyVersion()).thenReturn("v1");
+        when(paymentRepository.findNewest(Limit.of(1))).thenReturn(List.of(aPayment().id(ID_1).buildRow()));
+        when(paymentRepository.count()).thenReturn(5L, 6L);
+
+        String before = paymentService.getListingVersion(PaymentConstants.TOTAL_EXACT, null);
+        String afterLateCommit = paymentService.getListingVersion(PaymentConstants.TOTAL_EXACT, null);
+
+        assertNotEquals(before, afterLateCommit);
+    }
+
+    @Test
+    void exactListingVersionShouldUseCountItIsGiven() {
+        when(currencyService.getCurrencyVersion()).thenReturn("v1");
+        when(paymentRepository.findNewest(Limit.of(1))).thenReturn(List.of(aPayment().id(ID_1).buildRow()));
+        when(paymentRepository.count()).thenReturn(5L);
+
+        String counted = paymentService.getListingVersion(PaymentConstants.TOTAL_EXACT, null);
+        String given = paymentService.getListingVersion(PaymentConstants.TOTAL_EXACT, 5L);
+
+        assertEquals(counted, given);
+        verify(paymentRepository, times(1)).count();
+    }
+
+    @Test
+    void listingVersionShouldFollowCurrencyVersionAndEstimate() {
+        when(paymentRepository.findNewest(Limit.of(1))).thenReturn(List.of());
+        when(currencyService.getCurrencyVersion()).thenReturn("v1", "v2", "v2", "v2");
+        when(paymentCountEstimator.estimate()).thenReturn(10L, 11L);
+
+        String exact = paymentService.getListingVersion(PaymentConstants.TOTAL_EXACT, null);
+        String afterCurrencyChange = paymentService.getListingVersion(PaymentConstants.TOTAL_EXACT, null);
+        String estimated = paymentService.getListingVersion(PaymentConstants.TOTAL_ESTIMATED, null);
+        String afterEstimateMoved = paymentService.getListingVersion(PaymentConstants.TOTAL_ESTIMATED, null);
+
+        assertNotEquals(exact, afterCurrencyChange);
+        assertNotEquals(afterCurrencyChange, estimated);
+        assertNotEquals(estimated, afterEstimateMoved);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void filteredListingShouldSortByRequestedFieldWithIdTiebreaker() {
+        PaymentFilter filter = new PaymentFilter("EUR", null, null, null, null, null, "amount", "asc");
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        when(paymentRepository.findRowPage(any(Specification.class), pageable.capture())).thenReturn(Page.empty());
+
+        paymentService.getAllPayments(filter, 2, 10);
+
+        assertEquals(PageRequest.of(2, 10, Sort.by(Sort.Direction.ASC, "amount", "id")), pageable.getValue());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void unfilteredListingShouldUseNewestFirstQuery() {
+        PaymentFilter filter = new PaymentFilter(null, null, null, null, null, null, "createdAt", "desc");
+        when(paymentRepository.findRowPage(any(Pageable.class))).thenReturn(Page.empty());
+
+        paymentService.getAllPayments(filter, 0, 20);
+
+        verify(paymentRepository).findRowPage(PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt", "id")));
+        verify(paymentRepository, never()).findRowPage(any(Specification.class), any(Pageable.class));
+    }
+
     @Test
     void createPaymentShouldDelegateValidation() {
         stubNoExistingPayment();
@@ -173,21 +357,21 @@ class PaymentServiceTest {
         assertThrows(InvalidRequestException.class,
                 () -> paymentService.createPayment(newIdempotencyKey(), badRequest));
         verify(paymentValidationService).resolveAndValidateCurrency(badRequest);
-        verify(paymentRepository, never()).save(any(Payment.class));
+        verify(paymentRepository, never()).insertIfAbsent(any(Payment.class));
     }
 
     @Test
     void createPaymentShouldAcceptWholeAmountForZeroDecimalCurrency() {
         stubNoExistingPayment();
         stubValidation("JPY");
-        when(feeCalculationService.calculateFee(any(BigDecimal.class), any(CurrencyEntity.class)))
+        when(feeCalculationService.calculateFee(any(BigDecimal.class), any(Currency.class)))
                 .thenReturn(new BigDecimal("500.0000"));
         PaymentRequest jpyRequest = aPaymentRequest()
                 .amount(new BigDecimal("10000")).currency("JPY").build();
         Payment savedPayment = aPayment().id(ID_1)
                 .amount(new BigDecimal("10000.0000")).currency("JPY")
                 .processingFee(new BigDecimal("500.0000")).build();
-        when(paymentRepository.saveAndFlush(any(Payment.class))).thenReturn(savedPayment);
+        when(paymentRepository.insertIfAbsent(any(Payment.class))).thenReturn(IdempotentInsert.inserted(savedPayment));
 
         CreatePaymentResult result = paymentService.createPayment(newIdempotencyKey(), jpyRequest);
 
@@ -204,14 +388,14 @@ class PaymentServiceTest {
     void createPaymentShouldAcceptThreeDecimalPlacesForBHD() {
         stubNoExistingPayment();
         stubValidation("BHD");
-        when(feeCalculationService.calculateFee(any(BigDecimal.class), any(CurrencyEntity.class)))
+        when(feeCalculationService.calculateFee(any(BigDecimal.class), any(Currency.class)))
                 .thenReturn(new BigDecimal("2.0000"));
         PaymentRequest bhdRequest = aPaymentRequest()
                 .amount(new BigDecimal("100.500")).currency("BHD").build();
         Payment savedPayment = aPayment().id(ID_1)
                 .amount(new BigDecimal("100.5000")).currency("BHD")
                 .processingFee(new BigDecimal("2.0000")).build();
-        when(paymentRepository.saveAndFlush(any(Payment.class))).thenReturn(savedPayment);
+        when(paymentRepository.insertIfAbsent(any(Payment.class))).thenReturn(IdempotentInsert.inserted(savedPayment));
 
         CreatePaymentResult result = paymentService.createPayment(newIdempotencyKey(), bhdRequest);
 
@@ -228,12 +412,12 @@ class PaymentServiceTest {
     void createPaymentWithSwedishIbanShouldSucceed() {
         stubNoExistingPayment();
         stubValidation("USD");
-        when(feeCalculationService.calculateFee(any(BigDecimal.class), any(CurrencyEntity.class))).thenReturn(USD_FEE);
+        when(feeCalculationService.calculateFee(any(BigDecimal.class), any(Currency.class))).thenReturn(USD_FEE);
         PaymentRequest sweRequest = aPaymentRequest()
                 .amount(new BigDecimal("250.00")).recipientAccount(SWEDISH_IBAN).build();
         Payment savedPayment = aPayment().id(ID_1)
                 .amount(new BigDecimal("250.00")).recipientAccount(SWEDISH_IBAN).build();
-        when(paymentRepository.saveAndFlush(any(Payment.class))).thenReturn(savedPayment);
+        when(paymentRepository.insertIfAbsent(any(Payment.class))).thenReturn(IdempotentInsert.inserted(savedPayment));
 
         CreatePaymentResult result = paymentService.createPayment(newIdempotencyKey(), sweRequest);
 
@@ -244,12 +428,12 @@ class PaymentServiceTest {
     void createPaymentWithGermanIbanShouldSucceed() {
         stubNoExistingPayment();
         stubValidation("USD");
-        when(feeCalculationService.calculateFee(any(BigDecimal.class), any(CurrencyEntity.class))).thenReturn(USD_FEE);
+        when(feeCalculationService.calculateFee(any(BigDecimal.class), any(Currency.class))).thenReturn(USD_FEE);
         PaymentRequest deRequest = aPaymentRequest()
                 .amount(new BigDecimal("750.00")).recipientAccount(GERMAN_IBAN).build();
         Payment savedPayment = aPayment().id(ID_1)
                 .amount(new BigDecimal("750.00")).recipientAccount(GERMAN_IBAN).build();
-        when(paymentRepository.saveAndFlush(any(Payment.class))).thenReturn(savedPayment);
+        when(paymentRepository.insertIfAbsent(any(Payment.class))).thenReturn(IdempotentInsert.inserted(savedPayment));
 
         CreatePaymentResult result = paymentService.createPayment(newIdempotencyKey(), deRequest);
 
@@ -260,38 +444,37 @@ class PaymentServiceTest {
     void createPaymentShouldPassCorrectIbanToRepository() {
         stubNoExistingPayment();
         stubValidation("USD");
-        when(feeCalculationService.calculateFee(any(BigDecimal.class), any(CurrencyEntity.class))).thenReturn(USD_FEE);
+        when(feeCalculationService.calculateFee(any(BigDecimal.class), any(Currency.class))).thenReturn(USD_FEE);
         PaymentRequest sweRequest = aPaymentRequest().recipientAccount(SWEDISH_IBAN).build();
         Payment savedPayment = aPayment().id(ID_1).recipientAccount(SWEDISH_IBAN).build();
-        when(paymentRepository.saveAndFlush(any(Payment.class))).thenReturn(savedPayment);
+        when(paymentRepository.insertIfAbsent(any(Payment.class))).thenReturn(IdempotentInsert.inserted(savedPayment));
 
         paymentService.createPayment(newIdempotencyKey(), sweRequest);
 
         ArgumentCaptor<Payment> captor = ArgumentCaptor.forClass(Payment.class);
-        verify(paymentRepository).saveAndFlush(captor.capture());
+        verify(paymentRepository).insertIfAbsent(captor.capture());
         assertEquals(SWEDISH_IBAN, captor.getValue().getRecipientAccount());
     }
 
     @Test
     void duplicateIdempotencyKeyShouldReturnExistingPayment() {
-        stubDecimals("USD");
-        String idempotencyKey = newIdempotencyKey();
-        Payment existingPayment = aPayment().id(ID_1).build();
-        when(idempotencyCacheService.findExistingPayment(idempotencyKey)).thenReturn(Optional.of(existingPayment));
+        UUID idempotencyKey = newIdempotencyKey();
+        PaymentResponse existingPayment = PaymentResponse.from(aPayment().id(ID_1).build(), 2);
+        when(idempotencyCacheService.findReplay(idempotencyKey)).thenReturn(Optional.of(existingPayment));
 
         CreatePaymentResult result = paymentService.createPayment(idempotencyKey, request);
 
         assertFalse(result.created());
         assertEquals(ID_1, result.response().id());
-        verify(paymentRepository, never()).save(any(Payment.class));
+        verify(paymentRepository, never()).insertIfAbsent(any(Payment.class));
+        verify(transactionTemplate, never()).execute(any());
     }
 
     @Test
     void duplicateIdempotencyKeyShouldNotCalculateFee() {
-        stubDecimals("USD");
-        String idempotencyKey = newIdempotencyKey();
-        Payment existingPayment = aPayment().id(ID_1).build();
-        when(idempotencyCacheService.findExistingPayment(idempotencyKey)).thenReturn(Optional.of(existingPayment));
+        UUID idempotencyKey = newIdempotencyKey();
+        PaymentResponse existingPayment = PaymentResponse.from(aPayment().id(ID_1).build(), 2);
+        when(idempotencyCacheService.findReplay(idempotencyKey)).thenReturn(Optional.of(existingPayment));
 
         paymentService.createPayment(idempotencyKey, request);
 
@@ -300,10 +483,9 @@ class PaymentServiceTest {
 
     @Test
     void existingPaymentShouldSkipValidationAndFeeCalculation() {
-        stubDecimals("USD");
-        String idempotencyKey = newIdempotencyKey();
-        Payment existingPayment = aPayment().id(ID_1).build();
-        when(idempotencyCacheService.findExistingPayment(idempotencyKey)).thenReturn(Optional.of(existingPayment));
+        UUID idempotencyKey = newIdempotencyKey();
+        PaymentResponse existingPayment = PaymentResponse.from(aPayment().id(ID_1).build(), 2);
+        when(idempotencyCacheService.findReplay(idempotencyKey)).thenReturn(Optional.of(existingPayment));
 
         CreatePaymentResult result = paymentService.createPayment(idempotencyKey, request);
 
@@ -313,12 +495,33 @@ class PaymentServiceTest {
         verifyNoInteractions(feeCalculationService);
     }
 
+    @Test
+    void retryOfConsumedQuotePaymentShouldReplayWhenTiersMiss() {
+        UUID idempotencyKey = newIdempotencyKey();
+        UUID quoteId = UUID.randomUUID();
+        stubNoExistingPayment();
+        stubValidation("USD");
+        stubDecimals("USD");
+        // The first attempt consumed the quote; the stores have no trace of it.
+        when(quoteService.findLive(List.of(quoteId))).thenReturn(Map.of());
+        when(paymentRepository.findByIdempotencyKey(idempotencyKey))
+                .thenReturn(Optional.of(aPayment().id(ID_1).idempotencyKey(idempotencyKey).build()));
+
+        CreatePaymentResult result = paymentService.createPayment(idempotencyKey,
+                aPaymentRequest().quoteId(quoteId).build());
+
+        assertFalse(result.created());
+        assertEquals(ID_1, result.response().id());
+        verify(quoteService, never()).lockedQuote(any(PaymentRequest.class), any());
+        verify(paymentRepository, never()).insertIfAbsent(any(Payment.class));
+    }
+
     @Test
     void createPaymentShouldThrowPaymentProcessingExceptionOnDatabaseFailure() {
         stubNoExistingPayment();
         stubValidation("USD");
-        when(feeCalculationService.calculateFee(any(BigDecimal.class), any(CurrencyEntity.class))).thenReturn(USD_FEE);
-        when(paymentRepository.saveAndFlush(any(Payment.class)))
+        when(feeCalculationService.calculateFee(any(BigDecimal.class), any(Currency.class))).thenReturn(USD_FEE);
+        when(paymentRepository.insertIfAbsent(any(Payment.class)))
                 .thenThrow(new DataAccessResourceFailureException("Connection refused"));
 
         assertThrows(PaymentProcessingException.class,
@@ -328,7 +531,7 @@ class PaymentServiceTest {
     @SuppressWarnings("unchecked")
     @Test
     void createPaymentShouldRetryOnDataIntegrityViolation() {
-        String idempotencyKey = newIdempotencyKey();
+        UUID idempotencyKey = newIdempotencyKey();
         Payment existingPayment = aPayment().id(ID_1).build();
         when(transactionTemplate.execute(any(TransactionCallback.class)))
                 .thenThrow(new DataIntegrityViolationException("Duplicate key"))
@@ -336,22 +539,25 @@ class PaymentServiceTest {
                     TransactionCallback<CreatePaymentResult> callback = invocation.getArgument(0);
                     return callback.doInTransaction(mock(TransactionStatus.class));
                 });
-        when(idempotencyCacheService.findExistingPayment(idempotencyKey))
-                .thenReturn(Optional.of(existingPayment));
-        stubDecimals("USD");
+        when(idempotencyCacheService.findReplay(idempotencyKey))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(PaymentResponse.from(existingPayment, 2)));
 
         CreatePaymentResult result = paymentService.createPayment(idempotencyKey, request);
 
         assertFalse(result.created());
         assertEquals(ID_1, result.response().id());
-        verify(transactionTemplate, times(2)).execute(any(TransactionCallback.class));
+        // The retry's lookup runs before its transaction and finds the winner's record.
+        verify(transactionTemplate, times(1)).execute(any(TransactionCallback.class));
+        verify(idempotencyCacheService, times(2)).findReplay(idempotencyKey);
+        verify(idempotencyKeyFilter, atLeastOnce()).add(idempotencyKey);
     }
 
     @Test
     void createHighValueEurPaymentWithZeroFee() {
         stubNoExistingPayment();
         stubValidation("EUR");
-        when(feeCalculationService.calculateFee(any(BigDecimal.class), any(CurrencyEntity.class)))
+        when(feeCalculationService.calculateFee(any(BigDecimal.class), any(Currency.class)))
                 .thenReturn(new BigDecimal("0.0000"));
         PaymentRequest eurRequest = aPaymentRequest()
                 .amount(new BigDecimal("999999.99"))
@@ -363,7 +569,7 @@ class PaymentServiceTest {
                 .amount(new BigDecimal("999999.9900")).currency("EUR")
                 .recipient(RECIPIENT_WITH_DIACRITICS).recipientAccount(GERMAN_IBAN)
                 .processingFee(new BigDecimal("0.0000")).build();
-        when(paymentRepository.saveAndFlush(any(Payment.class))).thenReturn(savedPayment);
+        when(paymentRepository.insertIfAbsent(any(Payment.class))).thenReturn(IdempotentInsert.inserted(savedPayment));
 
         CreatePaymentResult result = paymentService.createPayment(newIdempotencyKey(), eurRequest);
 
@@ -379,7 +585,7 @@ class PaymentServiceTest {
     void createMinimumAmountGbpPaymentWithMinimumFee() {
         stubNoExistingPayment();
         stubValidation("GBP");
-        when(feeCalculationService.calculateFee(any(BigDecimal.class), any(CurrencyEntity.class)))
+        when(feeCalculationService.calculateFee(any(BigDecimal.class), any(Currency.class)))
                 .thenReturn(new BigDecimal("5.0000"));
         PaymentRequest gbpRequest = aPaymentRequest()
                 .amount(new BigDecimal("0.01"))
@@ -391,7 +597,7 @@ class PaymentServiceTest {
                 .amount(new BigDecimal("0.0100")).currency("GBP")
                 .recipient("Li").recipientAccount(FINNISH_IBAN)
                 .processingFee(new BigDecimal("5.0000")).build();
-        when(paymentRepository.saveAndFlush(any(Payment.class))).thenReturn(savedPayment);
+        when(paymentRepository.insertIfAbsent(any(Payment.class))).thenReturn(IdempotentInsert.inserted(savedPayment));
 
         CreatePaymentResult result = paymentService.createPayment(newIdempotencyKey(), gbpRequest);
 
@@ -407,31 +613,31 @@ class PaymentServiceTest {
     void createPaymentShouldNormaliseRecipientWhitespace() {
         stubNoExistingPayment();
         stubValidation("USD");
-        when(feeCalculationService.calculateFee(any(BigDecimal.class), any(CurrencyEntity.class))).thenReturn(USD_FEE);
+        when(feeCalculationService.calculateFee(any(BigDecimal.class), any(Currency.class))).thenReturn(USD_FEE);
         PaymentRequest spaceRequest = aPaymentRequest()
                 .recipient("  Eriksson   Ljungberg  ").build();
         Payment savedPayment = aPayment().id(ID_1)
                 .recipient("Eriksson Ljungberg").build();
-        when(paymentRepository.saveAndFlush(any(Payment.class))).thenReturn(savedPayment);
+        when(paymentRepository.insertIfAbsent(any(Payment.class))).thenReturn(IdempotentInsert.inserted(savedPayment));
 
         paymentService.createPayment(newIdempotencyKey(), spaceRequest);
 
         ArgumentCaptor<Payment> captor = ArgumentCaptor.forClass(Payment.class);
-        verify(paymentRepository).saveAndFlush(captor.capture());
+        verify(paymentRepository).insertIfAbsent(captor.capture());
         assertEquals("Eriksson Ljungberg", captor.getValue().getRecipient());
     }
 
     @Test
     void getAllPaymentsShouldMapFieldsCorrectlyForPagedResults() {
-        stubDecimals("USD");
-        Payment payment = aPayment().id(ID_1)
+        stubDecimalsTable();
+        PaymentRow payment = aPayment().id(ID_1)
                 .amount(new BigDecimal("550.0000"))
                 .recipient("Eriksson Ljungberg")
                 .recipientAccount(SWEDISH_IBAN)
                 .processingFee(new BigDecimal("5.5000"))
-                .build();
-        Page<Payment> page = new PageImpl<>(List.of(payment));
-        when(paymentRepository.findAll(any(Pageable.class))).thenReturn(page);
+                .buildRow();
+        Page<PaymentRow> page = new PageImpl<>(List.of(payment));
+        when(paymentRepository.findRowPage(any(Pageable.class))).thenReturn(page);
 
         Page<PaymentResponse> responses = paymentService.getAllPayments(0, 20);
 
@@ -443,4 +649,232 @@ class PaymentServiceTest {
         assertEquals("Eriksson Ljungberg", response.recipient());
         assertEquals(new BigDecimal("5.50"), response.processingFee());
     }
+
+    @Test
+    void getPaymentsByCursorWithoutCursorShouldStartFromNewest() {
+        stubDecimalsTable();
+        when(paymentRepository.findNewest(Limit.of(3)))
+                .thenReturn(List.of(aPayment().id(ID_1).buildRow()));
+
+        CursorPage<PaymentResponse> result = paymentService.getPaymentsByCursor(null, 2);
+
+        assertEquals(1, result.content().size());
+        assertEquals(ID_1, result.content().get(0).id());
+        assertNull(result.nextCursor());
+        verify(paymentRepository, never()).findOlderThan(any(), any(), any());
+    }
+
+    @Test
+    void getPaymentsByCursorShouldReturnNextCursorPointingAtLastReturnedRow() {
+        stubDecimalsTable();
+        Instant newer = Instant.parse("2025-01-15T10:30:02Z");
+        Instant older = Instant.parse("2025-01-15T10:30:01Z");
+        PaymentRow first = aPayment().id(ID_1).createdAt(newer).buildRow();
+        PaymentRow second = aPayment().id(ID_2).createdAt(older).buildRow();
+        PaymentRow lookahead = aPayment().id(UUID.randomUUID()).createdAt(older).buildRow();
+        when(paymentRepository.findNewest(Limit.of(3))).thenReturn(List.of(first, second, lookahead));
+
+        CursorPage<PaymentResponse> result = paymentService.getPaymentsByCursor(null, 2);
+
+        assertEquals(2, result.content().size());
+        assertEquals(new PaymentCursor(older, ID_2), PaymentCursor.decode(result.nextCursor()));
+    }
+
+    @Test
+    void getPaymentsByCursorShouldSeekFromDecodedPosition() {
+        stubDecimalsTable();
+        Instant createdAt = Instant.parse("2025-01-15T10:30:00Z");
+        String cursor = new PaymentCursor(createdAt, ID_1).encode();
+        when(paymentRepository.findOlderThan(createdAt, ID_1, Limit.of(21)))
+                .thenReturn(List.of(aPayment().id(ID_2).buildRow()));
+
+        CursorPage<PaymentResponse> result = paymentService.getPaymentsByCursor(cursor, 20);
+
+        assertEquals(ID_2, result.content().get(0).id());
+        assertNull(result.nextCursor());
+    }
+
+    @Test
+    void filteredCursorPageShouldSeekThroughSpecificationWithLookahead() {
+        stubDecimalsTable();
+        PaymentFilter filter = new PaymentFilter("EUR", null, null, null, null, null, null, null);
+        Instant older = Instant.parse("2025-01-15T10:30:01Z");
+        PaymentRow first = aPayment().id(ID_1).currency("EUR").buildRow();
+        PaymentRow second = aPayment().id(ID_2).currency("EUR").createdAt(older).buildRow();
+        when(paymentRepository.findRowSlice(any(), eq(PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "createdAt", "id")))))
+                .thenReturn(new SliceImpl<>(List.of(first, second), PageRequest.of(0, 2), true));
+
+        CursorPage<PaymentResponse> result = paymentService.getPaymentsByCursor(filter, null, 2);
+
+        assertEquals(2, result.content().size());
+        assertEquals(new PaymentCursor(older, ID_2), PaymentCursor.decode(result.nextCursor()));
+        verify(paymentRepository, never()).findNewest(any());
+    }
+
+    @Test
+    void cursorPageShouldRejectOrdersTheCursorCannotContinue() {
+        PaymentFilter byAmount = new PaymentFilter(null, null, null, null, null, null, "amount", null);
+
+        assertThrows(InvalidRequestException.class,
+                () -> paymentService.getPaymentsByCursor(byAmount, null, 20));
+        verifyNoInteractions(paymentRepository);
+    }
+
+    @Test
+    void getPaymentsByCursorShouldRejectInvalidCursor() {
+        assertThrows(InvalidRequestException.class,
+                () -> paymentService.getPaymentsByCursor("garbage", 20));
+        verifyNoInteractions(paymentRepository);
+    }
+
+    @Test
+    void createPaymentShouldRecordInsertInCountEstimateAndRollups() {
+        stubNoExistingPayment();
+        stubValidation("USD");
+        when(feeCalculationService.calculateFee(any(BigDecimal.class), any(Currency.class))).thenReturn(USD_FEE);
+        Payment inserted = aPayment().id(ID_1).build();
+        when(paymentRepository.insertIfAbsent(any(Payment.class))).thenReturn(IdempotentInsert.inserted(inserted));
+
+        paymentService.createPayment(newIdempotencyKey(), request);
+
+        verify(paymentCountEstimator).recordInserted(1);
+        verify(paymentRollupService).recordCreated(List.of(inserted));
+        verify(paymentEventChannel).publish(argThat(responses -> responses.getFirst().id().equals(ID_1)));
+    }
+
+    @Test
+    void getAllPaymentsWithEstimatedTotalShouldUseEstimateInsteadOfCount() {
+        stubDecimalsTable();
+        Pageable pageable = PageRequest.of(0, 2);
+        when(paymentRepository.findRowSlice(any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(aPayment().id(ID_1).buildRow(), aPayment().id(ID_2).buildRow()), pageable, true));
+        when(paymentCountEstimator.estimate()).thenReturn(1_000L);
+
+        Page<PaymentResponse> responses = paymentService.getAllPaymentsWithEstimatedTotal(0, 2);
+
+        assertEquals(2, responses.getContent().size());
+        assertEquals(1_000L, responses.getTotalElements());
+        assertEquals(500, responses.getTotalPages());
+        verify(paymentRepository, never()).findRowPage(any(Pageable.class));
+        verify(paymentRepository, never()).count();
+    }
+
+    @Test
+    void getAllPaymentsWithEstimatedTotalShouldNotUnderReportRowsAlreadySeen() {
+        stubDecimalsTable();
+        Pageable pageable = PageRequest.of(3, 2);
+        when(paymentRepository.findRowSlice(any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(aPayment().id(ID_1).buildRow(), aPayment().id(ID_2).buildRow()), pageable, true));
+        when(paymentCountEstimator.estimate()).thenReturn(0L);
+
+        Page<PaymentResponse> responses = paymentService.getAllPaymentsWithEstimatedTotal(3, 2);
+
+        assertEquals(9, responses.getTotalElements());
+        assertTrue(responses.hasNext());
+    }
+
+    @Test
+    void getPaymentSliceShouldReportHasNextWithoutTotals() {
+        stubDecimalsTable();
+        Pageable pageable = PageRequest.of(1, 1);
+        when(paymentRepository.findRowSlice(any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(aPayment().id(ID_1).buildRow()), pageable, true));
+
+        SliceResponse<PaymentResponse> slice = paymentService.getPaymentSlice(1, 1);
+
+        assertEquals(1, slice.content().size());
+        assertEquals(ID_1, slice.content().get(0).id());
+        assertEquals(new SliceResponse.SliceMetadata(1, 1, true), slice.page());
+        verifyNoInteractions(paymentCountEstimator);
+    }
+
+    @Test
+    void createPaymentShouldReplayStoredRowWhenInsertFindsExistingKey() {
+        stubNoExistingPayment();
+        stubValidation("USD");
+        stubDecimals("USD");
+        when(feeCalculationService.calculateFee(any(BigDecimal.class), any(Currency.class))).thenReturn(USD_FEE);
+        Payment stored = aPayment().id(ID_2).amount(new BigDecimal("42.0000")).build();
+        when(paymentRepository.insertIfAbsent(any(Payment.class))).thenReturn(IdempotentInsert.existing(stored));
+
+        CreatePaymentResult result = paymentService.createPayment(newIdempotencyKey(), request);
+
+        assertFalse(result.created());
+        assertEquals(ID_2, result.response().id());
+        assertEquals(new BigDecimal("42.00"), result.response().amount());
+        verify(transactionTemplate, times(1)).execute(any());
+        verify(paymentCountEstimator, never()).recordInserted(anyLong());
+        verifyNoInteractions(paymentRollupService, paymentEventChannel);
+    }
+
+    // The filter only knows this node's keys; the store tiers decide whether a key is a replay.
+    @Test
+    void createPaymentShouldReplayFromStoreTiersWhateverTheFilterSays() {
+        UUID idempotencyKey = newIdempotencyKey();
+        lenient().when(idempotencyKeyFilter.mightContain(idempotencyKey)).thenReturn(false);
+        PaymentResponse stored = PaymentResponse.from(aPayment().id(ID_1).build(), 2);
+        when(idempotencyCacheService.findReplay(idempotencyKey)).thenReturn(Optional.of(stored));
+
+        CreatePaymentResult result = paymentService.createPayment(idempotencyKey, request);
+
+        assertFalse(result.created());
+        assertEquals(stored, result.response());
+        verifyNoInteractions(paymentValidationService, transactionTemplate);
+    }
+
+    @Test
+    void createPaymentShouldNotAddKeyWhenTransactionFails() {
+        UUID idempotencyKey = newIdempotencyKey();
+        stubNoExistingPayment();
+        stubValidation("USD");
+        when(feeCalculationService.calculateFee(any(BigDecimal.class), any(Currency.class))).thenReturn(USD_FEE);
+        when(paymentRepository.insertIfAbsent(any(Payment.class)))
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"));
+
+        assertThrows(PaymentProcessingException.class, () -> paymentService.createPayment(idempotencyKey, request));
+
+        verify(idempotencyKeyFilter, never()).add(any(UUID.class));
+    }
+
+    @Test
+    void createPaymentShouldWriteReplayThroughToCacheAfterCommit() {
+        UUID idempotencyKey = newIdempotencyKey();
+        stubNoExistingPayment();
+        stubValidation("USD");
+        when(feeCalculationService.calculateFee(any(BigDecimal.class), any(Currency.class))).thenReturn(USD_FEE);
+        when(paymentRepository.insertIfAbsent(any(Payment.class)))
+                .thenAnswer(invocation -> IdempotentInsert.inserted(invocation.getArgument(0)));
+
+        CreatePaymentResult result = paymentService.createPayment(idempotencyKey, request);
+
+        verify(idempotencyCacheService).cacheReplay(idempotencyKey, result.response());
+    }
+
+    @Test
+    void createPaymentShouldNotCacheReplayWhenTransactionFails() {
+        stubNoExistingPayment();
+        stubValidation("USD");
+        when(feeCalculationService.calculateFee(any(BigDecimal.class), any(Currency.class))).thenReturn(USD_FEE);
+        when(paymentRepository.insertIfAbsent(any(Payment.class)))
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"));
+
+        assertThrows(PaymentProcessingException.class,
+                () -> paymentService.createPayment(newIdempotencyKey(), request));
+
+        verify(idempotencyCacheService, never()).cacheReplay(any(UUID.class), any());
+    }
+
+    @Test
+    void createPaymentShouldReplayInFlightLeaderResultWithoutOwnTransaction() {
+        UUID idempotencyKey = newIdempotencyKey();
+        PaymentResponse leaderResponse = PaymentResponse.from(aPayment().id(ID_1).build(), 2);
+        doReturn(new SingleFlight.Result<>(new CreatePaymentResult(leaderResponse, true), true))
+                .when(paymentSingleFlight).execute(eq(idempotencyKey), any());
+
+        CreatePaymentResult result = paymentService.createPayment(idempotencyKey, request);
+
+        assertFalse(result.created());
+        assertEquals(leaderResponse, result.response());
+        verifyNoInteractions(transactionTemplate, paymentRepository, idempotencyCacheService);
+    }
 }
@@ -2,7 +2,7 @@ package com.fxpayment.service;
 
 import com.fxpayment.dto.PaymentRequest;
 import com.fxpayment.exception.InvalidRequestException;
-import com.fxpayment.model.CurrencyEntity;
+import com.fxpayment.model.Currency;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -37,9 +37,9 @@ class PaymentValidationServiceTest {
         stubCurrency("USD");
         PaymentRequest request = aPaymentRequest().build();
 
-        CurrencyEntity result = paymentValidationService.resolveAndValidateCurrency(request);
+        Currency result = paymentValidationService.resolveAndValidateCurrency(request);
 
-        assertEquals("USD", result.getCode());
+        assertEquals("USD", result.code());
     }
 
     @Test
@@ -67,9 +67,9 @@ class PaymentValidationServiceTest {
         PaymentRequest request = aPaymentRequest()
                 .amount(new BigDecimal("10000")).currency("JPY").build();
 
-        CurrencyEntity result = paymentValidationService.resolveAndValidateCurrency(request);
+        Currency result = paymentValidationService.resolveAndValidateCurrency(request);
 
-        assertEquals("JPY", result.getCode());
+        assertEquals("JPY", result.code());
     }
 
     @Test
@@ -90,9 +90,9 @@ class PaymentValidationServiceTest {
         PaymentRequest request = aPaymentRequest()
                 .amount(new BigDecimal("100.500")).currency("BHD").build();
 
-        CurrencyEntity result = paymentValidationService.resolveAndValidateCurrency(request);
+        Currency result = paymentValidationService.resolveAndValidateCurrency(request);
 
-        assertEquals("BHD", result.getCode());
+        assertEquals("BHD", result.code());
     }
 
     @Test
@@ -125,9 +125,9 @@ class PaymentValidationServiceTest {
         PaymentRequest request = aPaymentRequest()
                 .amount(new BigDecimal("100.99")).currency("EUR").build();
 
-        CurrencyEntity result = paymentValidationService.resolveAndValidateCurrency(request);
+        Currency result = paymentValidationService.resolveAndValidateCurrency(request);
 
-        assertEquals("EUR", result.getCode());
+        assertEquals("EUR", result.code());
     }
 
     @Test
@@ -136,9 +136,9 @@ class PaymentValidationServiceTest {
         PaymentRequest request = aPaymentRequest()
                 .amount(new BigDecimal("200.123")).currency("BHD").build();
 
-        CurrencyEntity result = paymentValidationService.resolveAndValidateCurrency(request);
+        Currency result = paymentValidationService.resolveAndValidateCurrency(request);
 
-        assertEquals("BHD", result.getCode());
+        assertEquals("BHD", result.code());
     }
 
     @Test
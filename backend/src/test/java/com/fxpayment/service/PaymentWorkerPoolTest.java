@@ -0,0 +1,112 @@
+package com.fxpayment.service;
+
+import com.fxpayment.config.PaymentProperties;
+import com.fxpayment.model.Payment;
+import com.fxpayment.model.PaymentStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.fxpayment.utils.TestDataFactory.aPayment;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentWorkerPoolTest {
+
+    private static final Instant CLAIMED_AT = Instant.parse("2026-01-15T10:00:00Z");
+
+    @Mock
+    private PaymentWorkQueue paymentWorkQueue;
+
+    @Mock
+    private PaymentProcessor paymentProcessor;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private PaymentWorkerPool workerPool;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        PaymentProperties properties = new PaymentProperties(null, null, null, null, null,
+                new PaymentProperties.ProcessingProperties(true, 0, 25, Duration.ofMillis(10), Duration.ofMinutes(5)), null, null);
+        workerPool = new PaymentWorkerPool(paymentWorkQueue, paymentProcessor, properties, meterRegistry);
+    }
+
+    private double outcomes(PaymentStatus status) {
+        return meterRegistry.counter(PaymentWorkerPool.OUTCOME_METRIC, "status", status.name()).count();
+    }
+
+    @Test
+    void emptyQueueShouldNotSettleAnything() {
+        when(paymentWorkQueue.claim(25)).thenReturn(new PaymentWorkQueue.Claim(List.of(), CLAIMED_AT));
+
+        assertEquals(0, workerPool.processBatch());
+
+        verify(paymentWorkQueue, never()).settle(any(), any());
+        verifyNoInteractions(paymentProcessor);
+    }
+
+    @Test
+    void shouldSettleWholeBatchGroupedByOutcome() {
+        Payment completed = aPayment().id(UUID.randomUUID()).build();
+        Payment declined = aPayment().id(UUID.randomUUID()).build();
+        Payment crashed = aPayment().id(UUID.randomUUID()).build();
+        when(paymentWorkQueue.claim(25))
+                .thenReturn(new PaymentWorkQueue.Claim(List.of(completed, declined, crashed), CLAIMED_AT));
+        when(paymentProcessor.process(completed)).thenReturn(PaymentStatus.COMPLETED);
+        when(paymentProcessor.process(declined)).thenReturn(PaymentStatus.FAILED);
+        when(paymentProcessor.process(crashed)).thenThrow(new IllegalStateException("rail unavailable"));
+        when(paymentWorkQueue.settle(any(), any())).thenReturn(3);
+
+        assertEquals(3, workerPool.processBatch());
+
+        verify(paymentWorkQueue).settle(Map.of(
+                PaymentStatus.COMPLETED, List.of(completed.getId()),
+                PaymentStatus.FAILED, List.of(declined.getId(), crashed.getId())), CLAIMED_AT);
+        assertEquals(1, outcomes(PaymentStatus.COMPLETED));
+        assertEquals(2, outcomes(PaymentStatus.FAILED));
+    }
+
+    @Test
+    void nonTerminalProcessorResultShouldCountAsFailed() {
+        Payment payment = aPayment().id(UUID.randomUUID()).build();
+        when(paymentWorkQueue.claim(25)).thenReturn(new PaymentWorkQueue.Claim(List.of(payment), CLAIMED_AT));
+        when(paymentProcessor.process(payment)).thenReturn(PaymentStatus.PROCESSING);
+
+        workerPool.processBatch();
+
+        verify(paymentWorkQueue).settle(Map.of(PaymentStatus.FAILED, List.of(payment.getId())), CLAIMED_AT);
+    }
+
+    @Test
+    void startWithoutWorkersShouldNotClaim() {
+        workerPool.start();
+        workerPool.stop();
+
+        verifyNoInteractions(paymentWorkQueue);
+    }
+
+    @Test
+    void startWithAsyncOffShouldNotClaimWhateverTheWorkerCount() {
+        PaymentProperties properties = new PaymentProperties(null, null, null, null, null,
+                new PaymentProperties.ProcessingProperties(false, 4, 25, Duration.ofMillis(10), Duration.ofMinutes(5)), null, null);
+        PaymentWorkerPool syncPool = new PaymentWorkerPool(paymentWorkQueue, paymentProcessor, properties, meterRegistry);
+
+        syncPool.start();
+        syncPool.stop();
+
+        verifyNoInteractions(paymentWorkQueue);
+    }
+}
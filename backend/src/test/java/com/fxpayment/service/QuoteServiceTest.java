@@ -0,0 +1,174 @@
+package com.fxpayment.service;
+
+import com.fxpayment.config.FxProperties;
+import com.fxpayment.dto.PaymentRequest;
+import com.fxpayment.dto.QuoteRequest;
+import com.fxpayment.dto.QuoteResponse;
+import com.fxpayment.exception.InvalidRequestException;
+import com.fxpayment.model.Quote;
+import com.fxpayment.repository.QuoteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.fxpayment.utils.TestDataFactory.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class QuoteServiceTest {
+
+    private static final Duration TTL = Duration.ofMinutes(2);
+
+    @Mock
+    private CurrencyService currencyService;
+
+    @Mock
+    private ExchangeRateService exchangeRateService;
+
+    @Mock
+    private QuoteRepository quoteRepository;
+
+    private final Map<UUID, Quote> stored = new HashMap<>();
+
+    private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2026-03-01T10:00:00Z"));
+
+    private QuoteService quoteService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(currencyService.findByCode(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(CURRENCIES.get(invocation.<String>getArgument(0))));
+        lenient().when(exchangeRateService.snapshot()).thenReturn(RateSnapshot.of(List.of(
+                anExchangeRate("EUR", "USD", "1.08500000"),
+                anExchangeRate("USD", "JPY", "150.20000000"),
+                anExchangeRate("GBP", "EUR", "0.20000000"))));
+        // The table assigns the id on insert; lookups read back what was saved.
+        lenient().when(quoteRepository.save(any(Quote.class))).thenAnswer(invocation -> {
+            Quote quote = invocation.getArgument(0);
+            Quote saved = new Quote(UUID.randomUUID(), quote.getAmount(), quote.getCurrency(),
+                    quote.getSettlementCurrency(), quote.getRate(), quote.getSettlementAmount(), quote.getExpiresAt());
+            stored.put(saved.getId(), saved);
+            return saved;
+        });
+        lenient().when(quoteRepository.findAllById(anyCollection()))
+                .thenAnswer(invocation -> invocation.<Collection<UUID>>getArgument(0).stream()
+                        .map(stored::get).filter(Objects::nonNull).toList());
+        FxProperties properties = new FxProperties(null,
+                new FxProperties.QuoteProperties(TTL, Duration.ofMinutes(10), new BigDecimal("0.005")));
+        quoteService = new QuoteService(new PaymentValidationService(currencyService), currencyService,
+                exchangeRateService, quoteRepository, properties, now::get);
+    }
+
+    private static QuoteRequest quote(String amount, String currency, String settlementCurrency) {
+        return new QuoteRequest(new BigDecimal(amount), currency, settlementCurrency);
+    }
+
+    // What a payment's transaction does: read its quote, then hold the request to it.
+    private QuoteResponse lockedQuote(PaymentRequest request) {
+        return quoteService.lockedQuote(request, request.quoteId() == null
+                ? Map.of() : quoteService.findLive(List.of(request.quoteId())));
+    }
+
+    private static PaymentRequest paymentFor(QuoteResponse quote) {
+        return aPaymentRequest().amount(quote.amount()).currency(quote.currency()).quoteId(quote.id()).build();
+    }
+
+    @Test
+    void quoteShouldApplySpreadAndRoundToSettlementDecimals() {
+        QuoteResponse quote = quoteService.createQuote(quote("100.00", "EUR", "USD"));
+
+        assertEquals(new BigDecimal("1.07957500"), quote.rate());
+        assertEquals(new BigDecimal("107.96"), quote.settlementAmount());
+        assertEquals("EUR", quote.currency());
+        assertEquals("USD", quote.settlementCurrency());
+        assertEquals(now.get().plus(TTL), quote.expiresAt());
+        assertNotNull(quote.id());
+    }
+
+    @Test
+    void quoteShouldUseDerivedInverseAndZeroDecimalCurrencies() {
+        QuoteResponse toJpy = quoteService.createQuote(quote("100.00", "USD", "JPY"));
+        QuoteResponse fromJpy = quoteService.createQuote(quote("15000", "JPY", "USD"));
+
+        assertEquals(new BigDecimal("149.44900000"), toJpy.rate());
+        assertEquals(new BigDecimal("14945"), toJpy.settlementAmount());
+        // 1 / 150.2 = 0.00665779, less the spread.
+        assertEquals(new BigDecimal("0.00662450"), fromJpy.rate());
+        assertEquals(new BigDecimal("99.37"), fromJpy.settlementAmount());
+    }
+
+    @Test
+    void quoteShouldRejectPairsItCannotPrice() {
+        assertThrows(InvalidRequestException.class, () -> quoteService.createQuote(quote("100.00", "GBP", "USD")));
+        assertThrows(InvalidRequestException.class, () -> quoteService.createQuote(quote("100.00", "USD", "USD")));
+        assertThrows(InvalidRequestException.class,
+                () -> quoteService.createQuote(quote("100.00", "USD", UNSUPPORTED_CURRENCY)));
+        assertThrows(InvalidRequestException.class, () -> quoteService.createQuote(quote("100.001", "USD", "JPY")));
+    }
+
+    @Test
+    void quoteShouldRejectAmountsThatConvertToNothing() {
+        InvalidRequestException ex = assertThrows(InvalidRequestException.class,
+                () -> quoteService.createQuote(quote("0.01", "GBP", "EUR")));
+
+        assertTrue(ex.getMessage().contains("too small"));
+    }
+
+    @Test
+    void paymentWithoutQuoteShouldNotLockAnything() {
+        assertNull(lockedQuote(aPaymentRequest().build()));
+    }
+
+    @Test
+    void paymentShouldExecuteAtItsLiveQuote() {
+        QuoteResponse quote = quoteService.createQuote(quote("100.00", "EUR", "USD"));
+
+        assertEquals(quote, lockedQuote(paymentFor(quote)));
+        // Same amount at another scale is the same amount.
+        assertEquals(quote, lockedQuote(aPaymentRequest()
+                .amount(new BigDecimal("100")).currency("EUR").quoteId(quote.id()).build()));
+    }
+
+    @Test
+    void paymentShouldBeRejectedWhenItDoesNotMatchItsQuote() {
+        QuoteResponse quote = quoteService.createQuote(quote("100.00", "EUR", "USD"));
+
+        assertThrows(InvalidRequestException.class, () -> lockedQuote(aPaymentRequest()
+                .amount(new BigDecimal("100.01")).currency("EUR").quoteId(quote.id()).build()));
+        assertThrows(InvalidRequestException.class, () -> lockedQuote(aPaymentRequest()
+                .amount(new BigDecimal("100.00")).currency("GBP").quoteId(quote.id()).build()));
+    }
+
+    @Test
+    void unknownOrExpiredQuoteShouldBeRejected() {
+        QuoteResponse quote = quoteService.createQuote(quote("100.00", "EUR", "USD"));
+
+        assertThrows(InvalidRequestException.class,
+                () -> lockedQuote(aPaymentRequest().quoteId(UUID.randomUUID()).build()));
+
+        now.set(quote.expiresAt().minusNanos(1));
+        assertEquals(quote, lockedQuote(paymentFor(quote)));
+
+        now.set(quote.expiresAt());
+        assertThrows(InvalidRequestException.class, () -> lockedQuote(paymentFor(quote)));
+        assertTrue(quoteService.findLive(List.of(quote.id())).isEmpty());
+    }
+}
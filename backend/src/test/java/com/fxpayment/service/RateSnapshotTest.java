@@ -0,0 +1,60 @@
+package com.fxpayment.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static com.fxpayment.utils.TestDataFactory.anExchangeRate;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateSnapshotTest {
+
+    @Test
+    void storedPairShouldBeFoundInItsDirection() {
+        RateSnapshot snapshot = RateSnapshot.of(List.of(
+                anExchangeRate("EUR", "USD", "1.08500000"),
+                anExchangeRate("GBP", "USD", "1.27000000")));
+
+        assertEquals(Optional.of(new BigDecimal("1.08500000")), snapshot.rate("EUR", "USD"));
+        assertEquals(Optional.of(new BigDecimal("1.27000000")), snapshot.rate("GBP", "USD"));
+    }
+
+    @Test
+    void pairStoredInOneDirectionShouldBeQuotedAtItsInverse() {
+        RateSnapshot snapshot = RateSnapshot.of(List.of(anExchangeRate("EUR", "USD", "1.25000000")));
+
+        assertEquals(Optional.of(new BigDecimal("0.80000000")), snapshot.rate("USD", "EUR"));
+        assertEquals(2, snapshot.size());
+    }
+
+    @Test
+    void storedRateShouldWinOverDerivedInverse() {
+        RateSnapshot snapshot = RateSnapshot.of(List.of(
+                anExchangeRate("EUR", "USD", "1.25000000"),
+                anExchangeRate("USD", "EUR", "0.79000000")));
+
+        assertEquals(Optional.of(new BigDecimal("0.79000000")), snapshot.rate("USD", "EUR"));
+        assertEquals(Optional.of(new BigDecimal("1.25000000")), snapshot.rate("EUR", "USD"));
+    }
+
+    @Test
+    void unknownOrMalformedPairsShouldNotBeFound() {
+        RateSnapshot snapshot = RateSnapshot.of(List.of(
+                anExchangeRate("EUR", "USD", "1.08500000"),
+                anExchangeRate("eur", "GBP", "0.85000000")));
+
+        assertTrue(snapshot.rate("EUR", "GBP").isEmpty());
+        assertTrue(snapshot.rate("GBP", "eur").isEmpty());
+        assertTrue(snapshot.rate("EUR", null).isEmpty());
+        assertTrue(snapshot.rate("ZZZ", "USD").isEmpty());
+        assertEquals(2, snapshot.size());
+    }
+
+    @Test
+    void emptySnapshotShouldHaveNoRates() {
+        assertTrue(RateSnapshot.of(List.of()).rate("EUR", "USD").isEmpty());
+    }
+}
@@ -0,0 +1,117 @@
+package com.fxpayment.service;
+
+import com.fxpayment.config.PaymentProperties;
+import com.fxpayment.dto.PaymentResponse;
+import com.fxpayment.model.IdempotencyReplay;
+import com.fxpayment.repository.IdempotencyReplayRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static com.fxpayment.utils.TestDataFactory.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SharedIdempotencyStoreTest {
+
+    @Mock
+    private IdempotencyReplayRepository replayRepository;
+
+    private SharedIdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        PaymentProperties properties = new PaymentProperties(null, null, null, null,
+                new PaymentProperties.IdempotencyStoreProperties(true, Duration.ofHours(24), Duration.ofHours(1)), null, null, null);
+        store = new SharedIdempotencyStore(replayRepository, properties);
+    }
+
+    private static PaymentResponse aResponse() {
+        return PaymentResponse.from(aPayment().id(UUID.fromString(PAYMENT_UUID_1)).build(), 2);
+    }
+
+    @Test
+    void findShouldRestoreResponseFromStoredRow() {
+        UUID key = UUID.randomUUID();
+        PaymentResponse response = aResponse();
+        when(replayRepository.findById(key)).thenReturn(Optional.of(IdempotencyReplay.of(key, response, Instant.now())));
+
+        assertEquals(Optional.of(response), store.find(key));
+    }
+
+    @Test
+    void lookupFailureShouldBeTreatedAsMiss() {
+        when(replayRepository.findById(any())).thenThrow(new DataAccessResourceFailureException("Connection refused"));
+
+        assertTrue(store.find(UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    void findAllShouldReturnOnlyStoredKeysFromOneQuery() {
+        UUID stored = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        PaymentResponse response = aResponse();
+        when(replayRepository.findAllById(List.of(stored, missing)))
+                .thenReturn(List.of(IdempotencyReplay.of(stored, response, Instant.now())));
+
+        assertEquals(Map.of(stored, response), store.findAll(List.of(stored, missing)));
+    }
+
+    @Test
+    void batchLookupFailureShouldBeTreatedAsMisses() {
+        when(replayRepository.findAllById(anyCollection())).thenThrow(new DataAccessResourceFailureException("Connection refused"));
+
+        assertTrue(store.findAll(List.of(UUID.randomUUID())).isEmpty());
+    }
+
+    @Test
+    void writeFailureShouldNotPropagate() {
+        doThrow(new DataAccessResourceFailureException("Connection refused"))
+                .when(replayRepository).insertAllIfAbsent(anyCollection());
+
+        assertDoesNotThrow(() -> store.save(UUID.randomUUID(), aResponse()));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void saveAllShouldInsertWholeBatchInOneCall() {
+        Map<UUID, PaymentResponse> responses = Map.of(
+                UUID.randomUUID(), aResponse(),
+                UUID.randomUUID(), aResponse());
+
+        store.saveAll(responses);
+
+        ArgumentCaptor<Collection<IdempotencyReplay>> rows = ArgumentCaptor.forClass(Collection.class);
+        verify(replayRepository).insertAllIfAbsent(rows.capture());
+        assertEquals(responses.keySet(),
+                rows.getValue().stream().map(IdempotencyReplay::getIdempotencyKey).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void purgeShouldDeleteRowsOlderThanRetention() {
+        Instant before = Instant.now().minus(Duration.ofHours(24));
+
+        store.purgeExpired();
+
+        ArgumentCaptor<Instant> cutoff = ArgumentCaptor.forClass(Instant.class);
+        verify(replayRepository).deleteStoredBefore(cutoff.capture());
+        assertFalse(cutoff.getValue().isBefore(before));
+        assertTrue(cutoff.getValue().isBefore(Instant.now().minus(Duration.ofHours(23))));
+    }
+}
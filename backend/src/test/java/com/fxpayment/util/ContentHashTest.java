@@ -0,0 +1,25 @@
+package com.fxpayment.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContentHashTest {
+
+    @Test
+    void sameValuesShouldGiveSameHash() {
+        assertEquals(ContentHash.of("USD", 2, null), ContentHash.of("USD", 2, null));
+    }
+
+    @Test
+    void hashShouldBe32HexCharacters() {
+        assertTrue(ContentHash.of("USD").matches("[0-9a-f]{32}"));
+    }
+
+    @Test
+    void partBoundariesShouldMatter() {
+        assertNotEquals(ContentHash.of("ab", "c"), ContentHash.of("a", "bc"));
+    }
+}
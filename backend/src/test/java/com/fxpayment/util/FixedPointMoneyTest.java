@@ -0,0 +1,90 @@
+package com.fxpayment.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static com.fxpayment.util.PaymentConstants.FEE_RATE_SCALE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FixedPointMoneyTest {
+
+    private static final long MAX_AMOUNT_UNITS = FixedPointMoney.toUnits(new BigDecimal(PaymentConstants.MAX_AMOUNT));
+
+    @ParameterizedTest(name = "{0} -> {1}")
+    @CsvSource({
+            "0,          0",
+            "1,          10000",
+            "100.00,     1000000",
+            "0.0001,     1",
+            "5.00005,    50001",
+            "5.00004,    50000",
+            "-5.00005,   -50001",
+            "1E+3,       10000000",
+            "1000000,    10000000000",
+    })
+    void toUnitsShouldScaleAndRoundHalfUp(String value, long expected) {
+        assertEquals(expected, FixedPointMoney.toUnits(new BigDecimal(value)));
+    }
+
+    @Test
+    void toUnitsShouldRejectValuesOutsideLongRange() {
+        assertThrows(ArithmeticException.class, () -> FixedPointMoney.toUnits(new BigDecimal("1E+16")));
+    }
+
+    @Test
+    void toBigDecimalShouldUseInternalScale() {
+        assertEquals(new BigDecimal("5.0050"), FixedPointMoney.toBigDecimal(50050));
+        assertEquals(new BigDecimal("0.0000"), FixedPointMoney.toBigDecimal(0));
+    }
+
+    @ParameterizedTest(name = "{0} / {1} -> {2}")
+    @CsvSource({
+            "14,   10, 1",
+            "15,   10, 2",
+            "16,   10, 2",
+            "-14,  10, -1",
+            "-15,  10, -2",
+            "-16,  10, -2",
+            "0,    10, 0",
+            "499999, 1000000, 0",
+            "500000, 1000000, 1",
+    })
+    void divideHalfUpShouldRoundTiesAwayFromZero(long dividend, long divisor, long expected) {
+        assertEquals(expected, FixedPointMoney.divideHalfUp(dividend, divisor));
+    }
+
+    @Test
+    void arithmeticShouldFailInsteadOfOverflowing() {
+        assertThrows(ArithmeticException.class, () -> FixedPointMoney.multiply(Long.MAX_VALUE / 2, 3, FEE_RATE_SCALE));
+        assertThrows(ArithmeticException.class, () -> FixedPointMoney.add(Long.MAX_VALUE, 1));
+    }
+
+    // Every amount up to MAX_AMOUNT times every fee rate: identical to the BigDecimal path.
+    @Test
+    void multiplyShouldMatchMoneyUtilForRandomAmountsAndRates() {
+        Random random = new Random(2024);
+        for (int i = 0; i < 100_000; i++) {
+            long amountUnits = random.nextLong(0, MAX_AMOUNT_UNITS + 1);
+            long rate = random.nextLong(0, 1_000_001);
+            BigDecimal expected = MoneyUtil.roundToInternalScale(
+                    FixedPointMoney.toBigDecimal(amountUnits).multiply(BigDecimal.valueOf(rate, FEE_RATE_SCALE)));
+
+            assertEquals(expected, FixedPointMoney.toBigDecimal(FixedPointMoney.multiply(amountUnits, rate, FEE_RATE_SCALE)),
+                    () -> amountUnits + " * " + rate);
+        }
+    }
+
+    @Test
+    void multiplyShouldMatchMoneyUtilOnRoundingTies() {
+        // 0.0001 * 0.500000 = 0.00005 exactly: the tie rounds up.
+        assertEquals(1, FixedPointMoney.multiply(1, 500_000, FEE_RATE_SCALE));
+        assertEquals(new BigDecimal("0.0001"),
+                MoneyUtil.roundToInternalScale(new BigDecimal("0.0001").multiply(new BigDecimal("0.500000"))));
+        assertEquals(MAX_AMOUNT_UNITS, FixedPointMoney.multiply(MAX_AMOUNT_UNITS, 1_000_000, FEE_RATE_SCALE));
+    }
+}
@@ -0,0 +1,84 @@
+package com.fxpayment.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScalableBloomFilterTest {
+
+    private static List<UUID> randomKeys(int count) {
+        List<UUID> keys = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            keys.add(UUID.randomUUID());
+        }
+        return keys;
+    }
+
+    @Test
+    void emptyFilterShouldContainNothing() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(100, 0.01);
+
+        assertFalse(filter.mightContain(UUID.randomUUID()));
+        assertEquals(0, filter.approximateSize());
+    }
+
+    @Test
+    void shouldHaveNoFalseNegativesWhenGrowingPastInitialCapacity() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(100, 0.01);
+        List<UUID> keys = randomKeys(5_000);
+        long initialBits = filter.bitSize();
+
+        keys.forEach(filter::put);
+
+        assertTrue(keys.stream().allMatch(filter::mightContain));
+        assertTrue(filter.bitSize() > initialBits);
+    }
+
+    @Test
+    void falsePositiveRateShouldStayNearConfiguredRateAfterGrowth() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+        randomKeys(20_000).forEach(filter::put);
+
+        long falsePositives = randomKeys(20_000).stream().filter(filter::mightContain).count();
+
+        // Configured 1% overall; allow generous slack for randomness.
+        assertTrue(falsePositives < 20_000 * 0.02, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void sequentialKeysShouldNotInflateFalsePositiveRate() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(20_000, 0.01);
+        for (long i = 0; i < 20_000; i++) {
+            filter.put(new UUID(0, i));
+        }
+
+        long falsePositives = 0;
+        for (long i = 20_000; i < 40_000; i++) {
+            falsePositives += filter.mightContain(new UUID(0, i)) ? 1 : 0;
+        }
+
+        assertTrue(falsePositives < 20_000 * 0.02, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void puttingSameKeyTwiceShouldCountOnce() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(100, 0.01);
+        UUID key = UUID.randomUUID();
+
+        filter.put(key);
+        filter.put(key);
+
+        assertEquals(1, filter.approximateSize());
+    }
+
+    @Test
+    void shouldRejectInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(100, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(100, 1));
+    }
+}
@@ -0,0 +1,188 @@
+package com.fxpayment.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>(Duration.ofSeconds(5));
+
+    @Test
+    void singleCallerShouldLeadAndNotShare() {
+        SingleFlight.Result<String> result = singleFlight.execute("key", () -> "value");
+
+        assertEquals("value", result.value());
+        assertFalse(result.shared());
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void concurrentCallersShouldShareLeaderResult() throws Exception {
+        int followers = 4;
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLeader = new CountDownLatch(1);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<SingleFlight.Result<String>> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+                executions.incrementAndGet();
+                leaderStarted.countDown();
+                await(releaseLeader);
+                return "value";
+            }));
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+            List<Thread> followerThreads = new CopyOnWriteArrayList<>();
+            List<Future<SingleFlight.Result<String>>> results = new ArrayList<>();
+            for (int i = 0; i < followers; i++) {
+                results.add(executor.submit(() -> {
+                    followerThreads.add(Thread.currentThread());
+                    return singleFlight.execute("key", () -> {
+                        executions.incrementAndGet();
+                        return "follower ran";
+                    });
+                }));
+            }
+            // A follower only parks while waiting on the leader's result.
+            awaitParked(followerThreads, followers);
+            releaseLeader.countDown();
+
+            assertFalse(leader.get(5, TimeUnit.SECONDS).shared());
+            for (var result : results) {
+                SingleFlight.Result<String> follower = result.get(5, TimeUnit.SECONDS);
+                assertEquals("value", follower.value());
+                assertTrue(follower.shared());
+            }
+        }
+        assertEquals(1, executions.get());
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void followersShouldRunThemselvesWhenLeaderFails() throws Exception {
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLeader = new CountDownLatch(1);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<SingleFlight.Result<String>> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+                leaderStarted.countDown();
+                await(releaseLeader);
+                throw new IllegalStateException("leader failed");
+            }));
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+            Future<SingleFlight.Result<String>> follower =
+                    executor.submit(() -> singleFlight.execute("key", () -> "own value"));
+            releaseLeader.countDown();
+
+            Exception leaderFailure = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, leaderFailure.getCause());
+            SingleFlight.Result<String> result = follower.get(5, TimeUnit.SECONDS);
+            assertEquals("own value", result.value());
+            assertFalse(result.shared());
+        }
+    }
+
+    @Test
+    void followerShouldRunItselfWhenLeaderExceedsTimeout() throws Exception {
+        SingleFlight<String, String> impatient = new SingleFlight<>(Duration.ofMillis(50));
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLeader = new CountDownLatch(1);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.submit(() -> impatient.execute("key", () -> {
+                leaderStarted.countDown();
+                await(releaseLeader);
+                return "leader value";
+            }));
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+            SingleFlight.Result<String> result = impatient.execute("key", () -> "own value");
+            releaseLeader.countDown();
+
+            assertEquals("own value", result.value());
+            assertFalse(result.shared());
+        }
+    }
+
+    @Test
+    void interruptedFollowerShouldGiveUpWithoutRunningAction() throws Exception {
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLeader = new CountDownLatch(1);
+        AtomicInteger followerRuns = new AtomicInteger();
+        AtomicReference<Throwable> followerFailure = new AtomicReference<>();
+        AtomicReference<Boolean> interruptKept = new AtomicReference<>();
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.submit(() -> singleFlight.execute("key", () -> {
+                leaderStarted.countDown();
+                await(releaseLeader);
+                return "leader value";
+            }));
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+            Thread follower = Thread.ofVirtual().start(() -> {
+                try {
+                    singleFlight.execute("key", () -> "own value " + followerRuns.incrementAndGet());
+                } catch (RuntimeException ex) {
+                    followerFailure.set(ex);
+                }
+                interruptKept.set(Thread.currentThread().isInterrupted());
+            });
+            awaitParked(List.of(follower), 1);
+            follower.interrupt();
+            assertTrue(follower.join(Duration.ofSeconds(5)));
+            releaseLeader.countDown();
+        }
+
+        assertInstanceOf(CancellationException.class, followerFailure.get());
+        assertInstanceOf(InterruptedException.class, followerFailure.get().getCause());
+        assertTrue(interruptKept.get());
+        assertEquals(0, followerRuns.get());
+    }
+
+    @Test
+    void differentKeysShouldNotCoalesce() {
+        AtomicInteger executions = new AtomicInteger();
+
+        singleFlight.execute("a", () -> "a" + executions.incrementAndGet());
+        singleFlight.execute("b", () -> "b" + executions.incrementAndGet());
+        singleFlight.execute("a", () -> "a" + executions.incrementAndGet());
+
+        assertEquals(3, executions.get());
+    }
+
+    private static void awaitParked(List<Thread> threads, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (threads.size() < expected
+                || threads.stream().anyMatch(thread -> !isParked(thread))) {
+            assertTrue(System.nanoTime() < deadline, "followers did not start waiting");
+            Thread.sleep(1);
+        }
+    }
+
+    private static boolean isParked(Thread thread) {
+        return thread.getState() == Thread.State.WAITING || thread.getState() == Thread.State.TIMED_WAITING;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+}
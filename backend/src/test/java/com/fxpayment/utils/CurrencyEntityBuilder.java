@@ -1,5 +1,6 @@
 package com.fxpayment.utils;
 
+import com.fxpayment.model.Currency;
 import com.fxpayment.model.CurrencyEntity;
 import lombok.Setter;
 import lombok.experimental.Accessors;
@@ -31,4 +32,8 @@ public final class CurrencyEntityBuilder {
                 .updatedAt(updatedAt)
                 .build();
     }
+
+    public Currency buildCurrency() {
+        return Currency.of(build());
+    }
 }
@@ -0,0 +1,30 @@
+package com.fxpayment.utils;
+
+import com.fxpayment.model.FeeScheduleBand;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.math.BigDecimal;
+
+// Defaults to a USD band from 0 at 1% with no fixed component, minimum or cap.
+@Setter
+@Accessors(fluent = true, chain = true)
+public final class FeeScheduleBandBuilder {
+
+    private String currency = "USD";
+    private BigDecimal lowerBound = BigDecimal.ZERO;
+    private BigDecimal rate = new BigDecimal("0.010000");
+    private BigDecimal fixedFee = BigDecimal.ZERO;
+    private BigDecimal minimumFee = BigDecimal.ZERO;
+    private BigDecimal maximumFee;
+
+    public FeeScheduleBand build() {
+        return FeeScheduleBand.builder()
+                .key(new FeeScheduleBand.Key(currency, lowerBound))
+                .rate(rate)
+                .fixedFee(fixedFee)
+                .minimumFee(minimumFee)
+                .maximumFee(maximumFee)
+                .build();
+    }
+}
@@ -5,6 +5,7 @@ import lombok.Setter;
 import lombok.experimental.Accessors;
 
 import java.math.BigDecimal;
+import java.util.UUID;
 
 // Defaults to a 100 USD payment to "John Doe" at the Estonian IBAN.
 @Setter
@@ -15,8 +16,9 @@ public final class PaymentRequestBuilder {
     private String currency = "USD";
     private String recipient = "John Doe";
     private String recipientAccount = TestDataFactory.ESTONIAN_IBAN;
+    private UUID quoteId;
 
     public PaymentRequest build() {
-        return new PaymentRequest(amount, currency, recipient, recipientAccount);
+        return new PaymentRequest(amount, currency, recipient, recipientAccount, quoteId);
     }
 }
@@ -0,0 +1,75 @@
+package com.fxpayment.utils;
+
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.boot.test.util.TestPropertyValues;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.Optional;
+
+// The PostgreSQL server behind tests of SQL that H2 cannot run: ON CONFLICT, CONCURRENTLY,
+// planner statistics and index choice. POSTGRES_TEST_URL (with POSTGRES_TEST_USERNAME and
+// POSTGRES_TEST_PASSWORD) selects an existing server; otherwise a container of the image
+// docker-compose runs is started once per JVM. With neither, the tests are skipped, except
+// under the ci profile (-Dpostgres.tests.required=true), where that is a failure.
+public final class PostgresTestDatabase implements ExecutionCondition {
+
+    private static final String IMAGE = "postgres:18-alpine";
+    private static final String REQUIRED_PROPERTY = "postgres.tests.required";
+
+    private static boolean resolved;
+    private static Server server;
+
+    public record Server(String url, String username, String password) {}
+
+    public static synchronized Optional<Server> server() {
+        if (!resolved) {
+            server = resolve();
+            resolved = true;
+        }
+        return Optional.ofNullable(server);
+    }
+
+    private static Server resolve() {
+        String url = System.getenv("POSTGRES_TEST_URL");
+        if (url != null && !url.isBlank()) {
+            return new Server(url, System.getenv("POSTGRES_TEST_USERNAME"), System.getenv("POSTGRES_TEST_PASSWORD"));
+        }
+        if (!DockerClientFactory.instance().isDockerAvailable()) {
+            return null;
+        }
+        // Stopped by the Testcontainers reaper when the JVM exits.
+        PostgreSQLContainer<?> container = new PostgreSQLContainer<>(IMAGE);
+        container.start();
+        return new Server(container.getJdbcUrl(), container.getUsername(), container.getPassword());
+    }
+
+    @Override
+    public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+        if (server().isPresent()) {
+            return ConditionEvaluationResult.enabled("PostgreSQL available");
+        }
+        if (Boolean.getBoolean(REQUIRED_PROPERTY)) {
+            throw new IllegalStateException("PostgreSQL tests are required but neither POSTGRES_TEST_URL nor Docker is available");
+        }
+        return ConditionEvaluationResult.disabled("No PostgreSQL: set POSTGRES_TEST_URL or make Docker available");
+    }
+
+    // Points spring.datasource at the server; application-postgres.yml does the rest.
+    public static class Initializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+        @Override
+        public void initialize(ConfigurableApplicationContext context) {
+            Server db = server().orElseThrow(() -> new IllegalStateException("No PostgreSQL server for tests"));
+            TestPropertyValues.of(
+                    "spring.datasource.url=" + db.url(),
+                    "spring.datasource.username=" + db.username(),
+                    "spring.datasource.password=" + (db.password() == null ? "" : db.password())
+            ).applyTo(context);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.fxpayment.utils;
 
+import com.fxpayment.model.Currency;
 import com.fxpayment.model.CurrencyEntity;
+import com.fxpayment.model.ExchangeRate;
 import com.fxpayment.repository.CurrencyRepository;
 
 import java.math.BigDecimal;
@@ -21,13 +23,14 @@ public final class TestDataFactory {
     public static final String PAYMENT_UUID_2 = "00000000-0000-0000-0000-000000000002";
     public static final String PAYMENTS_API_PATH = "/api/v1/payments";
     public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
-
-    public static final Map<String, CurrencyEntity> CURRENCIES = Map.of(
-            "EUR", eurCurrency(),
-            "USD", usdCurrency(),
-            "GBP", gbpCurrency(),
-            "JPY", jpyCurrency(),
-            "BHD", bhdCurrency()
+    public static final String QUOTES_API_PATH = "/api/v1/quotes";
+
+    public static final Map<String, Currency> CURRENCIES = Map.of(
+            "EUR", Currency.of(eurCurrency()),
+            "USD", Currency.of(usdCurrency()),
+            "GBP", Currency.of(gbpCurrency()),
+            "JPY", Currency.of(jpyCurrency()),
+            "BHD", Currency.of(bhdCurrency())
     );
 
     public static PaymentRequestBuilder aPaymentRequest() {
@@ -42,6 +45,17 @@ public final class TestDataFactory {
         return new CurrencyEntityBuilder();
     }
 
+    public static FeeScheduleBandBuilder aFeeBand(String currency, String lowerBound) {
+        return new FeeScheduleBandBuilder().currency(currency).lowerBound(new BigDecimal(lowerBound));
+    }
+
+    public static ExchangeRate anExchangeRate(String baseCurrency, String quoteCurrency, String rate) {
+        return ExchangeRate.builder()
+                .key(new ExchangeRate.Key(baseCurrency, quoteCurrency))
+                .rate(new BigDecimal(rate))
+                .build();
+    }
+
     public static void seedCurrencies(CurrencyRepository currencyRepository) {
         currencyRepository.saveAllAndFlush(List.of(usdCurrency(), eurCurrency(), gbpCurrency()));
     }
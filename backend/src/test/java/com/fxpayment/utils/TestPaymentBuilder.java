@@ -1,5 +1,6 @@
 package com.fxpayment.utils;
 
+import com.fxpayment.dto.PaymentRow;
 import com.fxpayment.model.Payment;
 import com.fxpayment.model.PaymentStatus;
 import lombok.Setter;
@@ -21,7 +22,7 @@ public final class TestPaymentBuilder {
     private String recipient = "John Doe";
     private String recipientAccount = TestDataFactory.ESTONIAN_IBAN;
     private BigDecimal processingFee = new BigDecimal("5.0000");
-    private String idempotencyKey = UUID.randomUUID().toString();
+    private UUID idempotencyKey = UUID.randomUUID();
     private PaymentStatus status = PaymentStatus.COMPLETED;
     private Instant createdAt = Instant.parse("2025-01-15T10:30:00Z");
     private Instant updatedAt;
@@ -40,4 +41,8 @@ public final class TestPaymentBuilder {
                 .updatedAt(updatedAt)
                 .build();
     }
+
+    public PaymentRow buildRow() {
+        return new PaymentRow(id, amount, currency, recipient, processingFee, createdAt);
+    }
 }